@@ -16,7 +16,18 @@ public interface BodyFilter {
         return (contentType, body) -> body;
     }
 
+    /**
+     * The merged filter supports {@link ByteBodyFilter bytes} if both given filters do.
+     *
+     * @param left the outer filter
+     * @param right the inner filter, applied first
+     * @return a filter that applies both given filters
+     */
     static BodyFilter merge(final BodyFilter left, final BodyFilter right) {
+        if (left instanceof ByteBodyFilter && right instanceof ByteBodyFilter) {
+            return new MergedBodyFilter(left, right);
+        }
+
         return (contentType, body) ->
                 left.filter(contentType, right.filter(contentType, body));
     }
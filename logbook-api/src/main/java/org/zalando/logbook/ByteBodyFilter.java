@@ -0,0 +1,84 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link BodyFilter body filter} that operates on encoded bodies directly, rather than forcing them to be decoded
+ * into a {@link String} first. Implementations may implement both {@link BodyFilter} and {@link ByteBodyFilter}, in
+ * which case the byte-level variant is preferred whenever a body is requested as bytes.
+ */
+@API(status = EXPERIMENTAL)
+@FunctionalInterface
+public interface ByteBodyFilter {
+
+    /**
+     * @param contentType the content type of the body, if any
+     * @param body the body, i.e. the {@link ByteBuffer#remaining() remaining} bytes of the given buffer, which must
+     *             not be modified
+     * @param charset the charset the body is encoded in
+     * @return the filtered body, encoded in the given charset, potentially the given buffer itself
+     */
+    ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset);
+
+    default byte[] filter(@Nullable final String contentType, final byte[] body, final Charset charset) {
+        final ByteBuffer filtered = filter(contentType, ByteBuffer.wrap(body), charset);
+
+        if (filtered.hasArray() && filtered.arrayOffset() == 0 && filtered.position() == 0 &&
+                filtered.remaining() == filtered.array().length) {
+            return filtered.array();
+        }
+
+        final byte[] bytes = new byte[filtered.remaining()];
+        filtered.duplicate().get(bytes);
+        return bytes;
+    }
+
+    static ByteBodyFilter none() {
+        return (contentType, body, charset) -> body;
+    }
+
+    static ByteBodyFilter merge(final ByteBodyFilter left, final ByteBodyFilter right) {
+        return (contentType, body, charset) ->
+                left.filter(contentType, right.filter(contentType, body, charset), charset);
+    }
+
+    /**
+     * Adapts the given filter by decoding the body before and encoding it again after filtering.
+     *
+     * @param filter the string-based filter
+     * @return the given filter, if it supports bytes already, or an adapter
+     */
+    static ByteBodyFilter of(final BodyFilter filter) {
+        if (filter instanceof ByteBodyFilter) {
+            return (ByteBodyFilter) filter;
+        }
+
+        return (contentType, body, charset) -> {
+            final String decoded = charset.decode(body.duplicate()).toString();
+            return charset.encode(filter.filter(contentType, decoded));
+        };
+    }
+
+    /**
+     * Adapts the given filter to string bodies, which will be encoded as UTF-8 before filtering.
+     *
+     * @param filter the byte-level filter
+     * @return the given filter, if it supports strings already, or an adapter
+     */
+    static BodyFilter toBodyFilter(final ByteBodyFilter filter) {
+        if (filter instanceof BodyFilter) {
+            return (BodyFilter) filter;
+        }
+
+        return (contentType, body) ->
+                UTF_8.decode(filter.filter(contentType, UTF_8.encode(body), UTF_8)).toString();
+    }
+
+}
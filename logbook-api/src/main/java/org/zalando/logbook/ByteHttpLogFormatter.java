@@ -0,0 +1,19 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link HttpLogFormatter formatter} that is able to produce UTF-8 directly, without creating an intermediate
+ * {@link String}. Implementations are free to reuse their buffers once the {@link ByteHttpLogWriter writer} returns.
+ */
+@API(status = EXPERIMENTAL)
+public interface ByteHttpLogFormatter extends HttpLogFormatter {
+
+    void format(Precorrelation precorrelation, HttpRequest request, ByteHttpLogWriter writer) throws IOException;
+    void format(Correlation correlation, HttpResponse response, ByteHttpLogWriter writer) throws IOException;
+
+}
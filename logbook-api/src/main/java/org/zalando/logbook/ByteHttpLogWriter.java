@@ -0,0 +1,33 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link HttpLogWriter writer} that accepts UTF-8 encoded messages, as produced by a
+ * {@link ByteHttpLogFormatter}.
+ */
+@API(status = EXPERIMENTAL)
+public interface ByteHttpLogWriter extends HttpLogWriter {
+
+    /**
+     * @param precorrelation the request's correlation
+     * @param request the UTF-8 encoded request, i.e. the {@link ByteBuffer#remaining() remaining} bytes of the given
+     *                buffer, which is only valid for the duration of this call
+     * @throws IOException if writing fails
+     */
+    void write(Precorrelation precorrelation, ByteBuffer request) throws IOException;
+
+    /**
+     * @param correlation the response's correlation
+     * @param response the UTF-8 encoded response, i.e. the {@link ByteBuffer#remaining() remaining} bytes of the
+     *                 given buffer, which is only valid for the duration of this call
+     * @throws IOException if writing fails
+     */
+    void write(Correlation correlation, ByteBuffer response) throws IOException;
+
+}
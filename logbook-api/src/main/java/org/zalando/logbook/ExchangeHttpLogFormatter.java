@@ -0,0 +1,50 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link HttpLogFormatter formatter} that is able to render a request and its response as a single record, with
+ * fields that both of them share, e.g. the correlation id, being written only once.
+ */
+@API(status = EXPERIMENTAL)
+public interface ExchangeHttpLogFormatter extends HttpLogFormatter {
+
+    String format(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException;
+
+    /**
+     * Writes the combined record into the given output. Formatters that are able to write into an {@link Appendable}
+     * directly should override this, rather than producing a {@link String} first.
+     *
+     * @param correlation the correlation
+     * @param request the request
+     * @param response the response
+     * @param output the target
+     * @throws IOException if reading bodies or writing fails
+     */
+    default void format(final Correlation correlation, final HttpRequest request, final HttpResponse response,
+            final Appendable output) throws IOException {
+        output.append(format(correlation, request, response));
+    }
+
+    /**
+     * Writes the combined record as UTF-8 into the given writer. Formatters that are able to produce bytes directly
+     * should override this, rather than producing a {@link String} first.
+     *
+     * @param correlation the correlation
+     * @param request the request
+     * @param response the response
+     * @param writer the target
+     * @throws IOException if reading bodies or writing fails
+     */
+    default void format(final Correlation correlation, final HttpRequest request, final HttpResponse response,
+            final ByteHttpLogWriter writer) throws IOException {
+        writer.write(correlation, ByteBuffer.wrap(format(correlation, request, response).getBytes(UTF_8)));
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} that formats requests and responses using a {@link HttpLogFormatter formatter} and accepts
+ * messages that were already formatted by the very same formatter. This allows composites to format once on behalf of
+ * several sinks that share a formatter.
+ */
+@API(status = EXPERIMENTAL)
+public interface FormattingSink extends Sink {
+
+    HttpLogFormatter getFormatter();
+
+    /**
+     * @param precorrelation the request's correlation
+     * @param request the request
+     * @param formatted the request, as formatted by this sink's {@link #getFormatter() formatter}
+     * @throws IOException if writing fails
+     */
+    void writeFormatted(Precorrelation precorrelation, HttpRequest request, String formatted) throws IOException;
+
+    /**
+     * @param correlation the response's correlation
+     * @param request the corresponding request
+     * @param response the response
+     * @param formatted the response, as formatted by this sink's {@link #getFormatter() formatter}
+     * @throws IOException if writing fails
+     */
+    void writeFormatted(Correlation correlation, HttpRequest request, HttpResponse response, String formatted)
+            throws IOException;
+
+}
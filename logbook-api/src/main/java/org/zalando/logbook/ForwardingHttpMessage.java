@@ -49,4 +49,14 @@ public interface ForwardingHttpMessage extends HttpMessage {
         return delegate().getBodyAsString();
     }
 
+    @Override
+    default long getBodyLength() throws IOException {
+        return delegate().getBodyLength();
+    }
+
+    @Override
+    default boolean isBodyTruncated() {
+        return delegate().isBodyTruncated();
+    }
+
 }
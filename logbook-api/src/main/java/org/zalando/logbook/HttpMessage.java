@@ -8,6 +8,7 @@ import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
 @API(status = STABLE)
@@ -30,4 +31,29 @@ public interface HttpMessage {
         return new String(getBody(), getCharset());
     }
 
+    /**
+     * The size of the body as it was transferred, regardless of whether, or how much of, the body was recorded, e.g.
+     * after {@link HttpRequest#withoutBody() withoutBody()}. Adapters count bytes while they are being streamed or,
+     * if a message is logged before its body is transferred, rely on the declared {@code Content-Length}.
+     *
+     * @return the body size in bytes, or {@code -1} if unknown
+     * @throws IOException if reading the body fails
+     */
+    @API(status = EXPERIMENTAL)
+    default long getBodyLength() throws IOException {
+        return getBody().length;
+    }
+
+    /**
+     * Whether the recorded {@link #getBody() body} is only a part of the transferred one, e.g. if just its head and
+     * tail were captured. Such a body contains a marker in place of the omitted bytes, i.e. it's no longer valid in
+     * terms of its {@link #getContentType() content type} and shouldn't be embedded as structured content.
+     *
+     * @return true if parts of the body were omitted, false otherwise
+     */
+    @API(status = EXPERIMENTAL)
+    default boolean isBodyTruncated() {
+        return false;
+    }
+
 }
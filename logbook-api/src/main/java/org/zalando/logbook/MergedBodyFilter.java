@@ -0,0 +1,26 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+@AllArgsConstructor
+final class MergedBodyFilter implements BodyFilter, ByteBodyFilter {
+
+    private final BodyFilter left;
+    private final BodyFilter right;
+
+    @Override
+    public String filter(@Nullable final String contentType, final String body) {
+        return left.filter(contentType, right.filter(contentType, body));
+    }
+
+    @Override
+    public ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset) {
+        return ByteBodyFilter.of(left).filter(contentType,
+                ByteBodyFilter.of(right).filter(contentType, body, charset), charset);
+    }
+
+}
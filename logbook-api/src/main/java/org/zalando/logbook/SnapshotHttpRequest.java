@@ -0,0 +1,60 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * An immutable request that no longer depends on the underlying, possibly recycled, container request.
+ */
+@API(status = INTERNAL)
+@AllArgsConstructor
+@Getter
+public final class SnapshotHttpRequest implements HttpRequest {
+
+    private final String protocolVersion;
+    private final Origin origin;
+    private final Map<String, List<String>> headers;
+    @Nullable
+    private final String contentType;
+    private final Charset charset;
+    private final byte[] body;
+    private final boolean bodyTruncated;
+    private final long bodyLength;
+    private final String remote;
+    private final String method;
+    private final String scheme;
+    private final String host;
+    private final Optional<Integer> port;
+    private final String path;
+    private final String query;
+
+    public static HttpRequest of(final HttpRequest request) throws IOException {
+        return new SnapshotHttpRequest(request.getProtocolVersion(), request.getOrigin(),
+                Headers.immutableCopy(request.getHeaders()), request.getContentType(), request.getCharset(),
+                request.getBody(), request.isBodyTruncated(), request.getBodyLength(), request.getRemote(),
+                request.getMethod(), request.getScheme(), request.getHost(), request.getPort(), request.getPath(),
+                request.getQuery());
+    }
+
+    @Override
+    public HttpRequest withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpRequest withoutBody() {
+        return new SnapshotHttpRequest(protocolVersion, origin, headers, contentType, charset, new byte[0], false,
+                bodyLength, remote, method, scheme, host, port, path, query);
+    }
+
+}
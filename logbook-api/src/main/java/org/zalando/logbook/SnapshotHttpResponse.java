@@ -0,0 +1,51 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * An immutable response that no longer depends on the underlying, possibly recycled, container response.
+ */
+@API(status = INTERNAL)
+@AllArgsConstructor
+@Getter
+public final class SnapshotHttpResponse implements HttpResponse {
+
+    private final String protocolVersion;
+    private final Origin origin;
+    private final Map<String, List<String>> headers;
+    @Nullable
+    private final String contentType;
+    private final Charset charset;
+    private final byte[] body;
+    private final boolean bodyTruncated;
+    private final long bodyLength;
+    private final int status;
+
+    public static HttpResponse of(final HttpResponse response) throws IOException {
+        return new SnapshotHttpResponse(response.getProtocolVersion(), response.getOrigin(),
+                Headers.immutableCopy(response.getHeaders()), response.getContentType(), response.getCharset(),
+                response.getBody(), response.isBodyTruncated(), response.getBodyLength(), response.getStatus());
+    }
+
+    @Override
+    public HttpResponse withBody() {
+        return this;
+    }
+
+    @Override
+    public HttpResponse withoutBody() {
+        return new SnapshotHttpResponse(protocolVersion, origin, headers, contentType, charset, new byte[0], false,
+                bodyLength, status);
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link HttpLogFormatter formatter} that is able to write directly into an {@link Appendable}, e.g. one supplied
+ * by a {@link StreamingHttpLogWriter}, rather than producing a {@link String} first.
+ */
+@API(status = EXPERIMENTAL)
+public interface StreamingHttpLogFormatter extends HttpLogFormatter {
+
+    void format(Precorrelation precorrelation, HttpRequest request, Appendable output) throws IOException;
+    void format(Correlation correlation, HttpResponse response, Appendable output) throws IOException;
+
+}
@@ -0,0 +1,31 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link HttpLogWriter writer} that lets a {@link StreamingHttpLogFormatter} write into its target directly.
+ */
+@API(status = EXPERIMENTAL)
+public interface StreamingHttpLogWriter extends HttpLogWriter {
+
+    void write(Precorrelation precorrelation, Content request) throws IOException;
+    void write(Correlation correlation, Content response) throws IOException;
+
+    @FunctionalInterface
+    interface Content {
+
+        /**
+         * Writes the formatted message, exactly once, into the given output.
+         *
+         * @param output the writer's target
+         * @throws IOException if formatting or writing fails
+         */
+        void writeTo(Appendable output) throws IOException;
+
+    }
+
+}
@@ -92,6 +92,47 @@ public interface StructuredHttpLogFormatter extends HttpLogFormatter {
         return content;
     }
 
+    /**
+     * Produces a map of individual properties from an HTTP request and its response. Fields that both of them share
+     * are kept on the top level, while the remaining ones are nested into a {@code request} and a {@code response}
+     * section.
+     *
+     * @param correlation the correlation
+     * @param request the request
+     * @param response the response
+     * @return a map containing the attributes of both, request and response
+     * @throws IOException if reading bodies fails
+     * @see ExchangeHttpLogFormatter
+     */
+    @API(status = EXPERIMENTAL)
+    default Map<String, Object> prepare(final Correlation correlation, final HttpRequest request,
+            final HttpResponse response) throws IOException {
+
+        final Map<String, Object> content = new LinkedHashMap<>();
+
+        content.put("origin", request.getOrigin().name().toLowerCase(Locale.ROOT));
+        content.put("type", "exchange");
+        content.put("correlation", correlation.getId());
+        content.put("duration", correlation.getDuration().toMillis());
+        content.put("protocol", request.getProtocolVersion());
+
+        final Map<String, Object> requestContent = new LinkedHashMap<>();
+        requestContent.put("remote", request.getRemote());
+        requestContent.put("method", request.getMethod());
+        requestContent.put("uri", request.getRequestUri());
+        prepareHeaders(request).ifPresent(headers -> requestContent.put("headers", headers));
+        prepareBody(request).ifPresent(body -> requestContent.put("body", body));
+        content.put("request", requestContent);
+
+        final Map<String, Object> responseContent = new LinkedHashMap<>();
+        responseContent.put("status", response.getStatus());
+        prepareHeaders(response).ifPresent(headers -> responseContent.put("headers", headers));
+        prepareBody(response).ifPresent(body -> responseContent.put("body", body));
+        content.put("response", responseContent);
+
+        return content;
+    }
+
     default Optional<Map<String, List<String>>> prepareHeaders(final HttpMessage message) {
         final Map<String, List<String>> headers = message.getHeaders();
         return Optional.ofNullable(headers.isEmpty() ? null : headers);
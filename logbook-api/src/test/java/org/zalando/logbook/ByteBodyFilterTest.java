@@ -0,0 +1,109 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+final class ByteBodyFilterTest {
+
+    @Test
+    void noneShouldDefaultToNoOp() {
+        final ByteBodyFilter unit = ByteBodyFilter.none();
+        final byte[] body = "Hello, world!".getBytes(UTF_8);
+
+        assertThat(unit.filter("text/plain", body, UTF_8), is(sameInstance(body)));
+    }
+
+    @Test
+    void shouldCopyPartialBuffers() {
+        final byte[] body = "Hello, world!".getBytes(UTF_8);
+
+        assertThat(filter((contentType, buffer, charset) -> ByteBuffer.wrap(body, 7, 5)), is("world"));
+        assertThat(filter((contentType, buffer, charset) -> ByteBuffer.wrap(body, 0, 5)), is("Hello"));
+        assertThat(filter((contentType, buffer, charset) -> ByteBuffer.wrap(body, 7, 6).slice()), is("world!"));
+        assertThat(filter((contentType, buffer, charset) ->
+                (ByteBuffer) ByteBuffer.allocateDirect(2).put(body, 0, 2).flip()), is("He"));
+    }
+
+    @Test
+    void shouldMerge() {
+        final ByteBodyFilter unit = ByteBodyFilter.merge(
+                (contentType, body, charset) -> ByteBuffer.wrap("world".getBytes(charset)),
+                (contentType, body, charset) -> ByteBuffer.wrap("Hello".getBytes(charset)));
+
+        assertThat(filter(unit), is("world"));
+    }
+
+    @Test
+    void shouldAdaptBodyFilter() {
+        final ByteBodyFilter unit = ByteBodyFilter.of((contentType, body) -> body.replace("ö", "o"));
+
+        final byte[] filtered = unit.filter("text/plain", "Hello, wörld!".getBytes(ISO_8859_1), ISO_8859_1);
+
+        assertThat(new String(filtered, ISO_8859_1), is("Hello, world!"));
+    }
+
+    @Test
+    void shouldAdaptByteBodyFilter() {
+        final BodyFilter unit = ByteBodyFilter.toBodyFilter((contentType, body, charset) -> {
+            final ByteBuffer copy = ByteBuffer.allocate(body.remaining() - 1);
+            final ByteBuffer tail = body.duplicate();
+            tail.position(tail.position() + 1);
+            return (ByteBuffer) copy.put(tail).flip();
+        });
+
+        assertThat(unit.filter("text/plain", "!Hällo"), is("Hällo"));
+    }
+
+    @Test
+    void shouldNotAdaptFiltersSupportingBoth() {
+        final Both both = new Both();
+
+        assertThat(ByteBodyFilter.of(both), is(sameInstance(both)));
+        assertThat(ByteBodyFilter.toBodyFilter(both), is(sameInstance(both)));
+    }
+
+    @Test
+    void shouldMergeFiltersSupportingBoth() {
+        final BodyFilter unit = BodyFilter.merge(new Both(), new Both());
+
+        assertThat(unit, is(instanceOf(ByteBodyFilter.class)));
+        assertThat(unit.filter("text/plain", "Hello"), is("Hello!!"));
+        assertThat(filter((ByteBodyFilter) unit), is("Hello, world!??"));
+    }
+
+    @Test
+    void shouldNotMergeFiltersSupportingStringsOnly() {
+        assertThat(BodyFilter.merge(new Both(), BodyFilter.none()), is(not(instanceOf(ByteBodyFilter.class))));
+        assertThat(BodyFilter.merge(BodyFilter.none(), new Both()), is(not(instanceOf(ByteBodyFilter.class))));
+    }
+
+    private static String filter(final ByteBodyFilter unit) {
+        return new String(unit.filter("text/plain", "Hello, world!".getBytes(UTF_8), UTF_8), UTF_8);
+    }
+
+    private static final class Both implements BodyFilter, ByteBodyFilter {
+
+        @Override
+        public String filter(@Nullable final String contentType, final String body) {
+            return body + "!";
+        }
+
+        @Override
+        public ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset) {
+            return ByteBuffer.wrap((charset.decode(body.duplicate()) + "?").getBytes(charset));
+        }
+
+    }
+
+}
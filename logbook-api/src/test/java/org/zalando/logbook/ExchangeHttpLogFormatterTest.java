@@ -0,0 +1,47 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExchangeHttpLogFormatterTest {
+
+    private final Correlation correlation = mock(Correlation.class);
+    private final HttpRequest request = mock(HttpRequest.class);
+    private final HttpResponse response = mock(HttpResponse.class);
+
+    private final ExchangeHttpLogFormatter unit = mock(ExchangeHttpLogFormatter.class);
+
+    @Test
+    void shouldAppendFormattedStringByDefault() throws IOException {
+        doCallRealMethod().when(unit).format(any(), any(), any(), any(Appendable.class));
+        when(unit.format(correlation, request, response)).thenReturn("exchange");
+
+        final StringBuilder output = new StringBuilder();
+        unit.format(correlation, request, response, output);
+
+        assertThat(output.toString(), is("exchange"));
+    }
+
+    @Test
+    void shouldWriteFormattedStringAsBytesByDefault() throws IOException {
+        doCallRealMethod().when(unit).format(any(), any(), any(), any(ByteHttpLogWriter.class));
+        when(unit.format(correlation, request, response)).thenReturn("exchange");
+
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+        unit.format(correlation, request, response, writer);
+
+        verify(writer).write(correlation, ByteBuffer.wrap("exchange".getBytes(UTF_8)));
+    }
+
+}
@@ -23,4 +23,23 @@ final class HttpMessageTest {
         assertThat(message.getBodyAsString(), is("foo"));
     }
 
+    @Test
+    void shouldDelegateBodyLengthToBody() throws IOException {
+        final HttpMessage message = mock(HttpMessage.class);
+
+        when(message.getBody()).thenReturn("foo".getBytes(UTF_8));
+        when(message.getBodyLength()).thenCallRealMethod();
+
+        assertThat(message.getBodyLength(), is(3L));
+    }
+
+    @Test
+    void shouldNotBeTruncatedByDefault() {
+        final HttpMessage message = mock(HttpMessage.class);
+
+        when(message.isBodyTruncated()).thenCallRealMethod();
+
+        assertThat(message.isBodyTruncated(), is(false));
+    }
+
 }
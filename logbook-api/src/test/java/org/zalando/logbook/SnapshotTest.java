@@ -0,0 +1,129 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class SnapshotTest {
+
+    @Test
+    void shouldSnapshotRequest() throws IOException {
+        final HttpRequest request = mock(HttpRequest.class);
+
+        when(request.getProtocolVersion()).thenReturn("HTTP/1.1");
+        when(request.getOrigin()).thenReturn(Origin.REMOTE);
+        when(request.getHeaders()).thenReturn(singletonMap("Accept", singletonList("text/plain")));
+        when(request.getContentType()).thenReturn("text/plain");
+        when(request.getCharset()).thenReturn(UTF_8);
+        when(request.getBody()).thenReturn("Hello".getBytes(UTF_8));
+        when(request.getRemote()).thenReturn("127.0.0.1");
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getScheme()).thenReturn("https");
+        when(request.getHost()).thenReturn("localhost");
+        when(request.getPort()).thenReturn(Optional.of(8443));
+        when(request.getPath()).thenReturn("/greetings");
+        when(request.getQuery()).thenReturn("lang=en");
+        when(request.isBodyTruncated()).thenReturn(true);
+        when(request.getBodyLength()).thenReturn(1024L);
+
+        final HttpRequest snapshot = SnapshotHttpRequest.of(request);
+
+        assertThat(snapshot.getProtocolVersion(), is("HTTP/1.1"));
+        assertThat(snapshot.getOrigin(), is(Origin.REMOTE));
+        assertThat(snapshot.getHeaders().get("Accept"), is(singletonList("text/plain")));
+        assertThat(snapshot.getContentType(), is("text/plain"));
+        assertThat(snapshot.getCharset(), is(UTF_8));
+        assertThat(snapshot.getBodyAsString(), is("Hello"));
+        assertThat(snapshot.getRequestUri(), is("https://localhost:8443/greetings?lang=en"));
+        assertThat(snapshot.getRemote(), is("127.0.0.1"));
+        assertThat(snapshot.getMethod(), is("POST"));
+        assertThat(snapshot.isBodyTruncated(), is(true));
+        assertThat(snapshot.getBodyLength(), is(1024L));
+        assertThat(snapshot.withBody(), is(sameInstance(snapshot)));
+        assertThat(snapshot.withoutBody().getBodyAsString(), is(""));
+        assertThat(snapshot.withoutBody().isBodyTruncated(), is(false));
+        assertThat(snapshot.withoutBody().getBodyLength(), is(1024L));
+        assertThat(snapshot.withoutBody().getRequestUri(), is(snapshot.getRequestUri()));
+    }
+
+    @Test
+    void shouldCopyRequestHeaders() throws IOException {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Accept", new ArrayList<>(singletonList("text/plain")));
+
+        final HttpRequest request = mock(HttpRequest.class);
+        when(request.getHeaders()).thenReturn(headers);
+
+        final HttpRequest snapshot = SnapshotHttpRequest.of(request);
+
+        headers.get("Accept").add("application/json");
+        headers.put("Host", singletonList("localhost"));
+
+        assertThat(snapshot.getHeaders().get("accept"), is(singletonList("text/plain")));
+        assertThat(snapshot.getHeaders().containsKey("Host"), is(false));
+    }
+
+    @Test
+    void shouldSnapshotResponse() throws IOException {
+        final HttpResponse response = mock(HttpResponse.class);
+
+        when(response.getProtocolVersion()).thenReturn("HTTP/1.1");
+        when(response.getOrigin()).thenReturn(Origin.LOCAL);
+        when(response.getHeaders()).thenReturn(singletonMap("Content-Type", singletonList("text/plain")));
+        when(response.getContentType()).thenReturn("text/plain");
+        when(response.getCharset()).thenReturn(UTF_8);
+        when(response.getBody()).thenReturn("World".getBytes(UTF_8));
+        when(response.getStatus()).thenReturn(201);
+        when(response.isBodyTruncated()).thenReturn(true);
+        when(response.getBodyLength()).thenReturn(2048L);
+
+        final HttpResponse snapshot = SnapshotHttpResponse.of(response);
+
+        assertThat(snapshot.getProtocolVersion(), is("HTTP/1.1"));
+        assertThat(snapshot.getOrigin(), is(Origin.LOCAL));
+        assertThat(snapshot.getHeaders().get("Content-Type"), is(singletonList("text/plain")));
+        assertThat(snapshot.getContentType(), is("text/plain"));
+        assertThat(snapshot.getCharset(), is(UTF_8));
+        assertThat(snapshot.getBodyAsString(), is("World"));
+        assertThat(snapshot.getStatus(), is(201));
+        assertThat(snapshot.isBodyTruncated(), is(true));
+        assertThat(snapshot.getBodyLength(), is(2048L));
+        assertThat(snapshot.withBody(), is(sameInstance(snapshot)));
+        assertThat(snapshot.withoutBody().getBodyAsString(), is(""));
+        assertThat(snapshot.withoutBody().isBodyTruncated(), is(false));
+        assertThat(snapshot.withoutBody().getBodyLength(), is(2048L));
+        assertThat(snapshot.withoutBody().getStatus(), is(201));
+    }
+
+    @Test
+    void shouldCopyResponseHeaders() throws IOException {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Content-Type", new ArrayList<>(singletonList("text/plain")));
+
+        final HttpResponse response = mock(HttpResponse.class);
+        when(response.getHeaders()).thenReturn(headers);
+
+        final HttpResponse snapshot = SnapshotHttpResponse.of(response);
+
+        headers.get("Content-Type").add("charset=utf-8");
+        headers.put("Content-Length", singletonList("5"));
+
+        assertThat(snapshot.getHeaders().get("content-type"), is(singletonList("text/plain")));
+        assertThat(snapshot.getHeaders().containsKey("Content-Length"), is(false));
+    }
+
+}
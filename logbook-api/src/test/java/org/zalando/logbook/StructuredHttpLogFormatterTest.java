@@ -62,6 +62,8 @@ class StructuredHttpLogFormatterTest {
         when(unit.format(any(Correlation.class), any(HttpResponse.class))).thenCallRealMethod();
         when(unit.prepare(any(Precorrelation.class), any(HttpRequest.class))).thenCallRealMethod();
         when(unit.prepare(any(Correlation.class), any(HttpResponse.class))).thenCallRealMethod();
+        when(unit.prepare(any(Correlation.class), any(HttpRequest.class), any(HttpResponse.class)))
+                .thenCallRealMethod();
         when(unit.prepareHeaders(any())).thenCallRealMethod();
         when(unit.prepareBody(any())).thenCallRealMethod();
 
@@ -130,4 +132,31 @@ class StructuredHttpLogFormatterTest {
         assertThat(output, hasEntry("body", "Hello, world!"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void prepareExchange() throws IOException {
+        when(response.getHeaders()).thenReturn(emptyMap());
+        when(response.getBodyAsString()).thenReturn("Hello, world!");
+
+        final Map<String, Object> output = unit.prepare(correlation, request, response);
+
+        assertThat(output, hasEntry("origin", "remote"));
+        assertThat(output, hasEntry("type", "exchange"));
+        assertThat(output, hasEntry("correlation", "469b1d07-e7fc-4854-8595-2db0afcb42e6"));
+        assertThat(output, hasEntry("duration", 13L));
+        assertThat(output, hasEntry("protocol", "HTTP/1.1"));
+
+        final Map<String, Object> request = (Map<String, Object>) output.get("request");
+        assertThat(request, hasEntry("remote", "127.0.0.1"));
+        assertThat(request, hasEntry("method", "GET"));
+        assertThat(request, hasEntry("uri", "https://www.example.org/search?q=example"));
+        assertThat(request, hasEntry("headers", singletonMap("Test", emptyList())));
+        assertThat(request, not(hasKey("body")));
+
+        final Map<String, Object> response = (Map<String, Object>) output.get("response");
+        assertThat(response, hasEntry("status", 200));
+        assertThat(response, not(hasKey("headers")));
+        assertThat(response, hasEntry("body", "Hello, world!"));
+    }
+
 }
@@ -0,0 +1,40 @@
+package org.zalando.logbook.common;
+
+import org.apiguardian.api.API;
+
+import java.io.OutputStream;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * An {@link OutputStream} that records the bytes written to it, or parts of them, for later logging.
+ *
+ * @see BodyCapture#newBuffer()
+ */
+@API(status = EXPERIMENTAL)
+public abstract class BodyBuffer extends OutputStream {
+
+    @Override
+    public abstract void write(final byte[] b, final int off, final int len);
+
+    @Override
+    public abstract void write(final int b);
+
+    /**
+     * @return the total number of bytes written so far, including those that were not retained
+     */
+    public abstract long getSize();
+
+    /**
+     * @return the captured bytes, ready to be logged
+     */
+    public abstract byte[] toByteArray();
+
+    /**
+     * @return whether {@link #toByteArray()} omits some of the bytes written so far
+     */
+    public boolean isTruncated() {
+        return false;
+    }
+
+}
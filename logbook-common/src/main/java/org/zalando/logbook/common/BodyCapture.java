@@ -0,0 +1,135 @@
+package org.zalando.logbook.common;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Decides how much of a body is being recorded for logging. By default the whole body is captured. Alternatively
+ * only the first {@code n} and the last {@code m} bytes are retained, which bounds the memory spent on logging per
+ * request and response, regardless of the body size. Omitted bytes are replaced by a
+ * {@code " ... [k bytes omitted] ... "} marker. Or nothing is retained at all, but bytes are still being counted.
+ * Or bodies are replaced by their {@link BodyFingerprint fingerprint}, which is computed while bytes are streamed.
+ */
+@API(status = EXPERIMENTAL)
+public final class BodyCapture {
+
+    private static final BodyCapture FULL = new BodyCapture(-1, -1, null);
+    private static final BodyCapture NONE = new BodyCapture(0, 0, null);
+
+    private final int headSize;
+    private final int tailSize;
+
+    @Nullable
+    private final BodyFingerprint fingerprint;
+
+    private BodyCapture(final int headSize, final int tailSize, @Nullable final BodyFingerprint fingerprint) {
+        this.headSize = headSize;
+        this.tailSize = tailSize;
+        this.fingerprint = fingerprint;
+    }
+
+    public static BodyCapture full() {
+        return FULL;
+    }
+
+    /**
+     * Doesn't retain any bytes, but still {@link BodyBuffer#getSize() counts} them, e.g. for access logs or metrics.
+     *
+     * @return a capture mode that records the body size only
+     */
+    public static BodyCapture none() {
+        return NONE;
+    }
+
+    public static BodyCapture headAndTail(final int headSize, final int tailSize) {
+        if (headSize < 0 || tailSize < 0) {
+            throw new IllegalArgumentException("Head and tail size must not be negative");
+        }
+        return new BodyCapture(headSize, tailSize, null);
+    }
+
+    public static BodyCapture fingerprint(final BodyFingerprint fingerprint) {
+        return new BodyCapture(-1, -1, fingerprint);
+    }
+
+    /**
+     * Reads {@code logbook.capture.head-size} and {@code logbook.capture.tail-size} from the system properties. If
+     * neither one is set, the full body will be captured. A missing one defaults to {@code 0} otherwise. Setting
+     * {@code logbook.capture.fingerprint} to either {@code xxh64} or {@code sha256} takes precedence over both.
+     *
+     * @return the configured capture mode
+     */
+    public static BodyCapture fromProperties() {
+        return fromProperties(System::getProperty);
+    }
+
+    static BodyCapture fromProperties(final UnaryOperator<String> properties) {
+        @Nullable final String fingerprint = properties.apply("logbook.capture.fingerprint");
+
+        if (fingerprint != null) {
+            return fingerprint(BodyFingerprint.valueOf(fingerprint.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        @Nullable final String head = properties.apply("logbook.capture.head-size");
+        @Nullable final String tail = properties.apply("logbook.capture.tail-size");
+
+        if (head == null && tail == null) {
+            return full();
+        }
+
+        return headAndTail(parse(head), parse(tail));
+    }
+
+    private static int parse(@Nullable final String size) {
+        return size == null ? 0 : Integer.parseInt(size.trim());
+    }
+
+    public BodyBuffer newBuffer() {
+        if (fingerprint != null) {
+            return fingerprint.newBuffer();
+        }
+        if (this == NONE) {
+            return new CountingBodyBuffer();
+        }
+        return headSize < 0 ? new FullBodyBuffer() : new HeadTailBodyBuffer(headSize, tailSize);
+    }
+
+    /**
+     * Captures an already fully buffered body, e.g. in places where the body needs to be read completely in order to
+     * be replayed to the application.
+     *
+     * @param body the complete body
+     * @return either the given body, if it's being captured completely, or the retained parts of it
+     */
+    public byte[] capture(final byte[] body) {
+        if (fingerprint != null) {
+            return fingerprint.fingerprint(body);
+        }
+        if (this == NONE) {
+            return new byte[0];
+        }
+
+        if (headSize < 0 || body.length <= (long) headSize + tailSize) {
+            return body;
+        }
+
+        final BodyBuffer buffer = newBuffer();
+        buffer.write(body, 0, body.length);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @param size the size of a complete body
+     * @return whether {@link #capture(byte[]) capturing} a body of the given size omits some of its bytes
+     * @see BodyBuffer#isTruncated()
+     */
+    public boolean truncates(final long size) {
+        return fingerprint == null && headSize >= 0 && this != NONE && size > (long) headSize + tailSize;
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.zalando.logbook.common;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.util.Base64;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Decides which bodies are too large to be logged as-is and encodes those as {@code gzip+base64}, which is typically
+ * a lot smaller than the original text, e.g. for JSON. Compression reuses a {@link Deflater} per thread and writes
+ * the encoded body straight into the formatter's output.
+ */
+@API(status = EXPERIMENTAL)
+public final class BodyCompression {
+
+    public static final String ENCODING = "gzip+base64";
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    private final int threshold;
+
+    private BodyCompression(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param threshold the number of bytes a body may have without being compressed
+     * @return a compression that applies to bodies larger than the given threshold
+     */
+    public static BodyCompression above(final int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        return new BodyCompression(threshold);
+    }
+
+    public boolean test(final byte[] body) {
+        return body.length > threshold;
+    }
+
+    public String encode(final byte[] body) throws IOException {
+        final StringBuilder output = new StringBuilder(body.length / 2);
+        encode(body, output);
+        return output.toString();
+    }
+
+    public void encode(final byte[] body, final Appendable output) throws IOException {
+        final State state = states.get();
+        final Deflater deflater = state.deflater;
+        final CRC32 crc = state.crc;
+
+        try (final OutputStream stream = new Base64OutputStream(output, state.chars)) {
+            stream.write(HEADER);
+
+            deflater.setInput(body);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                stream.write(state.chunk, 0, deflater.deflate(state.chunk));
+            }
+
+            crc.update(body);
+            writeInt((int) crc.getValue(), stream);
+            writeInt(body.length, stream);
+        } finally {
+            deflater.reset();
+            crc.reset();
+        }
+    }
+
+    private static void writeInt(final int value, final OutputStream stream) throws IOException {
+        stream.write(value);
+        stream.write(value >>> 8);
+        stream.write(value >>> 16);
+        stream.write(value >>> 24);
+    }
+
+    private static final class State {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] chunk = new byte[8192];
+        private final char[] chars = new char[1024];
+    }
+
+    /**
+     * Encodes as Base64 into chunks of characters, which are then appended in bulk. {@link Base64.Encoder#wrap(
+     * OutputStream)} would append every single character on its own instead.
+     */
+    private static final class Base64OutputStream extends OutputStream {
+
+        private static final char[] ALPHABET =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+        private final Appendable output;
+        private final char[] chars;
+        private int length;
+
+        private int bits;
+        private int pending;
+
+        private Base64OutputStream(final Appendable output, final char[] chars) {
+            this.output = output;
+            this.chars = chars;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            bits = (bits << 8) | (b & 0xff);
+
+            if (++pending == 3) {
+                encode(4);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private void encode(final int count) throws IOException {
+            if (length + 4 > chars.length) {
+                flush();
+            }
+
+            for (int i = 0; i < 4; i++) {
+                chars[length++] = i < count ? ALPHABET[(bits >>> (18 - 6 * i)) & 0x3f] : '=';
+            }
+
+            bits = 0;
+            pending = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (output instanceof StringBuilder) {
+                ((StringBuilder) output).append(chars, 0, length);
+            } else {
+                output.append(CharBuffer.wrap(chars, 0, length));
+            }
+            length = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (pending > 0) {
+                final int count = pending + 1;
+                bits <<= 8 * (3 - pending);
+                encode(count);
+            }
+            flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.zalando.logbook.common;
+
+import org.apiguardian.api.API;
+
+import java.util.function.Supplier;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Replaces bodies by their length and a hash, e.g. {@code {"length":3,"xxh64":"44bc2cf5ad770999"}}, which is enough
+ * to tell whether two messages carried the same body. The hash is computed incrementally while bytes are being
+ * written, i.e. bodies don't need to be buffered. The result is valid JSON, so it can be embedded as-is, regardless
+ * of the original content type.
+ */
+@API(status = EXPERIMENTAL)
+public enum BodyFingerprint {
+
+    /**
+     * A fast, non-cryptographic 64-bit hash.
+     */
+    XXH64("xxh64", XxHash64::new),
+
+    /**
+     * A cryptographic hash, e.g. for auditing purposes.
+     */
+    SHA256("sha256", Sha256::new);
+
+    private final String algorithm;
+    private final Supplier<Hasher> hasher;
+
+    BodyFingerprint(final String algorithm, final Supplier<Hasher> hasher) {
+        this.algorithm = algorithm;
+        this.hasher = hasher;
+    }
+
+    public BodyBuffer newBuffer() {
+        return new FingerprintBodyBuffer(algorithm, hasher.get());
+    }
+
+    public byte[] fingerprint(final byte[] body, final int off, final int len) {
+        final BodyBuffer buffer = newBuffer();
+        buffer.write(body, off, len);
+        return buffer.toByteArray();
+    }
+
+    public byte[] fingerprint(final byte[] body) {
+        return fingerprint(body, 0, body.length);
+    }
+
+    /**
+     * @param body the body
+     * @return the hash of the given body, hex-encoded, without its length
+     */
+    public String hash(final byte[] body) {
+        final Hasher hasher = this.hasher.get();
+        hasher.update(body, 0, body.length);
+        final byte[] digest = hasher.digest();
+        return FingerprintBodyBuffer.appendHex(digest, new StringBuilder(digest.length * 2)).toString();
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.zalando.logbook.common;
+
+final class CountingBodyBuffer extends BodyBuffer {
+
+    private long size;
+
+    @Override
+    public void write(final int b) {
+        size++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        size += len;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return new byte[0];
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.zalando.logbook.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+final class FingerprintBodyBuffer extends BodyBuffer {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String algorithm;
+    private final Hasher hasher;
+    private long size;
+
+    FingerprintBodyBuffer(final String algorithm, final Hasher hasher) {
+        this.algorithm = algorithm;
+        this.hasher = hasher;
+    }
+
+    @Override
+    public void write(final int b) {
+        hasher.update(b);
+        size++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        hasher.update(b, off, len);
+        size += len;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        if (size == 0) {
+            return new byte[0];
+        }
+
+        final byte[] digest = hasher.digest();
+        final StringBuilder builder = new StringBuilder(32 + algorithm.length() + digest.length * 2)
+                .append("{\"length\":").append(size)
+                .append(",\"").append(algorithm).append("\":\"");
+
+        appendHex(digest, builder);
+        return builder.append("\"}").toString().getBytes(UTF_8);
+    }
+
+    static StringBuilder appendHex(final byte[] digest, final StringBuilder builder) {
+        for (final byte b : digest) {
+            builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return builder;
+    }
+
+}
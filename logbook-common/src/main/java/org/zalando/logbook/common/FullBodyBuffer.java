@@ -0,0 +1,29 @@
+package org.zalando.logbook.common;
+
+import java.io.ByteArrayOutputStream;
+
+final class FullBodyBuffer extends BodyBuffer {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    @Override
+    public void write(final int b) {
+        buffer.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        buffer.write(b, off, len);
+    }
+
+    @Override
+    public long getSize() {
+        return buffer.size();
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.zalando.logbook.common;
+
+interface Hasher {
+
+    void update(int b);
+
+    void update(byte[] b, int off, int len);
+
+    /**
+     * @return the digest of all bytes so far, which may be followed by further updates
+     */
+    byte[] digest();
+
+}
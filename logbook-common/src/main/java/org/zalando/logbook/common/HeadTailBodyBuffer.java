@@ -0,0 +1,139 @@
+package org.zalando.logbook.common;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Retains the first {@code n} bytes and a ring buffer of the last {@code m} bytes written to it, i.e. memory usage is
+ * fixed regardless of how many bytes are being written. Cut points are moved to UTF-8 character boundaries.
+ */
+final class HeadTailBodyBuffer extends BodyBuffer {
+
+    private final byte[] head;
+    private final byte[] tail;
+
+    private int headLength;
+    private int tailPosition;
+    private long size;
+
+    HeadTailBodyBuffer(final int headSize, final int tailSize) {
+        this.head = new byte[headSize];
+        this.tail = new byte[tailSize];
+    }
+
+    @Override
+    public void write(final int b) {
+        if (headLength < head.length) {
+            head[headLength++] = (byte) b;
+        } else if (tail.length > 0) {
+            tail[tailPosition] = (byte) b;
+            tailPosition = (tailPosition + 1) % tail.length;
+        }
+        size++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        final int headBytes = Math.min(len, head.length - headLength);
+        System.arraycopy(b, off, head, headLength, headBytes);
+        headLength += headBytes;
+        writeTail(b, off + headBytes, len - headBytes);
+        size += len;
+    }
+
+    private void writeTail(final byte[] b, final int off, final int len) {
+        if (len >= tail.length) {
+            System.arraycopy(b, off + len - tail.length, tail, 0, tail.length);
+            tailPosition = 0;
+        } else {
+            final int first = Math.min(len, tail.length - tailPosition);
+            System.arraycopy(b, off, tail, tailPosition, first);
+            System.arraycopy(b, off + first, tail, 0, len - first);
+            tailPosition = (tailPosition + len) % tail.length;
+        }
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return size > (long) head.length + tail.length;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final int tailLength = (int) Math.min(size - headLength, tail.length);
+        final byte[] ordered = orderedTail(tailLength);
+
+        if (size == headLength + tailLength) {
+            return concat(head, headLength, new byte[0], ordered, 0);
+        }
+
+        final int headEnd = headEnd(head, headLength);
+        final int tailStart = tailStart(ordered);
+        final long omitted = size - headEnd - (tailLength - tailStart);
+        final byte[] marker = (" ... [" + omitted + " bytes omitted] ... ").getBytes(US_ASCII);
+
+        return concat(head, headEnd, marker, ordered, tailStart);
+    }
+
+    private byte[] orderedTail(final int length) {
+        final byte[] ordered = new byte[length];
+        final int start = length < tail.length ? 0 : tailPosition;
+        final int first = Math.min(length, tail.length - start);
+        System.arraycopy(tail, start, ordered, 0, first);
+        System.arraycopy(tail, 0, ordered, first, length - first);
+        return ordered;
+    }
+
+    private static byte[] concat(final byte[] head, final int headLength, final byte[] marker,
+            final byte[] tail, final int tailStart) {
+
+        final int tailLength = tail.length - tailStart;
+        final byte[] result = new byte[headLength + marker.length + tailLength];
+        System.arraycopy(head, 0, result, 0, headLength);
+        System.arraycopy(marker, 0, result, headLength, marker.length);
+        System.arraycopy(tail, tailStart, result, headLength + marker.length, tailLength);
+        return result;
+    }
+
+    /**
+     * Finds the end of the last complete UTF-8 character.
+     */
+    private static int headEnd(final byte[] bytes, final int length) {
+        int lead = length - 1;
+        while (lead > 0 && lead > length - 4 && isContinuation(bytes[lead])) {
+            lead--;
+        }
+        return lead >= 0 && lead + sequenceLength(bytes[lead]) > length ? lead : length;
+    }
+
+    /**
+     * Finds the start of the first complete UTF-8 character.
+     */
+    private static int tailStart(final byte[] bytes) {
+        int start = 0;
+        while (start < bytes.length && start < 3 && isContinuation(bytes[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static int sequenceLength(final byte lead) {
+        if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        } else if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        } else if ((lead & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.zalando.logbook.common;
+
+import lombok.SneakyThrows;
+
+import java.security.MessageDigest;
+
+final class Sha256 implements Hasher {
+
+    private final MessageDigest digest = newDigest("SHA-256");
+
+    @SneakyThrows
+    static MessageDigest newDigest(final String algorithm) {
+        return MessageDigest.getInstance(algorithm);
+    }
+
+    @Override
+    public void update(final int b) {
+        digest.update((byte) b);
+    }
+
+    @Override
+    public void update(final byte[] b, final int off, final int len) {
+        digest.update(b, off, len);
+    }
+
+    @SneakyThrows
+    static MessageDigest copy(final MessageDigest digest) {
+        return (MessageDigest) digest.clone();
+    }
+
+    /**
+     * Digests a copy, since {@link MessageDigest#digest()} resets the digest.
+     */
+    @Override
+    public byte[] digest() {
+        return copy(digest).digest();
+    }
+
+}
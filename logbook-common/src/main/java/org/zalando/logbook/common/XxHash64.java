@@ -0,0 +1,140 @@
+package org.zalando.logbook.common;
+
+import static java.lang.Long.rotateLeft;
+
+/**
+ * An incremental implementation of <a href="https://github.com/Cyan4973/xxHash">xxHash64</a>, using a seed of
+ * {@code 0}. Input is consumed in stripes of 32 bytes, so at most one partial stripe is being retained.
+ */
+final class XxHash64 implements Hasher {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+
+    private final byte[] memory = new byte[STRIPE];
+    private int memorySize;
+    private long length;
+
+    private long v1 = PRIME_1 + PRIME_2;
+    private long v2 = PRIME_2;
+    private long v3 = 0;
+    private long v4 = -PRIME_1;
+
+    @Override
+    public void update(final int b) {
+        memory[memorySize++] = (byte) b;
+        length++;
+
+        if (memorySize == STRIPE) {
+            stripe(memory, 0);
+            memorySize = 0;
+        }
+    }
+
+    @Override
+    public void update(final byte[] b, final int off, final int len) {
+        int offset = off;
+        int remaining = len;
+        length += len;
+
+        if (memorySize > 0) {
+            final int fill = Math.min(STRIPE - memorySize, remaining);
+            System.arraycopy(b, offset, memory, memorySize, fill);
+            memorySize += fill;
+            offset += fill;
+            remaining -= fill;
+
+            if (memorySize < STRIPE) {
+                return;
+            }
+
+            stripe(memory, 0);
+            memorySize = 0;
+        }
+
+        while (remaining >= STRIPE) {
+            stripe(b, offset);
+            offset += STRIPE;
+            remaining -= STRIPE;
+        }
+
+        System.arraycopy(b, offset, memory, 0, remaining);
+        memorySize = remaining;
+    }
+
+    @Override
+    public byte[] digest() {
+        long hash;
+
+        if (length >= STRIPE) {
+            hash = rotateLeft(v1, 1) + rotateLeft(v2, 7) + rotateLeft(v3, 12) + rotateLeft(v4, 18);
+            hash = merge(hash, v1);
+            hash = merge(hash, v2);
+            hash = merge(hash, v3);
+            hash = merge(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+
+        hash += length;
+
+        int offset = 0;
+
+        for (; offset + 8 <= memorySize; offset += 8) {
+            hash ^= round(0, readLong(memory, offset));
+            hash = rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+
+        if (offset + 4 <= memorySize) {
+            hash ^= (readInt(memory, offset) & 0xFFFFFFFFL) * PRIME_1;
+            hash = rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            offset += 4;
+        }
+
+        for (; offset < memorySize; offset++) {
+            hash ^= (memory[offset] & 0xFF) * PRIME_5;
+            hash = rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+
+        final byte[] digest = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            digest[i] = (byte) (hash >>> (56 - 8 * i));
+        }
+        return digest;
+    }
+
+    private void stripe(final byte[] b, final int off) {
+        v1 = round(v1, readLong(b, off));
+        v2 = round(v2, readLong(b, off + 8));
+        v3 = round(v3, readLong(b, off + 16));
+        v4 = round(v4, readLong(b, off + 24));
+    }
+
+    private static long round(final long accumulator, final long input) {
+        return rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long merge(final long hash, final long value) {
+        return (hash ^ round(0, value)) * PRIME_1 + PRIME_4;
+    }
+
+    private static long readLong(final byte[] b, final int off) {
+        return (readInt(b, off) & 0xFFFFFFFFL) | ((long) readInt(b, off + 4) << 32);
+    }
+
+    private static int readInt(final byte[] b, final int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class BodyCaptureTest {
+
+    @Test
+    void shouldCaptureFullBody() {
+        final BodyBuffer buffer = BodyCapture.full().newBuffer();
+        final byte[] body = "Hello, world!".getBytes(UTF_8);
+        buffer.write(body, 0, 5);
+        buffer.write('!');
+
+        assertThat(new String(buffer.toByteArray(), UTF_8), is("Hello!"));
+        assertThat(buffer.getSize(), is(6L));
+        assertThat(BodyCapture.full().capture(body), is(sameInstance(body)));
+        assertThat(buffer.isTruncated(), is(false));
+        assertThat(BodyCapture.full().truncates(body.length), is(false));
+    }
+
+    @Test
+    void shouldCaptureHeadAndTail() {
+        final BodyCapture unit = BodyCapture.headAndTail(5, 6);
+        final BodyBuffer buffer = unit.newBuffer();
+        final byte[] body = "Hello, dear world!".getBytes(UTF_8);
+        buffer.write(body, 0, body.length);
+
+        final String expected = "Hello ... [7 bytes omitted] ... world!";
+        assertThat(new String(buffer.toByteArray(), UTF_8), is(expected));
+        assertThat(new String(unit.capture(body), UTF_8), is(expected));
+        assertThat(unit.truncates(body.length), is(true));
+        assertThat(unit.truncates(11), is(false));
+    }
+
+    @Test
+    void shouldOnlyCount() {
+        final BodyCapture unit = BodyCapture.none();
+        final BodyBuffer buffer = unit.newBuffer();
+        final byte[] body = "Hello, world!".getBytes(UTF_8);
+        buffer.write(body, 0, 5);
+        buffer.write('!');
+
+        assertThat(buffer.toByteArray().length, is(0));
+        assertThat(buffer.getSize(), is(6L));
+        assertThat(unit.capture(body).length, is(0));
+        assertThat(unit.truncates(body.length), is(false));
+    }
+
+    @Test
+    void shouldNotCopyBodyThatFits() {
+        final byte[] body = "Hello".getBytes(UTF_8);
+
+        assertThat(BodyCapture.headAndTail(3, 2).capture(body), is(sameInstance(body)));
+    }
+
+    @Test
+    void shouldRejectNegativeSizes() {
+        assertThrows(IllegalArgumentException.class, () -> BodyCapture.headAndTail(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> BodyCapture.headAndTail(0, -1));
+    }
+
+    @Test
+    void shouldDefaultToFullCapture() {
+        assertThat(BodyCapture.fromProperties(), is(sameInstance(BodyCapture.full())));
+        assertThat(BodyCapture.fromProperties(new HashMap<String, String>()::get),
+                is(sameInstance(BodyCapture.full())));
+    }
+
+    @Test
+    void shouldReadHeadSizeFromProperties() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("logbook.capture.head-size", " 2 ");
+
+        final byte[] body = BodyCapture.fromProperties(properties::get).capture("Hello".getBytes(UTF_8));
+
+        assertThat(new String(body, UTF_8), is("He ... [3 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldReadTailSizeFromProperties() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("logbook.capture.tail-size", "2");
+
+        final byte[] body = BodyCapture.fromProperties(properties::get).capture("Hello".getBytes(UTF_8));
+
+        assertThat(new String(body, UTF_8), is(" ... [3 bytes omitted] ... lo"));
+    }
+
+    @Test
+    void shouldReadHeadAndTailSizeFromProperties() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("logbook.capture.head-size", "1");
+        properties.put("logbook.capture.tail-size", "1");
+
+        final byte[] body = BodyCapture.fromProperties(properties::get).capture("Hello".getBytes(UTF_8));
+
+        assertThat(new String(body, UTF_8), is("H ... [3 bytes omitted] ... o"));
+    }
+
+    @Test
+    void shouldCaptureFingerprint() {
+        final BodyCapture unit = BodyCapture.fingerprint(BodyFingerprint.XXH64);
+        final BodyBuffer buffer = unit.newBuffer();
+        final byte[] body = "abc".getBytes(UTF_8);
+        buffer.write(body, 0, body.length);
+
+        final String expected = "{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}";
+        assertThat(new String(buffer.toByteArray(), UTF_8), is(expected));
+        assertThat(new String(unit.capture(body), UTF_8), is(expected));
+        assertThat(unit.truncates(body.length), is(false));
+    }
+
+    @Test
+    void shouldReadFingerprintFromProperties() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("logbook.capture.fingerprint", " sha256 ");
+        properties.put("logbook.capture.head-size", "1");
+
+        final byte[] body = BodyCapture.fromProperties(properties::get).capture("abc".getBytes(UTF_8));
+
+        assertThat(new String(body, UTF_8), is("{\"length\":3,\"sha256\":" +
+                "\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"}"));
+    }
+
+}
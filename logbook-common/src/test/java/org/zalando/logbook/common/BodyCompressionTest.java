@@ -0,0 +1,119 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class BodyCompressionTest {
+
+    @Test
+    void shouldOnlyApplyToBodiesAboveThreshold() {
+        final BodyCompression unit = BodyCompression.above(3);
+
+        assertFalse(unit.test(new byte[3]));
+        assertTrue(unit.test(new byte[4]));
+    }
+
+    @Test
+    void shouldRejectNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> BodyCompression.above(-1));
+    }
+
+    @Test
+    void shouldEncodeAsGzipAndBase64() throws IOException {
+        final byte[] body = json(1000);
+
+        final String encoded = BodyCompression.above(0).encode(body);
+
+        assertThat(decode(encoded), is(body));
+        assertThat(encoded.length(), is(lessThan(body.length / 5)));
+    }
+
+    @Test
+    void shouldEncodeIncompressibleBodiesExceedingChunkSize() throws IOException {
+        final byte[] body = new byte[64 * 1024];
+        new Random(42).nextBytes(body);
+
+        assertThat(decode(BodyCompression.above(0).encode(body)), is(body));
+    }
+
+    @Test
+    void shouldReuseDeflaterAcrossBodies() throws IOException {
+        final BodyCompression unit = BodyCompression.above(0);
+        final byte[] large = json(500);
+        final byte[] small = "{}".getBytes(UTF_8);
+
+        unit.encode(large);
+        assertThat(decode(unit.encode(small)), is(small));
+        assertThat(decode(unit.encode(large)), is(large));
+    }
+
+    @Test
+    void shouldAppendToOutput() throws IOException {
+        final StringBuilder output = new StringBuilder("body=");
+
+        BodyCompression.above(0).encode("Hello, world!".getBytes(UTF_8), output);
+
+        assertThat(new String(decode(output.substring(5)), UTF_8), is("Hello, world!"));
+    }
+
+    @Test
+    void shouldAppendLargeBodiesToAnyAppendable() throws IOException {
+        final byte[] body = new byte[16 * 1024];
+        new Random(42).nextBytes(body);
+        final StringWriter output = new StringWriter();
+
+        BodyCompression.above(0).encode(body, output);
+
+        assertThat(output.toString(), is(BodyCompression.above(0).encode(body)));
+        assertThat(decode(output.toString()), is(body));
+    }
+
+    @Test
+    void shouldPadEncodedBodiesOfAnyLength() throws IOException {
+        for (int length = 0; length < 6; length++) {
+            final byte[] body = new byte[length];
+            new Random(length).nextBytes(body);
+
+            assertThat(decode(BodyCompression.above(0).encode(body)), is(body));
+        }
+    }
+
+    private static byte[] json(final int items) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            builder.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"Item\"}");
+        }
+        return builder.append(']').toString().getBytes(UTF_8);
+    }
+
+    private static byte[] decode(final String encoded) throws IOException {
+        final byte[] compressed = Base64.getDecoder().decode(encoded);
+
+        try (final InputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class BodyFingerprintTest {
+
+    @Test
+    void shouldFingerprintWithXxHash64() {
+        assertThat(fingerprint(BodyFingerprint.XXH64, "abc"), is("{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}"));
+    }
+
+    @Test
+    void shouldFingerprintWithSha256() {
+        assertThat(fingerprint(BodyFingerprint.SHA256, "abc"), is("{\"length\":3,\"sha256\":" +
+                "\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"}"));
+    }
+
+    @Test
+    void shouldFingerprintWhileStreaming() {
+        for (final BodyFingerprint unit : BodyFingerprint.values()) {
+            final BodyBuffer buffer = unit.newBuffer();
+            buffer.write('a');
+            buffer.write("xbcx".getBytes(UTF_8), 1, 2);
+
+            assertThat(buffer.getSize(), is(3L));
+            assertThat(buffer.toByteArray(), is(unit.fingerprint("abc".getBytes(UTF_8))));
+        }
+    }
+
+    @Test
+    void shouldFingerprintRepeatedlyAndContinue() {
+        for (final BodyFingerprint unit : BodyFingerprint.values()) {
+            final BodyBuffer buffer = unit.newBuffer();
+            buffer.write("ab".getBytes(UTF_8), 0, 2);
+
+            assertThat(buffer.toByteArray(), is(unit.fingerprint("ab".getBytes(UTF_8))));
+            assertThat(buffer.toByteArray(), is(unit.fingerprint("ab".getBytes(UTF_8))));
+
+            buffer.write('c');
+
+            assertThat(buffer.toByteArray(), is(unit.fingerprint("abc".getBytes(UTF_8))));
+        }
+    }
+
+    @Test
+    void shouldHashOnly() {
+        assertThat(BodyFingerprint.XXH64.hash("abc".getBytes(UTF_8)), is("44bc2cf5ad770999"));
+    }
+
+    @Test
+    void shouldKeepEmptyBodiesEmpty() {
+        assertThat(BodyFingerprint.XXH64.fingerprint(new byte[0]).length, is(0));
+    }
+
+    private static String fingerprint(final BodyFingerprint unit, final String body) {
+        return new String(unit.fingerprint(body.getBytes(UTF_8)), UTF_8);
+    }
+
+}
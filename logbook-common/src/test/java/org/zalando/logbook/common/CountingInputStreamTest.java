@@ -0,0 +1,38 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class CountingInputStreamTest {
+
+    private final CountingInputStream unit =
+            new CountingInputStream(new ByteArrayInputStream("Hello, world!".getBytes(UTF_8)));
+
+    @Test
+    void shouldCountReadAndSkippedBytes() throws IOException {
+        assertThat(unit.read(), is((int) 'H'));
+        assertThat(unit.skip(4), is(4L));
+        assertThat(unit.read(new byte[4]), is(4));
+        assertThat(unit.getCount(), is(9L));
+    }
+
+    @Test
+    void shouldNotCountEndOfStream() throws IOException {
+        assertThat(unit.read(new byte[32], 0, 32), is(13));
+        assertThat(unit.read(new byte[32], 0, 32), is(-1));
+        assertThat(unit.read(), is(-1));
+        assertThat(unit.getCount(), is(13L));
+    }
+
+    @Test
+    void shouldNotSupportMark() {
+        assertThat(unit.markSupported(), is(false));
+    }
+
+}
@@ -0,0 +1,178 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class HeadTailBodyBufferTest {
+
+    @Test
+    void shouldKeepShortBody() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(4, 4);
+        write(unit, "abc");
+
+        assertThat(string(unit), is("abc"));
+        assertThat(unit.getSize(), is(3L));
+    }
+
+    @Test
+    void shouldKeepBodyThatFitsExactly() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(4, 4);
+        write(unit, "abcdefgh");
+
+        assertThat(string(unit), is("abcdefgh"));
+        assertThat(unit.isTruncated(), is(false));
+    }
+
+    @Test
+    void shouldOmitMiddle() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(4, 4);
+        write(unit, "abcdefghij");
+
+        assertThat(string(unit), is("abcd ... [2 bytes omitted] ... ghij"));
+        assertThat(unit.getSize(), is(10L));
+        assertThat(unit.isTruncated(), is(true));
+    }
+
+    @Test
+    void shouldOmitMiddleOfSingleBytes() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(4, 4);
+        for (final byte b : "abcdefghij".getBytes(UTF_8)) {
+            unit.write(b);
+        }
+
+        assertThat(string(unit), is("abcd ... [2 bytes omitted] ... ghij"));
+    }
+
+    @Test
+    void shouldWrapAroundTailAcrossWrites() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(2, 4);
+        write(unit, "ab");
+        write(unit, "cd");
+        write(unit, "efg");
+        write(unit, "h");
+
+        assertThat(string(unit), is("ab ... [2 bytes omitted] ... efgh"));
+    }
+
+    @Test
+    void shouldRespectOffsetAndLength() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(2, 2);
+        unit.write("xxabcdefyy".getBytes(UTF_8), 2, 6);
+
+        assertThat(string(unit), is("ab ... [2 bytes omitted] ... ef"));
+    }
+
+    @Test
+    void shouldSupportHeadOnly() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(3, 0);
+        write(unit, "abcde");
+        unit.write('f');
+
+        assertThat(string(unit), is("abc ... [3 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldSupportTailOnly() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(0, 3);
+        write(unit, "abcdef");
+
+        assertThat(string(unit), is(" ... [3 bytes omitted] ... def"));
+    }
+
+    @Test
+    void shouldNotSplitTwoByteCharacterInHead() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(2, 0);
+        write(unit, "aäxyz");
+
+        assertThat(string(unit), is("a ... [5 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldNotSplitThreeByteCharacterInHead() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(3, 0);
+        write(unit, "a€xyz");
+
+        assertThat(string(unit), is("a ... [6 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldNotSplitFourByteCharacterInHead() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(4, 0);
+        write(unit, "a😀xyz");
+
+        assertThat(string(unit), is("a ... [7 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldKeepCompleteCharacterAtEndOfHead() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(3, 0);
+        write(unit, "aäxyz");
+
+        assertThat(string(unit), is("aä ... [3 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldKeepInvalidSequencesInHead() {
+        assertThat(bytes(new HeadTailBodyBuffer(1, 0), 0x80, 'a'),
+                is(concat(new byte[]{(byte) 0x80}, " ... [1 bytes omitted] ... ")));
+        assertThat(bytes(new HeadTailBodyBuffer(2, 0), 'a', 0xF8, 'b'),
+                is(concat(new byte[]{'a', (byte) 0xF8}, " ... [1 bytes omitted] ... ")));
+        assertThat(bytes(new HeadTailBodyBuffer(5, 0), 'a', 0x80, 0x80, 0x80, 0x80, 'b'),
+                is(concat(new byte[]{'a', (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+                        " ... [1 bytes omitted] ... ")));
+    }
+
+    @Test
+    void shouldNotSplitCharacterInTail() {
+        final BodyBuffer unit = new HeadTailBodyBuffer(0, 2);
+        write(unit, "xyzäb");
+
+        assertThat(string(unit), is(" ... [5 bytes omitted] ... b"));
+    }
+
+    @Test
+    void shouldSkipAtMostThreeContinuationBytesInTail() {
+        assertThat(bytes(new HeadTailBodyBuffer(0, 5), 'a', 0x80, 0x80, 0x80, 0x80, 'b'),
+                is(concat(" ... [4 bytes omitted] ... ", new byte[]{(byte) 0x80, 'b'})));
+        assertThat(bytes(new HeadTailBodyBuffer(0, 2), 'a', 0x80, 0x80),
+                is(concat(" ... [3 bytes omitted] ... ", new byte[0])));
+    }
+
+    private static void write(final BodyBuffer unit, final String s) {
+        final byte[] bytes = s.getBytes(UTF_8);
+        unit.write(bytes, 0, bytes.length);
+    }
+
+    private static String string(final BodyBuffer unit) {
+        return new String(unit.toByteArray(), UTF_8);
+    }
+
+    private static byte[] bytes(final BodyBuffer unit, final int... bytes) {
+        final byte[] array = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            array[i] = (byte) bytes[i];
+        }
+        unit.write(array, 0, array.length);
+        return unit.toByteArray();
+    }
+
+    private static byte[] concat(final byte[] head, final String marker) {
+        return concat(head, marker.getBytes(UTF_8), new byte[0]);
+    }
+
+    private static byte[] concat(final String marker, final byte[] tail) {
+        return concat(new byte[0], marker.getBytes(UTF_8), tail);
+    }
+
+    private static byte[] concat(final byte[] head, final byte[] marker, final byte[] tail) {
+        final byte[] result = new byte[head.length + marker.length + tail.length];
+        System.arraycopy(head, 0, result, 0, head.length);
+        System.arraycopy(marker, 0, result, head.length, marker.length);
+        System.arraycopy(tail, 0, result, head.length + marker.length, tail.length);
+        return result;
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class Sha256Test {
+
+    @Test
+    void shouldRethrowUnknownAlgorithm() {
+        assertThrows(NoSuchAlgorithmException.class, () -> Sha256.newDigest("unknown"));
+    }
+
+    @Test
+    void shouldRethrowUncloneableDigest() {
+        final MessageDigest digest = new MessageDigest("uncloneable") {
+            @Override
+            protected void engineUpdate(final byte input) {
+                // not needed
+            }
+
+            @Override
+            protected void engineUpdate(final byte[] input, final int offset, final int len) {
+                // not needed
+            }
+
+            @Override
+            protected byte[] engineDigest() {
+                return new byte[0];
+            }
+
+            @Override
+            protected void engineReset() {
+                // not needed
+            }
+        };
+
+        assertThrows(CloneNotSupportedException.class, () -> Sha256.copy(digest));
+    }
+
+}
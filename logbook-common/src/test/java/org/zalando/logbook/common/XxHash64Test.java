@@ -0,0 +1,66 @@
+package org.zalando.logbook.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class XxHash64Test {
+
+    @Test
+    void shouldHashEmptyInput() {
+        assertThat(hash(""), is("ef46db3751d8e999"));
+    }
+
+    @Test
+    void shouldHashShortInput() {
+        assertThat(hash("abc"), is("44bc2cf5ad770999"));
+    }
+
+    @Test
+    void shouldHashInputLongerThanOneStripe() {
+        assertThat(hash("Nobody inspects the spammish repetition"), is("fbcea83c8a378bf1"));
+    }
+
+    @Test
+    void shouldHashIncrementally() {
+        final byte[] input = new byte[1000];
+        new Random(42).nextBytes(input);
+
+        final XxHash64 expected = new XxHash64();
+        expected.update(input, 0, input.length);
+
+        final XxHash64 bytewise = new XxHash64();
+        for (final byte b : input) {
+            bytewise.update(b);
+        }
+
+        final XxHash64 chunked = new XxHash64();
+        final Random random = new Random(7);
+        int offset = 0;
+        while (offset < input.length) {
+            final int length = Math.min(random.nextInt(70), input.length - offset);
+            chunked.update(input, offset, length);
+            offset += length;
+        }
+
+        assertThat(bytewise.digest(), is(expected.digest()));
+        assertThat(chunked.digest(), is(expected.digest()));
+    }
+
+    private static String hash(final String input) {
+        final XxHash64 unit = new XxHash64();
+        final byte[] bytes = input.getBytes(UTF_8);
+        unit.update(bytes, 0, bytes.length);
+
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : unit.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+}
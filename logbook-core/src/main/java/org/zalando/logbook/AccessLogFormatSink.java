@@ -0,0 +1,380 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
+import static java.time.temporal.ChronoField.HOUR_OF_DAY;
+import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
+import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
+import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
+import static java.time.temporal.ChronoField.YEAR;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} that writes one line per exchange, as defined by an Apache-style log format pattern. The pattern
+ * is compiled once into a sequence of specialized appenders which render into a reusable, per-thread buffer.
+ * Timestamps are rendered at most once per second. Body sizes are taken from {@link HttpMessage#getBodyLength()}, i.e.
+ * they don't require bodies to be recorded, e.g. when used together with a {@link WithoutBodyStrategy}.
+ *
+ * <table>
+ *     <caption>Supported directives</caption>
+ *     <tr><td>{@code %%}</td><td>the percent sign</td></tr>
+ *     <tr><td>{@code %a}, {@code %h}</td><td>remote address</td></tr>
+ *     <tr><td>{@code %l}, {@code %u}</td><td>remote logname and user, always {@code -}</td></tr>
+ *     <tr><td>{@code %t}</td><td>request start, in the Common Log Format</td></tr>
+ *     <tr><td>{@code %{pattern}t}</td><td>request start, as a {@link DateTimeFormatter} pattern</td></tr>
+ *     <tr><td>{@code %r}</td><td>request line, i.e. method, path, query and protocol</td></tr>
+ *     <tr><td>{@code %m}</td><td>request method</td></tr>
+ *     <tr><td>{@code %U}</td><td>request path</td></tr>
+ *     <tr><td>{@code %q}</td><td>query string, prefixed with {@code ?}, if any</td></tr>
+ *     <tr><td>{@code %H}</td><td>request protocol</td></tr>
+ *     <tr><td>{@code %v}</td><td>request host</td></tr>
+ *     <tr><td>{@code %s}, {@code %>s}</td><td>response status</td></tr>
+ *     <tr><td>{@code %b}</td><td>response body size in bytes, {@code -} if empty or unknown</td></tr>
+ *     <tr><td>{@code %B}, {@code %O}</td><td>response body size in bytes, {@code -} if unknown</td></tr>
+ *     <tr><td>{@code %I}</td><td>request body size in bytes, {@code -} if unknown</td></tr>
+ *     <tr><td>{@code %D}</td><td>duration in microseconds</td></tr>
+ *     <tr><td>{@code %T}, {@code %{s|ms|us}T}</td><td>duration in seconds, or the given unit</td></tr>
+ *     <tr><td>{@code %{name}i}</td><td>request header, {@code -} if absent</td></tr>
+ *     <tr><td>{@code %{name}o}</td><td>response header, {@code -} if absent</td></tr>
+ *     <tr><td>{@code %L}</td><td>correlation id</td></tr>
+ * </table>
+ *
+ * @see <a href="https://httpd.apache.org/docs/current/mod/mod_log_config.html#formats">Apache HTTP Server: Custom
+ * Log Formats</a>
+ */
+@API(status = EXPERIMENTAL)
+public final class AccessLogFormatSink implements Sink {
+
+    /**
+     * @see <a href="https://httpd.apache.org/docs/trunk/logs.html#common">Apache HTTP Server: Common Log Format</a>
+     */
+    public static final String COMMON = "%h %l %u %t \"%r\" %>s %b";
+
+    /**
+     * @see <a href="https://httpd.apache.org/docs/trunk/logs.html#combined">Apache HTTP Server: Combined Log
+     * Format</a>
+     */
+    public static final String COMBINED = COMMON + " \"%{Referer}i\" \"%{User-agent}i\"";
+
+    /**
+     * Buffers that grew beyond this number of characters are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final DateTimeFormatter COMMON_LOG_FORMAT = new DateTimeFormatterBuilder()
+            .appendLiteral('[')
+            .appendValue(DAY_OF_MONTH, 2)
+            .appendLiteral('/')
+            .appendText(MONTH_OF_YEAR, TextStyle.SHORT)
+            .appendLiteral('/')
+            .appendValue(YEAR, 4)
+            .appendLiteral(':')
+            .appendValue(HOUR_OF_DAY, 2)
+            .appendLiteral(':')
+            .appendValue(MINUTE_OF_HOUR, 2)
+            .appendLiteral(':')
+            .appendValue(SECOND_OF_MINUTE, 2)
+            .appendLiteral(' ')
+            .appendOffset("+HHMM", "0000")
+            .appendLiteral(']')
+            .toFormatter();
+
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final HttpLogWriter writer;
+    private final Appender[] appenders;
+
+    public AccessLogFormatSink(final HttpLogWriter writer, final String pattern) {
+        this(writer, pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param writer the writer to write lines to
+     * @param pattern the log format pattern
+     * @param timeZone the time zone used to render timestamps
+     * @throws IllegalArgumentException if the pattern contains malformed or unsupported directives
+     */
+    public AccessLogFormatSink(final HttpLogWriter writer, final String pattern, final ZoneId timeZone) {
+        this.writer = writer;
+        this.appenders = compile(pattern, timeZone);
+    }
+
+    @Override
+    public boolean isActive() {
+        return writer.isActive();
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) {
+        // nothing to do...
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        final StringBuilder output = builders.get();
+
+        try {
+            for (final Appender appender : appenders) {
+                appender.append(correlation, request, response, output);
+            }
+            writer.write(correlation, output.toString());
+        } finally {
+            if (output.capacity() > MAX_RETAINED_CAPACITY) {
+                builders.remove();
+            } else {
+                output.setLength(0);
+            }
+        }
+    }
+
+    private static Appender[] compile(final String pattern, final ZoneId timeZone) {
+        final List<Appender> appenders = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+
+        while (i < pattern.length()) {
+            final char c = pattern.charAt(i++);
+
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+
+            String argument = null;
+
+            if (i < pattern.length() && pattern.charAt(i) == '{') {
+                final int end = pattern.indexOf('}', i);
+
+                if (end == -1) {
+                    throw new IllegalArgumentException("Unterminated argument in: " + pattern);
+                }
+
+                argument = pattern.substring(i + 1, end);
+                i = end + 1;
+            }
+
+            if (i < pattern.length() && (pattern.charAt(i) == '>' || pattern.charAt(i) == '<')) {
+                i++;
+            }
+
+            if (i == pattern.length()) {
+                throw new IllegalArgumentException("Incomplete directive at the end of: " + pattern);
+            }
+
+            final char directive = pattern.charAt(i++);
+
+            if (directive == '%' && argument == null) {
+                literal.append('%');
+                continue;
+            }
+
+            flush(literal, appenders);
+            appenders.add(directive(directive, argument, timeZone));
+        }
+
+        flush(literal, appenders);
+        return appenders.toArray(new Appender[0]);
+    }
+
+    private static void flush(final StringBuilder literal, final List<Appender> appenders) {
+        if (literal.length() > 0) {
+            final String text = literal.toString();
+            appenders.add((correlation, request, response, output) -> output.append(text));
+            literal.setLength(0);
+        }
+    }
+
+    private static Appender directive(final char directive, final String argument, final ZoneId timeZone) {
+        switch (directive) {
+            case 't':
+                return new TimestampAppender(argument == null ?
+                        COMMON_LOG_FORMAT :
+                        DateTimeFormatter.ofPattern(argument), timeZone);
+            case 'T':
+                return duration(argument == null ? "s" : argument);
+            case 'i':
+                final String requestHeader = required(directive, argument);
+                return (correlation, request, response, output) ->
+                        appendHeader(request.getHeaders(), requestHeader, output);
+            case 'o':
+                final String responseHeader = required(directive, argument);
+                return (correlation, request, response, output) ->
+                        appendHeader(response.getHeaders(), responseHeader, output);
+        }
+
+        if (argument != null) {
+            throw new IllegalArgumentException("Directive %" + directive + " doesn't support arguments");
+        }
+
+        switch (directive) {
+            case 'a':
+            case 'h':
+                return (correlation, request, response, output) -> output.append(request.getRemote());
+            case 'l':
+            case 'u':
+                return (correlation, request, response, output) -> output.append('-');
+            case 'r':
+                return (correlation, request, response, output) -> {
+                    output.append(request.getMethod()).append(' ').append(request.getPath());
+                    appendQuery(request, output);
+                    output.append(' ').append(request.getProtocolVersion());
+                };
+            case 'm':
+                return (correlation, request, response, output) -> output.append(request.getMethod());
+            case 'U':
+                return (correlation, request, response, output) -> output.append(request.getPath());
+            case 'q':
+                return (correlation, request, response, output) -> appendQuery(request, output);
+            case 'H':
+                return (correlation, request, response, output) -> output.append(request.getProtocolVersion());
+            case 'v':
+                return (correlation, request, response, output) -> output.append(request.getHost());
+            case 's':
+                return (correlation, request, response, output) -> output.append(response.getStatus());
+            case 'b':
+                return (correlation, request, response, output) -> {
+                    final long bytes = response.getBodyLength();
+                    if (bytes <= 0) {
+                        output.append('-');
+                    } else {
+                        output.append(bytes);
+                    }
+                };
+            case 'B':
+            case 'O':
+                return (correlation, request, response, output) -> appendLength(response.getBodyLength(), output);
+            case 'I':
+                return (correlation, request, response, output) -> appendLength(request.getBodyLength(), output);
+            case 'D':
+                return duration("us");
+            case 'L':
+                return (correlation, request, response, output) -> output.append(correlation.getId());
+            default:
+                throw new IllegalArgumentException("Unsupported directive: %" + directive);
+        }
+    }
+
+    private static String required(final char directive, final String argument) {
+        if (argument == null || argument.isEmpty()) {
+            throw new IllegalArgumentException("Directive %" + directive + " requires an argument, e.g. %{name}" +
+                    directive);
+        }
+        return argument;
+    }
+
+    private static Appender duration(final String unit) {
+        switch (unit) {
+            case "s":
+                return (correlation, request, response, output) ->
+                        output.append(correlation.getDuration().getSeconds());
+            case "ms":
+                return (correlation, request, response, output) ->
+                        output.append(correlation.getDuration().toMillis());
+            case "us":
+                return (correlation, request, response, output) -> {
+                    final Duration duration = correlation.getDuration();
+                    output.append(duration.getSeconds() * 1_000_000 + duration.getNano() / 1_000);
+                };
+            default:
+                throw new IllegalArgumentException("Unsupported time unit: " + unit);
+        }
+    }
+
+    private static void appendLength(final long length, final StringBuilder output) {
+        if (length < 0) {
+            output.append('-');
+        } else {
+            output.append(length);
+        }
+    }
+
+    private static void appendHeader(final Map<String, List<String>> headers, final String name,
+            final StringBuilder output) {
+
+        final List<String> values = headers.get(name);
+
+        if (values == null || values.isEmpty()) {
+            output.append('-');
+            return;
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                output.append(", ");
+            }
+            output.append(values.get(i));
+        }
+    }
+
+    private static void appendQuery(final HttpRequest request, final StringBuilder output) {
+        final String query = request.getQuery();
+
+        if (!query.isEmpty()) {
+            output.append('?');
+            output.append(query);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Appender {
+        void append(Correlation correlation, HttpRequest request, HttpResponse response, StringBuilder output)
+                throws IOException;
+    }
+
+    /**
+     * Renders timestamps once per second and reuses the result for every other request that started within the
+     * same second.
+     */
+    private static final class TimestampAppender implements Appender {
+
+        private final DateTimeFormatter formatter;
+        private final ZoneId timeZone;
+
+        private volatile Timestamp cached = new Timestamp(Long.MIN_VALUE, "");
+
+        TimestampAppender(final DateTimeFormatter formatter, final ZoneId timeZone) {
+            this.formatter = formatter;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        public void append(final Correlation correlation, final HttpRequest request, final HttpResponse response,
+                final StringBuilder output) {
+
+            final long second = correlation.getStart().getEpochSecond();
+            Timestamp timestamp = cached;
+
+            if (timestamp.second != second) {
+                timestamp = new Timestamp(second,
+                        formatter.format(Instant.ofEpochSecond(second).atZone(timeZone)));
+                cached = timestamp;
+            }
+
+            output.append(timestamp.text);
+        }
+
+    }
+
+    @AllArgsConstructor
+    private static final class Timestamp {
+        private final long second;
+        private final String text;
+    }
+
+}
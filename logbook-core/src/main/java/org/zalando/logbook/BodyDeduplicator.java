@@ -0,0 +1,10 @@
+package org.zalando.logbook;
+
+import java.io.IOException;
+
+@FunctionalInterface
+interface BodyDeduplicator {
+
+    byte[] deduplicate(HttpMessage message) throws IOException;
+
+}
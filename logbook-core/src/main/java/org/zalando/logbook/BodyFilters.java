@@ -1,6 +1,7 @@
 package org.zalando.logbook;
 
 import org.apiguardian.api.API;
+import org.zalando.logbook.common.BodyFingerprint;
 import org.zalando.logbook.common.MediaTypeQuery;
 
 import java.util.HashSet;
@@ -57,6 +58,20 @@ public final class BodyFilters {
         return (contentType, body) -> body.length() <= maxSize ? body : body.substring(0, maxSize) + "...";
     }
 
+    /**
+     * Creates a {@link BodyFilter} that replaces bodies by their length and a hash, e.g. for high-volume endpoints
+     * where it's sufficient to know whether two messages carried the same body. Use
+     * {@link org.zalando.logbook.common.BodyCapture#fingerprint(BodyFingerprint)} instead, to avoid buffering bodies
+     * in the first place.
+     *
+     * @param fingerprint the hash algorithm
+     * @return BodyFilter generated
+     */
+    @API(status = EXPERIMENTAL)
+    public static BodyFilter fingerprint(final BodyFingerprint fingerprint) {
+        return new FingerprintBodyFilter(fingerprint);
+    }
+
     @API(status = EXPERIMENTAL)
     public static BodyFilter compactXml() {
         return new CompactingXmlBodyFilter();
@@ -0,0 +1,595 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.With;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static lombok.AccessLevel.PRIVATE;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Ships messages straight to an HTTP collector, bypassing any logging framework and log shipping sidecar. Messages
+ * are collected into batches of newline-delimited JSON, i.e. they are expected to be single lines, as produced by a
+ * compact JSON formatter. Batches are sealed once they reach a maximum size, or once they lingered for a given time,
+ * compressed using gzip and posted by a small number of sender threads, each of which keeps its connection alive.
+ *
+ * While the collector is unavailable, batches are written ahead to a bounded spool directory and retried, oldest
+ * first, with exponential backoff. Spooled batches survive restarts. Once the spool would exceed its maximum size,
+ * its oldest batches are dropped. Batches that the collector rejects, i.e. with a client error other than
+ * {@code 408} or {@code 429}, are dropped as well, as are batches that can't be handed over to the senders, because
+ * too many of them are pending already.
+ */
+@API(status = EXPERIMENTAL)
+@Slf4j
+public final class CollectorHttpLogWriter implements ByteHttpLogWriter, Closeable {
+
+    private static final String SUFFIX = ".ndjson.gz";
+    private static final String TEMPORARY = ".tmp";
+    private static final Pattern SPOOLED = Pattern.compile("[0-9a-f]{16}\\.ndjson\\.gz");
+
+    // the longest time a sender waits before noticing that it should stop
+    private static final long POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // magic number, deflate, no flags, no modification time, no extra flags, unknown operating system
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final URL endpoint;
+    private final Path spool;
+    private final Options options;
+    private final ExecutorService senders;
+
+    private final Object lock = new Object();
+    private final BlockingQueue<byte[]> pending;
+    private final ConcurrentLinkedDeque<Segment> spooled = new ConcurrentLinkedDeque<>();
+    private final AtomicLong spoolSize = new AtomicLong();
+    private final AtomicLong sequence;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // guarded by lock
+    private ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private long batchStart;
+    private boolean closed;
+
+    private volatile boolean stopping;
+
+    public CollectorHttpLogWriter(final URI endpoint, final Path spool) throws IOException {
+        this(endpoint, spool, Options.defaults());
+    }
+
+    /**
+     * @param endpoint the collector's endpoint, batches are posted to
+     * @param spool the directory that batches are written ahead to while the collector is unavailable, it will be
+     *              created if missing
+     * @param options the options
+     * @throws IOException if the endpoint is malformed or the spool directory can't be read
+     */
+    public CollectorHttpLogWriter(final URI endpoint, final Path spool, final Options options) throws IOException {
+        this(endpoint, spool, options, Executors.newFixedThreadPool(options.connections, runnable -> {
+            final Thread thread = new Thread(runnable, "logbook-collector-sender");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    CollectorHttpLogWriter(final URI endpoint, final Path spool, final Options options,
+            final ExecutorService senders) throws IOException {
+        this.endpoint = endpoint.toURL();
+        this.spool = Files.createDirectories(spool);
+        this.options = options;
+        this.pending = new ArrayBlockingQueue<>(options.connections * 4);
+        this.sequence = new AtomicLong(recover());
+        this.senders = senders;
+
+        for (int i = 0; i < options.connections; i++) {
+            senders.execute(this::send);
+        }
+    }
+
+    /**
+     * Picks up batches that were spooled before, oldest first.
+     *
+     * @return the next sequence number
+     */
+    private long recover() throws IOException {
+        try (final Stream<Path> files = Files.list(spool)) {
+            for (final Path file : files.sorted().collect(Collectors.toList())) {
+                final String name = file.getFileName().toString();
+
+                if (name.endsWith(TEMPORARY)) {
+                    Files.delete(file);
+                } else if (SPOOLED.matcher(name).matches()) {
+                    final Segment segment = new Segment(file, Files.size(file));
+                    spooled.addLast(segment);
+                    spoolSize.addAndGet(segment.size);
+                } else if (name.endsWith(SUFFIX)) {
+                    log.warn("Ignoring {}, since it's not named like a spooled batch", file);
+                }
+            }
+        }
+
+        @Nullable final Segment last = spooled.peekLast();
+        return last == null ? 0 :
+                Long.parseUnsignedLong(last.file.getFileName().toString().replace(SUFFIX, ""), 16) + 1;
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) throws IOException {
+        append(request.getBytes(UTF_8));
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) throws IOException {
+        append(response.getBytes(UTF_8));
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) throws IOException {
+        append(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) throws IOException {
+        append(response);
+    }
+
+    private void append(final ByteBuffer message) throws IOException {
+        if (message.hasArray()) {
+            append(message.array(), message.arrayOffset() + message.position(), message.remaining());
+        } else {
+            final byte[] bytes = new byte[message.remaining()];
+            message.duplicate().get(bytes);
+            append(bytes);
+        }
+    }
+
+    private void append(final byte[] message) throws IOException {
+        append(message, 0, message.length);
+    }
+
+    private void append(final byte[] message, final int offset, final int length) throws IOException {
+        @Nullable final byte[] sealed;
+
+        synchronized (lock) {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+
+            if (batch.size() == 0) {
+                batchStart = System.nanoTime();
+            }
+
+            batch.write(message, offset, length);
+            batch.write('\n');
+            sealed = batch.size() >= options.maxBatchSize ? seal() : null;
+        }
+
+        enqueue(sealed);
+    }
+
+    // requires lock
+    @Nullable
+    private byte[] seal() {
+        if (batch.size() == 0) {
+            return null;
+        }
+
+        final byte[] sealed = batch.toByteArray();
+        batch = new ByteArrayOutputStream();
+        return sealed;
+    }
+
+    private void enqueue(@Nullable final byte[] sealed) {
+        if (sealed != null && !pending.offer(sealed)) {
+            dropped.increment();
+        }
+    }
+
+    private void linger() {
+        synchronized (lock) {
+            if (System.nanoTime() - batchStart >= options.linger.toNanos()) {
+                enqueue(seal());
+            }
+        }
+    }
+
+    private void send() {
+        try {
+            int failures = 0;
+
+            while (!stopping) {
+                try {
+                    if (attempt()) {
+                        failures = 0;
+                    } else {
+                        backoff(++failures);
+                    }
+                } catch (final RuntimeException e) {
+                    // senders are never replaced, i.e. giving up would eventually leave none
+                    log.error("Unexpected failure while sending batches to {}", endpoint, e);
+                    pause(++failures);
+                }
+            }
+
+            @Nullable byte[] batch;
+
+            while ((batch = pending.poll()) != null) {
+                try {
+                    deliver(new Batch(compress(batch), null));
+                } catch (final RuntimeException e) {
+                    log.error("Unexpected failure while sending batch to {}", endpoint, e);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Seals the current batch if it lingered for too long, and sends the next batch, if any.
+     *
+     * @return false if the next batch couldn't be delivered, true otherwise
+     */
+    private boolean attempt() throws InterruptedException {
+        linger();
+
+        @Nullable final Batch batch = next();
+        return batch == null || deliver(batch);
+    }
+
+    /**
+     * Prefers fresh batches, while spooled batches are sent whenever there is nothing else to do.
+     */
+    @Nullable
+    private Batch next() throws InterruptedException {
+        @Nullable byte[] batch = pending.poll();
+
+        if (batch == null) {
+            @Nullable final Segment segment = spooled.pollFirst();
+
+            if (segment != null) {
+                return load(segment);
+            }
+
+            batch = pending.poll(Math.min(options.linger.toNanos(), POLL_INTERVAL), NANOSECONDS);
+        }
+
+        return batch == null ? null : new Batch(compress(batch), null);
+    }
+
+    private boolean deliver(final Batch batch) {
+        final int status;
+
+        try {
+            status = post(batch.body);
+        } catch (final IOException e) {
+            log.debug("Failed to post batch to {}", endpoint, e);
+            spool(batch);
+            return false;
+        } catch (final RuntimeException e) {
+            spool(batch);
+            throw e;
+        }
+
+        if (status < 300) {
+            sent.increment();
+        } else if (status < 500 && status != 408 && status != 429) {
+            log.warn("Dropping batch rejected by {} with {}", endpoint, status);
+            dropped.increment();
+        } else {
+            spool(batch);
+            return false;
+        }
+
+        release(batch);
+        return true;
+    }
+
+    private int post(final byte[] body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        final int timeout = (int) options.timeout.toMillis();
+
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", "application/x-ndjson");
+        connection.setRequestProperty("Content-Encoding", "gzip");
+        options.headers.forEach(connection::setRequestProperty);
+
+        try (final OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+
+        final int status = connection.getResponseCode();
+
+        // fully consumed responses allow the connection to be reused
+        try (final InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            consume(input);
+        }
+
+        return status;
+    }
+
+    private static void consume(@Nullable final InputStream input) throws IOException {
+        if (input != null) {
+            final byte[] buffer = new byte[1024];
+
+            //noinspection StatementWithEmptyBody
+            while (input.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+
+    private void backoff(final int failures) throws InterruptedException {
+        final long deadline = deadline(failures);
+        long remaining;
+
+        // the collector is most likely still unavailable, so new batches go straight to the spool
+        while (!stopping && (remaining = deadline - System.nanoTime()) > 0) {
+            linger();
+
+            @Nullable final byte[] batch = pending.poll(Math.min(remaining, POLL_INTERVAL), NANOSECONDS);
+
+            if (batch != null) {
+                spool(new Batch(compress(batch), null));
+            }
+        }
+    }
+
+    /**
+     * Backs off without touching any batches, in case handling them is what failed.
+     */
+    private void pause(final int failures) throws InterruptedException {
+        final long deadline = deadline(failures);
+        long remaining;
+
+        while (!stopping && (remaining = deadline - System.nanoTime()) > 0) {
+            NANOSECONDS.sleep(Math.min(remaining, POLL_INTERVAL));
+        }
+    }
+
+    private long deadline(final int failures) {
+        final long max = options.minBackoff.toNanos() << Math.min(failures - 1, 20);
+        final long delay = Math.min(max, options.maxBackoff.toNanos());
+        return System.nanoTime() + ThreadLocalRandom.current().nextLong(delay / 2, delay + 1);
+    }
+
+    private void spool(final Batch batch) {
+        if (batch.segment != null) {
+            spooled.addFirst(batch.segment);
+            return;
+        }
+
+        synchronized (spooled) {
+            while (spoolSize.get() + batch.body.length > options.maxSpoolSize) {
+                @Nullable final Segment oldest = spooled.pollFirst();
+
+                if (oldest == null) {
+                    dropped.increment();
+                    return;
+                }
+
+                delete(oldest);
+                dropped.increment();
+            }
+
+            final Path file = spool.resolve(String.format("%016x", sequence.getAndIncrement()) + SUFFIX);
+            final Path temporary = spool.resolve(file.getFileName() + TEMPORARY);
+
+            try {
+                Files.write(temporary, batch.body);
+                Files.move(temporary, file, ATOMIC_MOVE);
+            } catch (final IOException e) {
+                log.warn("Dropping batch that couldn't be spooled to {}", file, e);
+                dropped.increment();
+                return;
+            }
+
+            spoolSize.addAndGet(batch.body.length);
+            spooled.addLast(new Segment(file, batch.body.length));
+        }
+    }
+
+    @Nullable
+    private Batch load(final Segment segment) {
+        try {
+            return new Batch(Files.readAllBytes(segment.file), segment);
+        } catch (final IOException e) {
+            log.warn("Dropping spooled batch that couldn't be read from {}", segment.file, e);
+            delete(segment);
+            dropped.increment();
+            return null;
+        }
+    }
+
+    private void release(final Batch batch) {
+        if (batch.segment != null) {
+            delete(batch.segment);
+        }
+    }
+
+    private void delete(final Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (final IOException e) {
+            log.warn("Failed to delete spooled batch {}", segment.file, e);
+        }
+
+        spoolSize.addAndGet(-segment.size);
+    }
+
+    /**
+     * Produces a single gzip member, see <a href="https://tools.ietf.org/html/rfc1952">RFC 1952</a>.
+     */
+    private static byte[] compress(final byte[] batch) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(batch.length / 4 + 32);
+        output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final byte[] buffer = new byte[8192];
+
+        try {
+            deflater.setInput(batch);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(batch);
+        writeIntLittleEndian(output, (int) checksum.getValue());
+        writeIntLittleEndian(output, batch.length);
+
+        return output.toByteArray();
+    }
+
+    private static void writeIntLittleEndian(final ByteArrayOutputStream output, final int value) {
+        output.write(value);
+        output.write(value >>> 8);
+        output.write(value >>> 16);
+        output.write(value >>> 24);
+    }
+
+    /**
+     * @return the number of batches that were accepted by the collector
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * @return the number of batches that were dropped, see above
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the size of all batches that are currently spooled, in bytes
+     */
+    public long getSpoolSize() {
+        return spoolSize.get();
+    }
+
+    /**
+     * Stops accepting messages and waits for pending batches to be sent, or spooled if the collector is unavailable.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            enqueue(seal());
+        }
+
+        stopping = true;
+        senders.shutdown();
+
+        try {
+            senders.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Batch {
+
+        private final byte[] body;
+
+        @Nullable
+        private final Segment segment;
+
+    }
+
+    @AllArgsConstructor
+    private static final class Segment {
+
+        private final Path file;
+        private final long size;
+
+    }
+
+    @API(status = EXPERIMENTAL)
+    @FieldDefaults(level = PRIVATE)
+    @With
+    @NoArgsConstructor(staticName = "defaults")
+    @AllArgsConstructor(access = PRIVATE)
+    public static final class Options {
+
+        /**
+         * Additional request headers, e.g. for authorization.
+         */
+        Map<String, String> headers = Collections.emptyMap();
+
+        /**
+         * The uncompressed size in bytes a batch may reach before it's sealed.
+         */
+        int maxBatchSize = 1024 * 1024;
+
+        /**
+         * The time after which a partial batch is sealed.
+         */
+        Duration linger = Duration.ofSeconds(1);
+
+        /**
+         * The number of sender threads, and therefore connections to the collector.
+         */
+        int connections = 2;
+
+        /**
+         * The compressed size in bytes all spooled batches may reach before the oldest are dropped.
+         */
+        long maxSpoolSize = 100 * 1024 * 1024;
+
+        Duration timeout = Duration.ofSeconds(10);
+        Duration minBackoff = Duration.ofMillis(100);
+        Duration maxBackoff = Duration.ofMinutes(1);
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Writes one message per line to standard output, or error, e.g. in containerized deployments. Unlike the
+ * {@link StreamHttpLogWriter}, it doesn't go through {@link System#out} and its lock, but writes to the file
+ * descriptor directly. Messages are encoded as UTF-8, using a buffer per thread, and messages of concurrent threads
+ * are written together, i.e. a thread that finds another one writing adds its message to the next batch instead of
+ * waiting for the lock. Batches only contain complete lines and are written one at a time, so messages of this
+ * writer never interleave.
+ *
+ * Other writers to the same file descriptor, e.g. {@link System#out} or a logging framework's console appender, may
+ * still interleave with messages that exceed the atomic write size of pipes, usually 4 KB.
+ */
+@API(status = EXPERIMENTAL)
+public final class ConsoleHttpLogWriter implements ByteHttpLogWriter {
+
+    private final GroupCommit commit;
+
+    public ConsoleHttpLogWriter() {
+        this(FileDescriptor.out);
+    }
+
+    /**
+     * @param descriptor the file descriptor to write to, e.g. {@link FileDescriptor#err}
+     */
+    public ConsoleHttpLogWriter(final FileDescriptor descriptor) {
+        this(new FileOutputStream(descriptor));
+    }
+
+    /**
+     * A stream rather than a {@link java.nio.channels.FileChannel channel}, since the latter would be closed for
+     * good as soon as a writing thread gets interrupted.
+     */
+    ConsoleHttpLogWriter(final OutputStream stream) {
+        this.commit = new GroupCommit(batch ->
+                stream.write(batch.array(), batch.arrayOffset() + batch.position(), batch.remaining()));
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) throws IOException {
+        commit.append(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) throws IOException {
+        commit.append(response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) throws IOException {
+        commit.append(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) throws IOException {
+        commit.append(response);
+    }
+
+}
@@ -3,8 +3,8 @@ package org.zalando.logbook;
 import org.apiguardian.api.API;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map.Entry;
 
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 
@@ -12,7 +12,7 @@ import static org.apiguardian.api.API.Status.EXPERIMENTAL;
  * Formats requests as cURL commands.
  */
 @API(status = EXPERIMENTAL)
-public final class CurlHttpLogFormatter implements HttpLogFormatter {
+public final class CurlHttpLogFormatter implements StreamingHttpLogFormatter {
 
     private final HttpLogFormatter fallback;
 
@@ -26,40 +26,60 @@ public final class CurlHttpLogFormatter implements HttpLogFormatter {
 
     @Override
     public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
-        final List<String> command = new ArrayList<>();
+        final String body = request.getBodyAsString();
 
-        command.add(precorrelation.getId());
-        command.add("curl");
-        command.add("-v"); // TODO optional?
+        final StringBuilder builder = new StringBuilder(body.length() + 2048);
+        format(precorrelation, request, body, builder);
+        return builder.toString();
+    }
 
-        command.add("-X");
-        command.add(request.getMethod());
+    @Override
+    public void format(final Precorrelation precorrelation, final HttpRequest request, final Appendable output)
+            throws IOException {
+        format(precorrelation, request, request.getBodyAsString(), output);
+    }
 
-        command.add(quote(request.getRequestUri()));
+    private void format(final Precorrelation precorrelation, final HttpRequest request, final String body,
+            final Appendable output) throws IOException {
 
-        request.getHeaders().forEach((header, values) -> {
-            values.forEach(value -> {
-                command.add("-H");
-                command.add(quote(header + ": " + value));
-            });
-        });
+        output.append(precorrelation.getId());
+        output.append(" curl -v"); // TODO optional?
 
-        final String body = request.getBodyAsString();
+        output.append(" -X ");
+        output.append(request.getMethod());
 
-        if (!body.isEmpty()) {
-            command.add("--data-binary");
-            command.add(quote(body));
+        output.append(" '");
+        escape(request.getRequestUri(), output);
+        output.append('\'');
+
+        for (final Entry<String, List<String>> header : request.getHeaders().entrySet()) {
+            for (final String value : header.getValue()) {
+                output.append(" -H '");
+                escape(header.getKey(), output);
+                output.append(": ");
+                escape(value, output);
+                output.append('\'');
+            }
         }
 
-        return String.join(" ", command);
+        if (!body.isEmpty()) {
+            output.append(" --data-binary '");
+            escape(body, output);
+            output.append('\'');
+        }
     }
 
-    private static String quote(final String s) {
-        return "'" + escape(s) + "'";
-    }
+    private static void escape(final String s, final Appendable output) throws IOException {
+        int start = 0;
+        int quote;
 
-    private static String escape(final String s) {
-        return s.replace("'", "\\'");
+        while ((quote = s.indexOf('\'', start)) != -1) {
+            output.append(s, start, quote);
+            output.append("\\'");
+            start = quote + 1;
+        }
+
+        output.append(s, start, s.length());
     }
 
     @Override
@@ -68,4 +88,14 @@ public final class CurlHttpLogFormatter implements HttpLogFormatter {
         return fallback.format(correlation, response);
     }
 
+    @Override
+    public void format(final Correlation correlation, final HttpResponse response, final Appendable output)
+            throws IOException {
+        if (fallback instanceof StreamingHttpLogFormatter) {
+            ((StreamingHttpLogFormatter) fallback).format(correlation, response, output);
+        } else {
+            output.append(fallback.format(correlation, response));
+        }
+    }
+
 }
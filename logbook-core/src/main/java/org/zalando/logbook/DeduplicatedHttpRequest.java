@@ -0,0 +1,30 @@
+package org.zalando.logbook;
+
+import static org.zalando.fauxpas.FauxPas.throwingSupplier;
+
+final class DeduplicatedHttpRequest implements ForwardingHttpRequest {
+
+    private final HttpRequest request;
+    private final Cache<byte[]> body;
+
+    DeduplicatedHttpRequest(final HttpRequest request, final BodyDeduplicator deduplicator) {
+        this.request = request;
+        this.body = new Cache<>(throwingSupplier(() -> deduplicator.deduplicate(request)));
+    }
+
+    @Override
+    public HttpRequest delegate() {
+        return request;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body.get();
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return new String(getBody(), getCharset());
+    }
+
+}
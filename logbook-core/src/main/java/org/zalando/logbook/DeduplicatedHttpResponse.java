@@ -0,0 +1,30 @@
+package org.zalando.logbook;
+
+import static org.zalando.fauxpas.FauxPas.throwingSupplier;
+
+final class DeduplicatedHttpResponse implements ForwardingHttpResponse {
+
+    private final HttpResponse response;
+    private final Cache<byte[]> body;
+
+    DeduplicatedHttpResponse(final HttpResponse response, final BodyDeduplicator deduplicator) {
+        this.response = response;
+        this.body = new Cache<>(throwingSupplier(() -> deduplicator.deduplicate(response)));
+    }
+
+    @Override
+    public HttpResponse delegate() {
+        return response;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body.get();
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return new String(getBody(), getCharset());
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import org.apiguardian.api.API;
+import org.zalando.logbook.common.BodyFingerprint;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} decorator that logs repeated bodies only once per time window. Bodies are hashed after
+ * filtering. Bodies that were already logged within the window are replaced by a reference to their hash, e.g.
+ * {@code {"body_ref":"44bc2cf5ad770999"}}, i.e. the {@link BodyFingerprint#XXH64 xxHash64} of the original body.
+ * Once the window elapsed, the full body is logged again, so that logs stay self-contained.
+ *
+ * The hashes of recently logged bodies are kept in a concurrent cache, so that hits don't contend for a lock. Once it
+ * exceeds its capacity, the hashes whose bodies were logged in full the longest ago, i.e. those that expire first,
+ * are evicted. Eviction is approximate: concurrent writers may briefly exceed the capacity, or evict a younger hash,
+ * which merely causes its body to be logged in full once more. Hits, misses and the cache's approximate memory usage
+ * are exposed for monitoring purposes.
+ */
+@API(status = EXPERIMENTAL)
+public final class DeduplicatingSink implements Sink {
+
+    /**
+     * Approximate number of bytes retained per cache entry: the map entry, the hex-encoded hash, the timestamp, a slot
+     * in the hash table and the entry's node in the eviction queue, assuming compressed references.
+     */
+    private static final int ENTRY_SIZE = 176;
+
+    /**
+     * Bodies that aren't longer than their reference are logged as-is.
+     */
+    private static final int REFERENCE_SIZE = reference("0123456789abcdef").length();
+
+    private final Sink delegate;
+    private final long window;
+    private final Clock clock;
+    private final int capacity;
+    private final ConcurrentMap<String, Long> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Hashes in the order their bodies were logged in full.
+     */
+    private final Queue<Logged> logged = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DeduplicatingSink(final Sink delegate, final int capacity, final Duration window) {
+        this(delegate, capacity, window, Clock.systemUTC());
+    }
+
+    DeduplicatingSink(final Sink delegate, final int capacity, final Duration window, final Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity is expected to be greater than zero");
+        }
+
+        this.delegate = delegate;
+        this.window = window.toMillis();
+        this.clock = clock;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean isActive() {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        delegate.write(precorrelation, new DeduplicatedHttpRequest(request, this::deduplicate));
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        delegate.write(correlation, new DeduplicatedHttpRequest(request, this::deduplicate),
+                new DeduplicatedHttpResponse(response, this::deduplicate));
+    }
+
+    @Override
+    public void writeBoth(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        delegate.writeBoth(correlation, new DeduplicatedHttpRequest(request, this::deduplicate),
+                new DeduplicatedHttpResponse(response, this::deduplicate));
+    }
+
+    /**
+     * @return the number of bodies that were replaced by a reference
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of bodies that were logged in full, despite being eligible for deduplication
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of hashes currently being retained
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return the approximate number of bytes occupied by the retained hashes
+     */
+    public long getEstimatedMemoryUsage() {
+        return (long) getSize() * ENTRY_SIZE;
+    }
+
+    private byte[] deduplicate(final HttpMessage message) throws IOException {
+        final byte[] body = message.getBody();
+
+        if (body.length <= REFERENCE_SIZE) {
+            return body;
+        }
+
+        final String hash = BodyFingerprint.XXH64.hash(body);
+        final long now = clock.millis();
+        @Nullable final Long loggedAt = cache.get(hash);
+
+        if (loggedAt != null && now - loggedAt < window) {
+            hits.increment();
+            return reference(hash).getBytes(message.getCharset());
+        }
+
+        // concurrent writers of the same body may both log it in full, which is harmless
+        cache.put(hash, now);
+        logged.offer(new Logged(hash, now));
+        evict(now);
+
+        misses.increment();
+        return body;
+    }
+
+    /**
+     * Evicts hashes in the order their bodies were logged, as long as the cache exceeds its capacity or they expired.
+     * The latter keeps the queue from growing with hashes that are logged in full again after every window.
+     */
+    private void evict(final long now) {
+        @Nullable Logged eldest;
+
+        while ((eldest = logged.peek()) != null && (cache.size() > capacity || now - eldest.time >= window)) {
+            logged.remove(eldest);
+            // only if it wasn't logged in full again in the meantime
+            cache.remove(eldest.hash, eldest.time);
+        }
+    }
+
+    private static String reference(final String hash) {
+        return "{\"body_ref\":\"" + hash + "\"}";
+    }
+
+    @AllArgsConstructor
+    private static final class Logged {
+        private final String hash;
+        private final long time;
+    }
+
+}
@@ -1,16 +1,45 @@
 package org.zalando.logbook;
 
 import org.apiguardian.api.API;
+import org.zalando.logbook.common.BodyCompression;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
+/**
+ * Formats HTTP-like messages. Strings are built using a reusable, per-thread buffer, so that apart from the resulting
+ * string itself, formatting doesn't produce any garbage.
+ *
+ * Optionally, bodies above a certain size are {@link BodyCompression compressed}. Those are preceded by a
+ * {@code [gzip+base64; n bytes]} line, where {@code n} is the original size of the body.
+ */
 @API(status = STABLE)
-public final class DefaultHttpLogFormatter implements HttpLogFormatter {
+public final class DefaultHttpLogFormatter implements StreamingHttpLogFormatter, ExchangeHttpLogFormatter {
+
+    /**
+     * Buffers that grew beyond this number of characters are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    @Nullable
+    private final BodyCompression compression;
+
+    public DefaultHttpLogFormatter() {
+        this.compression = null;
+    }
+
+    @API(status = EXPERIMENTAL)
+    public DefaultHttpLogFormatter(final BodyCompression compression) {
+        this.compression = compression;
+    }
 
     /**
      * Produces an HTTP-like request in individual lines.
@@ -22,31 +51,27 @@ public final class DefaultHttpLogFormatter implements HttpLogFormatter {
      */
     @Override
     public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
-        final String correlationId = precorrelation.getId();
-        final String body = request.getBodyAsString();
-
-        final StringBuilder builder = new StringBuilder(body.length() + 2048);
+        final StringBuilder builder = builders.get();
 
-        builder.append(direction(request));
-        builder.append(" Request: ");
-        builder.append(correlationId);
-        builder.append('\n');
-
-        builder.append("Remote: ");
-        builder.append(request.getRemote());
-        builder.append('\n');
+        try {
+            format(precorrelation, request, builder);
+            return builder.toString();
+        } finally {
+            release(builder);
+        }
+    }
 
-        builder.append(request.getMethod());
-        builder.append(' ');
-        RequestURI.reconstruct(request, builder);
-        builder.append(' ');
-        builder.append(request.getProtocolVersion());
-        builder.append('\n');
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(final Precorrelation precorrelation, final HttpRequest request, final Appendable output)
+            throws IOException {
 
-        writeHeaders(request.getHeaders(), builder);
-        writeBody(body, builder);
+        output.append(direction(request));
+        output.append(" Request: ");
+        output.append(precorrelation.getId());
+        output.append('\n');
 
-        return builder.toString();
+        writeRequest(request, output);
     }
 
     /**
@@ -59,65 +84,171 @@ public final class DefaultHttpLogFormatter implements HttpLogFormatter {
      */
     @Override
     public String format(final Correlation correlation, final HttpResponse response) throws IOException {
-        final String correlationId = correlation.getId();
-        final String body = response.getBodyAsString();
+        final StringBuilder builder = builders.get();
+
+        try {
+            format(correlation, response, builder);
+            return builder.toString();
+        } finally {
+            release(builder);
+        }
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(final Correlation correlation, final HttpResponse response, final Appendable output)
+            throws IOException {
 
-        final StringBuilder builder = new StringBuilder(body.length() + 2048);
+        output.append(direction(response));
+        output.append(" Response: ");
+        output.append(correlation.getId());
+        output.append("\nDuration: ");
+        append(correlation.getDuration().toMillis(), output);
+        output.append(" ms\n");
 
-        builder.append(direction(response));
-        builder.append(" Response: ");
-        builder.append(correlationId);
-        builder.append("\nDuration: ");
-        builder.append(correlation.getDuration().toMillis());
-        builder.append(" ms\n");
+        writeResponse(response, output);
+    }
 
-        builder.append(response.getProtocolVersion());
-        builder.append(' ');
-        builder.append(response.getStatus());
+    /**
+     * Produces an HTTP-like request, followed by its response, in individual lines.
+     *
+     * @param correlation the correlation
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @return a line-separated HTTP request and response
+     * @throws IOException if reading bodies fails
+     */
+    @API(status = EXPERIMENTAL)
+    @Override
+    public String format(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        final StringBuilder builder = builders.get();
+
+        try {
+            format(correlation, request, response, builder);
+            return builder.toString();
+        } finally {
+            release(builder);
+        }
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(final Correlation correlation, final HttpRequest request, final HttpResponse response,
+            final Appendable output) throws IOException {
+
+        output.append(direction(request));
+        output.append(" Exchange: ");
+        output.append(correlation.getId());
+        output.append("\nDuration: ");
+        append(correlation.getDuration().toMillis(), output);
+        output.append(" ms\n");
+
+        writeRequest(request, output);
+        output.append("\n\n");
+        writeResponse(response, output);
+    }
+
+    private void writeRequest(final HttpRequest request, final Appendable output) throws IOException {
+        output.append("Remote: ");
+        output.append(request.getRemote());
+        output.append('\n');
+
+        output.append(request.getMethod());
+        output.append(' ');
+        writeRequestUri(request, output);
+        output.append(' ');
+        output.append(request.getProtocolVersion());
+
+        writeHeaders(request.getHeaders(), output);
+        writeBody(request, output);
+    }
+
+    private void writeResponse(final HttpResponse response, final Appendable output) throws IOException {
+        output.append(response.getProtocolVersion());
+        output.append(' ');
+        append(response.getStatus(), output);
         final String reasonPhrase = response.getReasonPhrase();
         if (reasonPhrase != null) {
-            builder.append(' ');
-            builder.append(reasonPhrase);
+            output.append(' ');
+            output.append(reasonPhrase);
         }
 
-        builder.append('\n');
+        writeHeaders(response.getHeaders(), output);
+        writeBody(response, output);
+    }
 
-        writeHeaders(response.getHeaders(), builder);
-        writeBody(body, builder);
+    private void release(final StringBuilder builder) {
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            builders.remove();
+        } else {
+            builder.setLength(0);
+        }
+    }
 
-        return builder.toString();
+    private static void append(final long value, final Appendable output) throws IOException {
+        if (output instanceof StringBuilder) {
+            ((StringBuilder) output).append(value);
+        } else {
+            output.append(String.valueOf(value));
+        }
     }
 
     private String direction(final HttpMessage request) {
         return request.getOrigin() == Origin.REMOTE ? "Incoming" : "Outgoing";
     }
 
-    private void writeHeaders(final Map<String, List<String>> headers, final StringBuilder output) {
-        if (headers.isEmpty()) {
-            return;
+    private void writeRequestUri(final HttpRequest request, final Appendable output) throws IOException {
+        if (output instanceof StringBuilder) {
+            RequestURI.reconstruct(request, (StringBuilder) output);
+        } else {
+            output.append(RequestURI.reconstruct(request));
         }
+    }
+
+    private void writeHeaders(final Map<String, List<String>> headers, final Appendable output)
+            throws IOException {
 
         for (final Entry<String, List<String>> entry : headers.entrySet()) {
+            output.append('\n');
             output.append(entry.getKey());
             output.append(": ");
-            final List<String> headerValues = entry.getValue();
-            if (!headerValues.isEmpty()) {
-                for (final String value : entry.getValue()) {
-                    output.append(value);
+
+            final List<String> values = entry.getValue();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
                     output.append(", ");
                 }
-                output.setLength(output.length() - 2); // discard last comma
+                output.append(values.get(i));
             }
-            output.append('\n');
         }
     }
 
-    private void writeBody(final String body, final StringBuilder output) {
+    private void writeBody(final HttpMessage message, final Appendable output) throws IOException {
+        if (compression == null) {
+            writeBody(message.getBodyAsString(), output);
+            return;
+        }
+
+        final byte[] body = message.getBody();
+
+        if (compression.test(body)) {
+            output.append("\n\n[");
+            output.append(BodyCompression.ENCODING);
+            output.append("; ");
+            append(body.length, output);
+            output.append(" bytes]\n");
+            compression.encode(body, output);
+        } else {
+            writeBody(new String(body, message.getCharset()), output);
+        }
+    }
+
+    private void writeBody(final String body, final Appendable output) throws IOException {
         if (!body.isEmpty()) {
-            output.append('\n');
+            output.append("\n\n");
             output.append(body);
-        } else {
-            output.setLength(output.length() - 1); // discard last newline
         }
     }
 
@@ -59,7 +59,7 @@ public final class DefaultLogbookFactory implements LogbookFactory {
 
         return RequestFilter.merge(
                 Optional.ofNullable(requestFilter).orElseGet(RequestFilters::defaultValue),
-                request -> new FilteredHttpRequest(request, query, path, headerFilter, bodyFilter));
+                RequestFilters.of(query, path, headerFilter, bodyFilter));
     }
 
     @Nonnull
@@ -70,6 +70,6 @@ public final class DefaultLogbookFactory implements LogbookFactory {
 
         return ResponseFilter.merge(
                 Optional.ofNullable(responseFilter).orElseGet(ResponseFilters::defaultValue),
-                response -> new FilteredHttpResponse(response, headerFilter, bodyFilter));
+                ResponseFilters.of(headerFilter, bodyFilter));
     }
 }
@@ -5,11 +5,16 @@ import lombok.AllArgsConstructor;
 import java.io.IOException;
 
 @AllArgsConstructor
-public final class DefaultSink implements Sink {
+public final class DefaultSink implements FormattingSink {
 
     private final HttpLogFormatter formatter;
     private final HttpLogWriter writer;
 
+    @Override
+    public HttpLogFormatter getFormatter() {
+        return formatter;
+    }
+
     @Override
     public boolean isActive() {
         return writer.isActive();
@@ -17,13 +22,49 @@ public final class DefaultSink implements Sink {
 
     @Override
     public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
-        writer.write(precorrelation, formatter.format(precorrelation, request));
+        if (isByteCapable()) {
+            ((ByteHttpLogFormatter) formatter).format(precorrelation, request, (ByteHttpLogWriter) writer);
+        } else if (isStreamingCapable()) {
+            final StreamingHttpLogFormatter streaming = (StreamingHttpLogFormatter) formatter;
+            ((StreamingHttpLogWriter) writer).write(precorrelation, output ->
+                    streaming.format(precorrelation, request, output));
+        } else {
+            writer.write(precorrelation, formatter.format(precorrelation, request));
+        }
     }
 
     @Override
     public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
             throws IOException {
-        writer.write(correlation, formatter.format(correlation, response));
+        if (isByteCapable()) {
+            ((ByteHttpLogFormatter) formatter).format(correlation, response, (ByteHttpLogWriter) writer);
+        } else if (isStreamingCapable()) {
+            final StreamingHttpLogFormatter streaming = (StreamingHttpLogFormatter) formatter;
+            ((StreamingHttpLogWriter) writer).write(correlation, output ->
+                    streaming.format(correlation, response, output));
+        } else {
+            writer.write(correlation, formatter.format(correlation, response));
+        }
+    }
+
+    @Override
+    public void writeFormatted(final Precorrelation precorrelation, final HttpRequest request,
+            final String formatted) throws IOException {
+        writer.write(precorrelation, formatted);
+    }
+
+    @Override
+    public void writeFormatted(final Correlation correlation, final HttpRequest request,
+            final HttpResponse response, final String formatted) throws IOException {
+        writer.write(correlation, formatted);
+    }
+
+    private boolean isByteCapable() {
+        return formatter instanceof ByteHttpLogFormatter && writer instanceof ByteHttpLogWriter;
+    }
+
+    private boolean isStreamingCapable() {
+        return formatter instanceof StreamingHttpLogFormatter && writer instanceof StreamingHttpLogWriter;
     }
 
 }
@@ -0,0 +1,68 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} that writes a single record per exchange, rather than one for the request and another one for
+ * its response. Requests are therefore not written on their own, but only once their response is available, which
+ * halves the number of log records and writes. Strategies that already defer requests, e.g. the
+ * {@link StatusAtLeastStrategy}, lose nothing by that. With other strategies, a request whose response never
+ * arrives, e.g. because the application crashed, will not be logged at all.
+ *
+ * Formatters that implement {@link ExchangeHttpLogFormatter} write fields that request and response share only
+ * once. Any other formatter is supported as well, in which case request and response are formatted individually and
+ * joined by a line break.
+ */
+@API(status = EXPERIMENTAL)
+public final class ExchangeSink implements Sink {
+
+    private final HttpLogFormatter formatter;
+    private final HttpLogWriter writer;
+
+    public ExchangeSink(final HttpLogFormatter formatter, final HttpLogWriter writer) {
+        this.formatter = formatter;
+        this.writer = writer;
+    }
+
+    @Override
+    public boolean isActive() {
+        return writer.isActive();
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) {
+        // written together with the response
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        if (formatter instanceof ExchangeHttpLogFormatter) {
+            final ExchangeHttpLogFormatter exchange = (ExchangeHttpLogFormatter) formatter;
+
+            if (writer instanceof ByteHttpLogWriter) {
+                exchange.format(correlation, request, response, (ByteHttpLogWriter) writer);
+            } else if (writer instanceof StreamingHttpLogWriter) {
+                ((StreamingHttpLogWriter) writer).write(correlation, output ->
+                        exchange.format(correlation, request, response, output));
+            } else {
+                writer.write(correlation, exchange.format(correlation, request, response));
+            }
+        } else {
+            writer.write(correlation,
+                    formatter.format(correlation, request) + '\n' + formatter.format(correlation, response));
+        }
+    }
+
+    @Override
+    public void writeBoth(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        write(correlation, request, response);
+    }
+
+}
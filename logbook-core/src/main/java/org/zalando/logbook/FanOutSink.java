@@ -0,0 +1,195 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A composite {@link Sink sink} that formats every request and response only once per formatter.
+ * {@link FormattingSink Formatting sinks} that share the same formatter instance are grouped. If more than one sink of
+ * a group is active, a message is formatted once and passed to each of them. Other sinks, as well as groups with a
+ * single active sink, are written to as usual, i.e. they keep their own write paths, e.g. the byte path of a
+ * {@link DefaultSink}. Sinks of a group are written to in their given order, but not necessarily in order with other
+ * sinks.
+ *
+ * Unlike {@link CompositeSink}, sinks are arranged once upfront, so that neither {@link #isActive()} nor writing
+ * allocates. Whether a sink is active is still checked on every call, since it may change at runtime, e.g. along with
+ * a log level.
+ */
+@API(status = EXPERIMENTAL)
+public final class FanOutSink implements Sink {
+
+    private final Sink[] sinks;
+    private final Sink[] others;
+    private final Group[] groups;
+
+    public FanOutSink(final Collection<Sink> sinks) {
+        final List<Sink> others = new ArrayList<>();
+        final List<List<FormattingSink>> groups = new ArrayList<>();
+
+        for (final Sink sink : sinks) {
+            if (sink instanceof FormattingSink) {
+                group(groups, (FormattingSink) sink).add((FormattingSink) sink);
+            } else {
+                others.add(sink);
+            }
+        }
+
+        final List<Group> shared = new ArrayList<>();
+
+        for (final List<FormattingSink> group : groups) {
+            if (group.size() == 1) {
+                others.add(group.get(0));
+            } else {
+                shared.add(new Group(group.get(0).getFormatter(), group.toArray(new FormattingSink[0])));
+            }
+        }
+
+        this.sinks = sinks.toArray(new Sink[0]);
+        this.others = others.toArray(new Sink[0]);
+        this.groups = shared.toArray(new Group[0]);
+    }
+
+    private static List<FormattingSink> group(final List<List<FormattingSink>> groups, final FormattingSink sink) {
+        for (final List<FormattingSink> group : groups) {
+            if (group.get(0).getFormatter() == sink.getFormatter()) {
+                return group;
+            }
+        }
+
+        final List<FormattingSink> group = new ArrayList<>();
+        groups.add(group);
+        return group;
+    }
+
+    @Override
+    public boolean isActive() {
+        for (final Sink sink : sinks) {
+            if (sink.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        for (final Sink sink : others) {
+            if (sink.isActive()) {
+                sink.write(precorrelation, request);
+            }
+        }
+
+        for (final Group group : groups) {
+            group.write(precorrelation, request);
+        }
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        for (final Sink sink : others) {
+            if (sink.isActive()) {
+                sink.write(correlation, request, response);
+            }
+        }
+
+        for (final Group group : groups) {
+            group.write(correlation, request, response);
+        }
+    }
+
+    @Override
+    public void writeBoth(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        for (final Sink sink : others) {
+            if (sink.isActive()) {
+                sink.writeBoth(correlation, request, response);
+            }
+        }
+
+        for (final Group group : groups) {
+            group.writeBoth(correlation, request, response);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Group {
+
+        private final HttpLogFormatter formatter;
+        private final FormattingSink[] sinks;
+
+        /**
+         * Holds back the first active sink, so that it can be written to directly if it turns out to be the only one.
+         */
+        private void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+            @Nullable FormattingSink first = null;
+            @Nullable String formatted = null;
+
+            for (final FormattingSink sink : sinks) {
+                if (!sink.isActive()) {
+                    continue;
+                }
+
+                if (first == null) {
+                    first = sink;
+                    continue;
+                }
+
+                if (formatted == null) {
+                    formatted = formatter.format(precorrelation, request);
+                    first.writeFormatted(precorrelation, request, formatted);
+                }
+
+                sink.writeFormatted(precorrelation, request, formatted);
+            }
+
+            if (first != null && formatted == null) {
+                first.write(precorrelation, request);
+            }
+        }
+
+        private void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+                throws IOException {
+            @Nullable FormattingSink first = null;
+            @Nullable String formatted = null;
+
+            for (final FormattingSink sink : sinks) {
+                if (!sink.isActive()) {
+                    continue;
+                }
+
+                if (first == null) {
+                    first = sink;
+                    continue;
+                }
+
+                if (formatted == null) {
+                    formatted = formatter.format(correlation, response);
+                    first.writeFormatted(correlation, request, response, formatted);
+                }
+
+                sink.writeFormatted(correlation, request, response, formatted);
+            }
+
+            if (first != null && formatted == null) {
+                first.write(correlation, request, response);
+            }
+        }
+
+        private void writeBoth(final Correlation correlation, final HttpRequest request,
+                final HttpResponse response) throws IOException {
+            write(correlation, request);
+            write(correlation, request, response);
+        }
+
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.zalando.logbook;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Appends one message per line to a file, bypassing any logging framework. Messages from concurrent threads are
+ * coalesced: while one thread writes to the file, others append their messages to a buffer, which is then written
+ * by a single call, i.e. as a group commit. Every thread returns once its own message was written. Messages passed
+ * as strings are encoded as UTF-8.
+ *
+ * The file is rolled once it would exceed a maximum size, or once a given interval elapsed, by renaming it to
+ * {@code <file>.<yyyyMMdd-HHmmss>}. Rolled files are optionally compressed using gzip in the background.
+ *
+ * If writing fails, the thread that performed the write receives the exception, while messages of other threads
+ * that were part of the same write are lost.
+ */
+@API(status = EXPERIMENTAL)
+@Slf4j
+public final class FileHttpLogWriter implements ByteHttpLogWriter, Closeable {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path file;
+    private final long maxSize;
+    private final long interval;
+    private final Clock clock;
+
+    @Nullable
+    private final ExecutorService compressor;
+
+    private final GroupCommit commit;
+
+    // owned by the flushing thread
+    private OutputStream stream;
+    private long size;
+    private long nextRoll;
+
+    public FileHttpLogWriter(final Path file) throws IOException {
+        this(file, 0, null, false);
+    }
+
+    /**
+     * @param file the file to write to, missing parent directories will be created
+     * @param maxSize the size in bytes a file may reach before it's rolled, non-positive values disable size-based
+     *                rolling
+     * @param interval the time after which a file is rolled, {@code null} disables time-based rolling
+     * @param compress whether rolled files should be compressed
+     * @throws IOException if the file can't be opened
+     */
+    public FileHttpLogWriter(final Path file, final long maxSize, @Nullable final Duration interval,
+            final boolean compress) throws IOException {
+        this(file, maxSize, interval, compress ? newCompressor() : null, Clock.systemDefaultZone());
+    }
+
+    FileHttpLogWriter(final Path file, final long maxSize, @Nullable final Duration interval,
+            @Nullable final ExecutorService compressor, final Clock clock) throws IOException {
+        this(file, maxSize, interval, compressor, clock, null);
+    }
+
+    /**
+     * @param sequence the supplier of sequence numbers to frame messages with, see {@link GroupCommit}
+     */
+    FileHttpLogWriter(final Path file, final long maxSize, @Nullable final Duration interval,
+            @Nullable final ExecutorService compressor, final Clock clock, @Nullable final LongSupplier sequence)
+            throws IOException {
+        this.file = file.toAbsolutePath();
+        this.maxSize = maxSize > 0 ? maxSize : Long.MAX_VALUE;
+        this.interval = interval == null ? 0 : interval.toMillis();
+        this.compressor = compressor;
+        this.clock = clock;
+        this.commit = new GroupCommit(this::write, sequence);
+
+        Files.createDirectories(this.file.getParent());
+        open();
+    }
+
+    static ExecutorService newCompressor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "logbook-file-compressor"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) throws IOException {
+        commit.append(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) throws IOException {
+        commit.append(response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) throws IOException {
+        commit.append(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) throws IOException {
+        commit.append(response);
+    }
+
+    private void write(final ByteBuffer batch) throws IOException {
+        final long now = clock.millis();
+
+        if (size > 0 && (size + batch.remaining() > maxSize || (interval > 0 && now >= nextRoll))) {
+            roll(now);
+        } else if (size == 0) {
+            nextRoll = now + interval;
+        }
+
+        final int length = batch.remaining();
+        stream.write(batch.array(), batch.arrayOffset() + batch.position(), length);
+        batch.position(batch.limit());
+        size += length;
+    }
+
+    private void roll(final long now) throws IOException {
+        stream.close();
+
+        final Path target = rolled();
+
+        try {
+            Files.move(file, target);
+        } finally {
+            open();
+        }
+
+        if (compressor != null) {
+            compressor.execute(() -> compress(target));
+        }
+    }
+
+    private Path rolled() {
+        final String name = file.getFileName() + "." + SUFFIX.format(clock.instant().atZone(clock.getZone()));
+
+        Path target = file.resolveSibling(name);
+        for (int i = 1; Files.exists(target) || Files.exists(gzip(target)); i++) {
+            target = file.resolveSibling(name + "." + i);
+        }
+        return target;
+    }
+
+    private static Path gzip(final Path path) {
+        return Paths.get(path + ".gz");
+    }
+
+    private static void compress(final Path path) {
+        try {
+            try (InputStream input = Files.newInputStream(path);
+                 OutputStream output = new GZIPOutputStream(Files.newOutputStream(gzip(path)))) {
+
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            }
+
+            Files.delete(path);
+        } catch (final IOException e) {
+            log.warn("Unable to compress {}", path, e);
+        }
+    }
+
+    /**
+     * Opens a stream rather than a {@link java.nio.channels.FileChannel channel}, since the latter would be closed for
+     * good as soon as the thread writing a batch, i.e. any thread logging a message, gets interrupted.
+     */
+    private void open() throws IOException {
+        stream = new FileOutputStream(file.toFile(), true);
+        size = Files.size(file);
+        nextRoll = clock.millis() + interval;
+    }
+
+    /**
+     * Closes the file, once pending messages were written, and waits for rolled files to be compressed.
+     *
+     * @throws IOException if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        commit.close();
+        stream.close();
+
+        if (compressor != null) {
+            compressor.shutdown();
+
+            try {
+                compressor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -78,6 +78,9 @@ final class FilteredHttpRequest implements ForwardingHttpRequest {
 
     @Override
     public byte[] getBody() throws IOException {
+        if (bodyFilter instanceof ByteBodyFilter) {
+            return ((ByteBodyFilter) bodyFilter).filter(getContentType(), request.getBody(), getCharset());
+        }
         return getBodyAsString().getBytes(getCharset());
     }
 
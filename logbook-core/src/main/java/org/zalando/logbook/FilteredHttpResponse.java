@@ -52,6 +52,9 @@ final class FilteredHttpResponse implements ForwardingHttpResponse {
 
     @Override
     public byte[] getBody() throws IOException {
+        if (bodyFilter instanceof ByteBodyFilter) {
+            return ((ByteBodyFilter) bodyFilter).filter(getContentType(), response.getBody(), getCharset());
+        }
         return getBodyAsString().getBytes(getCharset());
     }
 
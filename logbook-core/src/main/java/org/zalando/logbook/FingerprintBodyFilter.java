@@ -0,0 +1,41 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import org.zalando.logbook.common.BodyFingerprint;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Hashes the encoded body, if available. Bodies that are only available as a {@link String} are hashed in their UTF-8
+ * representation instead.
+ */
+@AllArgsConstructor
+final class FingerprintBodyFilter implements BodyFilter, ByteBodyFilter {
+
+    private final BodyFingerprint fingerprint;
+
+    @Override
+    public String filter(@Nullable final String contentType, final String body) {
+        return new String(fingerprint.fingerprint(body.getBytes(UTF_8)), UTF_8);
+    }
+
+    @Override
+    public ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset) {
+        final byte[] filtered;
+
+        if (body.hasArray()) {
+            filtered = fingerprint.fingerprint(body.array(), body.arrayOffset() + body.position(), body.remaining());
+        } else {
+            final byte[] bytes = new byte[body.remaining()];
+            body.duplicate().get(bytes);
+            filtered = fingerprint.fingerprint(bytes);
+        }
+
+        return ByteBuffer.wrap(new String(filtered, UTF_8).getBytes(charset));
+    }
+
+}
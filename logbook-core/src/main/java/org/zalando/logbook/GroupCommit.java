@@ -0,0 +1,233 @@
+package org.zalando.logbook;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.CharsetEncoder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Coalesces messages of concurrent threads, one per line: while one thread writes a batch, others append their
+ * messages to the next one, which is then written by a single call, i.e. as a group commit. Every thread returns once
+ * its own message was written. Batches are written one at a time and only contain complete lines. No thread writes
+ * more than one batch: once done, it hands over to one of the waiting threads whose message is still pending, so that
+ * its own latency stays bounded under sustained load.
+ *
+ * If writing fails, the thread that performed the write receives the exception, while messages of other threads
+ * that were part of the same batch are lost.
+ *
+ * Optionally, messages are framed as {@code <sequence>\t<length>\t<message>\n}, where the sequence is drawn while
+ * appending, i.e. sequences increase within every batch and across batches.
+ */
+final class GroupCommit {
+
+    @FunctionalInterface
+    interface Target {
+
+        /**
+         * @param batch a heap buffer, to be written completely
+         */
+        void write(ByteBuffer batch) throws IOException;
+
+    }
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /**
+     * Buffers that grew beyond this size are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    /**
+     * Two non-negative longs in decimal, each followed by a tab.
+     */
+    private static final int MAX_FRAME_SIZE = 2 * (19 + 1);
+
+    private static final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    private final Target target;
+
+    @Nullable
+    private final LongSupplier sequence;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+
+    // guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private long appendedSequence;
+    private long writtenSequence;
+    private boolean flushing;
+    private boolean closed;
+
+    GroupCommit(final Target target) {
+        this(target, null);
+    }
+
+    /**
+     * @param target the target to write batches to
+     * @param sequence the supplier of sequence numbers to frame messages with, {@code null} disables framing
+     */
+    GroupCommit(final Target target, @Nullable final LongSupplier sequence) {
+        this.target = target;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Encodes the given message as UTF-8 into a buffer of the current thread, before appending it.
+     */
+    void append(final String message) throws IOException {
+        append(encoders.get().encode(message));
+    }
+
+    void append(final ByteBuffer message) throws IOException {
+        lock.lock();
+
+        try {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+
+            ensureCapacity(MAX_FRAME_SIZE + message.remaining() + 1);
+
+            if (sequence != null) {
+                putDecimal(sequence.getAsLong());
+                pending.put((byte) '\t');
+                putDecimal(message.remaining());
+                pending.put((byte) '\t');
+            }
+
+            pending.put(message.duplicate());
+            pending.put((byte) '\n');
+
+            final long sequence = ++appendedSequence;
+
+            while (writtenSequence < sequence) {
+                if (flushing) {
+                    written.awaitUninterruptibly();
+                } else {
+                    flush();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureCapacity(final int required) {
+        if (pending.remaining() < required) {
+            final ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2,
+                    pending.position() + required));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    private void putDecimal(final long value) {
+        final int start = pending.position();
+        long remaining = value;
+
+        do {
+            pending.put((byte) ('0' + remaining % 10));
+            remaining /= 10;
+        } while (remaining > 0);
+
+        for (int left = start, right = pending.position() - 1; left < right; left++, right--) {
+            final byte digit = pending.get(left);
+            pending.put(left, pending.get(right));
+            pending.put(right, digit);
+        }
+    }
+
+    /**
+     * Writes all pending messages as one batch. The lock is released while writing, so that other threads can append
+     * their messages to the next batch in the meantime, which one of them writes afterwards.
+     */
+    private void flush() throws IOException {
+        flushing = true;
+
+        final ByteBuffer batch = pending;
+        final long sequence = appendedSequence;
+        pending = spare;
+
+        lock.unlock();
+
+        try {
+            batch.flip();
+            target.write(batch);
+        } finally {
+            lock.lock();
+            batch.clear();
+            spare = batch.capacity() > MAX_RETAINED_CAPACITY ? ByteBuffer.allocate(INITIAL_CAPACITY) : batch;
+            writtenSequence = sequence;
+            flushing = false;
+            written.signalAll();
+        }
+    }
+
+    /**
+     * Rejects any further messages and waits for all pending ones to be written.
+     */
+    void close() {
+        lock.lock();
+
+        try {
+            closed = true;
+
+            while (writtenSequence < appendedSequence) {
+                written.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Encoder {
+
+        private final CharsetEncoder encoder = UTF_8.newEncoder()
+                .onMalformedInput(REPLACE)
+                .onUnmappableCharacter(REPLACE);
+
+        private char[] chars = new char[4096];
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        /**
+         * Copies the message into an array first, since encoding a {@link String} directly takes a much slower path.
+         *
+         * @return the encoded message, only valid until the next call
+         */
+        private ByteBuffer encode(final String message) {
+            final int length = message.length();
+            final char[] source = chars.length < length ? new char[length] : chars;
+            message.getChars(0, length, source, 0);
+
+            final int required = (int) Math.ceil(length * encoder.maxBytesPerChar());
+            final ByteBuffer target = buffer.capacity() < required ? ByteBuffer.allocate(required) : buffer;
+
+            if (target.capacity() <= MAX_RETAINED_CAPACITY) {
+                chars = source;
+                buffer = target;
+            }
+
+            target.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(source, 0, length), target, true);
+            encoder.flush(target);
+            target.flip();
+
+            return target;
+        }
+
+    }
+
+}
@@ -0,0 +1,198 @@
+package org.zalando.logbook;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} decorator that isolates requests from a slow or failing sink. Requests and responses are
+ * copied on the calling thread and written by a dedicated background thread, in order. Writes are dropped, rather
+ * than blocking the calling thread, if too many of them are queued up already. Failures are counted and logged, but
+ * never propagated to the caller.
+ *
+ * A circuit breaker disables the sink after a number of consecutive failed writes, or writes that took longer than a
+ * given timeout. While disabled, the sink is reported to be {@link #isActive() inactive} and writes are dropped. Once
+ * the probe interval elapsed, the next write is attempted again: if it succeeds, the sink is enabled, otherwise it's
+ * disabled for another interval.
+ *
+ * Writes can't be aborted, i.e. a write that doesn't return at all stalls the background thread, while subsequent
+ * writes are dropped once the queue is full.
+ */
+@API(status = EXPERIMENTAL)
+@Slf4j
+public final class GuardedSink implements Sink, Closeable {
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private final Sink delegate;
+    private final ExecutorService executor;
+    private final long timeout;
+    private final int threshold;
+    private final long probeInterval;
+    private final Clock clock;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    // owned by the background thread
+    private int failures;
+
+    // written by the background thread only, zero while enabled
+    private volatile long disabledUntil;
+
+    /**
+     * @param delegate the sink to write to
+     * @param capacity the number of writes that may be queued up, before further writes are dropped
+     * @param timeout the time after which a write counts as failed, even if it succeeds eventually
+     * @param threshold the number of consecutive failed writes that disable the sink
+     * @param probeInterval the time after which a disabled sink is probed again
+     */
+    public GuardedSink(final Sink delegate, final int capacity, final Duration timeout, final int threshold,
+            final Duration probeInterval) {
+        this(delegate, newExecutor(capacity), timeout, threshold, probeInterval, Clock.systemUTC());
+    }
+
+    GuardedSink(final Sink delegate, final ExecutorService executor, final Duration timeout, final int threshold,
+            final Duration probeInterval, final Clock clock) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold is expected to be greater than zero");
+        }
+
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout.toMillis();
+        this.threshold = threshold;
+        this.probeInterval = probeInterval.toMillis();
+        this.clock = clock;
+    }
+
+    private static ExecutorService newExecutor(final int capacity) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "logbook-guarded-sink");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public boolean isActive() {
+        return clock.millis() >= disabledUntil && delegate.isActive();
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        final HttpRequest snapshot = SnapshotHttpRequest.of(request);
+        submit(() -> delegate.write(precorrelation, snapshot));
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        final HttpRequest requestSnapshot = SnapshotHttpRequest.of(request);
+        final HttpResponse responseSnapshot = SnapshotHttpResponse.of(response);
+        submit(() -> delegate.write(correlation, requestSnapshot, responseSnapshot));
+    }
+
+    @Override
+    public void writeBoth(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        final HttpRequest requestSnapshot = SnapshotHttpRequest.of(request);
+        final HttpResponse responseSnapshot = SnapshotHttpResponse.of(response);
+        submit(() -> delegate.writeBoth(correlation, requestSnapshot, responseSnapshot));
+    }
+
+    private void submit(final Write write) {
+        try {
+            executor.execute(() -> run(write));
+        } catch (final RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    private void run(final Write write) {
+        final long start = clock.millis();
+
+        if (start < disabledUntil) {
+            rejected.increment();
+            return;
+        }
+
+        try {
+            write.run();
+        } catch (final Exception e) {
+            failed.increment();
+            fail(e);
+            return;
+        }
+
+        if (clock.millis() - start > timeout) {
+            timedOut.increment();
+            fail(null);
+        } else {
+            failures = 0;
+            disabledUntil = 0;
+        }
+    }
+
+    private void fail(@Nullable final Exception cause) {
+        if (++failures >= threshold) {
+            disabledUntil = clock.millis() + probeInterval;
+            log.warn("Disabling {} for {} ms after {} consecutive failed or slow writes",
+                    delegate, probeInterval, failures, cause);
+        }
+    }
+
+    /**
+     * @return the number of writes that were dropped, either because the queue was full or the sink was disabled
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the number of writes that failed with an exception
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the number of writes that succeeded, but took longer than the timeout
+     */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Stops accepting writes and waits for queued writes to complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,385 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * The on-disk format shared by {@link JournalSink} and {@link JournalReader}. A journal is a directory of segments,
+ * named by their ascending sequence number. Each segment is a pre-allocated file that starts with a magic number,
+ * followed by records. A record is its length and the CRC32 checksum of its payload, followed by the payload. Since
+ * segments are zero-filled, a length of zero marks the end of the records written so far. Lengths are written last,
+ * so that a writer that crashes midway leaves no record behind whose length is set but whose payload is missing.
+ *
+ * Plain writes to a mapped segment carry no ordering guarantee for other threads or processes though, i.e. a reader
+ * tailing the segment that's still being written may, in rare cases, observe a length before its payload. Records are
+ * therefore only {@link #payload(ByteBuffer, CRC32) read} once their checksum matches. A torn record that a crashed
+ * writer left behind is cut off when its segment is sealed.
+ *
+ * Segments are created under a temporary name and renamed once they are allocated, so that readers never see
+ * incomplete segments. A segment is sealed, i.e. no more records will follow, once it ends with a length of
+ * {@link #END -1}, or it's too full to hold another length.
+ */
+final class Journal {
+
+    static final int MAGIC = 0x4c424a32; // LBJ2
+
+    static final int HEADER_SIZE = Integer.BYTES;
+
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    static final int END = -1;
+
+    private static final Pattern SEGMENT = Pattern.compile("\\d{20}\\.journal");
+
+    /**
+     * Encoders that grew beyond this size are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    private Journal() {
+
+    }
+
+    static Path segment(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%020d.journal", sequence));
+    }
+
+    static long sequence(final Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    /**
+     * @param directory the journal's directory
+     * @return the journal's segments, in order
+     * @throws IOException if listing the directory fails
+     */
+    static List<Path> segments(final Path directory) throws IOException {
+        final List<Path> segments = new ArrayList<>();
+
+        try (final Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> SEGMENT.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .forEach(segments::add);
+        }
+
+        return segments;
+    }
+
+    static MappedByteBuffer create(final Path directory, final long sequence, final int size) throws IOException {
+        final Path segment = segment(directory, sequence);
+        final Path temporary = segment.resolveSibling(segment.getFileName() + ".tmp");
+
+        try (final FileChannel channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            final MappedByteBuffer buffer = channel.map(READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            Files.move(temporary, segment, ATOMIC_MOVE);
+            return buffer;
+        }
+    }
+
+    /**
+     * @param segment a segment, positioned after its last record
+     */
+    static void seal(final ByteBuffer segment) {
+        if (segment.remaining() >= Integer.BYTES) {
+            segment.putInt(segment.position(), END);
+        }
+    }
+
+    /**
+     * Seals a segment whose writer didn't get the chance to, e.g. because it crashed.
+     *
+     * @param segment the segment's path
+     * @throws IOException if the segment can't be written
+     */
+    static void seal(final Path segment) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment, READ, WRITE)) {
+            final MappedByteBuffer buffer = channel.map(READ_WRITE, 0, channel.size());
+            buffer.position(HEADER_SIZE);
+
+            final CRC32 checksum = new CRC32();
+            @Nullable ByteBuffer payload;
+
+            while ((payload = payload(buffer, checksum)) != null) {
+                buffer.position(buffer.position() + RECORD_HEADER_SIZE + payload.remaining());
+            }
+
+            seal(buffer);
+            buffer.force();
+        }
+    }
+
+    static MappedByteBuffer open(final Path segment) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment, READ)) {
+            final MappedByteBuffer buffer = channel.map(READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException(segment + " is not a journal segment");
+            }
+
+            return buffer;
+        }
+    }
+
+    /**
+     * @param segment a segment, positioned at a record
+     * @param checksum the checksum to verify the record's payload with
+     * @return the record's payload, or null if there is no record yet or it's incomplete
+     */
+    @Nullable
+    static ByteBuffer payload(final ByteBuffer segment, final CRC32 checksum) {
+        if (segment.remaining() < RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        final int position = segment.position();
+        final int length = segment.getInt(position);
+
+        if (length <= 0 || length > segment.remaining() - RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        final ByteBuffer payload = segment.duplicate();
+        payload.limit(position + RECORD_HEADER_SIZE + length);
+        payload.position(position + RECORD_HEADER_SIZE);
+
+        checksum.reset();
+        checksum.update(payload.duplicate());
+
+        return (int) checksum.getValue() == segment.getInt(position + Integer.BYTES) ? payload.slice() : null;
+    }
+
+    /**
+     * @return the encoded record, i.e. its length, checksum and payload, only valid until the current thread encodes
+     * the next record
+     */
+    static ByteBuffer encode(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        final Encoder encoder = encoders.get();
+        encoder.start();
+
+        final DataOutputStream output = encoder.output;
+
+        writeString(output, correlation.getId());
+        writeInstant(output, correlation.getStart());
+        writeInstant(output, correlation.getEnd());
+
+        writeMessage(output, request);
+        writeString(output, request.getRemote());
+        writeString(output, request.getMethod());
+        writeString(output, request.getScheme());
+        writeString(output, request.getHost());
+        output.writeInt(request.getPort().orElse(-1));
+        writeString(output, request.getPath());
+        writeString(output, request.getQuery());
+
+        writeMessage(output, response);
+        output.writeInt(response.getStatus());
+
+        final ByteBuffer record = encoder.record();
+
+        if (record.capacity() > MAX_RETAINED_CAPACITY) {
+            encoders.remove();
+        }
+
+        return record;
+    }
+
+    private static void writeMessage(final DataOutputStream output, final HttpMessage message) throws IOException {
+        writeString(output, message.getProtocolVersion());
+        output.writeByte(message.getOrigin().ordinal());
+
+        final Map<String, List<String>> headers = message.getHeaders();
+        output.writeInt(headers.size());
+
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            writeString(output, header.getKey());
+
+            final List<String> values = header.getValue();
+            output.writeInt(values.size());
+
+            for (final String value : values) {
+                writeString(output, value);
+            }
+        }
+
+        writeString(output, message.getContentType());
+        writeString(output, message.getCharset().name());
+        writeBytes(output, message.getBody());
+        output.writeBoolean(message.isBodyTruncated());
+        output.writeLong(message.getBodyLength());
+    }
+
+    private static void writeInstant(final DataOutputStream output, final Instant instant) throws IOException {
+        output.writeLong(instant.getEpochSecond());
+        output.writeInt(instant.getNano());
+    }
+
+    private static void writeString(final DataOutputStream output, @Nullable final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            writeBytes(output, value.getBytes(UTF_8));
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream output, final byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static Record decode(final ByteBuffer input) {
+        final Correlation correlation = new SimpleCorrelation(
+                readString(input), readInstant(input), readInstant(input));
+
+        final String requestProtocolVersion = readString(input);
+        final Origin requestOrigin = readOrigin(input);
+        final Map<String, List<String>> requestHeaders = readHeaders(input);
+        @Nullable final String requestContentType = readNullableString(input);
+        final Charset requestCharset = Charset.forName(readString(input));
+        final byte[] requestBody = readBytes(input);
+        final boolean requestBodyTruncated = input.get() != 0;
+        final long requestBodyLength = input.getLong();
+
+        final HttpRequest request = new SnapshotHttpRequest(
+                requestProtocolVersion, requestOrigin, requestHeaders, requestContentType, requestCharset,
+                requestBody, requestBodyTruncated, requestBodyLength, readString(input), readString(input),
+                readString(input), readString(input), readPort(input), readString(input), readString(input));
+
+        final String responseProtocolVersion = readString(input);
+        final Origin responseOrigin = readOrigin(input);
+        final Map<String, List<String>> responseHeaders = readHeaders(input);
+        @Nullable final String responseContentType = readNullableString(input);
+        final Charset responseCharset = Charset.forName(readString(input));
+        final byte[] responseBody = readBytes(input);
+        final boolean responseBodyTruncated = input.get() != 0;
+        final long responseBodyLength = input.getLong();
+
+        final HttpResponse response = new SnapshotHttpResponse(
+                responseProtocolVersion, responseOrigin, responseHeaders, responseContentType, responseCharset,
+                responseBody, responseBodyTruncated, responseBodyLength, input.getInt());
+
+        return new Record(correlation, request, response);
+    }
+
+    private static Origin readOrigin(final ByteBuffer input) {
+        return Origin.values()[input.get()];
+    }
+
+    private static Map<String, List<String>> readHeaders(final ByteBuffer input) {
+        final Map<String, List<String>> headers = Headers.empty();
+        final int size = input.getInt();
+
+        for (int i = 0; i < size; i++) {
+            final String name = readString(input);
+            final int count = input.getInt();
+            final List<String> values = new ArrayList<>(count);
+
+            for (int j = 0; j < count; j++) {
+                values.add(readString(input));
+            }
+
+            headers.put(name, values);
+        }
+
+        return unmodifiableMap(headers);
+    }
+
+    private static Optional<Integer> readPort(final ByteBuffer input) {
+        final int port = input.getInt();
+        return port == -1 ? Optional.empty() : Optional.of(port);
+    }
+
+    private static Instant readInstant(final ByteBuffer input) {
+        return Instant.ofEpochSecond(input.getLong(), input.getInt());
+    }
+
+    private static String readString(final ByteBuffer input) {
+        return new String(readBytes(input), UTF_8);
+    }
+
+    @Nullable
+    private static String readNullableString(final ByteBuffer input) {
+        if (input.getInt(input.position()) == -1) {
+            input.getInt();
+            return null;
+        }
+        return readString(input);
+    }
+
+    private static byte[] readBytes(final ByteBuffer input) {
+        final byte[] bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return bytes;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    static final class Record {
+        private final Correlation correlation;
+        private final HttpRequest request;
+        private final HttpResponse response;
+    }
+
+    private static final class Encoder extends ByteArrayOutputStream {
+
+        private final DataOutputStream output = new DataOutputStream(this);
+
+        private final CRC32 checksum = new CRC32();
+
+        private Encoder() {
+            super(4096);
+        }
+
+        private void start() {
+            // leaves room for the record's length and checksum
+            count = RECORD_HEADER_SIZE;
+        }
+
+        private ByteBuffer record() {
+            checksum.reset();
+            checksum.update(buf, RECORD_HEADER_SIZE, count - RECORD_HEADER_SIZE);
+
+            final ByteBuffer record = ByteBuffer.wrap(buf, 0, count);
+            record.putInt(0, count - RECORD_HEADER_SIZE);
+            record.putInt(Integer.BYTES, (int) checksum.getValue());
+            return record;
+        }
+
+    }
+
+}
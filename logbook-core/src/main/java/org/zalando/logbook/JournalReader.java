@@ -0,0 +1,144 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Reads the journal written by a {@link JournalSink}, potentially in another process, and replays its records
+ * through the given filters and sink. The reader keeps track of its position, i.e. every replay continues where the
+ * previous one stopped. Calling {@link #replay(Sink) replay} periodically therefore tails the journal:
+ *
+ * <pre>{@code
+ * JournalReader reader = new JournalReader(directory);
+ * Sink sink = new DefaultSink(new JsonHttpLogFormatter(), new DefaultHttpLogWriter());
+ *
+ * reader.replay(
+ *         RequestFilters.of(QueryFilters.defaultValue(), PathFilters.defaultValue(),
+ *                 HeaderFilters.defaultValue(), BodyFilters.defaultValue()),
+ *         ResponseFilters.of(HeaderFilters.defaultValue(), BodyFilters.defaultValue()),
+ *         sink);
+ * }</pre>
+ *
+ * The reader only moves past a record once its checksum matches and it was decoded. A record that isn't complete yet,
+ * e.g. because it's still being written, ends the replay and is read again by the next one.
+ *
+ * Instances are not thread-safe.
+ */
+@API(status = EXPERIMENTAL)
+public final class JournalReader {
+
+    private final Path directory;
+
+    private final CRC32 checksum = new CRC32();
+
+    private long sequence = -1;
+
+    @Nullable
+    private ByteBuffer segment;
+
+    public JournalReader(final Path directory) {
+        this.directory = directory;
+    }
+
+    public int replay(final Sink sink) throws IOException {
+        return replay(RequestFilter.none(), ResponseFilter.none(), sink);
+    }
+
+    /**
+     * @param requestFilter the filter to apply to requests
+     * @param responseFilter the filter to apply to responses
+     * @param sink the sink to write exchanges to
+     * @return the number of replayed records
+     * @throws IOException if reading the journal or writing to the sink fails
+     */
+    public int replay(final RequestFilter requestFilter, final ResponseFilter responseFilter, final Sink sink)
+            throws IOException {
+
+        int replayed = 0;
+
+        while (advance()) {
+            @Nullable final Journal.Record record = read();
+
+            if (record == null) {
+                break;
+            }
+
+            sink.writeBoth(record.getCorrelation(),
+                    requestFilter.filter(record.getRequest()),
+                    responseFilter.filter(record.getResponse()));
+            replayed++;
+        }
+
+        return replayed;
+    }
+
+    /**
+     * Positions the reader at the next record, moving on to the next segment once the current one is sealed.
+     *
+     * @return whether there is a record to read
+     */
+    private boolean advance() throws IOException {
+        while (segment == null || isSealed(segment)) {
+            @Nullable final Path successor = successor();
+
+            if (successor == null) {
+                return false;
+            }
+
+            segment = Journal.open(successor);
+            sequence = Journal.sequence(successor);
+        }
+
+        return segment.getInt(segment.position()) > 0;
+    }
+
+    private static boolean isSealed(final ByteBuffer segment) {
+        return segment.remaining() < Integer.BYTES || segment.getInt(segment.position()) == Journal.END;
+    }
+
+    @Nullable
+    private Path successor() throws IOException {
+        for (final Path candidate : Journal.segments(directory)) {
+            if (Journal.sequence(candidate) > sequence) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the record the reader is positioned at and moves past it, unless it's incomplete.
+     *
+     * @return the record, or null if it's incomplete
+     */
+    @Nullable
+    private Journal.Record read() {
+        final ByteBuffer segment = requireNonNull(this.segment);
+        @Nullable final ByteBuffer payload = Journal.payload(segment, checksum);
+
+        if (payload == null) {
+            return null;
+        }
+
+        final int length = payload.remaining();
+        final Journal.Record record;
+
+        try {
+            record = Journal.decode(payload);
+        } catch (final RuntimeException e) {
+            return null;
+        }
+
+        segment.position(segment.position() + Journal.RECORD_HEADER_SIZE + length);
+        return record;
+    }
+
+}
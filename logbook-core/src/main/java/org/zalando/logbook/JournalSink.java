@@ -0,0 +1,123 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} that appends every exchange as a compact binary record to a journal, i.e. a directory of
+ * memory-mapped segments. Neither formatting nor any I/O system call happens on the request path, as long as the
+ * current segment has room left. Once it's full, the next segment is allocated.
+ *
+ * Records capture the request and response as they were passed to this sink. In order to move filtering off the
+ * request path as well, use a {@link Logbook} without filters, e.g. {@link BodyFilter#none()} and
+ * {@link HeaderFilter#none()}, and apply them when {@link JournalReader#replay(RequestFilter, ResponseFilter, Sink)
+ * replaying} the journal instead.
+ *
+ * Like the {@link ExchangeSink}, requests are written together with their response. A new sink always starts a new
+ * segment, i.e. existing records are never overwritten.
+ */
+@API(status = EXPERIMENTAL)
+public final class JournalSink implements Sink, Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // guarded by this
+    private long sequence;
+    private MappedByteBuffer segment;
+    private boolean closed;
+
+    public JournalSink(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory the journal's directory, will be created if missing
+     * @param segmentSize the size of a segment in bytes, records larger than that get a segment of their own
+     * @throws IOException if the first segment can't be allocated
+     */
+    public JournalSink(final Path directory, final int segmentSize) throws IOException {
+        if (segmentSize <= Journal.HEADER_SIZE + Journal.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+
+        final List<Path> segments = Journal.segments(directory);
+
+        @Nullable final Path last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+
+        this.sequence = last == null ? 0 : Journal.sequence(last) + 1;
+        this.segment = Journal.create(directory, sequence, segmentSize);
+
+        if (last != null) {
+            // in case its writer crashed
+            Journal.seal(last);
+        }
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) {
+        // written together with the response
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        append(Journal.encode(correlation, request, response));
+    }
+
+    @Override
+    public void writeBoth(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        write(correlation, request, response);
+    }
+
+    private synchronized void append(final ByteBuffer record) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+
+        final int size = record.remaining();
+
+        if (segment.remaining() < size) {
+            final MappedByteBuffer successor = Journal.create(directory, ++sequence,
+                    Math.max(segmentSize, Journal.HEADER_SIZE + size));
+            Journal.seal(segment);
+            segment = successor;
+        }
+
+        final int position = segment.position();
+        final int length = record.getInt();
+        segment.position(position + Integer.BYTES);
+        segment.put(record);
+        segment.putInt(position, length);
+    }
+
+    /**
+     * Seals the current segment and forces it to be written to disk. Records can't be appended afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Journal.seal(segment);
+        segment.force();
+    }
+
+}
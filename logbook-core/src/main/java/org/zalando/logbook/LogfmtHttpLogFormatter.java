@@ -0,0 +1,235 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Formats HTTP messages as a single line of <a href="https://brandur.org/logfmt">logfmt</a>, i.e. space-separated
+ * {@code key=value} pairs, which tools like Splunk extract fields from automatically. Values are quoted and escaped
+ * whenever they contain whitespace, control characters, {@code =} or {@code "}, so that they can't break the line
+ * apart. Headers are flattened into individual {@code header.<name>} keys, multiple values of the same header are
+ * joined with {@code ", "}.
+ *
+ * <pre>
+ * origin=remote type=request correlation=2d66e4bc protocol=HTTP/1.1 remote=127.0.0.1 method=POST uri="http://example.org/test?limit=1" header.Content-Type=text/plain body="Hello, world!"
+ * </pre>
+ *
+ * Strings are built using a reusable, per-thread buffer.
+ */
+@API(status = EXPERIMENTAL)
+public final class LogfmtHttpLogFormatter implements StreamingHttpLogFormatter {
+
+    /**
+     * Buffers that grew beyond this number of characters are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    @Override
+    public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        final StringBuilder builder = builders.get();
+
+        try {
+            format(precorrelation, request, builder);
+            return builder.toString();
+        } finally {
+            release(builder);
+        }
+    }
+
+    @Override
+    public void format(final Precorrelation precorrelation, final HttpRequest request, final Appendable output)
+            throws IOException {
+
+        output.append("origin=");
+        output.append(origin(request));
+        output.append(" type=request correlation=");
+        writeValue(precorrelation.getId(), output);
+        output.append(" protocol=");
+        writeValue(request.getProtocolVersion(), output);
+        output.append(" remote=");
+        writeValue(request.getRemote(), output);
+        output.append(" method=");
+        writeValue(request.getMethod(), output);
+        output.append(" uri=");
+        writeValue(RequestURI.reconstruct(request), output);
+
+        writeHeaders(request.getHeaders(), output);
+        writeBody(request.getBodyAsString(), output);
+    }
+
+    @Override
+    public String format(final Correlation correlation, final HttpResponse response) throws IOException {
+        final StringBuilder builder = builders.get();
+
+        try {
+            format(correlation, response, builder);
+            return builder.toString();
+        } finally {
+            release(builder);
+        }
+    }
+
+    @Override
+    public void format(final Correlation correlation, final HttpResponse response, final Appendable output)
+            throws IOException {
+
+        output.append("origin=");
+        output.append(origin(response));
+        output.append(" type=response correlation=");
+        writeValue(correlation.getId(), output);
+        output.append(" duration=");
+        append(correlation.getDuration().toMillis(), output);
+        output.append(" protocol=");
+        writeValue(response.getProtocolVersion(), output);
+        output.append(" status=");
+        append(response.getStatus(), output);
+
+        writeHeaders(response.getHeaders(), output);
+        writeBody(response.getBodyAsString(), output);
+    }
+
+    private void release(final StringBuilder builder) {
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            builders.remove();
+        } else {
+            builder.setLength(0);
+        }
+    }
+
+    private static String origin(final HttpMessage message) {
+        return message.getOrigin() == Origin.REMOTE ? "remote" : "local";
+    }
+
+    private static void append(final long value, final Appendable output) throws IOException {
+        if (output instanceof StringBuilder) {
+            ((StringBuilder) output).append(value);
+        } else {
+            output.append(String.valueOf(value));
+        }
+    }
+
+    private static void writeHeaders(final Map<String, List<String>> headers, final Appendable output)
+            throws IOException {
+
+        for (final Entry<String, List<String>> entry : headers.entrySet()) {
+            final List<String> values = entry.getValue();
+
+            if (values.isEmpty()) {
+                continue;
+            }
+
+            output.append(" header.");
+            writeKey(entry.getKey(), output);
+            output.append('=');
+
+            if (values.size() == 1) {
+                writeValue(values.get(0), output);
+            } else {
+                output.append('"');
+                for (int i = 0; i < values.size(); i++) {
+                    if (i > 0) {
+                        output.append(", ");
+                    }
+                    writeEscaped(values.get(i), output);
+                }
+                output.append('"');
+            }
+        }
+    }
+
+    private static void writeBody(final String body, final Appendable output) throws IOException {
+        if (!body.isEmpty()) {
+            output.append(" body=");
+            writeValue(body, output);
+        }
+    }
+
+    /**
+     * Keys can't be quoted, hence any character that would need quoting is replaced by an underscore.
+     */
+    private static void writeKey(final String key, final Appendable output) throws IOException {
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            output.append(needsQuoting(c) ? '_' : c);
+        }
+    }
+
+    private static void writeValue(final String value, final Appendable output) throws IOException {
+        if (needsQuoting(value)) {
+            output.append('"');
+            writeEscaped(value, output);
+            output.append('"');
+        } else {
+            output.append(value);
+        }
+    }
+
+    private static boolean needsQuoting(final String value) {
+        if (value.isEmpty()) {
+            return true;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (needsQuoting(value.charAt(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean needsQuoting(final char c) {
+        return c <= ' ' || c == '=' || c == '"' || c == '\u007f';
+    }
+
+    private static void writeEscaped(final String value, final Appendable output) throws IOException {
+        int start = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c >= ' ' && c != '"' && c != '\\' && c != '\u007f') {
+                continue;
+            }
+
+            output.append(value, start, i);
+            start = i + 1;
+
+            switch (c) {
+                case '"':
+                    output.append("\\\"");
+                    break;
+                case '\\':
+                    output.append("\\\\");
+                    break;
+                case '\n':
+                    output.append("\\n");
+                    break;
+                case '\r':
+                    output.append("\\r");
+                    break;
+                case '\t':
+                    output.append("\\t");
+                    break;
+                default:
+                    output.append("\\u00");
+                    output.append(HEX[c >> 4]);
+                    output.append(HEX[c & 0xF]);
+                    break;
+            }
+        }
+
+        output.append(value, start, value.length());
+    }
+
+}
@@ -4,6 +4,7 @@ import org.apiguardian.api.API;
 
 import javax.annotation.Nullable;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.apiguardian.api.API.Status.STABLE;
 import static org.zalando.logbook.DefaultFilters.defaultValues;
@@ -21,6 +22,19 @@ public final class RequestFilters {
                 .reduce(replaceBody(BodyReplacers.defaultValue()), RequestFilter::merge);
     }
 
+    /**
+     * @param queryFilter the query filter to apply
+     * @param pathFilter the path filter to apply
+     * @param headerFilter the header filter to apply
+     * @param bodyFilter the body filter to apply
+     * @return a request filter that applies the given filters, just like {@link Logbook} does
+     */
+    @API(status = EXPERIMENTAL)
+    public static RequestFilter of(final QueryFilter queryFilter, final PathFilter pathFilter,
+            final HeaderFilter headerFilter, final BodyFilter bodyFilter) {
+        return request -> new FilteredHttpRequest(request, queryFilter, pathFilter, headerFilter, bodyFilter);
+    }
+
     public static RequestFilter replaceBody(final BodyReplacer<HttpRequest> replacer) {
         return request -> {
             @Nullable final String replacement = replacer.replace(request);
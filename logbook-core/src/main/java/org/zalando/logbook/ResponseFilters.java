@@ -4,6 +4,7 @@ import org.apiguardian.api.API;
 
 import javax.annotation.Nullable;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 import static org.apiguardian.api.API.Status.STABLE;
 import static org.zalando.logbook.DefaultFilters.defaultValues;
@@ -21,6 +22,16 @@ public final class ResponseFilters {
                 .reduce(replaceBody(BodyReplacers.defaultValue()), ResponseFilter::merge);
     }
 
+    /**
+     * @param headerFilter the header filter to apply
+     * @param bodyFilter the body filter to apply
+     * @return a response filter that applies the given filters, just like {@link Logbook} does
+     */
+    @API(status = EXPERIMENTAL)
+    public static ResponseFilter of(final HeaderFilter headerFilter, final BodyFilter bodyFilter) {
+        return response -> new FilteredHttpResponse(response, headerFilter, bodyFilter);
+    }
+
     public static ResponseFilter replaceBody(final BodyReplacer<HttpResponse> replacer) {
         return response -> {
             @Nullable final String replacement = replacer.replace(response);
@@ -0,0 +1,316 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.With;
+import lombok.experimental.FieldDefaults;
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static lombok.AccessLevel.PRIVATE;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link Sink sink} that writes every exchange only to those sinks that are targeted by at least one matching
+ * {@link Route route}, e.g. server errors to a file, a sample to Logstash and everything to memory. A sink that is
+ * targeted by more than one matching route receives the exchange only once.
+ *
+ * Routes are compiled once into a decision table, i.e. one column per condition and one row per route, whose
+ * evaluation doesn't allocate. Conditions that don't apply to a route are skipped, as are routes whose sinks were
+ * already selected by previous ones.
+ *
+ * Since routes may depend on the response, requests are not written on their own, but together with their response,
+ * just like with the {@link ExchangeSink}.
+ */
+@API(status = EXPERIMENTAL)
+public final class RoutingSink implements Sink {
+
+    private static final int NO_DURATION = -1;
+
+    private final Sink[] sinks;
+
+    // the decision table, one row per route
+    private final int[] minStatus;
+    private final int[] maxStatus;
+    private final String[][] methods;
+    private final PathTemplate[] paths;
+    private final long[] minDuration;
+    private final Origin[] origins;
+    private final String[][] headerNames;
+    private final String[][] headerValues;
+    private final double[] samples;
+    private final long[] targets;
+
+    public RoutingSink(final Collection<Route> routes) {
+        final List<Sink> sinks = new ArrayList<>();
+        final int size = routes.size();
+
+        this.minStatus = new int[size];
+        this.maxStatus = new int[size];
+        this.methods = new String[size][];
+        this.paths = new PathTemplate[size];
+        this.minDuration = new long[size];
+        this.origins = new Origin[size];
+        this.headerNames = new String[size][];
+        this.headerValues = new String[size][];
+        this.samples = new double[size];
+        this.targets = new long[size];
+
+        int row = 0;
+
+        for (final Route route : routes) {
+            minStatus[row] = route.minStatus;
+            maxStatus[row] = route.maxStatus;
+            methods[row] = route.methods.isEmpty() ? null : route.methods.toArray(new String[0]);
+            paths[row] = route.path == null ? null : new PathTemplate(route.path);
+            minDuration[row] = route.minDuration == null ? NO_DURATION : route.minDuration.toMillis();
+            origins[row] = route.origin;
+            headerNames[row] = route.headers.keySet().toArray(new String[0]);
+            headerValues[row] = route.headers.values().toArray(new String[0]);
+            samples[row] = route.sample;
+            targets[row] = index(sinks, route.sinks);
+            row++;
+        }
+
+        this.sinks = sinks.toArray(new Sink[0]);
+    }
+
+    private static long index(final List<Sink> sinks, final Collection<Sink> targets) {
+        long mask = 0;
+
+        for (final Sink target : targets) {
+            int index = indexOf(sinks, target);
+
+            if (index == -1) {
+                if (sinks.size() == Long.SIZE) {
+                    throw new IllegalArgumentException("Routes are expected to target at most 64 distinct sinks");
+                }
+
+                index = sinks.size();
+                sinks.add(target);
+            }
+
+            mask |= 1L << index;
+        }
+
+        return mask;
+    }
+
+    private static int indexOf(final List<Sink> sinks, final Sink sink) {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (sinks.get(i) == sink) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isActive() {
+        for (final Sink sink : sinks) {
+            if (sink.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final HttpRequest request) {
+        // written together with the response
+    }
+
+    @Override
+    public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        long selected = select(correlation, request, response);
+
+        while (selected != 0) {
+            final Sink sink = sinks[Long.numberOfTrailingZeros(selected)];
+            selected &= selected - 1;
+
+            if (sink.isActive()) {
+                sink.writeBoth(correlation, request, response);
+            }
+        }
+    }
+
+    private long select(final Correlation correlation, final HttpRequest request, final HttpResponse response) {
+        long selected = 0;
+
+        for (int row = 0; row < targets.length; row++) {
+            if ((selected | targets[row]) != selected && matches(row, correlation, request, response)) {
+                selected |= targets[row];
+            }
+        }
+
+        return selected;
+    }
+
+    private boolean matches(final int row, final Correlation correlation, final HttpRequest request,
+            final HttpResponse response) {
+
+        final int status = response.getStatus();
+
+        if (status < minStatus[row] || status > maxStatus[row]) {
+            return false;
+        }
+
+        if (origins[row] != null && origins[row] != request.getOrigin()) {
+            return false;
+        }
+
+        if (methods[row] != null && !contains(methods[row], request.getMethod())) {
+            return false;
+        }
+
+        if (minDuration[row] != NO_DURATION && correlation.getDuration().toMillis() < minDuration[row]) {
+            return false;
+        }
+
+        if (paths[row] != null && !paths[row].matches(request.getPath())) {
+            return false;
+        }
+
+        if (headerNames[row].length > 0 && !containsHeaders(row, request.getHeaders())) {
+            return false;
+        }
+
+        return samples[row] >= 1 || ThreadLocalRandom.current().nextDouble() < samples[row];
+    }
+
+    private static boolean contains(final String[] values, final String value) {
+        for (final String candidate : values) {
+            if (candidate.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsHeaders(final int row, final Map<String, List<String>> headers) {
+        for (int i = 0; i < headerNames[row].length; i++) {
+            final List<String> values = headers.get(headerNames[row][i]);
+
+            if (values == null || !values.contains(headerValues[row][i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A route template, e.g. {@code /orders/{id}/items}, where a variable matches exactly one non-empty segment.
+     * A trailing {@code /**} matches any number of remaining segments.
+     */
+    static final class PathTemplate {
+
+        private static final String WILDCARD = "**";
+
+        private final String[] segments;
+        private final boolean open;
+
+        PathTemplate(final String template) {
+            if (!template.startsWith("/")) {
+                throw new IllegalArgumentException("Route template is expected to start with a slash: " + template);
+            }
+
+            final List<String> segments = new ArrayList<>(Arrays.asList(template.substring(1).split("/", -1)));
+            this.open = segments.get(segments.size() - 1).equals(WILDCARD);
+
+            if (open) {
+                segments.remove(segments.size() - 1);
+            }
+
+            this.segments = segments.stream()
+                    .map(segment -> segment.startsWith("{") && segment.endsWith("}") ? null : segment)
+                    .toArray(String[]::new);
+        }
+
+        boolean matches(final String path) {
+            int position = 0;
+
+            for (@Nullable final String segment : segments) {
+                if (position >= path.length() || path.charAt(position) != '/') {
+                    return false;
+                }
+
+                final int start = position + 1;
+                final int slash = path.indexOf('/', start);
+                final int end = slash == -1 ? path.length() : slash;
+
+                if (segment == null ?
+                        end == start :
+                        end - start != segment.length() || !path.regionMatches(start, segment, 0, end - start)) {
+                    return false;
+                }
+
+                position = end;
+            }
+
+            return open || position == path.length();
+        }
+
+    }
+
+    /**
+     * A route matches an exchange if all of its conditions are met. Conditions that weren't specified match any
+     * exchange, i.e. {@link #all()} matches every exchange.
+     */
+    @API(status = EXPERIMENTAL)
+    @FieldDefaults(level = PRIVATE)
+    @With
+    @NoArgsConstructor(staticName = "all")
+    @AllArgsConstructor(access = PRIVATE)
+    public static final class Route {
+
+        int minStatus = 0;
+        int maxStatus = Integer.MAX_VALUE;
+
+        /**
+         * Request methods, compared case-insensitively.
+         */
+        Collection<String> methods = Collections.emptyList();
+
+        /**
+         * A route template, e.g. {@code /orders/{id}} or {@code /orders/**}.
+         */
+        @Nullable
+        String path;
+
+        @Nullable
+        Duration minDuration;
+
+        @Nullable
+        Origin origin;
+
+        /**
+         * Request headers, by name, and one of the values they are expected to have.
+         */
+        Map<String, String> headers = Collections.emptyMap();
+
+        /**
+         * The fraction of otherwise matching exchanges to route, e.g. {@code 0.01} for 1%.
+         */
+        double sample = 1;
+
+        Collection<Sink> sinks = Collections.emptyList();
+
+        public Route to(final Sink... sinks) {
+            return withSinks(Arrays.asList(sinks));
+        }
+
+    }
+
+}
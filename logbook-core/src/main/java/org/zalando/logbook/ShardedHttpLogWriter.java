@@ -0,0 +1,112 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Spreads messages across a number of {@link FileHttpLogWriter file writers}, i.e. shards, named {@code <file>.<n>}.
+ * Every thread sticks to one shard, chosen by its id, so that threads rarely contend for the same file, e.g. with as
+ * many shards as there are cores.
+ *
+ * Every message is framed as {@code <sequence>\t<length>\t<message>}, where the sequence is unique and increasing
+ * across all shards. The {@link ShardedLogMerger} merges shards, including rolled ones, into a single, ordered
+ * stream of messages.
+ *
+ * The sequence starts at the current time in nanoseconds since the epoch, at millisecond precision, so that shards
+ * that are appended to by consecutive runs, e.g. after a restart, still merge run by run, unless a run wrote more than
+ * one message per nanosecond on average.
+ */
+@API(status = EXPERIMENTAL)
+public final class ShardedHttpLogWriter implements ByteHttpLogWriter, Closeable {
+
+    @FunctionalInterface
+    interface ShardFactory {
+        FileHttpLogWriter create(int shard, LongSupplier sequence) throws IOException;
+    }
+
+    private final AtomicLong sequence;
+    private final FileHttpLogWriter[] shards;
+
+    public ShardedHttpLogWriter(final Path file) throws IOException {
+        this(file, Runtime.getRuntime().availableProcessors(), 0, null, false);
+    }
+
+    /**
+     * @param file the file to derive the shards' files from
+     * @param shards the number of shards
+     * @param maxSize the size in bytes a shard may reach before it's rolled, non-positive values disable size-based
+     *                rolling
+     * @param interval the time after which a shard is rolled, {@code null} disables time-based rolling
+     * @param compress whether rolled shards should be compressed
+     * @throws IOException if a shard's file can't be opened
+     * @see FileHttpLogWriter#FileHttpLogWriter(Path, long, Duration, boolean)
+     */
+    public ShardedHttpLogWriter(final Path file, final int shards, final long maxSize,
+            @Nullable final Duration interval, final boolean compress) throws IOException {
+        this(file, shards, maxSize, interval, compress, Clock.systemDefaultZone());
+    }
+
+    ShardedHttpLogWriter(final Path file, final int shards, final long maxSize,
+            @Nullable final Duration interval, final boolean compress, final Clock clock) throws IOException {
+        this(shards, clock, (shard, sequence) -> new FileHttpLogWriter(Paths.get(file + "." + shard), maxSize,
+                interval, compress ? FileHttpLogWriter.newCompressor() : null, clock, sequence));
+    }
+
+    ShardedHttpLogWriter(final int shards, final Clock clock, final ShardFactory factory) throws IOException {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards is expected to be greater than zero");
+        }
+
+        this.sequence = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(clock.millis()));
+        this.shards = new FileHttpLogWriter[shards];
+
+        for (int shard = 0; shard < shards; shard++) {
+            this.shards[shard] = factory.create(shard, sequence::getAndIncrement);
+        }
+    }
+
+    private FileHttpLogWriter shard() {
+        return shards[(int) (Thread.currentThread().getId() % shards.length)];
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) throws IOException {
+        shard().write(precorrelation, request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) throws IOException {
+        shard().write(correlation, response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) throws IOException {
+        shard().write(precorrelation, request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) throws IOException {
+        shard().write(correlation, response);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final FileHttpLogWriter shard : shards) {
+            shard.close();
+        }
+    }
+
+}
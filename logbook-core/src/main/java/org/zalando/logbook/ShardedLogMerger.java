@@ -0,0 +1,163 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toList;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Merges the shards written by a {@link ShardedHttpLogWriter}, including rolled and compressed ones, into a single
+ * stream of messages, ordered by their sequence. Frames are removed, i.e. the output contains one message per line.
+ * Only one message per shard is held in memory at a time.
+ *
+ * <pre>{@code
+ * java -cp logbook-core.jar:logbook-api.jar org.zalando.logbook.ShardedLogMerger logs/http.log.* > http.log
+ * }</pre>
+ */
+@API(status = EXPERIMENTAL)
+public final class ShardedLogMerger {
+
+    private ShardedLogMerger() {
+
+    }
+
+    public static void main(final String... files) throws IOException {
+        final OutputStream output = new BufferedOutputStream(System.out);
+        merge(Arrays.stream(files).map(Paths::get).collect(toList()), output);
+        output.flush();
+    }
+
+    /**
+     * @param shards the shards to merge, files ending with {@code .gz} are decompressed
+     * @param output the stream to write messages to
+     * @throws IOException if reading a shard or writing to the output fails
+     */
+    public static void merge(final Collection<Path> shards, final OutputStream output) throws IOException {
+        final List<Shard> open = new ArrayList<>(shards.size());
+
+        try {
+            final PriorityQueue<Shard> queue = new PriorityQueue<>(comparingLong(Shard::getSequence));
+
+            for (final Path path : shards) {
+                final Shard shard = new Shard(path);
+                open.add(shard);
+
+                if (shard.next()) {
+                    queue.add(shard);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                final Shard shard = queue.poll();
+                output.write(shard.message);
+                output.write('\n');
+
+                if (shard.next()) {
+                    queue.add(shard);
+                }
+            }
+        } finally {
+            for (final Shard shard : open) {
+                shard.close();
+            }
+        }
+    }
+
+    private static final class Shard implements Closeable {
+
+        private final Path path;
+        private final InputStream input;
+
+        private long sequence;
+        private byte[] message;
+
+        private Shard(final Path path) throws IOException {
+            this.path = path;
+            final InputStream stream = new BufferedInputStream(Files.newInputStream(path));
+            this.input = path.toString().endsWith(".gz") ? new GZIPInputStream(stream) : stream;
+        }
+
+        private long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * @return whether a message was read, i.e. {@code false} at the end of the shard
+         */
+        private boolean next() throws IOException {
+            final int first = input.read();
+
+            if (first == -1) {
+                return false;
+            }
+
+            sequence = readDecimal(first);
+            message = new byte[(int) readDecimal(input.read())];
+
+            int offset = 0;
+            while (offset < message.length) {
+                final int read = input.read(message, offset, message.length - offset);
+                if (read == -1) {
+                    throw new EOFException("Truncated message in " + path);
+                }
+                offset += read;
+            }
+
+            if (input.read() != '\n') {
+                throw malformed();
+            }
+
+            return true;
+        }
+
+        /**
+         * Reads a non-negative decimal, terminated by a tab.
+         */
+        private long readDecimal(final int first) throws IOException {
+            long value = 0;
+            int digits = 0;
+
+            for (int current = first; current != '\t'; current = input.read(), digits++) {
+                if (current < '0' || current > '9' || digits == 19) {
+                    throw malformed();
+                }
+                value = value * 10 + (current - '0');
+            }
+
+            if (digits == 0) {
+                throw malformed();
+            }
+
+            return value;
+        }
+
+        private IOException malformed() {
+            return new IOException("Malformed frame in " + path);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+}
@@ -1,15 +1,41 @@
 package org.zalando.logbook;
 
+import java.io.IOException;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Map.Entry;
 
-public class SplunkHttpLogFormatter implements StructuredHttpLogFormatter {
+/**
+ * Renders HTTP messages as {@code key=value} pairs. Values are written as-is, without any quoting, see
+ * {@link LogfmtHttpLogFormatter} for an alternative that quotes values and flattens headers.
+ *
+ * Streaming formats go through {@link #format(Map)} as well, so that subclasses overriding it apply to both.
+ */
+public class SplunkHttpLogFormatter implements StructuredHttpLogFormatter, StreamingHttpLogFormatter {
 
     @Override
     public String format(final Map<String, Object> content) {
-        return content.entrySet().stream()
-                .map(entry -> String.format("%s=%s", entry.getKey(), entry.getValue()))
-                .collect(Collectors.joining(" "));
+        final StringBuilder output = new StringBuilder();
+
+        for (final Entry<String, Object> entry : content.entrySet()) {
+            if (output.length() > 0) {
+                output.append(' ');
+            }
+            output.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+
+        return output.toString();
+    }
+
+    @Override
+    public void format(final Precorrelation precorrelation, final HttpRequest request, final Appendable output)
+            throws IOException {
+        output.append(format(prepare(precorrelation, request)));
+    }
+
+    @Override
+    public void format(final Correlation correlation, final HttpResponse response, final Appendable output)
+            throws IOException {
+        output.append(format(prepare(correlation, response)));
     }
 
 }
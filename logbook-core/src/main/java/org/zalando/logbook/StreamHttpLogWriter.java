@@ -2,13 +2,32 @@ package org.zalando.logbook;
 
 import org.apiguardian.api.API;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
 
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apiguardian.api.API.Status.STABLE;
 
+/**
+ * Writes one message per line. Messages passed as bytes are written as-is, i.e. UTF-8 encoded, and streamed messages
+ * are UTF-8 encoded as well, regardless of the stream's charset. Streamed messages are encoded into a buffer per thread
+ * first and then written as a whole, i.e. formatting never happens while holding the stream's lock and a failing
+ * formatter doesn't leave partial lines behind.
+ */
 @API(status = STABLE)
-public final class StreamHttpLogWriter implements HttpLogWriter {
+public final class StreamHttpLogWriter implements ByteHttpLogWriter, StreamingHttpLogWriter {
+
+    /**
+     * Encoders that grew beyond this size are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
 
     private final PrintStream stream;
 
@@ -30,4 +49,143 @@ public final class StreamHttpLogWriter implements HttpLogWriter {
         stream.println(response);
     }
 
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) throws IOException {
+        println(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) throws IOException {
+        println(response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final Content request) throws IOException {
+        println(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final Content response) throws IOException {
+        println(response);
+    }
+
+    private void println(final Content message) throws IOException {
+        final Encoder encoder = encoders.get();
+
+        try {
+            encoder.reset();
+            message.writeTo(encoder);
+            encoder.append(System.lineSeparator());
+
+            final ByteBuffer line = encoder.finish();
+            stream.write(line.array(), 0, line.limit());
+        } finally {
+            if (encoder.bytes.capacity() > MAX_RETAINED_CAPACITY) {
+                encoders.remove();
+            }
+        }
+    }
+
+    private void println(final ByteBuffer message) {
+        synchronized (stream) {
+            if (message.hasArray()) {
+                stream.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+            } else {
+                final byte[] bytes = new byte[message.remaining()];
+                message.duplicate().get(bytes);
+                stream.write(bytes, 0, bytes.length);
+            }
+            stream.println();
+        }
+    }
+
+    /**
+     * Encodes characters as they are appended, in chunks, into a buffer that is reused for subsequent messages.
+     */
+    private static final class Encoder implements Appendable {
+
+        private final CharsetEncoder encoder = UTF_8.newEncoder()
+                .onMalformedInput(REPLACE)
+                .onUnmappableCharacter(REPLACE);
+
+        private final CharBuffer chars = CharBuffer.allocate(1024);
+        private ByteBuffer bytes = ByteBuffer.allocate(4096);
+
+        private void reset() {
+            encoder.reset();
+            chars.clear();
+            bytes.clear();
+        }
+
+        @Override
+        public Appendable append(@Nullable final CharSequence sequence) {
+            return sequence == null ? append("null") : append(sequence, 0, sequence.length());
+        }
+
+        @Override
+        public Appendable append(@Nullable final CharSequence sequence, final int start, final int end) {
+            if (sequence == null) {
+                return append("null", start, end);
+            }
+
+            int position = start;
+
+            while (position < end) {
+                if (!chars.hasRemaining()) {
+                    encode(false);
+                }
+
+                final int count = Math.min(chars.remaining(), end - position);
+
+                if (sequence instanceof String) {
+                    ((String) sequence).getChars(position, position + count, chars.array(), chars.position());
+                    chars.position(chars.position() + count);
+                } else {
+                    for (int i = position; i < position + count; i++) {
+                        chars.put(sequence.charAt(i));
+                    }
+                }
+
+                position += count;
+            }
+
+            return this;
+        }
+
+        @Override
+        public Appendable append(final char c) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+
+            chars.put(c);
+            return this;
+        }
+
+        /**
+         * @return the encoded message, only valid until the next one is encoded
+         */
+        private ByteBuffer finish() {
+            encode(true);
+            encoder.flush(bytes);
+            bytes.flip();
+            return bytes;
+        }
+
+        private void encode(final boolean endOfInput) {
+            chars.flip();
+
+            while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+                final ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+                bytes.flip();
+                larger.put(bytes);
+                bytes = larger;
+            }
+
+            // keeps a high surrogate whose low surrogate wasn't appended yet
+            chars.compact();
+        }
+
+    }
+
 }
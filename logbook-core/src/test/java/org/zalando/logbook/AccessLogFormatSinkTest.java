@@ -0,0 +1,206 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class AccessLogFormatSinkTest {
+
+    private final HttpLogWriter writer = mock(HttpLogWriter.class);
+    private final Instant start = Instant.parse("2019-08-02T08:16:41.250Z");
+
+    @Test
+    void shouldDelegateActive() {
+        final Sink unit = new AccessLogFormatSink(writer, AccessLogFormatSink.COMMON);
+        assertFalse(unit.isActive());
+
+        when(writer.isActive()).thenReturn(true);
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void shouldNotWriteRequestBeforeResponse() throws IOException {
+        new AccessLogFormatSink(writer, AccessLogFormatSink.COMMON)
+                .write(new SimplePrecorrelation("", Clock.systemUTC()), MockHttpRequest.create());
+
+        verify(writer, never()).write(any(Precorrelation.class), any());
+    }
+
+    @Test
+    void shouldFormatCombinedLogFormat() throws IOException {
+        final String output = test(AccessLogFormatSink.COMBINED,
+                MockHttpRequest.create()
+                        .withRemote("185.85.220.253")
+                        .withMethod("POST")
+                        .withPath("/search")
+                        .withQuery("q=zalando")
+                        .withHeaders(MockHeaders.of(
+                                "Referer", "https://www.zalando.de/",
+                                "User-Agent", "curl/7.54.0")),
+                MockHttpResponse.create()
+                        .withStatus(201)
+                        .withBodyAsString("Hello world!"));
+
+        assertThat(output, is("185.85.220.253 - - [02/Aug/2019:08:16:41 0000] \"POST /search?q=zalando HTTP/1.1\" " +
+                "201 12 \"https://www.zalando.de/\" \"curl/7.54.0\""));
+    }
+
+    @Test
+    void shouldFormatIndividualParts() throws IOException {
+        final String output = test("%a|%m|%U|%q|%H|%v|%<s|%B|%O|%I|%L",
+                MockHttpRequest.create()
+                        .withMethod("PUT")
+                        .withHost("example.org")
+                        .withPath("/items/1")
+                        .withQuery("dry-run")
+                        .withProtocolVersion("HTTP/2")
+                        .withBodyAsString("{}"),
+                MockHttpResponse.create()
+                        .withStatus(204));
+
+        assertThat(output, is("127.0.0.1|PUT|/items/1|?dry-run|HTTP/2|example.org|204|0|0|2|correlation"));
+    }
+
+    @Test
+    void shouldUseBodyLengthRatherThanBody() throws IOException {
+        final HttpRequest request = new ForwardingHttpRequest() {
+            @Override
+            public HttpRequest delegate() {
+                return MockHttpRequest.create();
+            }
+
+            @Override
+            public long getBodyLength() {
+                return 1024;
+            }
+        };
+
+        final HttpResponse response = new ForwardingHttpResponse() {
+            @Override
+            public HttpResponse delegate() {
+                return MockHttpResponse.create();
+            }
+
+            @Override
+            public long getBodyLength() {
+                return -1;
+            }
+        };
+
+        assertThat(test("%I %b %B %O", request, response), is("1024 - - -"));
+    }
+
+    @Test
+    void shouldOmitEmptyQuery() throws IOException {
+        assertThat(test("%U%q", MockHttpRequest.create(), MockHttpResponse.create()), is("/"));
+    }
+
+    @Test
+    void shouldFormatDurations() throws IOException {
+        assertThat(test("%D %T %{s}T %{ms}T %{us}T", MockHttpRequest.create(), MockHttpResponse.create()),
+                is("1500250 1 1 1500 1500250"));
+    }
+
+    @Test
+    void shouldFormatHeaders() throws IOException {
+        final Map<String, List<String>> headers = MockHeaders.of(
+                "Vary", "Accept",
+                "vary", "Accept-Encoding",
+                "Cache-Control", "no-cache");
+        headers.put("Pragma", emptyList());
+
+        final String output = test("%{x-flow-id}i %{vary}o %{Cache-Control}o %{Pragma}o %{Missing}o",
+                MockHttpRequest.create().withHeaders(MockHeaders.of("X-Flow-ID", "ABC")),
+                MockHttpResponse.create().withHeaders(headers));
+
+        assertThat(output, is("ABC Accept, Accept-Encoding no-cache - -"));
+    }
+
+    @Test
+    void shouldFormatCustomTimestamps() throws IOException {
+        assertThat(test("%{yyyy-MM-dd'T'HH:mm:ssXXX}t 100%%", MockHttpRequest.create(), MockHttpResponse.create()),
+                is("2019-08-02T08:16:41Z 100%"));
+    }
+
+    @Test
+    void shouldRenderTimestampsOncePerSecond() throws IOException {
+        final Sink unit = new AccessLogFormatSink(writer, "%t", UTC);
+
+        unit.write(correlation(start), MockHttpRequest.create(), MockHttpResponse.create());
+        unit.write(correlation(start.plusMillis(500)), MockHttpRequest.create(), MockHttpResponse.create());
+        unit.write(correlation(start.plusSeconds(1)), MockHttpRequest.create(), MockHttpResponse.create());
+
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(writer, times(3)).write(any(Correlation.class), captor.capture());
+
+        assertThat(captor.getAllValues(), contains(
+                "[02/Aug/2019:08:16:41 0000]",
+                "[02/Aug/2019:08:16:41 0000]",
+                "[02/Aug/2019:08:16:42 0000]"));
+    }
+
+    @Test
+    void shouldReuseBuffersWithoutLeakingPreviousContent() throws IOException {
+        final Sink unit = new AccessLogFormatSink(writer, "%{X-Large}i", UTC);
+        final String large = new String(new char[32 * 1024]).replace('\0', 'x');
+
+        unit.write(correlation(start), MockHttpRequest.create()
+                .withHeaders(MockHeaders.of("X-Large", large)), MockHttpResponse.create());
+        unit.write(correlation(start), MockHttpRequest.create()
+                .withHeaders(MockHeaders.of("X-Large", "small")), MockHttpResponse.create());
+        unit.write(correlation(start), MockHttpRequest.create()
+                .withHeaders(MockHeaders.of("X-Large", "tiny")), MockHttpResponse.create());
+
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(writer, times(3)).write(any(Correlation.class), captor.capture());
+
+        assertThat(captor.getAllValues(), contains(large, "small", "tiny"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%{Referer", "%", "%{Referer}", "%>", "%x", "%{arg}h", "%{arg}%", "%i", "%{}o", "%{h}T"})
+    void shouldRejectInvalidPatterns(final String pattern) {
+        assertThrows(IllegalArgumentException.class, () -> new AccessLogFormatSink(writer, pattern));
+    }
+
+    private String test(final String pattern, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+
+        final Correlation correlation = correlation(start);
+        new AccessLogFormatSink(writer, pattern, UTC).write(correlation, request, response);
+
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(writer).write(eq(correlation), captor.capture());
+        return captor.getValue();
+    }
+
+    private static Correlation correlation(final Instant start) {
+        return new SimpleCorrelation("correlation", start, start.plusMillis(1500).plusNanos(250_000));
+    }
+
+}
@@ -1,10 +1,16 @@
 package org.zalando.logbook;
 
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyFingerprint;
 
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singleton;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.zalando.logbook.BodyFilters.fingerprint;
 import static org.zalando.logbook.BodyFilters.oauthRequest;
 import static org.zalando.logbook.BodyFilters.replaceFormUrlEncodedProperty;
 import static org.zalando.logbook.BodyFilters.truncate;
@@ -79,4 +85,42 @@ final class BodyFiltersTest {
         assertThat(unit.filter(contentType, "<q>boots</q>"), is("<q>boots</q>"));
     }
 
+    @Test
+    void shouldReplaceBodyByFingerprint() {
+        final BodyFilter unit = fingerprint(BodyFingerprint.XXH64);
+
+        final String actual = unit.filter("text/plain", "abc");
+
+        assertThat(actual, is("{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}"));
+    }
+
+    @Test
+    void shouldKeepEmptyBodyWhenFingerprinting() {
+        final BodyFilter unit = fingerprint(BodyFingerprint.XXH64);
+
+        assertThat(unit.filter("text/plain", ""), is(""));
+    }
+
+    @Test
+    void shouldFingerprintEncodedBody() {
+        final ByteBodyFilter unit = ByteBodyFilter.of(fingerprint(BodyFingerprint.XXH64));
+        final ByteBuffer body = ByteBuffer.wrap("xabcx".getBytes(UTF_8), 1, 3).slice();
+
+        final ByteBuffer actual = unit.filter("text/plain", body, UTF_8);
+
+        assertThat(UTF_8.decode(actual).toString(), is("{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}"));
+    }
+
+    @Test
+    void shouldFingerprintDirectBodyInGivenCharset() {
+        final ByteBodyFilter unit = ByteBodyFilter.of(fingerprint(BodyFingerprint.XXH64));
+        final ByteBuffer body = ByteBuffer.allocateDirect(3).put("abc".getBytes(UTF_8));
+        body.flip();
+
+        final ByteBuffer actual = unit.filter("text/plain", body, UTF_16BE);
+
+        assertThat(UTF_16BE.decode(actual).toString(), is("{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}"));
+        assertThat(body.remaining(), is(3));
+    }
+
 }
@@ -0,0 +1,551 @@
+package org.zalando.logbook;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zalando.logbook.CollectorHttpLogWriter.Options;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Instant.MIN;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class CollectorHttpLogWriterTest {
+
+    @TempDir
+    Path spool;
+
+    private final Precorrelation precorrelation = new SimplePrecorrelation(Clock.systemUTC());
+    private final Correlation correlation = new SimpleCorrelation("1", MIN, MIN);
+
+    private final Collector collector = new Collector();
+
+    private final Options options = Options.defaults()
+            .withLinger(Duration.ofMillis(10))
+            .withMinBackoff(Duration.ofMillis(10))
+            .withMaxBackoff(Duration.ofMillis(20));
+
+    @AfterEach
+    void stop() {
+        collector.stop();
+    }
+
+    @Test
+    void shouldPostCompressedBatchesOfLines() throws IOException {
+        final Options options = this.options
+                .withLinger(Duration.ofMinutes(1))
+                .withConnections(1)
+                .withHeaders(singletonMap("Authorization", "Bearer secret"));
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "{\"type\":\"request\"}");
+            unit.write(correlation, "{\"type\":\"response\"}");
+            unit.write(precorrelation, ByteBuffer.wrap("_{\"föö\":1}_".getBytes(UTF_8), 1, 11));
+            unit.write(correlation, direct("{\"bar\":2}"));
+        }
+
+        final Request request = collector.requests.poll();
+
+        assertThat(request.body, is("{\"type\":\"request\"}\n{\"type\":\"response\"}\n{\"föö\":1}\n{\"bar\":2}\n"));
+        assertThat(request.exchange.getRequestMethod(), is("POST"));
+        assertThat(request.exchange.getRequestHeaders().getFirst("Content-Type"), is("application/x-ndjson"));
+        assertThat(request.exchange.getRequestHeaders().getFirst("Content-Encoding"), is("gzip"));
+        assertThat(request.exchange.getRequestHeaders().getFirst("Authorization"), is("Bearer secret"));
+        assertThat(collector.requests, is(empty()));
+    }
+
+    @Test
+    void shouldSealFullBatches() throws IOException {
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withMaxBatchSize(1).withLinger(Duration.ofMinutes(1)))) {
+
+            unit.write(precorrelation, "1");
+            unit.write(correlation, "2");
+            unit.write(correlation, "3");
+
+            await(() -> unit.getSent() == 3);
+        }
+
+        assertThat(collector.lines(), containsInAnyOrder("1", "2", "3"));
+    }
+
+    @Test
+    void shouldSealLingeringBatches() throws IOException {
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "1");
+
+            await(() -> unit.getSent() == 1);
+        }
+
+        assertThat(collector.lines(), contains("1"));
+    }
+
+    @Test
+    void shouldSpoolWhileCollectorIsUnavailableAndRetry() throws IOException {
+        collector.status.set(503);
+
+        // long enough to reliably write while backing off
+        final Duration backoff = Duration.ofSeconds(1);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withMaxBatchSize(1).withConnections(1).withMinBackoff(backoff).withMaxBackoff(backoff))) {
+
+            unit.write(precorrelation, "1");
+            await(() -> unit.getSpoolSize() > 0);
+
+            unit.write(correlation, "2");
+            await(() -> spooled().size() == 2);
+
+            collector.status.set(200);
+
+            await(() -> unit.getSent() == 2);
+            assertThat(unit.getSpoolSize(), is(0L));
+            assertThat(spooled(), is(empty()));
+        }
+
+        assertThat(collector.lines(), contains("1", "2"));
+    }
+
+    @Test
+    void shouldSealLingeringBatchesWhileCollectorIsUnavailable() throws IOException {
+        collector.status.set(503);
+
+        // long enough to back off in between attempts to send the spooled batch
+        final Duration backoff = Duration.ofSeconds(1);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withConnections(1).withMinBackoff(backoff).withMaxBackoff(backoff))) {
+
+            unit.write(precorrelation, "1");
+            await(() -> spooled().size() == 1);
+
+            unit.write(correlation, "2");
+            await(() -> spooled().size() == 2);
+        }
+    }
+
+    @Test
+    void shouldKeepSendingAfterUnexpectedFailures() throws IOException {
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withConnections(1).withHeaders(failing(1)))) {
+
+            unit.write(precorrelation, "1");
+            await(() -> unit.getSent() == 1);
+        }
+
+        assertThat(collector.lines(), contains("1"));
+    }
+
+    @Test
+    void shouldStopPausingOnClose() throws IOException {
+        final Duration backoff = Duration.ofMinutes(1);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withConnections(1).withHeaders(failing(Integer.MAX_VALUE))
+                        .withMinBackoff(backoff).withMaxBackoff(backoff))) {
+
+            unit.write(precorrelation, "1");
+            await(() -> spooled().size() == 1);
+        }
+
+        assertThat(collector.requests, is(empty()));
+    }
+
+    @Test
+    void shouldSpoolBatchesThatFailUnexpectedlyOnClose() throws IOException {
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withLinger(Duration.ofMinutes(1)).withConnections(1).withHeaders(failing(1)))) {
+
+            unit.write(precorrelation, "1");
+        }
+
+        assertThat(spooled().size(), is(1));
+        assertThat(collector.requests, is(empty()));
+    }
+
+    @Test
+    void shouldIgnoreFilesNotNamedLikeSpooledBatches() throws IOException {
+        Files.write(spool.resolve("backup.ndjson.gz"), new byte[1]);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            assertThat(unit.getSpoolSize(), is(0L));
+        }
+
+        assertTrue(Files.exists(spool.resolve("backup.ndjson.gz")));
+    }
+
+    @Test
+    void shouldRetryTooManyRequests() throws IOException {
+        collector.status.set(429);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "1");
+
+            // the spooled batch is retried, and fails, at least once
+            await(() -> collector.attempts.get() >= 2);
+
+            collector.status.set(200);
+            await(() -> unit.getSent() == 1);
+        }
+    }
+
+    @Test
+    void shouldRetryRequestTimeouts() throws IOException {
+        collector.status.set(408);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "1");
+            await(() -> unit.getSpoolSize() > 0);
+
+            collector.status.set(204);
+            await(() -> unit.getSent() == 1);
+        }
+    }
+
+    @Test
+    void shouldDropRejectedBatches() throws IOException {
+        collector.status.set(400);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "1");
+
+            await(() -> unit.getDropped() == 1);
+            assertThat(unit.getSpoolSize(), is(0L));
+        }
+    }
+
+    @Test
+    void shouldSpoolPendingBatchesOnCloseAndRecoverThemOnRestart() throws IOException {
+        final URI uri = collector.uri();
+        collector.stop();
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(uri, spool,
+                options.withLinger(Duration.ofMinutes(1)).withConnections(1))) {
+            unit.write(precorrelation, "1");
+        }
+
+        assertThat(spooled().size(), is(1));
+
+        Files.write(spool.resolve("0000000000000005.ndjson.gz.tmp"), new byte[1]);
+        Files.write(spool.resolve("README"), new byte[1]);
+
+        final Collector restarted = new Collector();
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(restarted.uri(), spool, options)) {
+            await(() -> unit.getSent() == 1);
+
+            // picks up where the previous one stopped
+            restarted.stop();
+            unit.write(precorrelation, "2");
+            await(() -> spooled().contains("0000000000000001.ndjson.gz"));
+        } finally {
+            restarted.stop();
+        }
+
+        assertThat(restarted.lines(), contains("1"));
+        assertTrue(Files.exists(spool.resolve("README")));
+        assertTrue(Files.notExists(spool.resolve("0000000000000005.ndjson.gz.tmp")));
+    }
+
+    @Test
+    void shouldDropOldestSpooledBatches() throws IOException {
+        collector.status.set(503);
+
+        final Options options = this.options.withMaxBatchSize(1).withConnections(1).withMaxSpoolSize(30);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            unit.write(precorrelation, "1");
+            await(() -> spooled().contains("0000000000000000.ndjson.gz"));
+
+            unit.write(precorrelation, "2");
+            await(() -> spooled().contains("0000000000000001.ndjson.gz"));
+
+            assertThat(spooled(), contains("0000000000000001.ndjson.gz"));
+            assertThat(unit.getDropped(), is(1L));
+        }
+    }
+
+    @Test
+    void shouldDropBatchesLargerThanSpool() throws IOException {
+        collector.status.set(503);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withMaxSpoolSize(1))) {
+            unit.write(precorrelation, "1");
+
+            await(() -> unit.getDropped() == 1);
+            assertThat(spooled(), is(empty()));
+        }
+    }
+
+    @Test
+    void shouldDropBatchesThatCantBeSpooled() throws IOException {
+        collector.status.set(503);
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            Files.createDirectory(spool.resolve("0000000000000000.ndjson.gz.tmp"));
+            unit.write(precorrelation, "1");
+
+            await(() -> unit.getDropped() == 1);
+            assertThat(unit.getSpoolSize(), is(0L));
+        }
+    }
+
+    @Test
+    void shouldDropSpooledBatchesThatCantBeRead() throws IOException {
+        // neither readable, nor deletable
+        Files.createDirectories(spool.resolve("0000000000000000.ndjson.gz").resolve("nested"));
+
+        try (final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options)) {
+            await(() -> unit.getDropped() == 1);
+            assertThat(unit.getSpoolSize(), is(0L));
+        }
+    }
+
+    @Test
+    void shouldDropBatchesIfTooManyArePending() throws IOException {
+        final ExecutorService idle = mock(ExecutorService.class);
+
+        final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool,
+                options.withMaxBatchSize(1).withConnections(1), idle);
+
+        for (int i = 0; i < 5; i++) {
+            unit.write(precorrelation, String.valueOf(i));
+        }
+
+        assertThat(unit.getDropped(), is(1L));
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() throws IOException {
+        final CollectorHttpLogWriter unit = new CollectorHttpLogWriter(collector.uri(), spool, options);
+        unit.close();
+
+        assertThrows(ClosedChannelException.class, () -> unit.write(precorrelation, "1"));
+    }
+
+    @Test
+    void shouldStopSendingIfInterrupted() throws Exception {
+        final ExecutorService senders = Executors.newSingleThreadExecutor();
+
+        new CollectorHttpLogWriter(collector.uri(), spool, options.withConnections(1), senders);
+
+        senders.shutdownNow();
+
+        assertTrue(senders.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    void shouldRestoreInterruptWhileClosing() throws Exception {
+        final ExecutorService senders = mock(ExecutorService.class);
+        when(senders.awaitTermination(anyLong(), eq(TimeUnit.MINUTES))).thenThrow(new InterruptedException());
+
+        new CollectorHttpLogWriter(collector.uri(), spool, options, senders).close();
+
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void shouldUseDefaults() throws IOException {
+        new CollectorHttpLogWriter(collector.uri(), spool).close();
+    }
+
+    @Test
+    void shouldKeepOptionsIfUnchanged() {
+        final Options defaults = Options.defaults();
+
+        assertThat(defaults.withHeaders(Collections.emptyMap()), is(sameInstance(defaults)));
+        assertThat(defaults.withMaxBatchSize(1024 * 1024), is(sameInstance(defaults)));
+        assertThat(defaults.withConnections(2), is(sameInstance(defaults)));
+        assertThat(defaults.withMaxSpoolSize(100 * 1024 * 1024), is(sameInstance(defaults)));
+
+        final Duration zero = Duration.ZERO;
+        final Options options = defaults.withLinger(zero).withTimeout(zero).withMinBackoff(zero).withMaxBackoff(zero);
+
+        assertThat(options.withLinger(zero).withTimeout(zero).withMinBackoff(zero).withMaxBackoff(zero),
+                is(sameInstance(options)));
+    }
+
+    @SneakyThrows
+    private List<String> spooled() {
+        try (final Stream<Path> files = Files.list(spool)) {
+            return files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.endsWith(".ndjson.gz"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Headers that fail to be applied to the given number of requests.
+     */
+    private static Map<String, String> failing(final int times) {
+        final AtomicInteger failures = new AtomicInteger(times);
+
+        return new HashMap<String, String>() {
+            @Override
+            public void forEach(final BiConsumer<? super String, ? super String> action) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException();
+                }
+                super.forEach(action);
+            }
+        };
+    }
+
+    private static ByteBuffer direct(final String message) {
+        final byte[] bytes = message.getBytes(UTF_8);
+        return (ByteBuffer) ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+
+            try {
+                Thread.sleep(5);
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static final class Request {
+
+        private final HttpExchange exchange;
+        private final String body;
+
+        private Request(final HttpExchange exchange, final String body) {
+            this.exchange = exchange;
+            this.body = body;
+        }
+
+    }
+
+    /**
+     * A local stand-in for the collector, responding with a configurable status.
+     */
+    private static final class Collector {
+
+        private final HttpServer server;
+        private final AtomicInteger status = new AtomicInteger(200);
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+
+        private Collector() {
+            try {
+                this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (final IOException e) {
+                throw new AssertionError(e);
+            }
+
+            server.createContext("/collect", exchange -> {
+                final String body = decompress(exchange.getRequestBody());
+                final int status = this.status.get();
+                attempts.incrementAndGet();
+
+                if (status < 300) {
+                    requests.add(new Request(exchange, body));
+                }
+
+                final byte[] response = status == 400 ? "invalid".getBytes(UTF_8) : new byte[0];
+                exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+
+                try (final OutputStream output = exchange.getResponseBody()) {
+                    output.write(response);
+                }
+            });
+            server.start();
+        }
+
+        URI uri() {
+            return URI.create("http://localhost:" + server.getAddress().getPort() + "/collect");
+        }
+
+        List<String> lines() {
+            final List<String> lines = new ArrayList<>();
+
+            for (final Request request : requests) {
+                lines.addAll(asList(request.body.split("\n")));
+            }
+
+            return lines;
+        }
+
+        void stop() {
+            if (stopped.compareAndSet(false, true)) {
+                server.stop(0);
+            }
+        }
+
+        private static String decompress(final InputStream body) throws IOException {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            try (final InputStream input = new GZIPInputStream(body)) {
+                final byte[] buffer = new byte[1024];
+                int read;
+
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            }
+
+            return new String(output.toByteArray(), UTF_8);
+        }
+
+    }
+
+}
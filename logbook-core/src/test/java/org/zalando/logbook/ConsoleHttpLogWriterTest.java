@@ -0,0 +1,88 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Instant.MIN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+final class ConsoleHttpLogWriterTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ByteHttpLogWriter unit = new ConsoleHttpLogWriter(output);
+
+    @Test
+    void shouldBeActiveByDefault() {
+        assertThat(new ConsoleHttpLogWriter().isActive(), is(true));
+        assertThat(new ConsoleHttpLogWriter(FileDescriptor.err).isActive(), is(true));
+    }
+
+    @Test
+    void shouldWriteRequestAndResponse() throws IOException {
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), "föö");
+        unit.write(new SimpleCorrelation("1", MIN, MIN), "bär");
+
+        assertThat(output(), is("föö\nbär\n"));
+    }
+
+    @Test
+    void shouldWriteRequestAndResponseBytes() throws IOException {
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), ByteBuffer.wrap("_föö_".getBytes(UTF_8), 1, 5));
+        unit.write(new SimpleCorrelation("1", MIN, MIN), ByteBuffer.wrap("bär".getBytes(UTF_8)));
+
+        assertThat(output(), is("föö\nbär\n"));
+    }
+
+    @Test
+    void shouldReplaceMalformedInput() throws IOException {
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), "a\uD800b");
+
+        assertThat(output(), is("a?b\n"));
+    }
+
+    @Test
+    void shouldWriteLargeMessages() throws IOException {
+        final String medium = repeat('m', 64 * 1024);
+        final String large = repeat('l', 2 * 1024 * 1024);
+
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), medium);
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), large);
+        unit.write(new SimpleCorrelation("1", MIN, MIN), "small");
+
+        assertThat(output(), is(medium + "\n" + large + "\nsmall\n"));
+    }
+
+    @Test
+    void shouldPropagateFailures() throws IOException {
+        final OutputStream stream = mock(OutputStream.class);
+        doThrow(new IOException()).when(stream).write(any(byte[].class), anyInt(), anyInt());
+
+        final ByteHttpLogWriter unit = new ConsoleHttpLogWriter(stream);
+
+        assertThrows(IOException.class, () -> unit.write(new SimpleCorrelation("1", MIN, MIN), "bar"));
+    }
+
+    private String output() {
+        return new String(output.toByteArray(), UTF_8);
+    }
+
+    private static String repeat(final char c, final int count) {
+        return new String(new char[count]).replace('\0', c);
+    }
+
+}
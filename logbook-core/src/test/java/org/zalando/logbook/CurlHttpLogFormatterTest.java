@@ -11,6 +11,7 @@ import static java.time.Instant.MIN;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
 final class CurlHttpLogFormatterTest {
@@ -82,4 +83,41 @@ final class CurlHttpLogFormatterTest {
         verify(fallback).format(correlation, response);
     }
 
+    @Test
+    void shouldStreamRequest() throws IOException {
+        final String correlationId = "c9408eaa-677d-11e5-9457-10ddb1ee7671";
+        final HttpRequest request = MockHttpRequest.create()
+                .withPath("/test")
+                .withQuery("char='")
+                .withHeaders(MockHeaders.of("Foo'Bar", "Baz"))
+                .withBodyAsString("Hello, 'world'!");
+
+        final HttpLogFormatter unit = new StreamingHttpLogFormatterAdapter(new CurlHttpLogFormatter());
+        final String curl = unit.format(new SimplePrecorrelation(correlationId, systemUTC()), request);
+
+        assertThat(curl, is("c9408eaa-677d-11e5-9457-10ddb1ee7671 " +
+                "curl -v -X GET 'http://localhost/test?char=\\'' -H 'Foo\\'Bar: Baz' --data-binary 'Hello, \\'world\\'!'"));
+    }
+
+    @Test
+    void shouldStreamResponseUsingStreamingFallback() throws IOException {
+        final HttpLogFormatter unit = new StreamingHttpLogFormatterAdapter(new CurlHttpLogFormatter());
+        final MockHttpResponse response = MockHttpResponse.create();
+        final Correlation correlation = new SimpleCorrelation("3881ae92-6824-11e5-921b-10ddb1ee7671", MIN, MIN);
+
+        assertThat(unit.format(correlation, response), is(new DefaultHttpLogFormatter().format(correlation, response)));
+    }
+
+    @Test
+    void shouldStreamResponseUsingFallback() throws IOException {
+        final HttpLogFormatter fallback = mock(HttpLogFormatter.class);
+        final HttpLogFormatter unit = new StreamingHttpLogFormatterAdapter(new CurlHttpLogFormatter(fallback));
+        final MockHttpResponse response = MockHttpResponse.create();
+        final Correlation correlation = new SimpleCorrelation("3881ae92-6824-11e5-921b-10ddb1ee7671", MIN, MIN);
+
+        when(fallback.format(correlation, response)).thenReturn("response");
+
+        assertThat(unit.format(correlation, response), is("response"));
+    }
+
 }
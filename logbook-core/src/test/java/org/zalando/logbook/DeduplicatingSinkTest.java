@@ -0,0 +1,194 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.zalando.logbook.common.BodyFingerprint;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Duration.ofSeconds;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class DeduplicatingSinkTest {
+
+    private static final String DOCUMENT = "{\"items\":[\"Alice\",\"Bob\",\"Carol\",\"Dave\"]}";
+    private static final String REFERENCE = "{\"body_ref\":\"" + hash(DOCUMENT) + "\"}";
+
+    private final List<String> bodies = new ArrayList<>();
+
+    private final Sink delegate = new Sink() {
+        @Override
+        public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+            bodies.add(request.getBodyAsString());
+        }
+
+        @Override
+        public void write(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+                throws IOException {
+            bodies.add(response.getBodyAsString());
+        }
+    };
+
+    private final Clock clock = mock(Clock.class);
+    private final Correlation correlation = mock(Correlation.class);
+
+    private final DeduplicatingSink unit = new DeduplicatingSink(delegate, 2, ofSeconds(1), clock);
+
+    @Test
+    void shouldReplaceRepeatedBodiesByReference() throws IOException {
+        write(DOCUMENT);
+        write(DOCUMENT);
+        write(DOCUMENT);
+
+        assertThat(bodies, contains(DOCUMENT, REFERENCE, REFERENCE));
+        assertThat(unit.getHits(), is(2L));
+        assertThat(unit.getMisses(), is(1L));
+    }
+
+    @Test
+    void shouldLogFullBodyAgainOnceWindowElapsed() throws IOException {
+        when(clock.millis()).thenReturn(0L, 999L, 1000L, 1500L);
+
+        write(DOCUMENT);
+        write(DOCUMENT);
+        write(DOCUMENT);
+        write(DOCUMENT);
+
+        assertThat(bodies, contains(DOCUMENT, REFERENCE, DOCUMENT, REFERENCE));
+    }
+
+    @Test
+    void shouldNotDeduplicateBodiesThatAreNotLongerThanReference() throws IOException {
+        final String body = "{\"name\":\"Alice\"}";
+
+        write(body);
+        write(body);
+        write("");
+
+        assertThat(bodies, contains(body, body, ""));
+        assertThat(unit.getHits(), is(0L));
+        assertThat(unit.getMisses(), is(0L));
+    }
+
+    @Test
+    void shouldEvictHashesLoggedLongestAgo() throws IOException {
+        final String other = DOCUMENT.replace("Alice", "Erin");
+        final String another = DOCUMENT.replace("Alice", "Frank");
+
+        write(DOCUMENT);
+        write(other);
+        write(DOCUMENT);
+        write(another);
+        write(DOCUMENT);
+
+        assertThat(bodies, contains(DOCUMENT, other, REFERENCE, another, DOCUMENT));
+        assertThat(unit.getSize(), is(2));
+        assertThat(unit.getEstimatedMemoryUsage(), is(352L));
+    }
+
+    @Test
+    void shouldKeepHashLoggedAgainWhenEvictingExpiredOne() throws IOException {
+        when(clock.millis()).thenReturn(0L, 1000L, 1000L, 1500L);
+
+        write(DOCUMENT);
+        write(DOCUMENT);
+        write(DOCUMENT.replace("Alice", "Erin"));
+        write(DOCUMENT);
+
+        assertThat(bodies.get(3), is(REFERENCE));
+        assertThat(unit.getSize(), is(2));
+    }
+
+    @Test
+    void shouldNotRetainHashesWithoutWindow() throws IOException {
+        final DeduplicatingSink unit = new DeduplicatingSink(delegate, 2, Duration.ZERO, clock);
+
+        unit.write(correlation, MockHttpRequest.create(), MockHttpResponse.create().withBodyAsString(DOCUMENT));
+        unit.write(correlation, MockHttpRequest.create(), MockHttpResponse.create().withBodyAsString(DOCUMENT));
+
+        assertThat(bodies, contains(DOCUMENT, DOCUMENT));
+        assertThat(unit.getSize(), is(0));
+    }
+
+    @Test
+    void shouldDeduplicateRequests() throws IOException {
+        final HttpRequest request = MockHttpRequest.create().withBodyAsString(DOCUMENT);
+
+        unit.write(correlation, request);
+        unit.write(correlation, request);
+
+        assertThat(bodies, contains(DOCUMENT, REFERENCE));
+    }
+
+    @Test
+    void shouldHashBodyOnlyOnce() throws IOException {
+        final Sink delegate = mock(Sink.class);
+        final DeduplicatingSink unit = new DeduplicatingSink(delegate, 2, ofSeconds(1), clock);
+        final HttpRequest request = MockHttpRequest.create().withBodyAsString(DOCUMENT);
+
+        unit.writeBoth(correlation, request, MockHttpResponse.create().withBodyAsString(DOCUMENT));
+
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> responses = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(delegate).writeBoth(eq(correlation), requests.capture(), responses.capture());
+
+        assertThat(requests.getValue().getBodyAsString(), is(DOCUMENT));
+        assertThat(requests.getValue().getBodyAsString(), is(DOCUMENT));
+        assertThat(responses.getValue().getBodyAsString(), is(REFERENCE));
+        assertThat(unit.getHits(), is(1L));
+        assertThat(unit.getMisses(), is(1L));
+    }
+
+    @Test
+    void shouldPassRequestAlongWithResponse() throws IOException {
+        final Sink delegate = mock(Sink.class);
+        final Sink unit = new DeduplicatingSink(delegate, 2, ofSeconds(1), clock);
+
+        unit.write(correlation, MockHttpRequest.create().withBodyAsString(DOCUMENT), MockHttpResponse.create());
+
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(delegate).write(eq(correlation), requests.capture(), any(HttpResponse.class));
+
+        assertThat(requests.getValue().getBodyAsString(), is(DOCUMENT));
+    }
+
+    @Test
+    void shouldDelegateActive() {
+        final Sink delegate = mock(Sink.class);
+        final Sink unit = new DeduplicatingSink(delegate, 1, Duration.ofMinutes(1));
+
+        assertFalse(unit.isActive());
+
+        when(delegate.isActive()).thenReturn(true);
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new DeduplicatingSink(delegate, 0, ofSeconds(1)));
+    }
+
+    private void write(final String body) throws IOException {
+        unit.write(correlation, MockHttpRequest.create(), MockHttpResponse.create().withBodyAsString(body));
+    }
+
+    private static String hash(final String body) {
+        return BodyFingerprint.XXH64.hash(body.getBytes(UTF_8));
+    }
+
+}
@@ -1,26 +1,41 @@
 package org.zalando.logbook;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
 import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+import org.zalando.logbook.common.BodyCompression;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Clock.systemUTC;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 
 final class DefaultHttpLogFormatterTest {
 
-    private final HttpLogFormatter unit = new DefaultHttpLogFormatter();
+    @MethodSource
+    static Iterable<HttpLogFormatter> units() {
+        return Arrays.asList(
+                new DefaultHttpLogFormatter(),
+                new StreamingHttpLogFormatterAdapter(new DefaultHttpLogFormatter())
+        );
+    }
 
-    @Test
-    void shouldLogRequest() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequest(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "c9408eaa-677d-11e5-9457-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withProtocolVersion("HTTP/1.0")
@@ -43,8 +58,9 @@ final class DefaultHttpLogFormatterTest {
                 "Hello, world!"));
     }
 
-    @Test
-    void shouldLogRequestWithoutQueryParameters() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequestWithoutQueryParameters(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "2bd05240-6827-11e5-bbee-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withOrigin(Origin.LOCAL)
@@ -65,8 +81,9 @@ final class DefaultHttpLogFormatterTest {
                 "Hello, world!"));
     }
 
-    @Test
-    void shouldLogRequestWithoutBody() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequestWithoutBody(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "0eae9f6c-6824-11e5-8b0a-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withPath("/test")
@@ -80,8 +97,9 @@ final class DefaultHttpLogFormatterTest {
                 "Accept: application/json"));
     }
 
-    @Test
-    void shouldLogResponse() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponse(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "2d51bc02-677e-11e5-8b9b-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create();
         final HttpResponse response = MockHttpResponse.create()
@@ -102,8 +120,9 @@ final class DefaultHttpLogFormatterTest {
                 "{\"success\":true}"));
     }
 
-    @Test
-    void shouldLogResponseWithoutBody() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseWithoutBody(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "3881ae92-6824-11e5-921b-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create();
         final HttpResponse response = MockHttpResponse.create()
@@ -120,8 +139,9 @@ final class DefaultHttpLogFormatterTest {
                 "Content-Type: application/json"));
     }
 
-    @Test
-    void shouldLogResponseForUnknownStatusCode() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseForUnknownStatusCode(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "2d51bc02-677e-11e5-8b9b-10ddb1ee7671";
         final HttpResponse response = MockHttpResponse.create()
                 .withProtocolVersion("HTTP/1.0")
@@ -140,8 +160,9 @@ final class DefaultHttpLogFormatterTest {
                 "{\"success\":true}"));
     }
 
-    @Test
-    void shouldLogResponseForEmptyHeader() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseForEmptyHeader(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "2d51bc02-677e-11e5-8b9b-10ddb1ee7671";
 
         final Map<String, List<String>> headers = new TreeMap<>();
@@ -165,4 +186,135 @@ final class DefaultHttpLogFormatterTest {
                 "\n" +
                 "{\"success\":true}"));
     }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseForMultiValueHeader(final HttpLogFormatter unit) throws IOException {
+        final String correlationId = "2d51bc02-677e-11e5-8b9b-10ddb1ee7671";
+
+        final Map<String, List<String>> headers = new TreeMap<>();
+        headers.put("Vary", Arrays.asList("Accept", "Accept-Encoding"));
+
+        final HttpResponse response = MockHttpResponse.create()
+                .withProtocolVersion("HTTP/1.0")
+                .withOrigin(Origin.REMOTE)
+                .withStatus(201)
+                .withHeaders(headers);
+
+        final String http = unit.format(new SimpleCorrelation(correlationId, Instant.MIN, Instant.MIN.plusMillis(125)), response);
+
+        assertThat(http, is("Incoming Response: 2d51bc02-677e-11e5-8b9b-10ddb1ee7671\n" +
+                "Duration: 125 ms\n" +
+                "HTTP/1.0 201 Created\n" +
+                "Vary: Accept, Accept-Encoding"));
+    }
+
+    @Test
+    void shouldReuseBuffersWithoutLeakingPreviousContent() throws IOException {
+        final HttpLogFormatter unit = new DefaultHttpLogFormatter();
+        final Precorrelation precorrelation = new SimplePrecorrelation("1", systemUTC());
+
+        final String large = new String(new char[128 * 1024]).replace('\0', 'x');
+
+        assertThat(unit.format(precorrelation, MockHttpRequest.create().withBodyAsString(large)), endsWith(large));
+        assertThat(unit.format(precorrelation, MockHttpRequest.create().withBodyAsString("Hello")), endsWith("\n\nHello"));
+        assertThat(unit.format(precorrelation, MockHttpRequest.create()), is("Incoming Request: 1\n" +
+                "Remote: 127.0.0.1\n" +
+                "GET http://localhost/ HTTP/1.1"));
+    }
+
+    @Test
+    void shouldStreamIntoAnyAppendable() throws IOException {
+        final DefaultHttpLogFormatter unit = new DefaultHttpLogFormatter();
+        final Precorrelation precorrelation = new SimplePrecorrelation("1", systemUTC());
+        final Correlation correlation = new SimpleCorrelation("1", Instant.MIN, Instant.MIN);
+        final HttpRequest request = MockHttpRequest.create().withBodyAsString("Hello");
+        final HttpResponse response = MockHttpResponse.create().withBodyAsString("World");
+        final StringWriter requestOutput = new StringWriter();
+        final StringWriter responseOutput = new StringWriter();
+
+        unit.format(precorrelation, request, requestOutput);
+        unit.format(correlation, response, responseOutput);
+
+        assertThat(requestOutput.toString(), is(unit.format(precorrelation, request)));
+        assertThat(responseOutput.toString(), is(unit.format(correlation, response)));
+    }
+
+    @Test
+    void shouldLogExchange() throws IOException {
+        final ExchangeHttpLogFormatter unit = new DefaultHttpLogFormatter();
+        final HttpRequest request = MockHttpRequest.create()
+                .withMethod("POST")
+                .withPath("/test")
+                .withHeaders(MockHeaders.of("Content-Type", "text/plain"))
+                .withBodyAsString("Hello, world!");
+        final HttpResponse response = MockHttpResponse.create()
+                .withStatus(201)
+                .withHeaders(MockHeaders.of("Content-Type", "application/json"))
+                .withBodyAsString("{\"success\":true}");
+
+        final String http = unit.format(
+                new SimpleCorrelation("2d51bc02", Instant.MIN, Instant.MIN.plusMillis(125)), request, response);
+
+        assertThat(http, is("Incoming Exchange: 2d51bc02\n" +
+                "Duration: 125 ms\n" +
+                "Remote: 127.0.0.1\n" +
+                "POST http://localhost/test HTTP/1.1\n" +
+                "Content-Type: text/plain\n" +
+                "\n" +
+                "Hello, world!\n" +
+                "\n" +
+                "HTTP/1.1 201 Created\n" +
+                "Content-Type: application/json\n" +
+                "\n" +
+                "{\"success\":true}"));
+    }
+
+    @Test
+    void shouldLogExchangeWithoutBodies() throws IOException {
+        final ExchangeHttpLogFormatter unit = new DefaultHttpLogFormatter();
+        final StringBuilder output = new StringBuilder();
+
+        unit.format(new SimpleCorrelation("2d51bc02", Instant.MIN, Instant.MIN), MockHttpRequest.create(),
+                MockHttpResponse.create().withOrigin(Origin.REMOTE), output);
+
+        assertThat(output.toString(), is("Incoming Exchange: 2d51bc02\n" +
+                "Duration: 0 ms\n" +
+                "Remote: 127.0.0.1\n" +
+                "GET http://localhost/ HTTP/1.1\n" +
+                "\n" +
+                "HTTP/1.1 200 OK"));
+    }
+
+    @Test
+    void shouldCompressLargeBodies() throws IOException {
+        final HttpLogFormatter unit = new DefaultHttpLogFormatter(BodyCompression.above(16));
+        final String body = "{\"items\":[\"Alice\",\"Bob\",\"Carol\",\"Dave\"]}";
+
+        final String output = unit.format(new SimpleCorrelation("2d51bc02", Instant.MIN, Instant.MIN),
+                MockHttpResponse.create()
+                        .withHeaders(MockHeaders.of("Content-Type", "application/json"))
+                        .withBodyAsString(body));
+
+        final String prefix = "Outgoing Response: 2d51bc02\n" +
+                "Duration: 0 ms\n" +
+                "HTTP/1.1 200 OK\n" +
+                "Content-Type: application/json\n" +
+                "\n" +
+                "[gzip+base64; 40 bytes]\n";
+
+        assertThat(output, startsWith(prefix));
+        assertThat(CompressedBodies.decode(output.substring(prefix.length()), UTF_8), is(body));
+    }
+
+    @Test
+    void shouldNotCompressSmallBodies() throws IOException {
+        final HttpLogFormatter unit = new DefaultHttpLogFormatter(BodyCompression.above(16));
+
+        final String output = unit.format(new SimplePrecorrelation("c9408eaa", systemUTC()),
+                MockHttpRequest.create().withBodyAsString("Hello, world!"));
+
+        assertThat(output, endsWith("\n\nHello, world!"));
+    }
+
 }
@@ -3,10 +3,17 @@ package org.zalando.logbook;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,7 +21,7 @@ class DefaultSinkTest {
 
     private final HttpLogFormatter formatter = mock(HttpLogFormatter.class);
     private final HttpLogWriter writer = mock(HttpLogWriter.class);
-    private final Sink unit = new DefaultSink(formatter, writer);
+    private final DefaultSink unit = new DefaultSink(formatter, writer);
 
     private final Precorrelation precorrelation = mock(Precorrelation.class);
     private final HttpRequest request = mock(HttpRequest.class);
@@ -58,4 +65,125 @@ class DefaultSinkTest {
         verify(writer).write(correlation, "response");
     }
 
+    @Test
+    void exposesFormatter() {
+        assertThat(unit.getFormatter(), sameInstance(formatter));
+    }
+
+    @Test
+    void writeFormattedRequest() throws IOException {
+        unit.writeFormatted(precorrelation, request, "request");
+        verify(writer).write(precorrelation, "request");
+        verify(formatter, never()).format(precorrelation, request);
+    }
+
+    @Test
+    void writeFormattedResponse() throws IOException {
+        unit.writeFormatted(correlation, request, response, "response");
+        verify(writer).write(correlation, "response");
+        verify(formatter, never()).format(correlation, response);
+    }
+
+    @Test
+    void writeRequestAsBytes() throws IOException {
+        final ByteHttpLogFormatter formatter = mock(ByteHttpLogFormatter.class);
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        unit.write(precorrelation, request);
+
+        verify(formatter).format(precorrelation, request, writer);
+    }
+
+    @Test
+    void writeResponseAsBytes() throws IOException {
+        final ByteHttpLogFormatter formatter = mock(ByteHttpLogFormatter.class);
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        unit.write(correlation, request, response);
+
+        verify(formatter).format(correlation, response, writer);
+    }
+
+    @Test
+    void writeRequestAsStringIfWriterDoesNotSupportBytes() throws IOException {
+        final ByteHttpLogFormatter formatter = mock(ByteHttpLogFormatter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        when(formatter.format(precorrelation, request)).thenReturn("request");
+        unit.write(precorrelation, request);
+
+        verify(writer).write(precorrelation, "request");
+        verify(formatter, never()).format(any(Precorrelation.class), any(HttpRequest.class), any());
+    }
+
+    @Test
+    void writeRequestAsStringIfFormatterDoesNotSupportBytes() throws IOException {
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        when(formatter.format(precorrelation, request)).thenReturn("request");
+        unit.write(precorrelation, request);
+
+        verify(writer).write(precorrelation, "request");
+        verify(writer, never()).write(any(Precorrelation.class), any(ByteBuffer.class));
+    }
+
+    @Test
+    void writeRequestAsStream() throws IOException {
+        final StreamingHttpLogFormatter formatter = mock(StreamingHttpLogFormatter.class);
+        final StreamingHttpLogWriter writer = mock(StreamingHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+        final StringBuilder output = new StringBuilder();
+
+        doAnswer(invocation -> {
+            invocation.<StreamingHttpLogWriter.Content>getArgument(1).writeTo(output);
+            return null;
+        }).when(writer).write(eq(precorrelation), any(StreamingHttpLogWriter.Content.class));
+
+        unit.write(precorrelation, request);
+
+        verify(formatter).format(precorrelation, request, output);
+    }
+
+    @Test
+    void writeResponseAsStream() throws IOException {
+        final StreamingHttpLogFormatter formatter = mock(StreamingHttpLogFormatter.class);
+        final StreamingHttpLogWriter writer = mock(StreamingHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+        final StringBuilder output = new StringBuilder();
+
+        doAnswer(invocation -> {
+            invocation.<StreamingHttpLogWriter.Content>getArgument(1).writeTo(output);
+            return null;
+        }).when(writer).write(eq(correlation), any(StreamingHttpLogWriter.Content.class));
+
+        unit.write(correlation, request, response);
+
+        verify(formatter).format(correlation, response, output);
+    }
+
+    @Test
+    void writeRequestAsStringIfWriterDoesNotSupportStreaming() throws IOException {
+        final StreamingHttpLogFormatter formatter = mock(StreamingHttpLogFormatter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        when(formatter.format(precorrelation, request)).thenReturn("request");
+        unit.write(precorrelation, request);
+
+        verify(writer).write(precorrelation, "request");
+    }
+
+    @Test
+    void writeRequestAsStringIfFormatterDoesNotSupportStreaming() throws IOException {
+        final StreamingHttpLogWriter writer = mock(StreamingHttpLogWriter.class);
+        final Sink unit = new DefaultSink(formatter, writer);
+
+        when(formatter.format(precorrelation, request)).thenReturn("request");
+        unit.write(precorrelation, request);
+
+        verify(writer).write(precorrelation, "request");
+    }
+
 }
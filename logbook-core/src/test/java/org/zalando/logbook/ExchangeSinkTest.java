@@ -0,0 +1,110 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ExchangeSinkTest {
+
+    private final ExchangeHttpLogFormatter formatter = mock(ExchangeHttpLogFormatter.class);
+    private final HttpLogWriter writer = mock(HttpLogWriter.class);
+    private final Sink unit = new ExchangeSink(formatter, writer);
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final HttpRequest request = mock(HttpRequest.class);
+    private final Correlation correlation = mock(Correlation.class);
+    private final HttpResponse response = mock(HttpResponse.class);
+
+    @Test
+    void isActiveIfWriterIsActive() {
+        when(writer.isActive()).thenReturn(true);
+
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void isInactiveIfWriterIsInactive() {
+        when(writer.isActive()).thenReturn(false);
+
+        assertFalse(unit.isActive());
+    }
+
+    @Test
+    void shouldNotWriteRequestOnItsOwn() throws IOException {
+        unit.write(precorrelation, request);
+
+        verifyNoMoreInteractions(formatter, writer);
+    }
+
+    @Test
+    void shouldWriteExchange() throws IOException {
+        when(formatter.format(correlation, request, response)).thenReturn("exchange");
+
+        unit.write(correlation, request, response);
+
+        verify(writer).write(correlation, "exchange");
+    }
+
+    @Test
+    void shouldWriteBothAsSingleRecord() throws IOException {
+        when(formatter.format(correlation, request, response)).thenReturn("exchange");
+
+        unit.writeBoth(correlation, request, response);
+
+        verify(writer).write(correlation, "exchange");
+        verify(writer, never()).write(any(Precorrelation.class), anyString());
+    }
+
+    @Test
+    void shouldWriteExchangeAsStream() throws IOException {
+        final StreamingHttpLogWriter writer = mock(StreamingHttpLogWriter.class);
+        final Sink unit = new ExchangeSink(formatter, writer);
+        final StringBuilder output = new StringBuilder();
+
+        doAnswer(invocation -> {
+            invocation.<StreamingHttpLogWriter.Content>getArgument(1).writeTo(output);
+            return null;
+        }).when(writer).write(eq(correlation), any(StreamingHttpLogWriter.Content.class));
+
+        unit.write(correlation, request, response);
+
+        verify(formatter).format(correlation, request, response, output);
+    }
+
+    @Test
+    void shouldWriteExchangeAsBytes() throws IOException {
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+        final Sink unit = new ExchangeSink(formatter, writer);
+
+        unit.write(correlation, request, response);
+
+        verify(formatter).format(correlation, request, response, writer);
+        verifyNoMoreInteractions(writer);
+    }
+
+    @Test
+    void shouldJoinRequestAndResponseIfFormatterDoesNotSupportExchanges() throws IOException {
+        final HttpLogFormatter formatter = mock(HttpLogFormatter.class);
+        final Sink unit = new ExchangeSink(formatter, writer);
+
+        when(formatter.format(correlation, request)).thenReturn("request");
+        when(formatter.format(correlation, response)).thenReturn("response");
+
+        unit.writeBoth(correlation, request, response);
+
+        verify(writer).write(correlation, "request\nresponse");
+    }
+
+}
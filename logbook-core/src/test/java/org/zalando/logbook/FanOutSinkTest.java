@@ -0,0 +1,189 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class FanOutSinkTest {
+
+    private final HttpLogFormatter formatter = mock(HttpLogFormatter.class);
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final HttpRequest request = mock(HttpRequest.class);
+    private final Correlation correlation = mock(Correlation.class);
+    private final HttpResponse response = mock(HttpResponse.class);
+
+    @Test
+    void isActiveIfAny() {
+        final Sink first = sink(false);
+        final Sink second = sink(true);
+
+        assertTrue(new FanOutSink(Arrays.asList(first, second)).isActive());
+    }
+
+    @Test
+    void isInactiveIfNone() {
+        final Sink first = sink(false);
+        final FormattingSink second = formatting(formatter, false);
+
+        assertFalse(new FanOutSink(Arrays.asList(first, second)).isActive());
+    }
+
+    @Test
+    void writesToActiveSinksOnly() throws IOException {
+        final Sink active = sink(true);
+        final Sink inactive = sink(false);
+        final Sink unit = new FanOutSink(Arrays.asList(active, inactive));
+
+        unit.write(precorrelation, request);
+        unit.write(correlation, request, response);
+        unit.writeBoth(correlation, request, response);
+
+        verify(active).write(precorrelation, request);
+        verify(active).write(correlation, request, response);
+        verify(active).writeBoth(correlation, request, response);
+        verify(inactive, never()).write(any(Precorrelation.class), any());
+        verify(inactive, never()).write(any(), any(), any());
+        verify(inactive, never()).writeBoth(any(), any(), any());
+    }
+
+    @Test
+    void writesToSinksWithDistinctFormattersAsUsual() throws IOException {
+        final FormattingSink first = formatting(formatter, true);
+        final FormattingSink second = formatting(mock(HttpLogFormatter.class), true);
+        final Sink unit = new FanOutSink(Arrays.asList(first, second));
+
+        unit.write(precorrelation, request);
+        unit.write(correlation, request, response);
+        unit.writeBoth(correlation, request, response);
+
+        for (final FormattingSink sink : Arrays.asList(first, second)) {
+            verify(sink).write(precorrelation, request);
+            verify(sink).write(correlation, request, response);
+            verify(sink).writeBoth(correlation, request, response);
+            verify(sink, never()).writeFormatted(any(Precorrelation.class), any(), anyString());
+        }
+    }
+
+    @Test
+    void formatsRequestOnceForSinksSharingFormatter() throws IOException {
+        final FormattingSink first = formatting(formatter, true);
+        final FormattingSink second = formatting(formatter, false);
+        final FormattingSink third = formatting(formatter, true);
+        final FormattingSink fourth = formatting(formatter, true);
+        when(formatter.format(precorrelation, request)).thenReturn("request");
+
+        new FanOutSink(Arrays.asList(first, second, third, fourth)).write(precorrelation, request);
+
+        verify(formatter).format(precorrelation, request);
+        verify(first).writeFormatted(precorrelation, request, "request");
+        verify(second, never()).writeFormatted(any(Precorrelation.class), any(), anyString());
+        verify(third).writeFormatted(precorrelation, request, "request");
+        verify(fourth).writeFormatted(precorrelation, request, "request");
+    }
+
+    @Test
+    void formatsResponseOnceForSinksSharingFormatter() throws IOException {
+        final FormattingSink first = formatting(formatter, false);
+        final FormattingSink second = formatting(formatter, true);
+        final FormattingSink third = formatting(formatter, true);
+        final FormattingSink fourth = formatting(formatter, true);
+        when(formatter.format(correlation, response)).thenReturn("response");
+
+        new FanOutSink(Arrays.asList(first, second, third, fourth)).write(correlation, request, response);
+
+        verify(formatter).format(correlation, response);
+        verify(first, never()).writeFormatted(any(Correlation.class), any(), any(), anyString());
+        verify(second).writeFormatted(correlation, request, response, "response");
+        verify(third).writeFormatted(correlation, request, response, "response");
+        verify(fourth).writeFormatted(correlation, request, response, "response");
+    }
+
+    @Test
+    void formatsBothOnceForSinksSharingFormatter() throws IOException {
+        final FormattingSink first = formatting(formatter, true);
+        final FormattingSink second = formatting(formatter, true);
+        when(formatter.format(correlation, request)).thenReturn("request");
+        when(formatter.format(correlation, response)).thenReturn("response");
+
+        new FanOutSink(Arrays.asList(first, second)).writeBoth(correlation, request, response);
+
+        verify(formatter).format(correlation, request);
+        verify(formatter).format(correlation, response);
+
+        for (final FormattingSink sink : Arrays.asList(first, second)) {
+            verify(sink).writeFormatted(correlation, request, "request");
+            verify(sink).writeFormatted(correlation, request, response, "response");
+        }
+    }
+
+    @Test
+    void writesToOnlyActiveSinkOfGroupAsUsual() throws IOException {
+        final FormattingSink first = formatting(formatter, false);
+        final FormattingSink second = formatting(formatter, true);
+        final Sink unit = new FanOutSink(Arrays.asList(first, second));
+
+        unit.write(precorrelation, request);
+        unit.write(correlation, request, response);
+
+        verify(second).write(precorrelation, request);
+        verify(second).write(correlation, request, response);
+        verify(first, never()).write(any(Precorrelation.class), any());
+        verify(first, never()).write(any(), any(), any());
+        verify(formatter, never()).format(any(Precorrelation.class), any(HttpRequest.class));
+        verify(formatter, never()).format(any(Correlation.class), any(HttpResponse.class));
+    }
+
+    @Test
+    void writesNothingIfNoSinkOfGroupIsActive() throws IOException {
+        final FormattingSink first = formatting(formatter, false);
+        final FormattingSink second = formatting(formatter, false);
+        final Sink unit = new FanOutSink(Arrays.asList(first, second));
+
+        unit.write(precorrelation, request);
+        unit.write(correlation, request, response);
+
+        for (final FormattingSink sink : Arrays.asList(first, second)) {
+            verify(sink, never()).write(any(Precorrelation.class), any());
+            verify(sink, never()).write(any(), any(), any());
+        }
+    }
+
+    @Test
+    void checksActivityOnEveryWrite() throws IOException {
+        final Sink sink = sink(false);
+        final Sink unit = new FanOutSink(singletonList(sink));
+
+        unit.write(precorrelation, request);
+        when(sink.isActive()).thenReturn(true);
+        unit.write(precorrelation, request);
+
+        verify(sink, times(1)).write(precorrelation, request);
+    }
+
+    private static Sink sink(final boolean active) {
+        final Sink sink = mock(Sink.class);
+        when(sink.isActive()).thenReturn(active);
+        return sink;
+    }
+
+    private static FormattingSink formatting(final HttpLogFormatter formatter, final boolean active) {
+        final FormattingSink sink = mock(FormattingSink.class);
+        when(sink.getFormatter()).thenReturn(formatter);
+        when(sink.isActive()).thenReturn(active);
+        return sink;
+    }
+
+}
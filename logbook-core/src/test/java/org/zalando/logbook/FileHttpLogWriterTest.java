@@ -0,0 +1,442 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class FileHttpLogWriterTest {
+
+    private static final Instant NOW = Instant.parse("2019-08-02T08:16:41Z");
+
+    @TempDir
+    Path directory;
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final Correlation correlation = mock(Correlation.class);
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void shouldAppendOneMessagePerLine() throws IOException {
+        final Path file = directory.resolve("logs/http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file)) {
+            unit.write(precorrelation, "request");
+            unit.write(correlation, "response");
+            unit.write(precorrelation, ByteBuffer.wrap("__request__".getBytes(UTF_8), 2, 7));
+            unit.write(correlation, ByteBuffer.wrap("response".getBytes(UTF_8)));
+        }
+
+        assertThat(read(file), is("request\nresponse\nrequest\nresponse\n"));
+    }
+
+    @Test
+    void shouldAppendToExistingFile() throws IOException {
+        final Path file = directory.resolve("http.log");
+        Files.write(file, "existing\n".getBytes(UTF_8));
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file)) {
+            unit.write(precorrelation, "request");
+        }
+
+        assertThat(read(file), is("existing\nrequest\n"));
+    }
+
+    @Test
+    void shouldRollBySize() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 10, null, null, clock)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+            unit.write(correlation, "third");
+        }
+
+        assertThat(read(file), is("third\n"));
+        assertThat(read(directory.resolve("http.log.20190802-081641")), is("first\n"));
+        assertThat(read(directory.resolve("http.log.20190802-081641.1")), is("second\n"));
+    }
+
+    @Test
+    void shouldNotRollEmptyFile() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 1, null, null, clock)) {
+            unit.write(precorrelation, "request");
+        }
+
+        assertThat(read(file), is("request\n"));
+        assertThat(list(), contains("http.log"));
+    }
+
+    @Test
+    void shouldRollByTime() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit =
+                     new FileHttpLogWriter(file, 0, Duration.ofSeconds(10), null, clock)) {
+            clock.advance(Duration.ofSeconds(30));
+            unit.write(precorrelation, "first");
+            clock.advance(Duration.ofSeconds(9));
+            unit.write(correlation, "second");
+            clock.advance(Duration.ofSeconds(1));
+            unit.write(correlation, "third");
+        }
+
+        assertThat(read(file), is("third\n"));
+        assertThat(read(directory.resolve("http.log.20190802-081721")), is("first\nsecond\n"));
+    }
+
+    @Test
+    void shouldNotOverwriteCompressedFiles() throws IOException {
+        final Path file = directory.resolve("http.log");
+        Files.createFile(directory.resolve("http.log.20190802-081641.gz"));
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 1, null, null, clock)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+        }
+
+        assertThat(read(directory.resolve("http.log.20190802-081641.1")), is("first\n"));
+    }
+
+    @Test
+    void shouldCompressRolledFiles() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit =
+                     new FileHttpLogWriter(file, 1, null, Executors.newSingleThreadExecutor(), clock)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+        }
+
+        assertThat(list(), contains("http.log", "http.log.20190802-081641.gz"));
+        assertThat(gunzip(directory.resolve("http.log.20190802-081641.gz")), is("first\n"));
+    }
+
+    @Test
+    void shouldCompressRolledFilesInBackground() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 1, Duration.ofHours(1), true)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+        }
+
+        final List<String> files = list();
+        assertThat(files, hasSize(2));
+        assertThat(files.get(1), endsWith(".gz"));
+    }
+
+    @Test
+    void shouldKeepRolledFileIfCompressionFails() throws IOException {
+        final Path file = directory.resolve("http.log");
+        final DeferringExecutor compressor = new DeferringExecutor();
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 1, null, compressor, clock)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+
+            Files.createDirectory(directory.resolve("http.log.20190802-081641.gz"));
+            compressor.run();
+        }
+
+        assertThat(read(directory.resolve("http.log.20190802-081641")), is("first\n"));
+    }
+
+    @Test
+    void shouldReportFailedRollAndRecover() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file, 1, null, null, clock)) {
+            unit.write(precorrelation, "first");
+            Files.delete(file);
+
+            assertThrows(NoSuchFileException.class, () -> unit.write(correlation, "second"));
+
+            unit.write(correlation, "third");
+        }
+
+        assertThat(read(file), is("third\n"));
+    }
+
+    @Test
+    void shouldWriteLargeMessages() throws IOException {
+        final Path file = directory.resolve("http.log");
+        final String large = new String(new char[2 * 1024 * 1024]).replace('\0', 'x');
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file)) {
+            unit.write(precorrelation, large);
+            unit.write(correlation, "small");
+        }
+
+        assertThat(read(file), is(large + "\nsmall\n"));
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() throws IOException {
+        final FileHttpLogWriter unit = new FileHttpLogWriter(directory.resolve("http.log"));
+        unit.close();
+
+        assertThrows(ClosedChannelException.class, () -> unit.write(precorrelation, "request"));
+    }
+
+    @Test
+    void shouldKeepWritingWhileInterrupted() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final FileHttpLogWriter unit = new FileHttpLogWriter(file)) {
+            Thread.currentThread().interrupt();
+
+            try {
+                unit.write(precorrelation, "request");
+                unit.write(correlation, "response");
+            } finally {
+                assertTrue(Thread.interrupted());
+            }
+
+            unit.write(precorrelation, "next");
+        }
+
+        assertThat(read(file), is("request\nresponse\nnext\n"));
+    }
+
+    @Test
+    void shouldRestoreInterruptWhileAwaitingCompression() throws Exception {
+        final ExecutorService compressor = mock(ExecutorService.class);
+        when(compressor.awaitTermination(anyLong(), eq(TimeUnit.MINUTES))).thenThrow(new InterruptedException());
+
+        new FileHttpLogWriter(directory.resolve("http.log"), 0, null, compressor, clock).close();
+
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void shouldCommitMessagesOfConcurrentThreadsInGroups() throws Exception {
+        final Path file = directory.resolve("http.log");
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final FileHttpLogWriter unit = new FileHttpLogWriter(file, 0, null, null, new MutableClock(NOW) {
+            @Override
+            public long millis() {
+                if (Thread.currentThread().getName().equals("leader")) {
+                    blocked.countDown();
+                    await(release);
+                }
+                return super.millis();
+            }
+        });
+
+        final Thread leader = start("leader", () -> unit.write(precorrelation, "first"));
+        blocked.await();
+
+        final Thread follower = start("follower", () -> unit.write(correlation, "second"));
+        awaitWaiting(follower);
+
+        final Thread closer = start("closer", unit::close);
+        awaitWaiting(closer);
+        assertFalse(Files.readAllLines(file).contains("second"));
+
+        release.countDown();
+        leader.join();
+        follower.join();
+        closer.join();
+
+        assertThat(read(file), is("first\nsecond\n"));
+    }
+
+    @Test
+    void shouldHandOverToWaitingThreadAfterOneBatch() throws Exception {
+        final Path file = directory.resolve("http.log");
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> writers = new ArrayList<>();
+
+        final FileHttpLogWriter unit = new FileHttpLogWriter(file, 0, null, null, new MutableClock(NOW) {
+            @Override
+            public long millis() {
+                final String name = Thread.currentThread().getName();
+                if (name.equals("leader")) {
+                    blocked.countDown();
+                    await(release);
+                }
+                writers.add(name);
+                return super.millis();
+            }
+        });
+        writers.clear();
+
+        final Thread leader = start("leader", () -> unit.write(precorrelation, "first"));
+        blocked.await();
+
+        final Thread follower = start("follower", () -> unit.write(correlation, "second"));
+        awaitWaiting(follower);
+
+        release.countDown();
+        leader.join();
+        follower.join();
+        unit.close();
+
+        assertThat(writers, contains("leader", "follower"));
+        assertThat(read(file), is("first\nsecond\n"));
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static Thread start(final String name, final Action action) {
+        final Thread thread = new Thread(() -> {
+            try {
+                action.run();
+            } catch (final IOException e) {
+                throw new AssertionError(e);
+            }
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(final Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private List<String> list() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName).map(Path::toString).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), UTF_8);
+    }
+
+    private static String gunzip(final Path file) throws IOException {
+        try (final InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), UTF_8);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(final Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+    private static final class DeferringExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void run() {
+            tasks.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            // nothing to shut down
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+
+    }
+
+}
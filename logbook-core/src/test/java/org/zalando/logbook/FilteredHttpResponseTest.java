@@ -2,7 +2,10 @@ package org.zalando.logbook;
 
 import org.junit.jupiter.api.Test;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -50,4 +53,29 @@ final class FilteredHttpResponseTest {
         assertThat(new String(unit.getBody(), unit.getCharset()), is("My secret is f4k3"));
     }
 
+    @Test
+    void shouldFilterBodyContentAsBytes() throws IOException {
+        final HttpResponse unit = new FilteredHttpResponse(MockHttpResponse.create()
+                        .withBodyAsString("My secret is s3cr3t"),
+                HeaderFilter.none(),
+                new ReplacingBodyFilter());
+
+        assertThat(new String(unit.getBody(), unit.getCharset()), is("My secret is byt3s"));
+        assertThat(unit.getBodyAsString(), is("My secret is str1ng"));
+    }
+
+    private static final class ReplacingBodyFilter implements BodyFilter, ByteBodyFilter {
+
+        @Override
+        public String filter(@Nullable final String contentType, final String body) {
+            return body.replace("s3cr3t", "str1ng");
+        }
+
+        @Override
+        public ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset) {
+            return charset.encode(charset.decode(body.duplicate()).toString().replace("s3cr3t", "byt3s"));
+        }
+
+    }
+
 }
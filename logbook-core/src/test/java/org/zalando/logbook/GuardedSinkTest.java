@@ -0,0 +1,310 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.Duration.ofSeconds;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class GuardedSinkTest {
+
+    private final Sink delegate = mock(Sink.class);
+    private final AtomicLong now = new AtomicLong();
+    private final Clock clock = mock(Clock.class);
+
+    private final GuardedSink unit = new GuardedSink(delegate, new DirectExecutor(), ofSeconds(1), 2,
+            ofSeconds(30), clock);
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final Correlation correlation = mock(Correlation.class);
+
+    private final HttpRequest request = MockHttpRequest.create()
+            .withHeaders(MockHeaders.of("Accept", "application/json"))
+            .withBodyAsString("Hello");
+
+    private final HttpResponse response = MockHttpResponse.create()
+            .withStatus(201)
+            .withBodyAsString("World");
+
+    GuardedSinkTest() {
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        when(delegate.isActive()).thenReturn(true);
+    }
+
+    @Test
+    void shouldRejectNonPositiveThreshold() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new GuardedSink(delegate, 1, ofSeconds(1), 0, ofSeconds(30)));
+    }
+
+    @Test
+    void shouldDelegateActivity() {
+        assertTrue(unit.isActive());
+
+        when(delegate.isActive()).thenReturn(false);
+
+        assertFalse(unit.isActive());
+    }
+
+    @Test
+    void shouldWriteSnapshotOfRequest() throws IOException {
+        unit.write(precorrelation, request);
+
+        final ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(delegate).write(eq(precorrelation), captor.capture());
+
+        final HttpRequest snapshot = captor.getValue();
+        assertThat(snapshot, instanceOf(SnapshotHttpRequest.class));
+        assertThat(snapshot.getRequestUri(), is(request.getRequestUri()));
+        assertThat(snapshot.getRemote(), is(request.getRemote()));
+        assertThat(snapshot.getHeaders().get("Accept"), is(Collections.singletonList("application/json")));
+        assertThat(snapshot.getBodyAsString(), is("Hello"));
+        assertThat(snapshot.withBody(), is(snapshot));
+        assertThat(snapshot.withoutBody().getBodyAsString(), is(""));
+    }
+
+    @Test
+    void shouldWriteSnapshotOfResponse() throws IOException {
+        unit.write(correlation, request, response);
+
+        final ArgumentCaptor<HttpResponse> captor = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(delegate).write(eq(correlation), any(SnapshotHttpRequest.class), captor.capture());
+
+        final HttpResponse snapshot = captor.getValue();
+        assertThat(snapshot, instanceOf(SnapshotHttpResponse.class));
+        assertThat(snapshot.getStatus(), is(201));
+        assertThat(snapshot.getBodyAsString(), is("World"));
+        assertThat(snapshot.withBody(), is(snapshot));
+        assertThat(snapshot.withoutBody().getBodyAsString(), is(""));
+    }
+
+    @Test
+    void shouldWriteBoth() throws IOException {
+        unit.writeBoth(correlation, request, response);
+
+        verify(delegate).writeBoth(eq(correlation), any(SnapshotHttpRequest.class), any(SnapshotHttpResponse.class));
+    }
+
+    @Test
+    void shouldKeepBodyLengthOfExchangeWithoutBody() throws IOException {
+        final HttpLogWriter writer = mock(HttpLogWriter.class);
+        when(writer.isActive()).thenReturn(true);
+
+        final Logbook logbook = Logbook.builder()
+                .strategy(new WithoutBodyStrategy())
+                .sink(new GuardedSink(new AccessLogFormatSink(writer, "%I %B %b"), new DirectExecutor(),
+                        ofSeconds(1), 2, ofSeconds(30), clock))
+                .build();
+
+        logbook.process(counted(request, 1024)).write()
+                .process(counted(response, 2048)).write();
+
+        verify(writer).write(any(Correlation.class), eq("1024 2048 2048"));
+    }
+
+    @Test
+    void shouldSwallowAndCountFailures() throws IOException {
+        doThrow(new IOException()).when(delegate).write(any(Precorrelation.class), any());
+
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getFailed(), is(1L));
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void shouldDisableAfterConsecutiveFailuresAndProbeAgain() throws IOException {
+        doThrow(new IOException()).when(delegate).write(any(Precorrelation.class), any());
+
+        unit.write(precorrelation, request);
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getFailed(), is(2L));
+        assertFalse(unit.isActive());
+
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getRejected(), is(1L));
+        verify(delegate, times(2)).write(any(Precorrelation.class), any());
+
+        now.addAndGet(30_000);
+        assertTrue(unit.isActive());
+
+        // probe fails, disabled again
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getFailed(), is(3L));
+        assertFalse(unit.isActive());
+
+        now.addAndGet(30_000);
+        doAnswer(invocation -> null).when(delegate).write(any(Precorrelation.class), any());
+
+        // probe succeeds, enabled again
+        unit.write(precorrelation, request);
+        unit.write(precorrelation, request);
+
+        verify(delegate, times(5)).write(any(Precorrelation.class), any());
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void shouldResetFailuresAfterSuccess() throws IOException {
+        doThrow(new IOException()).when(delegate).write(any(Precorrelation.class), any());
+
+        unit.write(precorrelation, request);
+        unit.write(correlation, request, response);
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getFailed(), is(2L));
+        assertTrue(unit.isActive());
+    }
+
+    @Test
+    void shouldDisableAfterConsecutiveSlowWrites() throws IOException {
+        doAnswer(invocation -> now.addAndGet(1_001)).when(delegate).write(any(Precorrelation.class), any());
+
+        unit.write(precorrelation, request);
+        assertTrue(unit.isActive());
+
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getTimedOut(), is(2L));
+        assertThat(unit.getFailed(), is(0L));
+        assertFalse(unit.isActive());
+    }
+
+    @Test
+    void shouldDropWritesIfQueueIsFull() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return null;
+        }).when(delegate).write(any(Precorrelation.class), any());
+
+        final GuardedSink unit = new GuardedSink(delegate, 1, ofSeconds(1), 1, ofSeconds(30));
+
+        unit.write(precorrelation, request);
+        blocked.await();
+
+        unit.write(precorrelation, request);
+        unit.write(precorrelation, request);
+
+        assertThat(unit.getRejected(), is(1L));
+
+        release.countDown();
+        unit.close();
+
+        verify(delegate, times(2)).write(any(Precorrelation.class), any());
+    }
+
+    @Test
+    void shouldRestoreInterruptWhileClosing() throws Exception {
+        final ExecutorService executor = mock(ExecutorService.class);
+        when(executor.awaitTermination(anyLong(), eq(TimeUnit.MINUTES))).thenThrow(new InterruptedException());
+
+        new GuardedSink(delegate, executor, ofSeconds(1), 1, Duration.ofSeconds(30), clock).close();
+
+        assertTrue(Thread.interrupted());
+    }
+
+    private static HttpRequest counted(final HttpRequest request, final long length) {
+        return new ForwardingHttpRequest() {
+            @Override
+            public HttpRequest delegate() {
+                return request;
+            }
+
+            @Override
+            public long getBodyLength() {
+                return length;
+            }
+
+            @Override
+            public HttpRequest withoutBody() {
+                return counted(request.withoutBody(), length);
+            }
+        };
+    }
+
+    private static HttpResponse counted(final HttpResponse response, final long length) {
+        return new ForwardingHttpResponse() {
+            @Override
+            public HttpResponse delegate() {
+                return response;
+            }
+
+            @Override
+            public long getBodyLength() {
+                return length;
+            }
+
+            @Override
+            public HttpResponse withoutBody() {
+                return counted(response.withoutBody(), length);
+            }
+        };
+    }
+
+    private static final class DirectExecutor extends AbstractExecutorService {
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            // nothing to shut down
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+
+    }
+
+}
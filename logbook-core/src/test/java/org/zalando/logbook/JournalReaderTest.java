@@ -0,0 +1,387 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.zalando.logbook.Origin.LOCAL;
+import static org.zalando.logbook.Origin.REMOTE;
+
+final class JournalReaderTest {
+
+    private static final Instant START = Instant.parse("2019-08-02T08:16:41.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    private final Sink sink = mock(Sink.class);
+
+    @Test
+    void shouldReplayExchange() throws IOException {
+        final Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Accept", Collections.singletonList("application/json"));
+        headers.put("X-Trace", Arrays.asList("a", "b"));
+
+        try (final JournalSink journal = new JournalSink(directory)) {
+            journal.write(correlation("2d66e4bc9a4e4f25"), MockHttpRequest.create()
+                            .withProtocolVersion("HTTP/2.0")
+                            .withOrigin(LOCAL)
+                            .withRemote("10.0.0.1")
+                            .withMethod("POST")
+                            .withScheme("https")
+                            .withHost("example.org")
+                            .withPort(Optional.empty())
+                            .withPath("/orders")
+                            .withQuery("limit=1")
+                            .withHeaders(headers)
+                            .withContentType("application/json")
+                            .withBodyAsString("{\"id\":1}"),
+                    MockHttpResponse.create()
+                            .withStatus(201)
+                            .withContentType(null)
+                            .withCharset(ISO_8859_1)
+                            .withBodyAsString("created"));
+        }
+
+        assertThat(new JournalReader(directory).replay(sink), is(1));
+
+        final ArgumentCaptor<Correlation> correlation = ArgumentCaptor.forClass(Correlation.class);
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).writeBoth(correlation.capture(), request.capture(), response.capture());
+
+        assertThat(correlation.getValue().getId(), is("2d66e4bc9a4e4f25"));
+        assertThat(correlation.getValue().getStart(), is(START));
+        assertThat(correlation.getValue().getEnd(), is(START.plusMillis(125)));
+        assertThat(correlation.getValue().getDuration(), is(Duration.ofMillis(125)));
+
+        final HttpRequest replayedRequest = request.getValue();
+        assertThat(replayedRequest.getProtocolVersion(), is("HTTP/2.0"));
+        assertThat(replayedRequest.getOrigin(), is(LOCAL));
+        assertThat(replayedRequest.getRemote(), is("10.0.0.1"));
+        assertThat(replayedRequest.getMethod(), is("POST"));
+        assertThat(replayedRequest.getRequestUri(), is("https://example.org/orders?limit=1"));
+        assertThat(replayedRequest.getPort(), is(Optional.empty()));
+        assertThat(replayedRequest.getHeaders(), is(aMapWithSize(2)));
+        assertThat(replayedRequest.getHeaders(), hasEntry("Accept", Collections.singletonList("application/json")));
+        assertThat(replayedRequest.getHeaders().get("x-trace"), contains("a", "b"));
+        assertThat(replayedRequest.getContentType(), is("application/json"));
+        assertThat(replayedRequest.getCharset(), is(UTF_8));
+        assertThat(replayedRequest.getBodyAsString(), is("{\"id\":1}"));
+        assertThat(replayedRequest.isBodyTruncated(), is(false));
+
+        final HttpResponse replayedResponse = response.getValue();
+        assertThat(replayedResponse.getProtocolVersion(), is("HTTP/1.1"));
+        assertThat(replayedResponse.getOrigin(), is(LOCAL));
+        assertThat(replayedResponse.getStatus(), is(201));
+        assertThat(replayedResponse.getHeaders(), is(aMapWithSize(0)));
+        assertThat(replayedResponse.getContentType(), is(nullValue()));
+        assertThat(replayedResponse.getCharset(), is(ISO_8859_1));
+        assertThat(replayedResponse.getBodyAsString(), is("created"));
+    }
+
+    @Test
+    void shouldReplayPortAndRemoteOrigin() throws IOException {
+        write(MockHttpRequest.create().withPort(Optional.of(8080)), MockHttpResponse.create());
+
+        new JournalReader(directory).replay(sink);
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(sink).writeBoth(any(), request.capture(), any());
+
+        assertThat(request.getValue().getPort(), is(Optional.of(8080)));
+        assertThat(request.getValue().getOrigin(), is(REMOTE));
+    }
+
+    @Test
+    void shouldReplayTruncatedBodies() throws IOException {
+        final HttpRequest originalRequest = MockHttpRequest.create().withBodyAsString("He ... [5 bytes omitted] ... ");
+        final HttpResponse originalResponse = MockHttpResponse.create().withBodyAsString(" ... [5 bytes omitted] ... ld");
+
+        write(new ForwardingHttpRequest() {
+            @Override
+            public HttpRequest delegate() {
+                return originalRequest;
+            }
+
+            @Override
+            public boolean isBodyTruncated() {
+                return true;
+            }
+        }, new ForwardingHttpResponse() {
+            @Override
+            public HttpResponse delegate() {
+                return originalResponse;
+            }
+
+            @Override
+            public boolean isBodyTruncated() {
+                return true;
+            }
+        });
+
+        new JournalReader(directory).replay(sink);
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).writeBoth(any(), request.capture(), response.capture());
+
+        assertThat(request.getValue().isBodyTruncated(), is(true));
+        assertThat(response.getValue().isBodyTruncated(), is(true));
+    }
+
+    @Test
+    void shouldReplayBodyLengths() throws IOException {
+        final HttpRequest originalRequest = MockHttpRequest.create();
+        final HttpResponse originalResponse = MockHttpResponse.create().withBodyAsString("World");
+
+        write(new ForwardingHttpRequest() {
+            @Override
+            public HttpRequest delegate() {
+                return originalRequest;
+            }
+
+            @Override
+            public long getBodyLength() {
+                return 1024;
+            }
+        }, originalResponse);
+
+        new JournalReader(directory).replay(sink);
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).writeBoth(any(), request.capture(), response.capture());
+
+        assertThat(request.getValue().getBodyLength(), is(1024L));
+        assertThat(request.getValue().withoutBody().getBodyLength(), is(1024L));
+        assertThat(response.getValue().getBodyLength(), is(5L));
+    }
+
+    @Test
+    void shouldReplayWithOrWithoutBody() throws IOException {
+        write(MockHttpRequest.create().withBodyAsString("Hello"), MockHttpResponse.create().withBodyAsString("World"));
+
+        new JournalReader(directory).replay(sink);
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).writeBoth(any(), request.capture(), response.capture());
+
+        assertThat(request.getValue().withBody(), is(sameInstance(request.getValue())));
+        assertThat(request.getValue().withoutBody().getBodyAsString(), is(emptyString()));
+        assertThat(request.getValue().withoutBody().getMethod(), is("GET"));
+        assertThat(response.getValue().withBody(), is(sameInstance(response.getValue())));
+        assertThat(response.getValue().withoutBody().getBodyAsString(), is(emptyString()));
+        assertThat(response.getValue().withoutBody().getStatus(), is(200));
+    }
+
+    @Test
+    void shouldReplayThroughFilters() throws IOException {
+        final Map<String, List<String>> headers = Collections.singletonMap(
+                "Authorization", Collections.singletonList("Bearer s3cr3t"));
+
+        write(MockHttpRequest.create()
+                        .withQuery("access_token=s3cr3t")
+                        .withPath("/users/123")
+                        .withHeaders(headers)
+                        .withBodyAsString("Hello, world!"),
+                MockHttpResponse.create()
+                        .withHeaders(headers)
+                        .withBodyAsString("Hello, world!"));
+
+        new JournalReader(directory).replay(
+                RequestFilters.of(QueryFilters.accessToken(), PathFilters.replace("/users/{id}", "XXX"),
+                        HeaderFilters.authorization(), BodyFilters.truncate(5)),
+                ResponseFilters.of(HeaderFilters.authorization(), BodyFilters.truncate(5)),
+                sink);
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        final ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).writeBoth(any(), request.capture(), response.capture());
+
+        assertThat(request.getValue().getQuery(), is("access_token=XXX"));
+        assertThat(request.getValue().getPath(), is("/users/XXX"));
+        assertThat(request.getValue().getHeaders().get("Authorization"), contains("XXX"));
+        assertThat(request.getValue().getBodyAsString(), is("Hello..."));
+        assertThat(response.getValue().getHeaders().get("Authorization"), contains("XXX"));
+        assertThat(response.getValue().getBodyAsString(), is("Hello..."));
+    }
+
+    @Test
+    void shouldTailJournal() throws IOException {
+        final JournalReader reader = new JournalReader(directory);
+
+        assertThat(reader.replay(sink), is(0));
+
+        try (final JournalSink journal = new JournalSink(directory)) {
+            assertThat(reader.replay(sink), is(0));
+
+            journal.write(correlation("1"), MockHttpRequest.create(), MockHttpResponse.create());
+            assertThat(reader.replay(sink), is(1));
+            assertThat(reader.replay(sink), is(0));
+
+            journal.write(correlation("2"), MockHttpRequest.create(), MockHttpResponse.create());
+            journal.write(correlation("3"), MockHttpRequest.create(), MockHttpResponse.create());
+            assertThat(reader.replay(sink), is(2));
+        }
+
+        assertThat(reader.replay(sink), is(0));
+
+        try (final JournalSink journal = new JournalSink(directory)) {
+            journal.write(correlation("4"), MockHttpRequest.create(), MockHttpResponse.create());
+            assertThat(reader.replay(sink), is(1));
+        }
+
+        verify(sink, times(4)).writeBoth(any(), any(), any());
+    }
+
+    @Test
+    void shouldReplayAcrossSegments() throws IOException {
+        final String large = new String(new char[4096]).replace('\0', 'x');
+
+        try (final JournalSink journal = new JournalSink(directory, 1024)) {
+            for (int i = 0; i < 10; i++) {
+                journal.write(correlation(String.valueOf(i)), MockHttpRequest.create(), MockHttpResponse.create());
+            }
+            journal.write(correlation("large"), MockHttpRequest.create().withBodyAsString(large),
+                    MockHttpResponse.create());
+            journal.write(correlation("last"), MockHttpRequest.create(), MockHttpResponse.create());
+        }
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+
+        assertThat(new JournalReader(directory).replay(sink), is(12));
+        verify(sink, times(12)).writeBoth(any(), request.capture(), any());
+        assertThat(request.getAllValues().get(10).getBodyAsString(), is(large));
+    }
+
+    @Test
+    void shouldRetryRecordsWithMismatchingChecksum() throws IOException {
+        final JournalReader reader = new JournalReader(directory);
+
+        try (final JournalSink journal = new JournalSink(directory)) {
+            journal.write(correlation("1"), MockHttpRequest.create(), MockHttpResponse.create());
+            journal.write(correlation("2"), MockHttpRequest.create(), MockHttpResponse.create());
+
+            try (final FileChannel channel = FileChannel.open(Journal.segment(directory, 0), READ, WRITE)) {
+                final MappedByteBuffer segment = channel.map(READ_WRITE, 0, channel.size());
+                final int position = Journal.HEADER_SIZE + Journal.RECORD_HEADER_SIZE
+                        + segment.getInt(Journal.HEADER_SIZE) + Integer.BYTES;
+                final int checksum = segment.getInt(position);
+
+                segment.putInt(position, ~checksum);
+                assertThat(reader.replay(sink), is(1));
+                assertThat(reader.replay(sink), is(0));
+
+                segment.putInt(position, checksum);
+                assertThat(reader.replay(sink), is(1));
+            }
+        }
+
+        verify(sink, times(2)).writeBoth(any(), any(), any());
+    }
+
+    @Test
+    void shouldRetryRecordsThatFailToDecode() throws IOException {
+        final byte[] payload = {-1, -1, -1, -1};
+        final CRC32 checksum = new CRC32();
+        checksum.update(payload);
+
+        final MappedByteBuffer segment = Journal.create(directory, 0, 1024);
+        segment.putInt(payload.length).putInt((int) checksum.getValue()).put(payload);
+
+        final JournalReader reader = new JournalReader(directory);
+
+        assertThat(reader.replay(sink), is(0));
+        assertThat(reader.replay(sink), is(0));
+    }
+
+    @Test
+    void shouldNotReadBeyondSegment() throws IOException {
+        Journal.create(directory, 0, 64).putInt(64);
+
+        assertThat(new JournalReader(directory).replay(sink), is(0));
+    }
+
+    @Test
+    void shouldRejectEmptySegments() throws IOException {
+        Files.createFile(Journal.segment(directory, 0));
+
+        final IOException e = assertThrows(IOException.class, () -> new JournalReader(directory).replay(sink));
+
+        assertThat(e.getMessage(), is(Journal.segment(directory, 0) + " is not a journal segment"));
+    }
+
+    @Test
+    void shouldRejectForeignSegments() throws IOException {
+        Files.write(Journal.segment(directory, 0), "Hello, world!".getBytes(UTF_8));
+
+        assertThrows(IOException.class, () -> new JournalReader(directory).replay(sink));
+    }
+
+    @Test
+    void shouldDecodeEncodedRecord() throws IOException {
+        final ByteBuffer record = Journal.encode(correlation("1"),
+                MockHttpRequest.create(), MockHttpResponse.create());
+
+        @Nullable final ByteBuffer payload = Journal.payload(record, new CRC32());
+        final Journal.Record decoded = Journal.decode(requireNonNull(payload));
+
+        assertThat(decoded.getCorrelation().getId(), is("1"));
+        assertThat(decoded.getRequest().getRequestUri(), is("http://localhost/"));
+        assertThat(decoded.getResponse().getStatus(), is(200));
+    }
+
+    private void write(final HttpRequest request, final HttpResponse response) throws IOException {
+        try (final JournalSink journal = new JournalSink(directory)) {
+            journal.write(correlation("1"), request, response);
+        }
+    }
+
+    private static Correlation correlation(final String id) {
+        final Correlation correlation = mock(Correlation.class);
+        when(correlation.getId()).thenReturn(id);
+        when(correlation.getStart()).thenReturn(START);
+        when(correlation.getEnd()).thenReturn(START.plusMillis(125));
+        return correlation;
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class JournalSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private final Sink sink = mock(Sink.class);
+
+    @Test
+    void shouldRejectTooSmallSegments() {
+        assertThrows(IllegalArgumentException.class, () -> new JournalSink(directory, 8));
+    }
+
+    @Test
+    void shouldCreateMissingDirectory() throws IOException {
+        final Path journal = directory.resolve("journal");
+
+        new JournalSink(journal).close();
+
+        assertThat(Journal.segments(journal), contains(Journal.segment(journal, 0)));
+    }
+
+    @Test
+    void shouldNotWriteRequestsOnTheirOwn() throws IOException {
+        try (final JournalSink unit = new JournalSink(directory)) {
+            unit.write(correlation(), MockHttpRequest.create());
+        }
+
+        assertThat(new JournalReader(directory).replay(sink), is(0));
+    }
+
+    @Test
+    void shouldWriteBoth() throws IOException {
+        try (final JournalSink unit = new JournalSink(directory)) {
+            unit.writeBoth(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+        }
+
+        assertThat(new JournalReader(directory).replay(sink), is(1));
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() throws IOException {
+        final JournalSink unit = new JournalSink(directory);
+        unit.close();
+
+        assertThrows(ClosedChannelException.class, () ->
+                unit.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create()));
+    }
+
+    @Test
+    void shouldStartNewSegmentAfterRestart() throws IOException {
+        Files.createFile(directory.resolve("README"));
+
+        new JournalSink(directory).close();
+        new JournalSink(directory).close();
+
+        assertThat(Journal.segments(directory), contains(
+                Journal.segment(directory, 0),
+                Journal.segment(directory, 1)));
+    }
+
+    @Test
+    void shouldSealSegmentOfCrashedWriter() throws IOException {
+        final JournalSink crashed = new JournalSink(directory);
+        crashed.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+
+        try (final JournalSink unit = new JournalSink(directory)) {
+            unit.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+        }
+
+        assertThat(new JournalReader(directory).replay(sink), is(2));
+    }
+
+    @Test
+    void shouldCutOffTornRecordOfCrashedWriter() throws IOException {
+        final JournalSink crashed = new JournalSink(directory);
+        crashed.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+        crashed.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+
+        try (final FileChannel channel = FileChannel.open(Journal.segment(directory, 0), READ, WRITE)) {
+            final MappedByteBuffer segment = channel.map(READ_WRITE, 0, channel.size());
+            final int position = Journal.HEADER_SIZE + Journal.RECORD_HEADER_SIZE
+                    + segment.getInt(Journal.HEADER_SIZE) + Integer.BYTES;
+            segment.putInt(position, ~segment.getInt(position));
+        }
+
+        try (final JournalSink unit = new JournalSink(directory)) {
+            unit.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+        }
+
+        assertThat(new JournalReader(directory).replay(sink), is(2));
+    }
+
+    @Test
+    void shouldSealFullSegmentOfCrashedWriter() throws IOException {
+        final String large = new String(new char[1024]).replace('\0', 'x');
+
+        final JournalSink crashed = new JournalSink(directory, 64);
+        crashed.write(correlation(), MockHttpRequest.create().withBodyAsString(large), MockHttpResponse.create());
+
+        try (final JournalSink unit = new JournalSink(directory, 64)) {
+            unit.write(correlation(), MockHttpRequest.create().withBodyAsString(large), MockHttpResponse.create());
+        }
+
+        assertThat(Journal.segments(directory), hasSize(4));
+        assertThat(new JournalReader(directory).replay(sink), is(2));
+    }
+
+    @Test
+    void shouldWriteVeryLargeBodies() throws IOException {
+        final String large = new String(new char[2 * 1024 * 1024]).replace('\0', 'x');
+
+        try (final JournalSink unit = new JournalSink(directory)) {
+            unit.write(correlation(), MockHttpRequest.create().withBodyAsString(large), MockHttpResponse.create());
+            unit.write(correlation(), MockHttpRequest.create(), MockHttpResponse.create());
+        }
+
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+
+        assertThat(new JournalReader(directory).replay(sink), is(2));
+        verify(sink, times(2)).writeBoth(any(), request.capture(), any());
+        assertThat(request.getAllValues().get(0).getBodyAsString(), is(large));
+    }
+
+    private static Correlation correlation() {
+        final Correlation correlation = mock(Correlation.class);
+        when(correlation.getId()).thenReturn("2d66e4bc9a4e4f25");
+        when(correlation.getStart()).thenReturn(Instant.EPOCH);
+        when(correlation.getEnd()).thenReturn(Instant.EPOCH);
+        return correlation;
+    }
+
+}
@@ -0,0 +1,179 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Instant.MIN;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.zalando.logbook.Origin.LOCAL;
+import static org.zalando.logbook.Origin.REMOTE;
+
+final class LogfmtHttpLogFormatterTest {
+
+    private final Precorrelation precorrelation =
+            new SimplePrecorrelation("3ce91230-677b-11e5-87b7-10ddb1ee7671", Clock.systemUTC());
+
+    private final Correlation correlation =
+            new SimpleCorrelation("53de2640-677d-11e5-bc84-10ddb1ee7671", MIN, MIN.plus(ofMillis(125)));
+
+    @MethodSource
+    static Iterable<HttpLogFormatter> units() {
+        return Arrays.asList(
+                new LogfmtHttpLogFormatter(),
+                new StreamingHttpLogFormatterAdapter(new LogfmtHttpLogFormatter())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequest(final HttpLogFormatter unit) throws IOException {
+        final HttpRequest request = MockHttpRequest.create()
+                .withMethod("POST")
+                .withProtocolVersion("HTTP/1.0")
+                .withOrigin(REMOTE)
+                .withPath("/test")
+                .withQuery("limit=1")
+                .withHeaders(MockHeaders.of(
+                        "Accept", "application/json",
+                        "Date", "Tue, 15 Nov 1994 08:12:31 GMT"
+                ))
+                .withBodyAsString("Hello, world!");
+
+        assertThat(unit.format(precorrelation, request), is("origin=remote type=request " +
+                "correlation=3ce91230-677b-11e5-87b7-10ddb1ee7671 protocol=HTTP/1.0 remote=127.0.0.1 method=POST " +
+                "uri=\"http://localhost/test?limit=1\" header.Accept=application/json " +
+                "header.Date=\"Tue, 15 Nov 1994 08:12:31 GMT\" body=\"Hello, world!\""));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponse(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withOrigin(LOCAL)
+                .withStatus(201)
+                .withHeaders(MockHeaders.of("Content-Type", "text/plain"))
+                .withBodyAsString("Created");
+
+        assertThat(unit.format(correlation, response), is("origin=local type=response " +
+                "correlation=53de2640-677d-11e5-bc84-10ddb1ee7671 duration=125 protocol=HTTP/1.1 status=201 " +
+                "header.Content-Type=text/plain body=Created"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldOmitEmptyHeadersAndBody(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withOrigin(REMOTE)
+                .withHeaders(headers("Vary", emptyList()));
+
+        assertThat(unit.format(correlation, response), is("origin=remote type=response " +
+                "correlation=53de2640-677d-11e5-bc84-10ddb1ee7671 duration=125 protocol=HTTP/1.1 status=200"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldJoinMultipleHeaderValues(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withHeaders(headers("Vary", asList("Accept", "Accept-\"Encoding\"")));
+
+        assertThat(unit.format(correlation, response),
+                endsWith(" header.Vary=\"Accept, Accept-\\\"Encoding\\\"\""));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldReplaceSpecialCharactersInHeaderNames(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withHeaders(headers("X Weird=\"Name\"", singletonList("yes")));
+
+        assertThat(unit.format(correlation, response), endsWith(" header.X_Weird__Name_=yes"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldEscapeBody(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withBodyAsString("{\n\t\"path\": \"C:\\\\\",\r\n\"bell\": \"\u0007\u007f\"\n}");
+
+        assertThat(unit.format(correlation, response), endsWith(
+                " body=\"{\\n\\t\\\"path\\\": \\\"C:\\\\\\\\\\\",\\r\\n\\\"bell\\\": \\\"\\u0007\\u007f\\\"\\n}\""));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldNotQuoteBackslashesOnly(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withBodyAsString("C:\\Windows");
+
+        assertThat(unit.format(correlation, response), endsWith(" body=C:\\Windows"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldQuoteDeleteCharacter(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withBodyAsString("\u007f");
+
+        assertThat(unit.format(correlation, response), endsWith(" body=\"\\u007f\""));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldQuoteEmptyValues(final HttpLogFormatter unit) throws IOException {
+        final HttpRequest request = MockHttpRequest.create()
+                .withRemote("");
+
+        assertThat(unit.format(precorrelation, request), startsWith("origin=remote type=request " +
+                "correlation=3ce91230-677b-11e5-87b7-10ddb1ee7671 protocol=HTTP/1.1 remote=\"\" method=GET"));
+    }
+
+    @Test
+    void shouldReuseBuffersWithoutLeakingPreviousContent() throws IOException {
+        final HttpLogFormatter unit = new LogfmtHttpLogFormatter();
+        final HttpResponse large = MockHttpResponse.create()
+                .withBodyAsString(new String(new char[128 * 1024]).replace('\0', 'x'));
+        final HttpResponse small = MockHttpResponse.create();
+
+        unit.format(correlation, large);
+        unit.format(correlation, small);
+
+        assertThat(unit.format(correlation, small), is("origin=local type=response " +
+                "correlation=53de2640-677d-11e5-bc84-10ddb1ee7671 duration=125 protocol=HTTP/1.1 status=200"));
+    }
+
+    @Test
+    void shouldStreamIntoAnyAppendable() throws IOException {
+        final LogfmtHttpLogFormatter unit = new LogfmtHttpLogFormatter();
+        final HttpResponse response = MockHttpResponse.create();
+        final StringWriter output = new StringWriter();
+
+        unit.format(correlation, response, output);
+
+        assertThat(output.toString(), is(unit.format(correlation, response)));
+    }
+
+    private static Map<String, List<String>> headers(final String name, final List<String> values) {
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put(name, values);
+        return headers;
+    }
+
+}
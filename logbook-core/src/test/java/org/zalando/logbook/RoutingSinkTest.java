@@ -0,0 +1,248 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.RoutingSink.PathTemplate;
+import org.zalando.logbook.RoutingSink.Route;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.Instant.MIN;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.zalando.logbook.Origin.LOCAL;
+import static org.zalando.logbook.Origin.REMOTE;
+
+final class RoutingSinkTest {
+
+    private final Sink errors = sink(true);
+    private final Sink sample = sink(true);
+    private final Sink everything = sink(true);
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final Correlation correlation = new DefaultLogbook.SimpleCorrelation("1", MIN, MIN.plusMillis(250));
+
+    private final MockHttpRequest request = MockHttpRequest.create()
+            .withMethod("POST")
+            .withPath("/orders/123/items")
+            .withHeaders(MockHeaders.of("Accept", "application/json"));
+
+    private final MockHttpResponse response = MockHttpResponse.create().withStatus(503);
+
+    @Test
+    void shouldBeActiveIfAnyTargetIsActive() {
+        assertTrue(new RoutingSink(Arrays.asList(
+                Route.all().to(sink(false)),
+                Route.all().to(sink(true)))).isActive());
+    }
+
+    @Test
+    void shouldBeInactiveIfNoTargetIsActive() {
+        assertFalse(new RoutingSink(singletonList(Route.all().to(sink(false)))).isActive());
+    }
+
+    @Test
+    void shouldDeferRequests() throws IOException {
+        final Sink unit = new RoutingSink(singletonList(Route.all().to(everything)));
+
+        unit.write(precorrelation, request);
+
+        verifyNoMoreInteractions(everything);
+    }
+
+    @Test
+    void shouldRouteToAllMatchingSinks() throws IOException {
+        final Sink unit = new RoutingSink(Arrays.asList(
+                Route.all().withMinStatus(500).withMaxStatus(599).to(errors),
+                Route.all().withSample(0).to(sample),
+                Route.all().to(everything)));
+
+        unit.write(correlation, request, response);
+
+        verify(errors).writeBoth(correlation, request, response);
+        verify(sample, never()).writeBoth(any(), any(), any());
+        verify(everything).writeBoth(correlation, request, response);
+    }
+
+    @Test
+    void shouldWriteOnceToSinksTargetedByMultipleRoutes() throws IOException {
+        final Sink unit = new RoutingSink(Arrays.asList(
+                Route.all().to(errors, everything),
+                Route.all().withMinStatus(500).to(errors),
+                Route.all().to(everything)));
+
+        unit.write(correlation, request, response);
+
+        verify(errors).writeBoth(correlation, request, response);
+        verify(everything).writeBoth(correlation, request, response);
+    }
+
+    @Test
+    void shouldSkipInactiveSinks() throws IOException {
+        final Sink inactive = sink(false);
+        final Sink unit = new RoutingSink(singletonList(Route.all().to(inactive, everything)));
+
+        unit.writeBoth(correlation, request, response);
+
+        verify(inactive, never()).writeBoth(any(), any(), any());
+        verify(everything).writeBoth(correlation, request, response);
+    }
+
+    @Test
+    void shouldMatchStatus() {
+        assertTrue(matches(Route.all().withMinStatus(500).withMaxStatus(503)));
+        assertFalse(matches(Route.all().withMinStatus(504)));
+        assertFalse(matches(Route.all().withMaxStatus(499)));
+    }
+
+    @Test
+    void shouldMatchOrigin() {
+        assertTrue(matches(Route.all().withOrigin(REMOTE)));
+        assertFalse(matches(Route.all().withOrigin(LOCAL)));
+    }
+
+    @Test
+    void shouldMatchMethodsCaseInsensitively() {
+        assertTrue(matches(Route.all().withMethods(Arrays.asList("GET", "post"))));
+        assertFalse(matches(Route.all().withMethods(singletonList("PUT"))));
+    }
+
+    @Test
+    void shouldMatchDuration() {
+        assertTrue(matches(Route.all().withMinDuration(Duration.ofMillis(250))));
+        assertFalse(matches(Route.all().withMinDuration(Duration.ofMillis(251))));
+    }
+
+    @Test
+    void shouldMatchPath() {
+        assertTrue(matches(Route.all().withPath("/orders/{id}/items")));
+        assertFalse(matches(Route.all().withPath("/orders/{id}")));
+    }
+
+    @Test
+    void shouldMatchHeaders() {
+        assertTrue(matches(Route.all().withHeaders(singletonMap("Accept", "application/json"))));
+        assertFalse(matches(Route.all().withHeaders(singletonMap("Accept", "text/plain"))));
+        assertFalse(matches(Route.all().withHeaders(singletonMap("Content-Type", "application/json"))));
+    }
+
+    @Test
+    void shouldMatchAllHeaders() {
+        final MockHttpRequest request = this.request.withHeaders(MockHeaders.of(
+                "Accept", "application/json",
+                "X-Debug", "true"));
+
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept", "application/json");
+        headers.put("X-Debug", "true");
+
+        assertTrue(matches(Route.all().withHeaders(headers), request));
+        assertFalse(matches(Route.all().withHeaders(headers), this.request));
+    }
+
+    @Test
+    void shouldSample() {
+        assertTrue(matches(Route.all().withSample(Math.nextDown(1.0))));
+        assertFalse(matches(Route.all().withSample(0)));
+    }
+
+    @Test
+    void shouldKeepRouteIfUnchanged() {
+        final Route route = Route.all();
+
+        assertThat(route.withMinStatus(0), is(sameInstance(route)));
+        assertThat(route.withMaxStatus(Integer.MAX_VALUE), is(sameInstance(route)));
+        assertThat(route.withMethods(emptyList()), is(sameInstance(route)));
+        assertThat(route.withPath(null), is(sameInstance(route)));
+        assertThat(route.withMinDuration(null), is(sameInstance(route)));
+        assertThat(route.withOrigin(null), is(sameInstance(route)));
+        assertThat(route.withHeaders(emptyMap()), is(sameInstance(route)));
+        assertThat(route.withSample(1), is(sameInstance(route)));
+        assertThat(route.withSinks(emptyList()), is(sameInstance(route)));
+    }
+
+    @Test
+    void shouldRejectMoreThan64Sinks() {
+        final List<Route> routes = new ArrayList<>();
+
+        for (int i = 0; i < 65; i++) {
+            routes.add(Route.all().to(sink(true)));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new RoutingSink(routes));
+    }
+
+    @Test
+    void shouldRejectRelativeTemplate() {
+        assertThrows(IllegalArgumentException.class, () -> new PathTemplate("orders"));
+    }
+
+    @Test
+    void shouldMatchTemplates() {
+        assertTrue(new PathTemplate("/").matches("/"));
+        assertFalse(new PathTemplate("/").matches("/orders"));
+        assertTrue(new PathTemplate("/orders").matches("/orders"));
+        assertFalse(new PathTemplate("/orders").matches("/order"));
+        assertFalse(new PathTemplate("/orders").matches("/orderz"));
+        assertFalse(new PathTemplate("/orders").matches("/orders/"));
+        assertFalse(new PathTemplate("/orders").matches(""));
+        assertFalse(new PathTemplate("/orders").matches("orders"));
+        assertTrue(new PathTemplate("/orders/{id}").matches("/orders/123"));
+        assertFalse(new PathTemplate("/orders/{id}").matches("/orders/"));
+        assertFalse(new PathTemplate("/orders/{id}").matches("/orders"));
+        assertFalse(new PathTemplate("/orders/{id}").matches("/orders/123/items"));
+        assertTrue(new PathTemplate("/orders/{id").matches("/orders/{id"));
+        assertFalse(new PathTemplate("/orders/{id").matches("/orders/123"));
+        assertTrue(new PathTemplate("/orders/**").matches("/orders"));
+        assertTrue(new PathTemplate("/orders/**").matches("/orders/123/items"));
+        assertFalse(new PathTemplate("/orders/**").matches("/users/123"));
+        assertTrue(new PathTemplate("/**").matches("/users/123"));
+    }
+
+    private boolean matches(final Route route) {
+        return matches(route, request);
+    }
+
+    private boolean matches(final Route route, final HttpRequest request) {
+        final Sink target = sink(true);
+
+        try {
+            new RoutingSink(singletonList(route.to(target))).write(correlation, request, response);
+            return wasWritten(target);
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static boolean wasWritten(final Sink sink) {
+        return mockingDetails(sink).getInvocations().stream()
+                .anyMatch(invocation -> invocation.getMethod().getName().equals("writeBoth"));
+    }
+
+    private static Sink sink(final boolean active) {
+        final Sink sink = mock(Sink.class);
+        when(sink.isActive()).thenReturn(active);
+        return sink;
+    }
+
+}
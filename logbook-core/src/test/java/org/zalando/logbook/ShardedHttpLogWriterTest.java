@@ -0,0 +1,150 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Instant.MIN;
+import static java.time.ZoneOffset.UTC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class ShardedHttpLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final Precorrelation precorrelation = new SimplePrecorrelation(Clock.systemUTC());
+    private final Correlation correlation = new SimpleCorrelation("1", MIN, MIN);
+
+    @Test
+    void shouldRejectNonPositiveNumberOfShards() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new ShardedHttpLogWriter(directory.resolve("http.log"), 0, 0, null, false));
+    }
+
+    @Test
+    void shouldCreateOneShardPerProcessorByDefault() throws IOException {
+        new ShardedHttpLogWriter(directory.resolve("http.log")).close();
+
+        assertThat(list(), hasSize(Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    void shouldFrameMessagesWithSequenceAndLength() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(file, 1, 0, null, false,
+                Clock.fixed(Instant.EPOCH, UTC))) {
+            unit.write(precorrelation, "föö");
+            unit.write(correlation, "bar\nbaz");
+            unit.write(precorrelation, ByteBuffer.wrap("_request_".getBytes(UTF_8), 1, 7));
+            unit.write(correlation, ByteBuffer.wrap("response".getBytes(UTF_8)));
+            unit.write(correlation, "Hello, world!");
+        }
+
+        assertThat(read(directory.resolve("http.log.0")),
+                is("0\t5\tföö\n1\t7\tbar\nbaz\n2\t7\trequest\n3\t8\tresponse\n4\t13\tHello, world!\n"));
+    }
+
+    @Test
+    void shouldStartSequenceAtCurrentTime() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(file, 1, 0, null, false,
+                Clock.fixed(Instant.parse("2019-08-02T08:16:41.123Z"), UTC))) {
+            unit.write(precorrelation, "request");
+        }
+
+        assertThat(read(directory.resolve("http.log.0")), is("1564733801123000000\t7\trequest\n"));
+    }
+
+    @Test
+    void shouldRouteThreadsToShards() throws Exception {
+        final Path file = directory.resolve("http.log");
+        final List<Thread> threads = new ArrayList<>();
+
+        try (final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(file, 4, 0, null, false)) {
+            for (int i = 0; i < 8; i++) {
+                final Thread thread = new Thread(() -> {
+                    try {
+                        unit.write(correlation, String.valueOf(Thread.currentThread().getId()));
+                    } catch (final IOException e) {
+                        throw new AssertionError(e);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        final List<String> messages = new ArrayList<>();
+
+        for (int shard = 0; shard < 4; shard++) {
+            for (final String line : Files.readAllLines(directory.resolve("http.log." + shard))) {
+                final String id = line.split("\t")[2];
+                assertThat(Long.parseLong(id) % 4, is((long) shard));
+                messages.add(id);
+            }
+        }
+
+        assertThat(messages, containsInAnyOrder(threads.stream()
+                .map(Thread::getId)
+                .map(String::valueOf)
+                .toArray()));
+    }
+
+    @Test
+    void shouldRollAndCompressShards() throws IOException {
+        try (final ShardedHttpLogWriter unit =
+                     new ShardedHttpLogWriter(directory.resolve("http.log"), 1, 1, null, true)) {
+            unit.write(precorrelation, "first");
+            unit.write(correlation, "second");
+        }
+
+        final List<String> files = list();
+        assertThat(files, hasSize(2));
+        assertThat(files.get(0), is("http.log.0"));
+        assertThat(files.get(1).endsWith(".gz"), is(true));
+    }
+
+    @Test
+    void shouldRejectWritesAfterClose() throws IOException {
+        final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(directory.resolve("http.log"), 2, 0, null, false);
+        unit.close();
+
+        assertThrows(ClosedChannelException.class, () -> unit.write(correlation, "response"));
+    }
+
+    private List<String> list() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName).map(Path::toString).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), UTF_8);
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Instant.MIN;
+import static java.time.ZoneOffset.UTC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class ShardedLogMergerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldMergeShardsInOrder() throws IOException {
+        final Path first = write("first", "0\t1\ta\n3\t1\td\n4\t3\te\nf\n");
+        final Path second = write("second", "1\t1\tb\n");
+        final Path third = gzip("third.gz", "2\t1\tc\n5\t1\tg\n");
+        final Path empty = write("empty", "");
+
+        assertThat(merge(first, second, third, empty), is("a\nb\nc\nd\ne\nf\ng\n"));
+    }
+
+    @Test
+    void shouldMergeShardsOfWriter() throws IOException {
+        final Path file = directory.resolve("http.log");
+
+        try (final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(file, 3, 0, null, false)) {
+            for (int i = 0; i < 10; i++) {
+                unit.write(new SimpleCorrelation("1", MIN, MIN), String.valueOf(i));
+            }
+        }
+
+        assertThat(merge(directory.resolve("http.log.0"), directory.resolve("http.log.1"),
+                directory.resolve("http.log.2")), is("0\n1\n2\n3\n4\n5\n6\n7\n8\n9\n"));
+    }
+
+    @Test
+    void shouldMergeShardsOfConsecutiveWritersRunByRun() throws Exception {
+        final Path file = directory.resolve("http.log");
+        final Instant start = Instant.parse("2019-08-02T08:16:41Z");
+
+        for (final Instant now : Arrays.asList(start, start.plusMillis(1))) {
+            try (final ShardedHttpLogWriter unit = new ShardedHttpLogWriter(file, 2, 0, null, false,
+                    Clock.fixed(now, UTC))) {
+                for (int i = 0; i < 4; i++) {
+                    // a thread of its own per message, to spread them across shards
+                    final String message = now.toEpochMilli() % 10 + "." + i;
+                    final Thread thread = new Thread(() -> {
+                        try {
+                            unit.write(new SimpleCorrelation("1", MIN, MIN), message);
+                        } catch (final IOException e) {
+                            throw new AssertionError(e);
+                        }
+                    });
+                    thread.start();
+                    thread.join();
+                }
+            }
+        }
+
+        assertThat(merge(directory.resolve("http.log.0"), directory.resolve("http.log.1")),
+                is("0.0\n0.1\n0.2\n0.3\n1.0\n1.1\n1.2\n1.3\n"));
+    }
+
+    @Test
+    void shouldMergeViaCommandLine() throws IOException {
+        final Path first = write("first", "1\t1\tb\n");
+        final Path second = write("second", "0\t1\ta\n");
+
+        final PrintStream original = System.out;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            System.setOut(new PrintStream(output, true, "UTF-8"));
+            ShardedLogMerger.main(first.toString(), second.toString());
+        } finally {
+            System.setOut(original);
+        }
+
+        assertThat(new String(output.toByteArray(), UTF_8), is("a\nb\n"));
+    }
+
+    @Test
+    void shouldRejectInvalidSequence() throws IOException {
+        shouldReject("x\t1\ta\n");
+        shouldReject("-1\t1\ta\n");
+        shouldReject("\t1\ta\n");
+        shouldReject("12345678901234567890\t1\ta\n");
+        shouldReject("0");
+    }
+
+    @Test
+    void shouldRejectMissingLineBreak() throws IOException {
+        shouldReject("0\t1\tab");
+    }
+
+    @Test
+    void shouldRejectTruncatedMessage() throws IOException {
+        final Path shard = write("shard", "0\t5\tab");
+
+        assertThrows(EOFException.class, () -> ShardedLogMerger.merge(
+                Collections.singletonList(shard), new ByteArrayOutputStream()));
+    }
+
+    private void shouldReject(final String content) throws IOException {
+        final Path shard = write("shard", content);
+
+        final IOException e = assertThrows(IOException.class, () -> ShardedLogMerger.merge(
+                Collections.singletonList(shard), new ByteArrayOutputStream()));
+
+        assertThat(e.getMessage(), is("Malformed frame in " + shard));
+    }
+
+    private String merge(final Path... shards) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ShardedLogMerger.merge(Arrays.asList(shards), output);
+        return new String(output.toByteArray(), UTF_8);
+    }
+
+    private Path write(final String name, final String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(UTF_8));
+    }
+
+    private Path gzip(final String name, final String content) throws IOException {
+        final Path file = directory.resolve(name);
+
+        try (final OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(content.getBytes(UTF_8));
+        }
+
+        return file;
+    }
+
+}
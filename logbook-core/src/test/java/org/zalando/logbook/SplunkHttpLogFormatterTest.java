@@ -1,18 +1,23 @@
 package org.zalando.logbook;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
 import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
 
 import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
 
 import static java.time.Duration.ZERO;
 import static java.time.Duration.ofMillis;
 import static java.time.Instant.MIN;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.stringContainsInOrder;
 import static org.zalando.logbook.MockHttpResponse.create;
@@ -21,10 +26,17 @@ import static org.zalando.logbook.Origin.REMOTE;
 
 class SplunkHttpLogFormatterTest {
 
-    private final HttpLogFormatter unit = new SplunkHttpLogFormatter();
+    @MethodSource
+    static Iterable<HttpLogFormatter> units() {
+        return Arrays.asList(
+                new SplunkHttpLogFormatter(),
+                new StreamingHttpLogFormatterAdapter(new SplunkHttpLogFormatter())
+        );
+    }
 
-    @Test
-    void shouldLogCompleteRequest() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogCompleteRequest(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "3ce91230-677b-11e5-87b7-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withMethod("POST")
@@ -59,8 +71,9 @@ class SplunkHttpLogFormatterTest {
         ));
     }
 
-    @Test
-    void shouldLogRequestWithoutHeaders() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequestWithoutHeaders(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "b7e7a488-682a-11e5-b527-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withPath("/test")
@@ -71,8 +84,9 @@ class SplunkHttpLogFormatterTest {
         assertThat(format, not(containsString("headers")));
     }
 
-    @Test
-    void shouldLogRequestWithoutContentType() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequestWithoutContentType(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "3ce91230-677b-11e5-87b7-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create()
                 .withMethod("POST")
@@ -95,8 +109,9 @@ class SplunkHttpLogFormatterTest {
         ));
     }
 
-    @Test
-    void shouldLogRequestWithoutBody() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogRequestWithoutBody(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "ac5c3dc2-682a-11e5-83cd-10ddb1ee7671";
         final HttpRequest request = MockHttpRequest.create().withBodyAsString("");
 
@@ -105,8 +120,9 @@ class SplunkHttpLogFormatterTest {
         assertThat(format, not(containsString("body")));
     }
 
-    @Test
-    void shouldLogCompleteResponse() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogCompleteResponse(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "53de2640-677d-11e5-bc84-10ddb1ee7671";
         final HttpResponse response = create()
                 .withProtocolVersion("HTTP/1.0")
@@ -131,8 +147,9 @@ class SplunkHttpLogFormatterTest {
         ));
     }
 
-    @Test
-    void shouldLogResponseWithoutHeaders() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseWithoutHeaders(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "f53ceee2-682a-11e5-a63e-10ddb1ee7671";
         final HttpResponse response = create();
 
@@ -141,8 +158,9 @@ class SplunkHttpLogFormatterTest {
         assertThat(format, not(containsString("headers")));
     }
 
-    @Test
-    void shouldLogResponseWithoutBody() throws IOException {
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldLogResponseWithoutBody(final HttpLogFormatter unit) throws IOException {
         final String correlationId = "f238536c-682a-11e5-9bdd-10ddb1ee7671";
         final HttpResponse response = create()
                 .withBodyAsString("");
@@ -152,6 +170,19 @@ class SplunkHttpLogFormatterTest {
         assertThat(format, not(containsString("body")));
     }
 
+    @Test
+    void shouldStreamThroughOverriddenFormat() throws IOException {
+        final HttpLogFormatter unit = new StreamingHttpLogFormatterAdapter(new SplunkHttpLogFormatter() {
+            @Override
+            public String format(final Map<String, Object> content) {
+                return "type=" + content.get("type");
+            }
+        });
+
+        assertThat(unit.format(correlation("1"), MockHttpRequest.create()), is("type=request"));
+        assertThat(unit.format(correlation("1", ZERO), create()), is("type=response"));
+    }
+
     private SimplePrecorrelation correlation(final String correlationId) {
         return new SimplePrecorrelation(correlationId, Clock.systemUTC());
     }
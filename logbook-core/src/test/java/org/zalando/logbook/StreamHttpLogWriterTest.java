@@ -5,13 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.zalando.logbook.DefaultLogbook.SimpleCorrelation;
 import org.zalando.logbook.DefaultLogbook.SimplePrecorrelation;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
 import java.time.Clock;
+import java.util.Collections;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Instant.MIN;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -46,6 +51,97 @@ final class StreamHttpLogWriterTest {
         verify(stream).println("bar");
     }
 
+    @Test
+    void shouldLogRequestBytesToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ByteHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "ISO-8859-1"));
+
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), ByteBuffer.wrap("_föö_".getBytes(UTF_8), 1, 5));
+
+        assertThat(new String(output.toByteArray(), UTF_8), is("föö" + System.lineSeparator()));
+    }
+
+    @Test
+    void shouldLogDirectResponseBytesToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ByteHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "ISO-8859-1"));
+        final byte[] bytes = "bär".getBytes(UTF_8);
+
+        unit.write(new SimpleCorrelation("1", MIN, MIN),
+                (ByteBuffer) ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+
+        assertThat(new String(output.toByteArray(), UTF_8), is("bär" + System.lineSeparator()));
+    }
+
+    @Test
+    void shouldStreamRequestToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final StreamingHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "UTF-8"));
+
+        unit.write(new SimplePrecorrelation(Clock.systemUTC()), stream -> stream.append("bar"));
+
+        assertThat(new String(output.toByteArray(), UTF_8), is("bar" + System.lineSeparator()));
+    }
+
+    @Test
+    void shouldStreamResponseToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final StreamingHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "UTF-8"));
+
+        unit.write(new SimpleCorrelation("1", MIN, MIN), stream -> stream.append("foo").append('!'));
+
+        assertThat(new String(output.toByteArray(), UTF_8), is("foo!" + System.lineSeparator()));
+    }
+
+    @Test
+    void shouldNotWritePartialLineIfStreamingRequestFails() {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final StreamingHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true));
+
+        assertThrows(IOException.class, () ->
+                unit.write(new SimplePrecorrelation(Clock.systemUTC()), stream -> {
+                    stream.append("bar");
+                    throw new IOException();
+                }));
+
+        assertThat(output.size(), is(0));
+    }
+
+    @Test
+    void shouldStreamLargeResponsesToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final StreamingHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "UTF-8"));
+        final String large = String.join("", Collections.nCopies(128 * 1024, "x"));
+
+        unit.write(new SimpleCorrelation("1", MIN, MIN), stream -> stream.append(large));
+        unit.write(new SimpleCorrelation("2", MIN, MIN), stream -> stream.append("foo"));
+
+        assertThat(new String(output.toByteArray(), UTF_8),
+                is(large + System.lineSeparator() + "foo" + System.lineSeparator()));
+    }
+
+    @Test
+    void shouldStreamAnyCharacterSequenceAsUtf8() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final StreamingHttpLogWriter unit = new StreamHttpLogWriter(new PrintStream(output, true, "ISO-8859-1"));
+        final String padding = String.join("", Collections.nCopies(1023, "x"));
+
+        // the emoji's surrogate pair spans two chunks
+        unit.write(new SimpleCorrelation("1", MIN, MIN), stream -> stream
+                .append(new StringBuilder(padding).append("\uD83D\uDE00"))
+                .append(null)
+                .append(null, 1, 3)
+                .append('\u00e4')
+                .append("_föö_", 1, 4));
+
+        // the character doesn't fit into the current chunk anymore
+        unit.write(new SimpleCorrelation("2", MIN, MIN), stream -> stream.append(padding + "x").append('\u00fc'));
+
+        assertThat(new String(output.toByteArray(), UTF_8),
+                is(padding + "\uD83D\uDE00nullulä" + "föö" + System.lineSeparator()
+                        + padding + "xü" + System.lineSeparator()));
+    }
+
     @Test
     void shouldRequestToStdoutByDefault() throws IOException {
         final PrintStream original = System.out;
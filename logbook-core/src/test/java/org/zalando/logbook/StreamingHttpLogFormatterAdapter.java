@@ -0,0 +1,29 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+
+/**
+ * Exercises the streaming output of a {@link StreamingHttpLogFormatter} through the string-based API.
+ */
+@AllArgsConstructor
+final class StreamingHttpLogFormatterAdapter implements HttpLogFormatter {
+
+    private final StreamingHttpLogFormatter formatter;
+
+    @Override
+    public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        final StringBuilder output = new StringBuilder();
+        formatter.format(precorrelation, request, output);
+        return output.toString();
+    }
+
+    @Override
+    public String format(final Correlation correlation, final HttpResponse response) throws IOException {
+        final StringBuilder output = new StringBuilder();
+        formatter.format(correlation, response, output);
+        return output.toString();
+    }
+
+}
@@ -1,6 +1,7 @@
 package org.zalando.logbook.httpclient;
 
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpRequest;
 import org.apache.http.client.methods.HttpRequestWrapper;
@@ -9,7 +10,9 @@ import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.zalando.logbook.Headers;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
@@ -28,12 +31,20 @@ final class LocalRequest implements org.zalando.logbook.HttpRequest {
 
     private final HttpRequest request;
     private final URI originalRequestUri;
+    private final BodyCapture capture;
 
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
 
     LocalRequest(final HttpRequest request) {
+        this(request, BodyCapture.fromProperties());
+    }
+
+    LocalRequest(final HttpRequest request, final BodyCapture capture) {
         this.request = request;
         this.originalRequestUri = getOriginalRequestUri(request);
+        this.capture = capture;
     }
 
     private static URI getOriginalRequestUri(final HttpRequest request) {
@@ -134,8 +145,11 @@ final class LocalRequest implements org.zalando.logbook.HttpRequest {
                 if (original.getEntity() == null) {
                     return withoutBody();
                 } else {
-                    this.body = toByteArray(original.getEntity());
-                    original.setEntity(new ByteArrayEntity(body));
+                    final byte[] buffered = toByteArray(original.getEntity());
+                    original.setEntity(new ByteArrayEntity(buffered));
+                    this.body = capture.capture(buffered);
+                    this.truncated = capture.truncates(buffered.length);
+                    this.length = buffered.length;
                 }
             } else {
                 return withoutBody();
@@ -145,15 +159,41 @@ final class LocalRequest implements org.zalando.logbook.HttpRequest {
         return this;
     }
 
+    /**
+     * The request is logged before its entity is being sent, hence the length can't be counted without buffering.
+     * The declared content length is used instead.
+     */
     @Override
     public org.zalando.logbook.HttpRequest withoutBody() {
+        if (body == null) {
+            this.length = getDeclaredLength();
+        }
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
+    private long getDeclaredLength() {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            @Nullable final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity == null ? 0 : entity.getContentLength();
+        }
+        return 0;
+    }
+
     @Override
     public byte[] getBody() {
         return body == null ? new byte[0] : body;
     }
 
+    @Override
+    public long getBodyLength() {
+        return length;
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
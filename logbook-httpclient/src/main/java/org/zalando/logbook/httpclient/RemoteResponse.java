@@ -7,6 +7,7 @@ import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.zalando.logbook.Headers;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
@@ -25,10 +26,18 @@ import static org.apache.http.util.EntityUtils.toByteArray;
 final class RemoteResponse implements org.zalando.logbook.HttpResponse {
 
     private final HttpResponse response;
+    private final BodyCapture capture;
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
 
     RemoteResponse(final HttpResponse response) {
+        this(response, BodyCapture.fromProperties());
+    }
+
+    RemoteResponse(final HttpResponse response, final BodyCapture capture) {
         this.response = response;
+        this.capture = capture;
     }
 
     @Override
@@ -84,9 +93,12 @@ final class RemoteResponse implements org.zalando.logbook.HttpResponse {
             if (entity == null) {
                 return withoutBody();
             } else {
-                this.body = toByteArray(entity);
+                final byte[] buffered = toByteArray(entity);
+                this.body = capture.capture(buffered);
+                this.truncated = capture.truncates(buffered.length);
+                this.length = buffered.length;
 
-                final ByteArrayEntity copy = new ByteArrayEntity(body);
+                final ByteArrayEntity copy = new ByteArrayEntity(buffered);
                 copy.setChunked(entity.isChunked());
                 copy.setContentEncoding(entity.getContentEncoding());
                 copy.setContentType(entity.getContentType());
@@ -98,9 +110,18 @@ final class RemoteResponse implements org.zalando.logbook.HttpResponse {
         return this;
     }
 
+    /**
+     * The response is logged before the application consumes it, hence the length can't be counted without
+     * buffering. The declared content length is used instead.
+     */
     @Override
     public RemoteResponse withoutBody() {
+        if (body == null) {
+            @Nullable final HttpEntity entity = response.getEntity();
+            this.length = entity == null ? 0 : entity.getContentLength();
+        }
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
@@ -109,4 +130,14 @@ final class RemoteResponse implements org.zalando.logbook.HttpResponse {
         return body == null ? new byte[0] : body;
     }
 
+    @Override
+    public long getBodyLength() {
+        return length;
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
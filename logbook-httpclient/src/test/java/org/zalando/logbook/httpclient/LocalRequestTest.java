@@ -11,6 +11,7 @@ import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHttpRequest;
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyCapture;
 
 import java.io.IOException;
 import java.net.URI;
@@ -134,6 +135,19 @@ final class LocalRequestTest {
         assertThat(new String(toByteArray(delegate.getEntity()), UTF_8), is("Hello, world!"));
     }
 
+    @Test
+    void shouldCaptureHeadAndTailOnlyButKeepFullEntity() throws IOException {
+        final HttpEntityEnclosingRequest delegate = post("/");
+        delegate.setEntity(new StringEntity("Hello, dear world!", UTF_8));
+
+        final LocalRequest unit = new LocalRequest(delegate, BodyCapture.headAndTail(5, 6));
+
+        assertThat(new String(unit.withBody().getBody(), UTF_8), is("Hello ... [7 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+        assertThat(new String(toByteArray(delegate.getEntity()), UTF_8), is("Hello, dear world!"));
+    }
+
     @Test
     void shouldReturnEmptyBodyUntilCaptured() throws IOException {
         final HttpEntityEnclosingRequest delegate = post("/");
@@ -155,4 +169,29 @@ final class LocalRequestTest {
         assertThat(new String(unit.withBody().withBody().getBody(), UTF_8), is("Hello, world!"));
     }
 
+    @Test
+    void shouldUseBufferedLengthBeyondCapturedBody() throws IOException {
+        final HttpEntityEnclosingRequest delegate = post("/");
+        delegate.setEntity(new StringEntity("Hello, dear world!", UTF_8));
+
+        final LocalRequest unit = new LocalRequest(delegate, BodyCapture.headAndTail(5, 6));
+
+        assertThat(unit.getBodyLength(), is(-1L));
+        assertThat(unit.withBody().withoutBody().getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseDeclaredLengthWithoutBody() throws IOException {
+        final HttpEntityEnclosingRequest delegate = post("/");
+        delegate.setEntity(new StringEntity("Hello, world!", UTF_8));
+
+        assertThat(unit(delegate).withoutBody().getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldUseEmptyLengthWithoutEntity() throws IOException {
+        assertThat(unit(post("/")).withBody().getBodyLength(), is(0L));
+        assertThat(unit(get("/")).withBody().getBodyLength(), is(0L));
+    }
+
 }
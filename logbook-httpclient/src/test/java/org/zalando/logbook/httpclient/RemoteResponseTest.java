@@ -6,6 +6,7 @@ import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyCapture;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -83,6 +84,16 @@ final class RemoteResponseTest {
         assertThat(new String(toByteArray(delegate.getEntity()), UTF_8), is("Hello, world!"));
     }
 
+    @Test
+    void shouldCaptureHeadAndTailOnlyButKeepFullEntity() throws IOException {
+        final RemoteResponse unit = new RemoteResponse(delegate, BodyCapture.headAndTail(5, 6));
+
+        assertThat(new String(unit.withBody().getBody(), UTF_8), is("Hello ... [2 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(new String(toByteArray(delegate.getEntity()), UTF_8), is("Hello, world!"));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+    }
+
     @Test
     void shouldReturnEmptyBodyUntilCaptured() throws IOException {
         assertThat(new String(unit.getBody(), UTF_8), is(emptyString()));
@@ -94,4 +105,26 @@ final class RemoteResponseTest {
         assertThat(new String(unit.withBody().withBody().getBody(), UTF_8), is("Hello, world!"));
     }
 
+    @Test
+    void shouldUseBufferedLengthBeyondCapturedBody() throws IOException {
+        final RemoteResponse unit = new RemoteResponse(delegate, BodyCapture.headAndTail(5, 6));
+
+        assertThat(unit.getBodyLength(), is(-1L));
+        assertThat(unit.withBody().withoutBody().getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldUseDeclaredLengthWithoutBody() throws IOException {
+        entity.setContentLength(13);
+
+        assertThat(unit.withoutBody().getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldUseEmptyLengthWithoutEntity() throws IOException {
+        delegate.setEntity(null);
+
+        assertThat(unit.withBody().getBodyLength(), is(0L));
+    }
+
 }
@@ -2,9 +2,12 @@ package org.zalando.logbook.jaxrs;
 
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyBuffer;
+import org.zalando.logbook.common.BodyCapture;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.client.ClientRequestContext;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
@@ -15,12 +18,19 @@ import static java.util.Optional.ofNullable;
 final class LocalRequest implements HttpRequest {
 
     private final ClientRequestContext context;
+    private final BodyCapture capture;
 
     private TeeOutputStream stream;
+    private boolean recording;
     private byte[] body;
 
     public LocalRequest(final ClientRequestContext context) {
+        this(context, BodyCapture.fromProperties());
+    }
+
+    LocalRequest(final ClientRequestContext context, final BodyCapture capture) {
         this.context = context;
+        this.capture = capture;
     }
 
     @Override
@@ -87,35 +97,55 @@ final class LocalRequest implements HttpRequest {
 
     @Override
     public HttpRequest withBody() {
-        if (stream == null) {
-            this.stream = new TeeOutputStream(context.getEntityStream());
-            context.setEntityStream(stream);
+        if (stream == null || !recording) {
+            tee(capture.newBuffer());
+            this.recording = true;
         }
 
         return this;
     }
 
+    /**
+     * Without a body, the entity stream is still being teed, but bytes are only counted rather than recorded.
+     */
     @Override
     public HttpRequest withoutBody() {
-        if (stream != null) {
-            context.setEntityStream(stream.getOriginal());
-            this.stream = null;
+        if (stream == null || recording) {
+            tee(BodyCapture.none().newBuffer());
+            this.recording = false;
+            this.body = null;
         }
 
         return this;
     }
 
+    private void tee(final BodyBuffer buffer) {
+        final OutputStream original = stream == null ? context.getEntityStream() : stream.getOriginal();
+        this.stream = new TeeOutputStream(original, buffer);
+        context.setEntityStream(stream);
+    }
+
     @Override
     public byte[] getBody() {
-        if (body == null) {
-            if (stream == null) {
-                return new byte[0];
-            }
+        if (!recording) {
+            return new byte[0];
+        }
 
+        if (body == null) {
             this.body = stream.toByteArray();
         }
 
         return body;
     }
 
+    @Override
+    public long getBodyLength() {
+        return stream == null ? -1 : stream.getSize();
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return stream != null && stream.isTruncated();
+    }
+
 }
@@ -2,6 +2,8 @@ package org.zalando.logbook.jaxrs;
 
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
+import org.zalando.logbook.common.CountingInputStream;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.container.ContainerRequestContext;
@@ -17,10 +19,21 @@ import static java.util.Optional.ofNullable;
 final class RemoteRequest implements HttpRequest {
 
     private final ContainerRequestContext context;
+    private final BodyCapture capture;
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
+
+    @Nullable
+    private CountingInputStream counting;
 
     public RemoteRequest(final ContainerRequestContext context) {
+        this(context, BodyCapture.fromProperties());
+    }
+
+    RemoteRequest(final ContainerRequestContext context, final BodyCapture capture) {
         this.context = context;
+        this.capture = capture;
     }
 
     @Override
@@ -89,15 +102,26 @@ final class RemoteRequest implements HttpRequest {
     @Override
     public HttpRequest withBody() throws IOException {
         if (body == null) {
-            this.body = ByteStreams.toByteArray(context.getEntityStream());
-            context.setEntityStream(new ByteArrayInputStream(body));
+            final byte[] buffered = ByteStreams.toByteArray(context.getEntityStream());
+            context.setEntityStream(new ByteArrayInputStream(buffered));
+            this.body = capture.capture(buffered);
+            this.truncated = capture.truncates(buffered.length);
+            this.length = buffered.length;
         }
         return this;
     }
 
+    /**
+     * Without a body, the entity stream is counted while being read by the application, rather than buffered.
+     */
     @Override
     public HttpRequest withoutBody() {
+        if (body == null) {
+            this.counting = new CountingInputStream(context.getEntityStream());
+            context.setEntityStream(counting);
+        }
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
@@ -106,4 +130,14 @@ final class RemoteRequest implements HttpRequest {
         return body == null ? new byte[0] : body;
     }
 
+    @Override
+    public long getBodyLength() {
+        return counting == null ? length : counting.getCount();
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
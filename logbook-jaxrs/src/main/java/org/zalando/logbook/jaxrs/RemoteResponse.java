@@ -2,6 +2,7 @@ package org.zalando.logbook.jaxrs;
 
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.client.ClientResponseContext;
@@ -15,10 +16,18 @@ import java.util.Objects;
 final class RemoteResponse implements HttpResponse {
 
     private final ClientResponseContext context;
+    private final BodyCapture capture;
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
 
     public RemoteResponse(final ClientResponseContext context) {
+        this(context, BodyCapture.fromProperties());
+    }
+
+    RemoteResponse(final ClientResponseContext context, final BodyCapture capture) {
         this.context = context;
+        this.capture = capture;
     }
 
     @Override
@@ -56,15 +65,26 @@ final class RemoteResponse implements HttpResponse {
     @Override
     public HttpResponse withBody() throws IOException {
         if (body == null) {
-            this.body = ByteStreams.toByteArray(context.getEntityStream());
-            context.setEntityStream(new ByteArrayInputStream(body));
+            final byte[] buffered = ByteStreams.toByteArray(context.getEntityStream());
+            context.setEntityStream(new ByteArrayInputStream(buffered));
+            this.body = capture.capture(buffered);
+            this.truncated = capture.truncates(buffered.length);
+            this.length = buffered.length;
         }
         return this;
     }
 
+    /**
+     * The response is logged before the application consumes it, hence the length can't be counted without
+     * buffering. The declared content length is used instead.
+     */
     @Override
     public HttpResponse withoutBody() {
+        if (body == null) {
+            this.length = context.getLength();
+        }
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
@@ -73,4 +93,14 @@ final class RemoteResponse implements HttpResponse {
         return body == null ? new byte[0] : body;
     }
 
+    @Override
+    public long getBodyLength() {
+        return length;
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
@@ -1,19 +1,21 @@
 package org.zalando.logbook.jaxrs;
 
-import java.io.ByteArrayOutputStream;
+import org.zalando.logbook.common.BodyBuffer;
+
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
- * Copies any bytes written to a stream in an internal buffer for later retrieval.
+ * Copies any bytes written to a stream into a {@link BodyBuffer} for later retrieval.
  */
 final class TeeOutputStream extends OutputStream {
 
     private final OutputStream original;
-    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private final BodyBuffer copy;
 
-    TeeOutputStream(final OutputStream original) {
+    TeeOutputStream(final OutputStream original, final BodyBuffer copy) {
         this.original = original;
+        this.copy = copy;
     }
 
     @Override
@@ -44,8 +46,16 @@ final class TeeOutputStream extends OutputStream {
         return original;
     }
 
+    long getSize() {
+        return copy.getSize();
+    }
+
     byte[] toByteArray() {
         return copy.toByteArray();
     }
 
+    boolean isTruncated() {
+        return copy.isTruncated();
+    }
+
 }
@@ -0,0 +1,117 @@
+package org.zalando.logbook.jaxrs;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.common.BodyCapture;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class BodyCaptureTest {
+
+    private static final String BODY = "Hello, dear world!";
+    private static final String CAPTURED = "Hello ... [7 bytes omitted] ... world!";
+
+    private final BodyCapture capture = BodyCapture.headAndTail(5, 6);
+
+    @Test
+    void shouldCaptureHeadAndTailOfLocalRequest() throws IOException {
+        final ClientRequestContext context = mock(ClientRequestContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayOutputStream());
+
+        final LocalRequest unit = new LocalRequest(context, capture);
+        unit.withBody();
+
+        final ArgumentCaptor<OutputStream> tee = ArgumentCaptor.forClass(OutputStream.class);
+        verify(context).setEntityStream(tee.capture());
+        write(tee.getValue());
+
+        assertCaptured(unit);
+    }
+
+    @Test
+    void shouldCaptureHeadAndTailOfLocalResponse() throws IOException {
+        final ContainerResponseContext context = mock(ContainerResponseContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayOutputStream());
+
+        final LocalResponse unit = new LocalResponse(context, capture);
+        unit.withBody();
+
+        final ArgumentCaptor<OutputStream> tee = ArgumentCaptor.forClass(OutputStream.class);
+        verify(context).setEntityStream(tee.capture());
+        write(tee.getValue());
+
+        assertCaptured(unit);
+    }
+
+    @Test
+    void shouldCaptureHeadAndTailOfRemoteRequestButReplayFullBody() throws IOException {
+        final ContainerRequestContext context = mock(ContainerRequestContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayInputStream(BODY.getBytes(UTF_8)));
+
+        final RemoteRequest unit = new RemoteRequest(context, capture);
+        unit.withBody();
+
+        assertCaptured(unit);
+
+        final ArgumentCaptor<InputStream> replay = ArgumentCaptor.forClass(InputStream.class);
+        verify(context).setEntityStream(replay.capture());
+        assertReplayed(replay.getValue());
+    }
+
+    @Test
+    void shouldCaptureHeadAndTailOfRemoteResponseButReplayFullBody() throws IOException {
+        final ClientResponseContext context = mock(ClientResponseContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayInputStream(BODY.getBytes(UTF_8)));
+
+        final RemoteResponse unit = new RemoteResponse(context, capture);
+        unit.withBody();
+
+        assertCaptured(unit);
+
+        final ArgumentCaptor<InputStream> replay = ArgumentCaptor.forClass(InputStream.class);
+        verify(context).setEntityStream(replay.capture());
+        assertReplayed(replay.getValue());
+    }
+
+    @Test
+    void shouldNotBeTruncatedWithoutRecordedBody() {
+        final LocalRequest request = new LocalRequest(mock(ClientRequestContext.class), capture);
+        final LocalResponse response = new LocalResponse(mock(ContainerResponseContext.class), capture);
+
+        assertThat(request.isBodyTruncated(), is(false));
+        assertThat(response.isBodyTruncated(), is(false));
+
+        assertThat(request.withoutBody().isBodyTruncated(), is(false));
+        assertThat(response.withoutBody().isBodyTruncated(), is(false));
+    }
+
+    private static void write(final OutputStream stream) throws IOException {
+        stream.write(BODY.getBytes(UTF_8));
+    }
+
+    private static void assertCaptured(final HttpMessage message) throws IOException {
+        assertThat(message.getBodyAsString(), is(CAPTURED));
+        assertThat(message.isBodyTruncated(), is(true));
+    }
+
+    private static void assertReplayed(final InputStream stream) throws IOException {
+        assertThat(new String(ByteStreams.toByteArray(stream), UTF_8), is(BODY));
+    }
+
+}
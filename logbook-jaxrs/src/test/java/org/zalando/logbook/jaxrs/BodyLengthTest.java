@@ -0,0 +1,149 @@
+package org.zalando.logbook.jaxrs;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.zalando.logbook.common.BodyCapture;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class BodyLengthTest {
+
+    private static final String BODY = "Hello, dear world!";
+
+    private final BodyCapture capture = BodyCapture.headAndTail(5, 6);
+
+    @Test
+    void shouldCountLocalRequestWithoutBody() throws IOException {
+        final ClientRequestContext context = mock(ClientRequestContext.class);
+        final ByteArrayOutputStream original = new ByteArrayOutputStream();
+        when(context.getEntityStream()).thenReturn(original);
+
+        final LocalRequest unit = new LocalRequest(context, capture);
+        assertThat(unit.getBodyLength(), is(-1L));
+
+        unit.withoutBody();
+        unit.withoutBody();
+
+        final ArgumentCaptor<OutputStream> tee = ArgumentCaptor.forClass(OutputStream.class);
+        verify(context).setEntityStream(tee.capture());
+        tee.getValue().write(BODY.getBytes(UTF_8));
+
+        assertThat(unit.getBodyLength(), is(18L));
+        assertThat(unit.getBodyAsString(), is(""));
+        assertThat(new String(original.toByteArray(), UTF_8), is(BODY));
+    }
+
+    @Test
+    void shouldCountLocalRequestBeyondCapturedBody() throws IOException {
+        final ClientRequestContext context = mock(ClientRequestContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayOutputStream());
+
+        final LocalRequest unit = new LocalRequest(context, capture);
+        unit.withoutBody();
+        unit.withBody();
+
+        final ArgumentCaptor<OutputStream> tee = ArgumentCaptor.forClass(OutputStream.class);
+        verify(context, times(2)).setEntityStream(tee.capture());
+        tee.getValue().write(BODY.getBytes(UTF_8));
+
+        assertThat(unit.getBodyLength(), is(18L));
+        assertThat(unit.getBodyAsString(), is("Hello ... [7 bytes omitted] ... world!"));
+    }
+
+    @Test
+    void shouldCountLocalResponseWithoutBody() throws IOException {
+        final ContainerResponseContext context = mock(ContainerResponseContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayOutputStream());
+
+        final LocalResponse unit = new LocalResponse(context, capture);
+        assertThat(unit.getBodyLength(), is(-1L));
+
+        unit.withBody();
+        unit.withBody();
+        unit.withoutBody();
+        unit.withoutBody();
+
+        final ArgumentCaptor<OutputStream> tee = ArgumentCaptor.forClass(OutputStream.class);
+        verify(context, times(2)).setEntityStream(tee.capture());
+        tee.getValue().write(BODY.getBytes(UTF_8));
+
+        assertThat(unit.getBodyLength(), is(18L));
+        assertThat(unit.getBodyAsString(), is(""));
+    }
+
+    @Test
+    void shouldCountRemoteRequestWhileBeingRead() throws IOException {
+        final ContainerRequestContext context = mock(ContainerRequestContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayInputStream(BODY.getBytes(UTF_8)));
+
+        final RemoteRequest unit = new RemoteRequest(context, capture);
+        assertThat(unit.getBodyLength(), is(-1L));
+
+        unit.withoutBody();
+        unit.withoutBody();
+
+        final ArgumentCaptor<InputStream> stream = ArgumentCaptor.forClass(InputStream.class);
+        verify(context).setEntityStream(stream.capture());
+        assertThat(unit.getBodyLength(), is(0L));
+
+        ByteStreams.toByteArray(stream.getValue());
+
+        assertThat(unit.getBodyLength(), is(18L));
+        assertThat(unit.getBodyAsString(), is(""));
+    }
+
+    @Test
+    void shouldUseBufferedLengthOfRemoteRequest() throws IOException {
+        final ContainerRequestContext context = mock(ContainerRequestContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayInputStream(BODY.getBytes(UTF_8)));
+
+        final RemoteRequest unit = new RemoteRequest(context, capture);
+        unit.withBody();
+        unit.withoutBody();
+
+        assertThat(unit.getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseDeclaredLengthOfRemoteResponseWithoutBody() {
+        final ClientResponseContext context = mock(ClientResponseContext.class);
+        when(context.getLength()).thenReturn(42);
+
+        final RemoteResponse unit = new RemoteResponse(context, capture);
+        assertThat(unit.getBodyLength(), is(-1L));
+
+        unit.withoutBody();
+
+        assertThat(unit.getBodyLength(), is(42L));
+    }
+
+    @Test
+    void shouldUseBufferedLengthOfRemoteResponse() throws IOException {
+        final ClientResponseContext context = mock(ClientResponseContext.class);
+        when(context.getEntityStream()).thenReturn(new ByteArrayInputStream(BODY.getBytes(UTF_8)));
+        when(context.getLength()).thenReturn(42);
+
+        final RemoteResponse unit = new RemoteResponse(context, capture);
+        unit.withBody();
+        unit.withoutBody();
+
+        assertThat(unit.getBodyLength(), is(18L));
+    }
+
+}
@@ -136,6 +136,9 @@ final class ClientAndServerWithoutBodyTest extends JerseyTest {
         assertEquals("", roundTrip.getClientResponse().getBodyAsString());
         assertEquals("", roundTrip.getServerRequest().getBodyAsString());
         assertEquals("", roundTrip.getServerResponse().getBodyAsString());
+
+        assertEquals(39, roundTrip.getClientRequest().getBodyLength());
+        assertEquals(39, roundTrip.getServerRequest().getBodyLength());
     }
 
     private RoundTrip getRoundTrip() throws IOException {
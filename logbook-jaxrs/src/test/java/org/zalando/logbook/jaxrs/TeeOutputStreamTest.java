@@ -1,6 +1,7 @@
 package org.zalando.logbook.jaxrs;
 
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyCapture;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -10,7 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 class TeeOutputStreamTest {
 
     private final ByteArrayOutputStream output = new ByteArrayOutputStream();
-    private final TeeOutputStream unit = new TeeOutputStream(output);
+    private final TeeOutputStream unit = new TeeOutputStream(output, BodyCapture.full().newBuffer());
 
     @Test
     void shouldWriteByte() throws IOException {
@@ -0,0 +1,33 @@
+package org.zalando.logbook;
+
+import lombok.AllArgsConstructor;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+@AllArgsConstructor
+public class BlackholeHttpLogWriter implements ByteHttpLogWriter {
+
+    private final Blackhole blackhole;
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) {
+        blackhole.consume(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) {
+        blackhole.consume(response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final ByteBuffer request) {
+        blackhole.consume(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final ByteBuffer response) {
+        blackhole.consume(response);
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configurable number of sinks that share the same formatter, e.g. one writing to a file and another one to
+ * standard output.
+ */
+@State(Scope.Benchmark)
+public class FanOutState {
+
+    @Param({"1", "2", "3", "4"})
+    private int sinks;
+
+    private Sink compositeSink;
+    private Sink fanOutSink;
+
+    @Setup(Level.Trial)
+    public void setUp(final Blackhole blackhole) {
+        final HttpLogFormatter formatter = new FastJsonHttpLogFormatter();
+        final List<Sink> list = new ArrayList<>();
+
+        for (int i = 0; i < sinks; i++) {
+            list.add(new DefaultSink(formatter, new BlackholeHttpLogWriter(blackhole)));
+        }
+
+        compositeSink = new CompositeSink(list);
+        fanOutSink = new FanOutSink(list);
+    }
+
+    public Sink getCompositeSink() {
+        return compositeSink;
+    }
+
+    public Sink getFanOutSink() {
+        return fanOutSink;
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Requests and responses with a configurable number of headers, every fourth one having two values.
+ */
+@State(Scope.Benchmark)
+public class HeaderCountState {
+
+    @Param({"0", "8", "32"})
+    private int headers;
+
+    private HttpRequest request;
+    private HttpResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        for (int i = 0; i < headers; i++) {
+            final String value = "value-" + i + "-0123456789abcdef";
+            map.put("X-Header-" + i, i % 4 == 0 ?
+                    Arrays.asList(value, value) :
+                    Collections.singletonList(value));
+        }
+
+        request = MockHttpRequest.create()
+                .withContentType("application/json")
+                .withHeaders(map)
+                .withBodyAsString("{\"name\":\"Bob\"}");
+
+        response = MockHttpResponse.create()
+                .withContentType("application/json")
+                .withHeaders(map)
+                .withBodyAsString("{\"name\":\"Bob\"}");
+    }
+
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    public HttpResponse getResponse() {
+        return response;
+    }
+
+}
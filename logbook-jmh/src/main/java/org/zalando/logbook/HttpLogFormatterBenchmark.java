@@ -8,6 +8,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -39,6 +40,41 @@ public class HttpLogFormatterBenchmark {
         return httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse());
     }
     
+    @Benchmark
+    public void fastJsonRequestAsBytes(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultPrecorrelation(), state.getRequest(), httpLogFormatterState.getByteHttpLogWriter());
+    }
+
+    @Benchmark
+    public void fastJsonResponseAsBytes(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse(), httpLogFormatterState.getByteHttpLogWriter());
+    }
+
+    @Benchmark
+    public Object jsonRequestWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getJsonHttpLogFormatter().format(state.getDefaultPrecorrelation(), headerCountState.getRequest());
+    }
+
+    @Benchmark
+    public Object jsonResponseWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getJsonHttpLogFormatter().format(state.getDefaultCorrelation(), headerCountState.getResponse());
+    }
+
+    @Benchmark
+    public Object fastJsonRequestWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultPrecorrelation(), headerCountState.getRequest());
+    }
+
+    @Benchmark
+    public Object fastJsonResponseWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultCorrelation(), headerCountState.getResponse());
+    }
+
+    @Benchmark
+    public void fastJsonResponseWithHeadersAsBytes(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        httpLogFormatterState.getFastJsonHttpLogFormatter().format(state.getDefaultCorrelation(), headerCountState.getResponse(), httpLogFormatterState.getByteHttpLogWriter());
+    }
+
     @Benchmark
     public Object defaultRequest(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
         return httpLogFormatterState.getDefaultHttpLogFormatter().format(state.getDefaultPrecorrelation(), state.getRequest());
@@ -47,10 +83,59 @@ public class HttpLogFormatterBenchmark {
     @Benchmark
     public Object defaultResponse(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
         return httpLogFormatterState.getDefaultHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse());
-    }    
+    }
+
+    @Benchmark
+    public Object defaultRequestStreaming(RequestResponseState state, HttpLogFormatterState httpLogFormatterState, OutputState outputState) throws Exception {
+        final StringBuilder output = outputState.getOutput();
+        httpLogFormatterState.getDefaultHttpLogFormatter().format(state.getDefaultPrecorrelation(), state.getRequest(), output);
+        return output;
+    }
+
+    @Benchmark
+    public Object defaultResponseStreaming(RequestResponseState state, HttpLogFormatterState httpLogFormatterState, OutputState outputState) throws Exception {
+        final StringBuilder output = outputState.getOutput();
+        httpLogFormatterState.getDefaultHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse(), output);
+        return output;
+    }
+
+    @Benchmark
+    public Object splunkRequest(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getSplunkHttpLogFormatter().format(state.getDefaultPrecorrelation(), state.getRequest());
+    }
+
+    @Benchmark
+    public Object splunkResponse(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getSplunkHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse());
+    }
+
+    @Benchmark
+    public Object splunkResponseWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getSplunkHttpLogFormatter().format(state.getDefaultCorrelation(), headerCountState.getResponse());
+    }
+
+    @Benchmark
+    public Object logfmtRequest(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getLogfmtHttpLogFormatter().format(state.getDefaultPrecorrelation(), state.getRequest());
+    }
+
+    @Benchmark
+    public Object logfmtResponse(RequestResponseState state, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getLogfmtHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse());
+    }
+
+    @Benchmark
+    public Object logfmtResponseWithHeaders(RequestResponseState state, HeaderCountState headerCountState, HttpLogFormatterState httpLogFormatterState) throws Exception {
+        return httpLogFormatterState.getLogfmtHttpLogFormatter().format(state.getDefaultCorrelation(), headerCountState.getResponse());
+    }
 
+    /**
+     * Runs with the GC profiler, i.e. {@code -prof gc}, since allocation rates ({@code gc.alloc.rate.norm}, in bytes
+     * per operation) matter as much as throughput.
+     */
     public static void main(String[] args) throws RunnerException {
         Options options = new OptionsBuilder().include(HttpLogFormatterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
                 .forks(1).build();
         new Runner(options).run();
     }
@@ -1,7 +1,10 @@
 package org.zalando.logbook;
 
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
 import org.zalando.logbook.json.FastJsonHttpLogFormatter;
 import org.zalando.logbook.json.JsonHttpLogFormatter;
 
@@ -12,7 +15,16 @@ public class HttpLogFormatterState {
 
     private JsonHttpLogFormatter jsonHttpLogFormatter = new JsonHttpLogFormatter();
     private FastJsonHttpLogFormatter fastJsonHttpLogFormatter = new FastJsonHttpLogFormatter();
-    private HttpLogFormatter defaultHttpLogFormatter = new DefaultHttpLogFormatter();
+    private DefaultHttpLogFormatter defaultHttpLogFormatter = new DefaultHttpLogFormatter();
+    private SplunkHttpLogFormatter splunkHttpLogFormatter = new SplunkHttpLogFormatter();
+    private LogfmtHttpLogFormatter logfmtHttpLogFormatter = new LogfmtHttpLogFormatter();
+
+    private ByteHttpLogWriter byteHttpLogWriter;
+
+    @Setup(Level.Trial)
+    public void setUp(final Blackhole blackhole) {
+        byteHttpLogWriter = new BlackholeHttpLogWriter(blackhole);
+    }
 
     public JsonHttpLogFormatter getJsonHttpLogFormatter() {
         return jsonHttpLogFormatter;
@@ -22,10 +34,22 @@ public class HttpLogFormatterState {
         return fastJsonHttpLogFormatter;
     }
 
-    public HttpLogFormatter getDefaultHttpLogFormatter() {
+    public DefaultHttpLogFormatter getDefaultHttpLogFormatter() {
         return defaultHttpLogFormatter;
     }
 
+    public SplunkHttpLogFormatter getSplunkHttpLogFormatter() {
+        return splunkHttpLogFormatter;
+    }
+
+    public LogfmtHttpLogFormatter getLogfmtHttpLogFormatter() {
+        return logfmtHttpLogFormatter;
+    }
+
+    public ByteHttpLogWriter getByteHttpLogWriter() {
+        return byteHttpLogWriter;
+    }
+
     public NoopHttpLogFormatter getNoopHttpLogFormatter() {
         return noopHttpLogFormatter;
     }
@@ -41,6 +41,20 @@ public class LogbookBenchmark {
         logbook.process(requestResponse.getRequest()).write().process(requestResponse.getResponse()).write();
     }
     
+    @Benchmark
+    public void slf4j(LogbookState state, RequestResponseState requestResponse) throws IOException {
+        Logbook logbook = state.getSlf4jLogbook();
+
+        logbook.process(requestResponse.getRequest()).write().process(requestResponse.getResponse()).write();
+    }
+
+    @Benchmark
+    public void log4j2(LogbookState state, RequestResponseState requestResponse) throws IOException {
+        Logbook logbook = state.getLog4j2Logbook();
+
+        logbook.process(requestResponse.getRequest()).write().process(requestResponse.getResponse()).write();
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options options = new OptionsBuilder().include(LogbookBenchmark.class.getSimpleName())
                 .forks(1).build();
@@ -8,7 +8,10 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.zalando.logbook.autoconfigure.LogbookAutoConfiguration;
 import org.zalando.logbook.autoconfigure.LogbookProperties;
+import org.zalando.logbook.jmh.NOPLogger;
 import org.zalando.logbook.json.CompactingJsonBodyFilter;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
+import org.zalando.logbook.log4j2.Log4j2HttpLogWriter;
 import org.zalando.logbook.logstash.LogstashLogbackSink;
 
 @State(Scope.Benchmark)
@@ -17,6 +20,8 @@ public class LogbookState {
     private Logbook autoconfigurationLogbook;
     private Logbook autoconfigurationLogstashLogbook;
     private Logbook noopHttpLogFormatterLogbook;
+    private Logbook slf4jLogbook;
+    private Logbook log4j2Logbook;
 
     @Setup(Level.Trial)
     public void setUp(HttpLogFormatterState state) throws Exception {
@@ -32,6 +37,13 @@ public class LogbookState {
         final Sink noop = new LogstashLogbackSink(state.getNoopHttpLogFormatter());
 
         noopHttpLogFormatterLogbook = ac.logbook(ac.requestCondition(), Arrays.asList(ac.headerFilter()), Arrays.asList(ac.pathFilter()), Arrays.asList(ac.queryFilter()), Arrays.asList(ac.bodyFilter(), new CompactingJsonBodyFilter()), Arrays.asList(ac.requestFilter()), Arrays.asList(ac.responseFilter()), ac.strategy(), noop);
+
+        // same formatter, once formatting into a string per message, once streaming into a reused message
+        final HttpLogFormatter formatter = new FastJsonHttpLogFormatter();
+
+        slf4jLogbook = ac.logbook(ac.requestCondition(), Arrays.asList(ac.headerFilter()), Arrays.asList(ac.pathFilter()), Arrays.asList(ac.queryFilter()), Arrays.asList(ac.bodyFilter()), Arrays.asList(ac.requestFilter()), Arrays.asList(ac.responseFilter()), ac.strategy(), new DefaultSink(formatter, new DefaultHttpLogWriter()));
+
+        log4j2Logbook = ac.logbook(ac.requestCondition(), Arrays.asList(ac.headerFilter()), Arrays.asList(ac.pathFilter()), Arrays.asList(ac.queryFilter()), Arrays.asList(ac.bodyFilter()), Arrays.asList(ac.requestFilter()), Arrays.asList(ac.responseFilter()), ac.strategy(), new DefaultSink(formatter, new Log4j2HttpLogWriter(new NOPLogger())));
     }
 
     public Logbook getAutoconfigurationLogbook() {
@@ -45,6 +57,14 @@ public class LogbookState {
     public Logbook getNoopHttpLogFormatterLogbook() {
         return noopHttpLogFormatterLogbook;
     }
+
+    public Logbook getSlf4jLogbook() {
+        return slf4jLogbook;
+    }
+
+    public Logbook getLog4j2Logbook() {
+        return log4j2Logbook;
+    }
     
     
 }
@@ -0,0 +1,19 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class OutputState {
+
+    private final StringBuilder output = new StringBuilder(4096);
+
+    /**
+     * @return a reusable, cleared output buffer
+     */
+    public StringBuilder getOutput() {
+        output.setLength(0);
+        return output;
+    }
+
+}
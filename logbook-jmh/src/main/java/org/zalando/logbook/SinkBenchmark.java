@@ -0,0 +1,49 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class SinkBenchmark {
+
+    @Benchmark
+    public void commonsLogFormat(RequestResponseState state, SinkState sinkState) throws Exception {
+        sinkState.getCommonsLogFormatSink().write(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    @Benchmark
+    public void combinedLogFormat(RequestResponseState state, SinkState sinkState) throws Exception {
+        sinkState.getCombinedLogFormatSink().write(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    @Benchmark
+    public void defaultSinkWriteBoth(RequestResponseState state, SinkState sinkState) throws Exception {
+        sinkState.getDefaultSink().writeBoth(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    @Benchmark
+    public void exchangeSinkWriteBoth(RequestResponseState state, SinkState sinkState) throws Exception {
+        sinkState.getExchangeSink().writeBoth(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    @Benchmark
+    public void compositeSinkWriteBoth(RequestResponseState state, FanOutState fanOutState) throws Exception {
+        fanOutState.getCompositeSink().writeBoth(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    @Benchmark
+    public void fanOutSinkWriteBoth(RequestResponseState state, FanOutState fanOutState) throws Exception {
+        fanOutState.getFanOutSink().writeBoth(state.getDefaultCorrelation(), state.getRequest(), state.getResponse());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(SinkBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
+
+@State(Scope.Benchmark)
+public class SinkState {
+
+    private Sink commonsLogFormatSink;
+    private Sink combinedLogFormatSink;
+    private Sink defaultSink;
+    private Sink exchangeSink;
+
+    @Setup(Level.Trial)
+    public void setUp(final Blackhole blackhole) {
+        final HttpLogWriter writer = new BlackholeHttpLogWriter(blackhole);
+        commonsLogFormatSink = new CommonsLogFormatSink(writer);
+        combinedLogFormatSink = new AccessLogFormatSink(writer, AccessLogFormatSink.COMBINED);
+        defaultSink = new DefaultSink(new FastJsonHttpLogFormatter(), writer);
+        exchangeSink = new ExchangeSink(new FastJsonHttpLogFormatter(), writer);
+    }
+
+    public Sink getCommonsLogFormatSink() {
+        return commonsLogFormatSink;
+    }
+
+    public Sink getCombinedLogFormatSink() {
+        return combinedLogFormatSink;
+    }
+
+    public Sink getDefaultSink() {
+        return defaultSink;
+    }
+
+    public Sink getExchangeSink() {
+        return exchangeSink;
+    }
+
+}
@@ -0,0 +1,54 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures writers under contention, i.e. with as many threads as available processors.
+ */
+@Threads(Threads.MAX)
+public class WriterBenchmark {
+
+    @Benchmark
+    public void streamWriteString(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getStreamWriter().write(state.getDefaultCorrelation(), writerState.getMessage());
+    }
+
+    @Benchmark
+    public void consoleWriteString(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getConsoleWriter().write(state.getDefaultCorrelation(), writerState.getMessage());
+    }
+
+    @Benchmark
+    public void fileWriteString(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getFileWriter().write(state.getDefaultCorrelation(), writerState.getMessage());
+    }
+
+    @Benchmark
+    public void shardedWriteString(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getShardedWriter().write(state.getDefaultCorrelation(), writerState.getMessage());
+    }
+
+    @Benchmark
+    public void streamWriteBytes(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getStreamWriter().write(state.getDefaultCorrelation(), writerState.getBytes());
+    }
+
+    @Benchmark
+    public void consoleWriteBytes(RequestResponseState state, WriterState writerState) throws Exception {
+        writerState.getConsoleWriter().write(state.getDefaultCorrelation(), writerState.getBytes());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(WriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.zalando.logbook;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.zalando.logbook.json.JsonHttpLogFormatter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writers to {@code /dev/null}, rather than to standard output, which the benchmark's host process would print,
+ * or to actual files, which would fill up the disk.
+ */
+@State(Scope.Benchmark)
+public class WriterState {
+
+    private FileOutputStream devNull;
+
+    private ByteHttpLogWriter streamWriter;
+    private ByteHttpLogWriter consoleWriter;
+    private FileHttpLogWriter fileWriter;
+    private ShardedHttpLogWriter shardedWriter;
+
+    private String message;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp(final RequestResponseState state) throws IOException {
+        devNull = new FileOutputStream("/dev/null");
+
+        // just like System.out
+        streamWriter = new StreamHttpLogWriter(new PrintStream(new BufferedOutputStream(devNull, 128), true));
+        consoleWriter = new ConsoleHttpLogWriter(devNull.getFD());
+
+        final Path path = Paths.get("/dev/null");
+        fileWriter = new FileHttpLogWriter(path);
+        // one shard per processor, each with a stream of its own
+        shardedWriter = new ShardedHttpLogWriter(Runtime.getRuntime().availableProcessors(), Clock.systemUTC(),
+                (shard, sequence) -> new FileHttpLogWriter(path, 0, null, null, Clock.systemUTC(), sequence));
+
+        message = new JsonHttpLogFormatter().format(state.getDefaultCorrelation(), state.getResponse());
+        bytes = message.getBytes(UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileWriter.close();
+        shardedWriter.close();
+        devNull.close();
+    }
+
+    public ByteHttpLogWriter getStreamWriter() {
+        return streamWriter;
+    }
+
+    public ByteHttpLogWriter getConsoleWriter() {
+        return consoleWriter;
+    }
+
+    public ByteHttpLogWriter getFileWriter() {
+        return fileWriter;
+    }
+
+    public ByteHttpLogWriter getShardedWriter() {
+        return shardedWriter;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ByteBuffer getBytes() {
+        return ByteBuffer.wrap(bytes);
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.zalando.logbook.jmh;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.spi.AbstractLogger;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * A Log4j 2 logger that renders messages into a reused buffer, just like garbage-free appenders of Log4j 2 do, but
+ * without writing them anywhere, since log4j-core isn't needed otherwise.
+ */
+public final class NOPLogger extends AbstractLogger {
+
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    public NOPLogger() {
+        super(NOPLogger.class.getName());
+    }
+
+    @Override
+    public Level getLevel() {
+        return Level.TRACE;
+    }
+
+    @Override
+    public void logMessage(final String fqcn, final Level level, final Marker marker, final Message message,
+            final Throwable t) {
+        buffer.setLength(0);
+
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(buffer);
+        } else {
+            buffer.append(message.getFormattedMessage());
+        }
+
+        // make sure the message can't be discarded by the JIT compiler
+        if (buffer.length() == 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final Message message, final Throwable t) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final CharSequence message, final Throwable t) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final Object message, final Throwable t) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Throwable t) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object... params) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6, final Object p7) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6, final Object p7, final Object p8) {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(final Level level, final Marker marker, final String message, final Object p0, final Object p1, final Object p2, final Object p3, final Object p4, final Object p5, final Object p6, final Object p7, final Object p8, final Object p9) {
+        return true;
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.zalando.logbook.json;
+
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Lets a {@link com.fasterxml.jackson.core.JsonGenerator generator} write into an {@link Appendable} without ever
+ * flushing or closing it, since it's owned by the caller.
+ */
+@AllArgsConstructor
+final class AppendableWriter extends Writer {
+
+    private final Appendable output;
+
+    @Override
+    public void write(final char[] buffer, final int offset, final int length) throws IOException {
+        if (output instanceof StringBuilder) {
+            ((StringBuilder) output).append(buffer, offset, length);
+        } else {
+            output.append(CharBuffer.wrap(buffer, offset, length));
+        }
+    }
+
+    @Override
+    public void write(final String string, final int offset, final int length) throws IOException {
+        output.append(string, offset, offset + length);
+    }
+
+    @Override
+    public void flush() {
+        // nothing to do
+    }
+
+    @Override
+    public void close() {
+        // nothing to do
+    }
+
+}
@@ -1,13 +1,17 @@
 package org.zalando.logbook.json;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import javax.annotation.Nullable;
 
 import org.apiguardian.api.API;
 import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.ByteBodyFilter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,7 +20,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @API(status = MAINTAINED)
 @Slf4j
-public final class CompactingJsonBodyFilter implements BodyFilter {
+public final class CompactingJsonBodyFilter implements BodyFilter, ByteBodyFilter {
 
     private final JsonCompactor compactor;
 
@@ -42,4 +46,22 @@ public final class CompactingJsonBodyFilter implements BodyFilter {
         }
     }
 
+    @Override
+    public ByteBuffer filter(@Nullable final String contentType, final ByteBuffer body, final Charset charset) {
+        if (!JsonMediaType.JSON.test(contentType)) {
+            return body;
+        }
+
+        if (!UTF_8.equals(charset)) {
+            return JsonBuffers.transcode(body, charset, json -> filter(contentType, json));
+        }
+
+        try {
+            return compactor.compact(body);
+        } catch (final IOException e) {
+            log.trace("Unable to compact body, is it a JSON?. Keep it as-is: `{}`", e.getMessage());
+            return body;
+        }
+    }
+
 }
@@ -1,35 +1,84 @@
 package org.zalando.logbook.json;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.AllArgsConstructor;
 import org.apiguardian.api.API;
+import org.zalando.logbook.ByteHttpLogFormatter;
+import org.zalando.logbook.ByteHttpLogWriter;
 import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ExchangeHttpLogFormatter;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpMessage;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.StreamingHttpLogFormatter;
+import org.zalando.logbook.common.BodyCompression;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 import static org.zalando.logbook.Origin.LOCAL;
 
 /**
- * A custom {@link HttpLogFormatter} that produces JSON objects.
+ * A custom {@link HttpLogFormatter} that produces JSON objects. When used with a {@link ByteHttpLogWriter}, it
+ * generates UTF-8 directly into a reusable, per-thread buffer and copies UTF-8 encoded JSON bodies as-is. When used
+ * with a {@link org.zalando.logbook.StreamingHttpLogWriter}, it writes straight into the writer's target.
+ *
+ * Optionally, bodies above a certain size are {@link BodyCompression compressed}. Those are written as a string,
+ * accompanied by a {@code bodyEncoding} and the original {@code bodyLength}.
  */
 @API(status = STABLE)
-@AllArgsConstructor
-public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
+public final class FastJsonHttpLogFormatter
+        implements ByteHttpLogFormatter, StreamingHttpLogFormatter, ExchangeHttpLogFormatter {
+
+    /**
+     * Buffers that grew beyond this size are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final SerializableString ORIGIN = new SerializedString("origin");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString CORRELATION = new SerializedString("correlation");
+    private static final SerializableString PROTOCOL = new SerializedString("protocol");
+    private static final SerializableString REMOTE = new SerializedString("remote");
+    private static final SerializableString METHOD = new SerializedString("method");
+    private static final SerializableString URI = new SerializedString("uri");
+    private static final SerializableString DURATION = new SerializedString("duration");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString HEADERS = new SerializedString("headers");
+    private static final SerializableString BODY = new SerializedString("body");
+    private static final SerializableString BODY_ENCODING = new SerializedString("bodyEncoding");
+    private static final SerializableString BODY_LENGTH = new SerializedString("bodyLength");
+
+    private static final SerializableString LOCAL_ORIGIN = new SerializedString("local");
+    private static final SerializableString REMOTE_ORIGIN = new SerializedString("remote");
+    private static final SerializableString REQUEST = new SerializedString("request");
+    private static final SerializableString RESPONSE = new SerializedString("response");
+    private static final SerializableString EXCHANGE = new SerializedString("exchange");
+
+    private final ThreadLocal<JsonBuffers.Output> buffers = ThreadLocal.withInitial(() ->
+            new JsonBuffers.Output(4096));
+
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() ->
+            new StringBuilder(4096));
 
     private final JsonFactory factory;
 
+    @Nullable
+    private final BodyCompression compression;
+
     public FastJsonHttpLogFormatter() {
         this(new ObjectMapper());
     }
@@ -38,12 +87,47 @@ public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
         this(mapper.getFactory());
     }
 
+    public FastJsonHttpLogFormatter(final JsonFactory factory) {
+        this(factory, null);
+    }
+
+    @API(status = EXPERIMENTAL)
+    public FastJsonHttpLogFormatter(final ObjectMapper mapper, @Nullable final BodyCompression compression) {
+        this(mapper.getFactory(), compression);
+    }
+
+    @API(status = EXPERIMENTAL)
+    public FastJsonHttpLogFormatter(final JsonFactory factory, @Nullable final BodyCompression compression) {
+        this.factory = factory;
+        this.compression = compression;
+    }
+
     @Override
     public String format(
             final Precorrelation precorrelation,
             final HttpRequest request) throws IOException {
 
-        return format(precorrelation, request, this::prepare);
+        return format(generator -> prepare(precorrelation, request, generator));
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Precorrelation precorrelation,
+            final HttpRequest request,
+            final ByteHttpLogWriter writer) throws IOException {
+
+        format(precorrelation, generator -> prepare(precorrelation, request, generator), writer::write);
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Precorrelation precorrelation,
+            final HttpRequest request,
+            final Appendable output) throws IOException {
+
+        format(generator -> prepare(precorrelation, request, generator), output);
     }
 
     @API(status = EXPERIMENTAL)
@@ -52,14 +136,20 @@ public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
             final HttpRequest request,
             final JsonGenerator generator) throws IOException {
 
-        generator.writeStringField("origin",
-                request.getOrigin() == LOCAL ? "local" : "remote");
-        generator.writeStringField("type", "request");
-        generator.writeStringField("correlation", precorrelation.getId());
-        generator.writeStringField("protocol", request.getProtocolVersion());
-        generator.writeStringField("remote", request.getRemote());
-        generator.writeStringField("method", request.getMethod());
-        generator.writeStringField("uri", reconstructUri(request));
+        generator.writeFieldName(ORIGIN);
+        generator.writeString(request.getOrigin() == LOCAL ? LOCAL_ORIGIN : REMOTE_ORIGIN);
+        generator.writeFieldName(TYPE);
+        generator.writeString(REQUEST);
+        generator.writeFieldName(CORRELATION);
+        generator.writeString(precorrelation.getId());
+        generator.writeFieldName(PROTOCOL);
+        generator.writeString(request.getProtocolVersion());
+        generator.writeFieldName(REMOTE);
+        generator.writeString(request.getRemote());
+        generator.writeFieldName(METHOD);
+        generator.writeString(request.getMethod());
+        generator.writeFieldName(URI);
+        generator.writeString(reconstructUri(request));
 
         writeHeaders(request, generator);
         writeBody(request, generator);
@@ -70,7 +160,27 @@ public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
             final Correlation correlation,
             final HttpResponse response) throws IOException {
 
-        return format(correlation, response, this::prepare);
+        return format(generator -> prepare(correlation, response, generator));
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Correlation correlation,
+            final HttpResponse response,
+            final ByteHttpLogWriter writer) throws IOException {
+
+        format(correlation, generator -> prepare(correlation, response, generator), writer::write);
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Correlation correlation,
+            final HttpResponse response,
+            final Appendable output) throws IOException {
+
+        format(generator -> prepare(correlation, response, generator), output);
     }
 
     @API(status = EXPERIMENTAL)
@@ -79,39 +189,161 @@ public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
             final HttpResponse response,
             final JsonGenerator generator) throws IOException {
 
-        final String correlationId = correlation.getId();
+        generator.writeFieldName(ORIGIN);
+        generator.writeString(response.getOrigin() == LOCAL ? LOCAL_ORIGIN : REMOTE_ORIGIN);
+        generator.writeFieldName(TYPE);
+        generator.writeString(RESPONSE);
+        generator.writeFieldName(CORRELATION);
+        generator.writeString(correlation.getId());
+        generator.writeFieldName(PROTOCOL);
+        generator.writeString(response.getProtocolVersion());
+        generator.writeFieldName(DURATION);
+        generator.writeNumber(correlation.getDuration().toMillis());
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(response.getStatus());
 
-        generator.writeStringField("origin",
-                response.getOrigin() == LOCAL ? "local" : "remote");
-        generator.writeStringField("type", "response");
-        generator.writeStringField("correlation", correlationId);
-        generator.writeStringField("protocol", response.getProtocolVersion());
-        generator.writeNumberField("duration", correlation.getDuration().toMillis());
-        generator.writeNumberField("status", response.getStatus());
+        writeHeaders(response, generator);
+        writeBody(response, generator);
+    }
 
+    @API(status = EXPERIMENTAL)
+    @Override
+    public String format(
+            final Correlation correlation,
+            final HttpRequest request,
+            final HttpResponse response) throws IOException {
+
+        return format(generator -> prepare(correlation, request, response, generator));
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Correlation correlation,
+            final HttpRequest request,
+            final HttpResponse response,
+            final Appendable output) throws IOException {
+
+        format(generator -> prepare(correlation, request, response, generator), output);
+    }
+
+    @API(status = EXPERIMENTAL)
+    @Override
+    public void format(
+            final Correlation correlation,
+            final HttpRequest request,
+            final HttpResponse response,
+            final ByteHttpLogWriter writer) throws IOException {
+
+        format(correlation, generator -> prepare(correlation, request, response, generator), writer::write);
+    }
+
+    /**
+     * Writes the fields of a request and its response. Fields that both of them share are written only once, the
+     * remaining ones are nested into a {@code request} and a {@code response} object.
+     *
+     * @param correlation the correlation
+     * @param request the request
+     * @param response the response
+     * @param generator the generator, positioned inside of the record's object
+     * @throws IOException if reading bodies or writing fails
+     */
+    @API(status = EXPERIMENTAL)
+    public void prepare(
+            final Correlation correlation,
+            final HttpRequest request,
+            final HttpResponse response,
+            final JsonGenerator generator) throws IOException {
+
+        generator.writeFieldName(ORIGIN);
+        generator.writeString(request.getOrigin() == LOCAL ? LOCAL_ORIGIN : REMOTE_ORIGIN);
+        generator.writeFieldName(TYPE);
+        generator.writeString(EXCHANGE);
+        generator.writeFieldName(CORRELATION);
+        generator.writeString(correlation.getId());
+        generator.writeFieldName(DURATION);
+        generator.writeNumber(correlation.getDuration().toMillis());
+        generator.writeFieldName(PROTOCOL);
+        generator.writeString(request.getProtocolVersion());
+
+        generator.writeFieldName(REQUEST);
+        generator.writeStartObject();
+        generator.writeFieldName(REMOTE);
+        generator.writeString(request.getRemote());
+        generator.writeFieldName(METHOD);
+        generator.writeString(request.getMethod());
+        generator.writeFieldName(URI);
+        generator.writeString(reconstructUri(request));
+        writeHeaders(request, generator);
+        writeBody(request, generator);
+        generator.writeEndObject();
+
+        generator.writeFieldName(RESPONSE);
+        generator.writeStartObject();
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(response.getStatus());
         writeHeaders(response, generator);
         writeBody(response, generator);
+        generator.writeEndObject();
     }
 
-    private <C extends Precorrelation, H extends HttpMessage> String format(
+    private String format(final Fields fields) throws IOException {
+        final StringBuilder builder = builders.get();
+
+        try {
+            format(fields, builder);
+            return builder.toString();
+        } finally {
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builders.remove();
+            } else {
+                builder.setLength(0);
+            }
+        }
+    }
+
+    private void format(final Fields fields, final Appendable output) throws IOException {
+        try (final JsonGenerator generator = factory.createGenerator(new AppendableWriter(output))) {
+            write(fields, generator);
+        }
+    }
+
+    private <C extends Precorrelation> void format(
             final C correlation,
-            final H message,
-            final Formatter<C, H> formatter) throws IOException {
+            final Fields fields,
+            final Writer<C> writer) throws IOException {
+
+        final JsonBuffers.Output output = buffers.get();
 
-        final StringWriter writer = new StringWriter(message.getBody().length + 2048);
+        try {
+            try (final JsonGenerator generator = factory.createGenerator(output, JsonEncoding.UTF8)) {
+                write(fields, generator);
+            }
 
-        try (final JsonGenerator generator = factory.createGenerator(writer)) {
-            generator.writeStartObject();
-            formatter.format(correlation, message, generator);
-            generator.writeEndObject();
+            writer.write(correlation, output.toByteBuffer());
+        } finally {
+            if (output.capacity() > MAX_RETAINED_CAPACITY) {
+                buffers.remove();
+            } else {
+                output.reset();
+            }
         }
+    }
 
-        return writer.toString();
+    private void write(final Fields fields, final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        fields.write(generator);
+        generator.writeEndObject();
     }
 
     @FunctionalInterface
-    private interface Formatter<C extends Precorrelation, H extends HttpMessage> {
-        void format(C correlation, H message, JsonGenerator generator) throws IOException;
+    private interface Fields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Writer<C extends Precorrelation> {
+        void write(C correlation, ByteBuffer message) throws IOException;
     }
 
     private void writeHeaders(
@@ -124,26 +356,68 @@ public final class FastJsonHttpLogFormatter implements HttpLogFormatter {
             return;
         }
 
-        // implementation note:
-        // for some unclear reason, manually iterating over the headers
-        // while writing performs worse than letting Jackson do the job.
-        generator.writeObjectField("headers", headers);
+        generator.writeFieldName(HEADERS);
+        generator.writeStartObject();
+
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            generator.writeFieldName(header.getKey());
+
+            final List<String> values = header.getValue();
+            generator.writeStartArray(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                generator.writeString(values.get(i));
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeEndObject();
     }
 
     private void writeBody(
             final HttpMessage message,
             final JsonGenerator generator) throws IOException {
 
+        if (compression != null) {
+            final byte[] body = message.getBody();
+
+            if (compression.test(body)) {
+                generator.writeFieldName(BODY);
+                // Base64 never needs escaping, i.e. it's written as-is between quotes, without an intermediate String
+                generator.writeRawValue("\"");
+                compression.encode(body, new RawAppendable(generator));
+                generator.writeRaw('"');
+                generator.writeFieldName(BODY_ENCODING);
+                generator.writeString(BodyCompression.ENCODING);
+                generator.writeFieldName(BODY_LENGTH);
+                generator.writeNumber(body.length);
+                return;
+            }
+        }
+
+        // truncated bodies are no longer valid JSON, hence they are embedded as strings
+        final boolean json = JsonMediaType.JSON.test(message.getContentType()) && !message.isBodyTruncated();
+
+        // only byte-based generators copy raw bytes as-is, others would need to decode them again
+        if (json && UTF_8.equals(message.getCharset()) && generator.getOutputTarget() instanceof OutputStream) {
+            final byte[] body = message.getBody();
+
+            if (body.length == 0) {
+                return;
+            }
+
+            generator.writeFieldName(BODY);
+            generator.writeRawValue(new RawJsonValue(body));
+            return;
+        }
+
         final String body = message.getBodyAsString();
 
         if (body.isEmpty()) {
             return;
         }
-        generator.writeFieldName("body");
-
-        final String contentType = message.getContentType();
+        generator.writeFieldName(BODY);
 
-        if (JsonMediaType.JSON.test(contentType)) {
+        if (json) {
             generator.writeRawValue(body);
         } else {
             generator.writeString(body);
@@ -1,11 +1,16 @@
 package org.zalando.logbook.json;
 
 import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.ByteBodyFilter;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
@@ -13,6 +18,9 @@ import com.fasterxml.jackson.core.JsonToken;
 
 import lombok.extern.slf4j.Slf4j;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.zalando.logbook.json.JsonBuffers.createParser;
+
 /**
  * 
  * Thread-safe filter for JSON fields. Filters on property names.
@@ -23,7 +31,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 
 @Slf4j
-public class JacksonJsonFieldBodyFilter implements BodyFilter {
+public class JacksonJsonFieldBodyFilter implements BodyFilter, ByteBodyFilter {
 
     private final static StringReplaceJsonCompactor fallbackCompactor = new StringReplaceJsonCompactor();
 
@@ -54,21 +62,7 @@ public class JacksonJsonFieldBodyFilter implements BodyFilter {
             
             JsonGenerator generator = factory.createGenerator(writer);            
             try {
-                while(true) {
-                    JsonToken nextToken = parser.nextToken();
-                    if(nextToken == null) {
-                        break;
-                    }
-
-                    generator.copyCurrentEvent(parser);
-                    if(nextToken == JsonToken.FIELD_NAME && fields.contains(parser.getCurrentName())) {
-                        nextToken = parser.nextToken();
-                        generator.writeString(replacement);
-                        if(!nextToken.isScalarValue()) {
-                            parser.skipChildren(); // skip children
-                        }
-                    }
-                }                    
+                copy(parser, generator);
             } finally {
                 parser.close();
                 
@@ -82,4 +76,57 @@ public class JacksonJsonFieldBodyFilter implements BodyFilter {
         }
     }
 
+    @Override
+    public ByteBuffer filter(final String contentType, final ByteBuffer body, final Charset charset) {
+        if (!JsonMediaType.JSON.test(contentType)) {
+            return body;
+        }
+
+        return UTF_8.equals(charset) ? filter(body) : JsonBuffers.transcode(body, charset, this::filter);
+    }
+
+    /**
+     * @param body UTF-8 encoded JSON
+     * @return the filtered JSON, UTF-8 encoded
+     */
+    public ByteBuffer filter(final ByteBuffer body) {
+        try {
+            final JsonParser parser = createParser(factory, body);
+
+            final JsonBuffers.Output output = new JsonBuffers.Output(body.remaining());
+
+            final JsonGenerator generator = factory.createGenerator(output, JsonEncoding.UTF8);
+            try {
+                copy(parser, generator);
+            } finally {
+                parser.close();
+
+                generator.close();
+            }
+
+            return output.toByteBuffer();
+        } catch(Exception e) {
+            log.trace("Unable to filter body for fields {}, compacting result. `{}`", fields, e.getMessage());
+            return fallbackCompactor.compact(body);
+        }
+    }
+
+    private void copy(final JsonParser parser, final JsonGenerator generator) throws IOException {
+        while(true) {
+            JsonToken nextToken = parser.nextToken();
+            if(nextToken == null) {
+                break;
+            }
+
+            generator.copyCurrentEvent(parser);
+            if(nextToken == JsonToken.FIELD_NAME && fields.contains(parser.getCurrentName())) {
+                nextToken = parser.nextToken();
+                generator.writeString(replacement);
+                if(!nextToken.isScalarValue()) {
+                    parser.skipChildren(); // skip children
+                }
+            }
+        }
+    }
+
 }
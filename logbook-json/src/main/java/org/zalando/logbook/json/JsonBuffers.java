@@ -0,0 +1,51 @@
+package org.zalando.logbook.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.function.UnaryOperator;
+
+final class JsonBuffers {
+
+    private JsonBuffers() {
+
+    }
+
+    static JsonParser createParser(final JsonFactory factory, final ByteBuffer json) throws IOException {
+        if (json.hasArray()) {
+            return factory.createParser(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        }
+
+        final byte[] bytes = new byte[json.remaining()];
+        json.duplicate().get(bytes);
+        return factory.createParser(bytes);
+    }
+
+    /**
+     * Jackson reads and writes UTF-8 natively, every other charset has to go through a {@link String}.
+     */
+    static ByteBuffer transcode(final ByteBuffer body, final Charset charset, final UnaryOperator<String> filter) {
+        return charset.encode(filter.apply(charset.decode(body.duplicate()).toString()));
+    }
+
+    static final class Output extends ByteArrayOutputStream {
+
+        Output(final int size) {
+            super(size);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+    }
+
+}
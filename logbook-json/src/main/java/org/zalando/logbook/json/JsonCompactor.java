@@ -1,9 +1,16 @@
 package org.zalando.logbook.json;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 interface JsonCompactor {
 
     String compact(String json) throws IOException;
 
+    /**
+     * @param json UTF-8 encoded JSON
+     * @return the compacted JSON, UTF-8 encoded
+     */
+    ByteBuffer compact(ByteBuffer json) throws IOException;
+
 }
@@ -5,14 +5,19 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.apiguardian.api.API;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ExchangeHttpLogFormatter;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.StructuredHttpLogFormatter;
 
 import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
 /**
@@ -46,7 +51,7 @@ import static org.apiguardian.api.API.Status.STABLE;
  * </pre>
  */
 @API(status = STABLE)
-public final class JsonHttpLogFormatter implements StructuredHttpLogFormatter {
+public final class JsonHttpLogFormatter implements StructuredHttpLogFormatter, ExchangeHttpLogFormatter {
 
     private final ObjectMapper mapper;
 
@@ -58,6 +63,13 @@ public final class JsonHttpLogFormatter implements StructuredHttpLogFormatter {
         this.mapper = mapper;
     }
 
+    @API(status = EXPERIMENTAL)
+    @Override
+    public String format(final Correlation correlation, final HttpRequest request, final HttpResponse response)
+            throws IOException {
+        return format(prepare(correlation, request, response));
+    }
+
     @Override
     public Optional<Object> prepareBody(final HttpMessage message) throws IOException {
         final String contentType = message.getContentType();
@@ -65,7 +77,7 @@ public final class JsonHttpLogFormatter implements StructuredHttpLogFormatter {
         if(body.isEmpty()) {
             return Optional.empty();
         }
-        if (JsonMediaType.JSON.test(contentType)) {
+        if (JsonMediaType.JSON.test(contentType) && !message.isBodyTruncated()) {
         	// TODO has this JSON been validated? If not then this might result in invalid log statements
             return Optional.of(new JsonBody(body));
         } else {
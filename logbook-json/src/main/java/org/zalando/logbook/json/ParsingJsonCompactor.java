@@ -1,11 +1,15 @@
 package org.zalando.logbook.json;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.zalando.logbook.json.JsonBuffers.createParser;
 
 final class ParsingJsonCompactor implements JsonCompactor {
 
@@ -37,4 +41,23 @@ final class ParsingJsonCompactor implements JsonCompactor {
         }
     }
 
+    @Override
+    public ByteBuffer compact(final ByteBuffer json) throws IOException {
+        final JsonBuffers.Output output = new JsonBuffers.Output(json.remaining());
+
+        try (
+            final JsonParser parser = createParser(factory, json);
+            final JsonGenerator generator = factory.createGenerator(output, JsonEncoding.UTF8);
+                ) {
+
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+
+            generator.flush();
+        }
+
+        return output.toByteBuffer();
+    }
+
 }
@@ -0,0 +1,43 @@
+package org.zalando.logbook.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.AllArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Lets content that never needs to be escaped, e.g. Base64, be appended to a {@link JsonGenerator generator} as-is.
+ * Character buffers are written in bulk, without copying them into a {@link String} first.
+ */
+@AllArgsConstructor
+final class RawAppendable implements Appendable {
+
+    private final JsonGenerator generator;
+
+    @Override
+    public Appendable append(@Nullable final CharSequence sequence) throws IOException {
+        if (sequence instanceof CharBuffer && ((CharBuffer) sequence).hasArray()) {
+            final CharBuffer buffer = (CharBuffer) sequence;
+            generator.writeRaw(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            generator.writeRaw(String.valueOf(sequence));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(@Nullable final CharSequence sequence, final int start, final int end)
+            throws IOException {
+        generator.writeRaw(String.valueOf(sequence), start, end - start);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        generator.writeRaw(c);
+        return this;
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.zalando.logbook.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A UTF-8 encoded JSON value, to be written using {@link com.fasterxml.jackson.core.JsonGenerator#writeRawValue(
+ * SerializableString)}. Byte-based generators copy it as-is, everything else will decode it first.
+ */
+final class RawJsonValue implements SerializableString {
+
+    private final byte[] json;
+    private SerializedString decoded;
+
+    RawJsonValue(final byte[] json) {
+        this.json = json;
+    }
+
+    private SerializedString decoded() {
+        if (decoded == null) {
+            decoded = new SerializedString(new String(json, UTF_8));
+        }
+        return decoded;
+    }
+
+    @Override
+    public String getValue() {
+        return decoded().getValue();
+    }
+
+    @Override
+    public int charLength() {
+        return decoded().charLength();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return decoded().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return json;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return decoded().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(final byte[] buffer, final int offset) {
+        return decoded().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(final char[] buffer, final int offset) {
+        return decoded().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(final byte[] buffer, final int offset) {
+        if (offset + json.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(json, 0, buffer, offset, json.length);
+        return json.length;
+    }
+
+    @Override
+    public int appendUnquoted(final char[] buffer, final int offset) {
+        return decoded().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(final OutputStream out) throws IOException {
+        return decoded().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(final OutputStream out) throws IOException {
+        out.write(json);
+        return json.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(final ByteBuffer buffer) {
+        return decoded().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(final ByteBuffer buffer) {
+        if (json.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(json);
+        return json.length;
+    }
+
+}
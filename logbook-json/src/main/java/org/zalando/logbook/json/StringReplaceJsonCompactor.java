@@ -1,5 +1,7 @@
 package org.zalando.logbook.json;
 
+import java.nio.ByteBuffer;
+
 final class StringReplaceJsonCompactor implements JsonCompactor {
 
     @Override
@@ -7,4 +9,19 @@ final class StringReplaceJsonCompactor implements JsonCompactor {
         return json.replace("\n", "");
     }
 
+    @Override
+    public ByteBuffer compact(final ByteBuffer json) {
+        final ByteBuffer input = json.duplicate();
+        final ByteBuffer output = ByteBuffer.allocate(input.remaining());
+
+        while (input.hasRemaining()) {
+            final byte current = input.get();
+            if (current != '\n') {
+                output.put(current);
+            }
+        }
+
+        return (ByteBuffer) output.flip();
+    }
+
 }
@@ -0,0 +1,46 @@
+package org.zalando.logbook.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class AppendableWriterTest {
+
+    private final StringBuilder output = new StringBuilder();
+    private final Writer unit = new AppendableWriter(output);
+
+    @Test
+    void shouldAppendCharactersAndStrings() throws IOException {
+        unit.write("_Hello".toCharArray(), 1, 5);
+        unit.write(", world!_", 0, 8);
+        unit.write('?');
+
+        assertThat(output.toString(), is("Hello, world!?"));
+    }
+
+    @Test
+    void shouldAppendCharactersToOtherAppendables() throws IOException {
+        final StringWriter target = new StringWriter();
+        final Writer writer = new AppendableWriter(target);
+
+        writer.write("_Hello".toCharArray(), 1, 5);
+
+        assertThat(target.toString(), is("Hello"));
+    }
+
+    @Test
+    void shouldIgnoreFlushAndClose() throws IOException {
+        unit.write("Hello");
+        unit.flush();
+        unit.close();
+        unit.write(", world!");
+
+        assertThat(output.toString(), is("Hello, world!"));
+    }
+
+}
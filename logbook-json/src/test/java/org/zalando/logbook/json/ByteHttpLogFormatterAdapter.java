@@ -0,0 +1,65 @@
+package org.zalando.logbook.json;
+
+import lombok.AllArgsConstructor;
+import org.zalando.logbook.ByteHttpLogFormatter;
+import org.zalando.logbook.ByteHttpLogWriter;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Exercises the byte-level output of a {@link ByteHttpLogFormatter} through the string-based API.
+ */
+@AllArgsConstructor
+final class ByteHttpLogFormatterAdapter implements HttpLogFormatter {
+
+    private final ByteHttpLogFormatter formatter;
+
+    @Override
+    public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        final Capture capture = new Capture();
+        formatter.format(precorrelation, request, capture);
+        return capture.message;
+    }
+
+    @Override
+    public String format(final Correlation correlation, final HttpResponse response) throws IOException {
+        final Capture capture = new Capture();
+        formatter.format(correlation, response, capture);
+        return capture.message;
+    }
+
+    private static final class Capture implements ByteHttpLogWriter {
+
+        private String message;
+
+        @Override
+        public void write(final Precorrelation precorrelation, final String request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(final Correlation correlation, final String response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(final Precorrelation precorrelation, final ByteBuffer request) {
+            message = UTF_8.decode(request).toString();
+        }
+
+        @Override
+        public void write(final Correlation correlation, final ByteBuffer response) {
+            message = UTF_8.decode(response).toString();
+        }
+
+    }
+
+}
@@ -1,14 +1,18 @@
 package org.zalando.logbook.json;
 
 import org.junit.jupiter.api.Test;
-import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.ByteBodyFilter;
 
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
 class CompactingJsonBodyFilterTest {
 
-    private final BodyFilter unit = new CompactingJsonBodyFilter();
+    private final CompactingJsonBodyFilter unit = new CompactingJsonBodyFilter();
 
     /*language=JSON*/
     private final String pretty = "{\n" +
@@ -58,4 +62,37 @@ class CompactingJsonBodyFilterTest {
         assertThat(filtered, is(invalidJson));
     }
 
+    @Test
+    void shouldTransformValidJsonBytes() {
+        assertThat(filter(unit, "application/json", pretty, UTF_8), is(compacted));
+    }
+
+    @Test
+    void shouldTransformValidJsonBytesInOtherCharsets() {
+        final String body = "{\n  \"name\": \"J\u00f6rg\"\n}";
+        assertThat(filter(unit, "application/json", body, ISO_8859_1), is("{\"name\":\"J\u00f6rg\"}"));
+    }
+
+    @Test
+    void shouldIgnoreInvalidContentBytes() {
+        final String invalidBody = "{\ninvalid}";
+        assertThat(filter(unit, "application/json", invalidBody, UTF_8), is(invalidBody));
+    }
+
+    @Test
+    void shouldIgnoreInvalidContentTypeBytes() {
+        assertThat(filter(unit, "text/plain", pretty, UTF_8), is(pretty));
+    }
+
+    @Test
+    void shouldTransformValidJsonBytesUsingStringReplacement() {
+        final ByteBodyFilter unit = new CompactingJsonBodyFilter(new StringReplaceJsonCompactor());
+        assertThat(filter(unit, "application/json", "{\n\"a\":1\n}", UTF_8), is("{\"a\":1}"));
+    }
+
+    static String filter(final ByteBodyFilter unit, final String contentType, final String body,
+            final Charset charset) {
+        return new String(unit.filter(contentType, body.getBytes(charset), charset), charset);
+    }
+
 }
@@ -0,0 +1,175 @@
+package org.zalando.logbook.json;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.ByteHttpLogWriter;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.MockHttpRequest;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.json.JsonHttpLogFormatterTest.SimplePrecorrelation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.jayway.jsonassert.JsonAssert.with;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.time.Clock.systemUTC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+final class FastJsonHttpLogFormatterTest {
+
+    private final FastJsonHttpLogFormatter unit = new FastJsonHttpLogFormatter();
+    private final Precorrelation precorrelation = new SimplePrecorrelation("1", systemUTC());
+
+    @Test
+    void shouldEmbedJsonBodyInOtherCharsets() throws IOException {
+        final HttpRequest request = MockHttpRequest.create()
+                .withContentType("application/json")
+                .withCharset(ISO_8859_1)
+                .withBodyAsString("{\"name\":\"Jörg\"}");
+
+        final String json = new ByteHttpLogFormatterAdapter(unit).format(precorrelation, request);
+
+        with(json).assertThat("$.body.name", is("Jörg"));
+    }
+
+    @Test
+    void shouldReuseBuffers() throws IOException {
+        final List<byte[]> buffers = capture(MockHttpRequest.create(), MockHttpRequest.create());
+
+        assertThat(buffers.get(1), is(sameInstance(buffers.get(0))));
+    }
+
+    @Test
+    void shouldNotRetainLargeBuffers() throws IOException {
+        final MockHttpRequest large = MockHttpRequest.create()
+                .withBodyAsString(new String(new char[512 * 1024]).replace('\0', 'x'));
+
+        final List<byte[]> buffers = capture(large, MockHttpRequest.create());
+
+        assertThat(buffers.get(1), is(not(sameInstance(buffers.get(0)))));
+    }
+
+    @Test
+    void shouldNotLeakLargeBodiesIntoSubsequentStrings() throws IOException {
+        final MockHttpRequest large = MockHttpRequest.create()
+                .withBodyAsString(new String(new char[512 * 1024]).replace('\0', 'x'));
+
+        assertThat(unit.format(precorrelation, large).length(), is(greaterThan(512 * 1024)));
+
+        final String json = unit.format(precorrelation, MockHttpRequest.create());
+        with(json).assertNotDefined("$.body");
+    }
+
+    @Test
+    void shouldWriteMultiValueHeaders() throws IOException {
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("Accept", asList("application/json", "text/plain"));
+        headers.put("Host", singletonList("localhost"));
+
+        final HttpRequest request = MockHttpRequest.create().withHeaders(headers);
+
+        final String json = unit.format(precorrelation, request);
+
+        assertThat(json, containsString(
+                "\"headers\":{\"Accept\":[\"application/json\",\"text/plain\"],\"Host\":[\"localhost\"]}"));
+    }
+
+    @Test
+    void shouldProduceSameOutputForStringsAndBytes() throws IOException {
+        final HttpRequest request = MockHttpRequest.create()
+                .withContentType("application/json")
+                .withBodyAsString("{\"name\":\"Jörg\"}");
+
+        final HttpLogFormatter bytes = new ByteHttpLogFormatterAdapter(unit);
+
+        assertThat(bytes.format(precorrelation, request), is(unit.format(precorrelation, request)));
+    }
+
+    @Test
+    void shouldReadJsonBodyAsStringForCharacterOutput() throws IOException {
+        final HttpRequest request = new BodyTrackingRequest(MockHttpRequest.create()
+                .withContentType("application/json")
+                .withBodyAsString("{\"name\":\"Jörg\"}"));
+
+        final String json = unit.format(precorrelation, request);
+
+        with(json).assertThat("$.body.name", is("Jörg"));
+        assertThat(((BodyTrackingRequest) request).reads, contains("string"));
+    }
+
+    @Test
+    void shouldReadJsonBodyAsBytesForByteOutput() throws IOException {
+        final HttpRequest request = new BodyTrackingRequest(MockHttpRequest.create()
+                .withContentType("application/json")
+                .withBodyAsString("{\"name\":\"Jörg\"}"));
+
+        final String json = new ByteHttpLogFormatterAdapter(unit).format(precorrelation, request);
+
+        with(json).assertThat("$.body.name", is("Jörg"));
+        assertThat(((BodyTrackingRequest) request).reads, contains("bytes"));
+    }
+
+    private static final class BodyTrackingRequest implements ForwardingHttpRequest {
+
+        private final HttpRequest request;
+        private final List<String> reads = new ArrayList<>();
+
+        private BodyTrackingRequest(final HttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpRequest delegate() {
+            return request;
+        }
+
+        @Override
+        public byte[] getBody() throws IOException {
+            reads.add("bytes");
+            return request.getBody();
+        }
+
+        @Override
+        public String getBodyAsString() throws IOException {
+            reads.add("string");
+            return request.getBodyAsString();
+        }
+
+    }
+
+    private List<byte[]> capture(final HttpRequest... requests) throws IOException {
+        final List<byte[]> buffers = new ArrayList<>();
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+
+        doAnswer(invocation -> {
+            final ByteBuffer buffer = invocation.getArgument(1);
+            buffers.add(buffer.array());
+            return null;
+        }).when(writer).write(eq(precorrelation), any(ByteBuffer.class));
+
+        for (final HttpRequest request : requests) {
+            unit.format(precorrelation, request, writer);
+        }
+
+        return buffers;
+    }
+
+}
@@ -1,8 +1,11 @@
 package org.zalando.logbook.json;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.zalando.logbook.json.CompactingJsonBodyFilterTest.filter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -76,6 +79,40 @@ public class JacksonJsonFieldBodyFilterTest {
         assertThat(filtered, containsString("Ford"));
     }    
 
+    @Test
+    public void testFilterBytes() throws Exception {
+        String filtered = filter(getFilter("email"), "application/json", getResource("/user.json"), UTF_8);
+        assertThat(filtered, not(containsString("@entur.org")));
+        assertThat(filtered, containsString("\"email\":\"XXX\""));
+    }
+
+    @Test
+    public void testFilterBytesInOtherCharsets() throws Exception {
+        String filtered = filter(getFilter("name"), "application/json", "{\"name\":\"J\u00f6rg\",\"city\":\"K\u00f6ln\"}", ISO_8859_1);
+        assertThat(filtered, is("{\"name\":\"XXX\",\"city\":\"K\u00f6ln\"}"));
+    }
+
+    @Test
+    public void testFilterDirectBytes() throws Exception {
+        byte[] json = "{\"id\":18375}".getBytes(UTF_8);
+        ByteBuffer body = (ByteBuffer) ByteBuffer.allocateDirect(json.length).put(json).flip();
+        ByteBuffer filtered = getFilter("id").filter("application/json", body, UTF_8);
+        assertThat(UTF_8.decode(filtered).toString(), is("{\"id\":\"XXX\"}"));
+    }
+
+    @Test
+    public void doesNotFilterInvalidJsonBytes() throws Exception {
+        String filtered = filter(getFilter("cars"), "application/json", "{\n\"cars\": [\"Ford\"", UTF_8);
+        assertThat(filtered, is("{\"cars\": [\"Ford\""));
+    }
+
+    @Test
+    public void doesNotFilterNonJsonBytes() throws Exception {
+        String valid = getResource("/cars-array.json").trim();
+        String filtered = filter(getFilter("cars"), "application/xml", valid, UTF_8);
+        assertThat(filtered, is(valid));
+    }
+
     private String getResource(String path) throws IOException {
         final byte[] bytes = Files.readAllBytes(Paths.get("src/test/resources/" + path));
         return new String(bytes, UTF_8);
@@ -1,10 +1,18 @@
 package org.zalando.logbook.json;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.zalando.logbook.ByteHttpLogWriter;
+import org.zalando.logbook.CompressedBodies;
 import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ExchangeHttpLogFormatter;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.ForwardingHttpResponse;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.HttpResponse;
@@ -12,8 +20,10 @@ import org.zalando.logbook.MockHeaders;
 import org.zalando.logbook.MockHttpRequest;
 import org.zalando.logbook.MockHttpResponse;
 import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.common.BodyCompression;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -25,6 +35,7 @@ import java.util.Optional;
 import java.util.TreeMap;
 
 import static com.jayway.jsonassert.JsonAssert.with;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Clock.systemUTC;
 import static java.time.Duration.ZERO;
 import static java.time.Duration.ofMillis;
@@ -37,6 +48,9 @@ import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.zalando.logbook.Origin.LOCAL;
 import static org.zalando.logbook.Origin.REMOTE;
 
@@ -46,7 +60,9 @@ final class JsonHttpLogFormatterTest {
     static Iterable<HttpLogFormatter> units() {
         return Arrays.asList(
                 new JsonHttpLogFormatter(),
-                new FastJsonHttpLogFormatter()
+                new FastJsonHttpLogFormatter(),
+                new ByteHttpLogFormatterAdapter(new FastJsonHttpLogFormatter()),
+                new StreamingHttpLogFormatterAdapter(new FastJsonHttpLogFormatter())
         );
     }
 
@@ -156,6 +172,54 @@ final class JsonHttpLogFormatterTest {
         assertThat(json, containsString("{\"name\":\"Bob\"};"));
     }
 
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldEmbedTruncatedJsonRequestBodyAsString(final HttpLogFormatter unit) throws IOException {
+        final String body = "{\"name\":\"Bo ... [42 bytes omitted] ... \"}";
+        final HttpRequest request = MockHttpRequest.create()
+                .withContentType("application/json")
+                .withBodyAsString(body);
+
+        final String json = unit.format(new SimplePrecorrelation("", systemUTC()), new ForwardingHttpRequest() {
+            @Override
+            public HttpRequest delegate() {
+                return request;
+            }
+
+            @Override
+            public boolean isBodyTruncated() {
+                return true;
+            }
+        });
+
+        with(json)
+                .assertThat("$.body", is(body));
+    }
+
+    @ParameterizedTest
+    @MethodSource("units")
+    void shouldEmbedTruncatedJsonResponseBodyAsString(final HttpLogFormatter unit) throws IOException {
+        final String body = "[1, 2 ... [42 bytes omitted] ... 9]";
+        final HttpResponse response = MockHttpResponse.create()
+                .withContentType("application/json")
+                .withBodyAsString(body);
+
+        final String json = unit.format(new SimpleCorrelation("", ZERO), new ForwardingHttpResponse() {
+            @Override
+            public HttpResponse delegate() {
+                return response;
+            }
+
+            @Override
+            public boolean isBodyTruncated() {
+                return true;
+            }
+        });
+
+        with(json)
+                .assertThat("$.body", is(body));
+    }
+
     @ParameterizedTest
     @MethodSource("units")
     void shouldNotEmbedReplacedJsonRequestBody(final HttpLogFormatter unit) throws IOException {
@@ -544,6 +608,128 @@ final class JsonHttpLogFormatterTest {
                 .assertThat("$.uri", is("http://localhost/test"));
     }
 
+    @MethodSource
+    static Iterable<ExchangeHttpLogFormatter> exchangeUnits() {
+        return Arrays.asList(
+                new JsonHttpLogFormatter(),
+                new FastJsonHttpLogFormatter()
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("exchangeUnits")
+    void shouldLogExchange(final ExchangeHttpLogFormatter unit) throws IOException {
+        final String correlationId = "53de2640-677d-11e5-bc84-10ddb1ee7671";
+        final HttpRequest request = MockHttpRequest.create()
+                .withProtocolVersion("HTTP/1.0")
+                .withOrigin(REMOTE)
+                .withMethod("POST")
+                .withPath("/test")
+                .withHeaders(MockHeaders.of("Accept", "application/json"))
+                .withContentType("application/json")
+                .withBodyAsString("{\"name\":\"Bob\"}");
+        final HttpResponse response = MockHttpResponse.create()
+                .withStatus(201)
+                .withHeaders(MockHeaders.of("Date", "Tue, 15 Nov 1994 08:12:31 GMT"))
+                .withContentType("text/plain")
+                .withBodyAsString("Created");
+
+        final String json = unit.format(new SimpleCorrelation(correlationId, ofMillis(125)), request, response);
+
+        with(json)
+                .assertThat("$.*", hasSize(7))
+                .assertThat("$.origin", is("remote"))
+                .assertThat("$.type", is("exchange"))
+                .assertThat("$.correlation", is("53de2640-677d-11e5-bc84-10ddb1ee7671"))
+                .assertThat("$.duration", is(125))
+                .assertThat("$.protocol", is("HTTP/1.0"))
+                .assertThat("$.request.remote", is("127.0.0.1"))
+                .assertThat("$.request.method", is("POST"))
+                .assertThat("$.request.uri", is("http://localhost/test"))
+                .assertThat("$.request.headers['Accept']", is(singletonList("application/json")))
+                .assertThat("$.request.body.name", is("Bob"))
+                .assertThat("$.response.status", is(201))
+                .assertThat("$.response.headers['Date']", is(singletonList("Tue, 15 Nov 1994 08:12:31 GMT")))
+                .assertThat("$.response.body", is("Created"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("exchangeUnits")
+    void shouldLogExchangeWithoutHeadersAndBodies(final ExchangeHttpLogFormatter unit) throws IOException {
+        final StringBuilder output = new StringBuilder();
+
+        unit.format(new SimpleCorrelation("53de2640-677d-11e5-bc84-10ddb1ee7671", ZERO),
+                MockHttpRequest.create().withOrigin(LOCAL), MockHttpResponse.create(), output);
+
+        with(output.toString())
+                .assertThat("$.origin", is("local"))
+                .assertThat("$.request", not(hasKey("headers")))
+                .assertThat("$.request", not(hasKey("body")))
+                .assertThat("$.response", not(hasKey("headers")))
+                .assertThat("$.response", not(hasKey("body")))
+                .assertThat("$.response.status", is(200));
+    }
+
+    @ParameterizedTest
+    @MethodSource("exchangeUnits")
+    void shouldLogExchangeAsBytes(final ExchangeHttpLogFormatter unit) throws IOException {
+        final Correlation correlation = new SimpleCorrelation("53de2640-677d-11e5-bc84-10ddb1ee7671", ZERO);
+        final ByteHttpLogWriter writer = mock(ByteHttpLogWriter.class);
+
+        unit.format(correlation, MockHttpRequest.create(), MockHttpResponse.create().withStatus(204), writer);
+
+        final ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(writer).write(eq(correlation), captor.capture());
+
+        with(UTF_8.decode(captor.getValue()).toString())
+                .assertThat("$.type", is("exchange"))
+                .assertThat("$.response.status", is(204));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressingUnits")
+    void shouldCompressLargeBodies(final HttpLogFormatter unit) throws IOException {
+        final String body = "{\"items\":[\"Alice\",\"Bob\",\"Carol\",\"Dave\"]}";
+        final HttpResponse response = MockHttpResponse.create()
+                .withContentType("application/json")
+                .withBodyAsString(body);
+
+        final String json = unit.format(new SimpleCorrelation("3ce91230-677b-11e5-87b7-10ddb1ee7671", ZERO), response);
+
+        with(json)
+                .assertThat("$.bodyEncoding", is("gzip+base64"))
+                .assertThat("$.bodyLength", is(40));
+
+        final String encoded = JsonPath.read(json, "$.body");
+        assertThat(CompressedBodies.decode(encoded, UTF_8), is(body));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressingUnits")
+    void shouldNotCompressSmallBodies(final HttpLogFormatter unit) throws IOException {
+        final HttpResponse response = MockHttpResponse.create()
+                .withContentType("application/json")
+                .withBodyAsString("{\"name\":\"Bob\"}");
+
+        final String json = unit.format(new SimpleCorrelation("3ce91230-677b-11e5-87b7-10ddb1ee7671", ZERO), response);
+
+        with(json)
+                .assertThat("$.body.name", is("Bob"))
+                .assertThat("$", not(hasKey("bodyEncoding")))
+                .assertThat("$", not(hasKey("bodyLength")));
+    }
+
+    @MethodSource
+    static Iterable<HttpLogFormatter> compressingUnits() {
+        final FastJsonHttpLogFormatter formatter =
+                new FastJsonHttpLogFormatter(new ObjectMapper(), BodyCompression.above(32));
+
+        return Arrays.asList(
+                formatter,
+                new ByteHttpLogFormatterAdapter(formatter),
+                new StreamingHttpLogFormatterAdapter(formatter)
+        );
+    }
 
     @Getter
     static class SimplePrecorrelation implements Precorrelation {
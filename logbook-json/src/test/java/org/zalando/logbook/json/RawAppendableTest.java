@@ -0,0 +1,35 @@
+package org.zalando.logbook.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class RawAppendableTest {
+
+    @Test
+    void shouldAppendWithoutEscaping() throws IOException {
+        final StringWriter output = new StringWriter();
+
+        try (final JsonGenerator generator = new JsonFactory().createGenerator(output)) {
+            final Appendable unit = new RawAppendable(generator);
+
+            unit.append(CharBuffer.wrap("_\"Hello".toCharArray(), 1, 6))
+                    .append(CharBuffer.wrap(", "))
+                    .append(new StringBuilder("world"))
+                    .append("_!\"_", 1, 3)
+                    .append('/')
+                    .append(null)
+                    .append(null, 0, 2);
+        }
+
+        assertThat(output.toString(), is("\"Hello, world!\"/nullnu"));
+    }
+
+}
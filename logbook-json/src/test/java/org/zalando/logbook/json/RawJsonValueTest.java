@@ -0,0 +1,85 @@
+package org.zalando.logbook.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class RawJsonValueTest {
+
+    private final String value = "{\"name\":\"Jörg\"}";
+    private final SerializableString expected = new SerializedString(value);
+    private final SerializableString unit = new RawJsonValue(value.getBytes(UTF_8));
+
+    @Test
+    void shouldBehaveLikeSerializedString() throws IOException {
+        assertThat(unit.getValue(), is(expected.getValue()));
+        assertThat(unit.charLength(), is(expected.charLength()));
+        assertThat(unit.asQuotedChars(), is(expected.asQuotedChars()));
+        assertThat(unit.asUnquotedUTF8(), is(expected.asUnquotedUTF8()));
+        assertThat(unit.asQuotedUTF8(), is(expected.asQuotedUTF8()));
+
+        assertThat(appendQuotedUTF8(unit), is(appendQuotedUTF8(expected)));
+        assertThat(appendQuoted(unit), is(appendQuoted(expected)));
+        assertThat(appendUnquotedUTF8(unit, 64), is(appendUnquotedUTF8(expected, 64)));
+        assertThat(appendUnquotedUTF8(unit, 4), is(appendUnquotedUTF8(expected, 4)));
+        assertThat(appendUnquoted(unit), is(appendUnquoted(expected)));
+        assertThat(writeQuotedUTF8(unit), is(writeQuotedUTF8(expected)));
+        assertThat(writeUnquotedUTF8(unit), is(writeUnquotedUTF8(expected)));
+        assertThat(putQuotedUTF8(unit), is(putQuotedUTF8(expected)));
+        assertThat(putUnquotedUTF8(unit, 64), is(putUnquotedUTF8(expected, 64)));
+        assertThat(putUnquotedUTF8(unit, 4), is(putUnquotedUTF8(expected, 4)));
+    }
+
+    private static String appendQuotedUTF8(final SerializableString string) {
+        final byte[] buffer = new byte[64];
+        return new String(buffer, 0, string.appendQuotedUTF8(buffer, 0), UTF_8);
+    }
+
+    private static String appendQuoted(final SerializableString string) {
+        final char[] buffer = new char[64];
+        return new String(buffer, 0, string.appendQuoted(buffer, 0));
+    }
+
+    private static String appendUnquotedUTF8(final SerializableString string, final int size) {
+        final byte[] buffer = new byte[size];
+        final int length = string.appendUnquotedUTF8(buffer, 0);
+        return length < 0 ? null : new String(buffer, 0, length, UTF_8);
+    }
+
+    private static String appendUnquoted(final SerializableString string) {
+        final char[] buffer = new char[64];
+        return new String(buffer, 0, string.appendUnquoted(buffer, 0));
+    }
+
+    private static String writeQuotedUTF8(final SerializableString string) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        string.writeQuotedUTF8(stream);
+        return new String(stream.toByteArray(), UTF_8);
+    }
+
+    private static String writeUnquotedUTF8(final SerializableString string) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        string.writeUnquotedUTF8(stream);
+        return new String(stream.toByteArray(), UTF_8);
+    }
+
+    private static String putQuotedUTF8(final SerializableString string) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        return new String(buffer.array(), 0, string.putQuotedUTF8(buffer), UTF_8);
+    }
+
+    private static String putUnquotedUTF8(final SerializableString string, final int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        final int length = string.putUnquotedUTF8(buffer);
+        return length < 0 ? null : new String(buffer.array(), 0, length, UTF_8);
+    }
+
+}
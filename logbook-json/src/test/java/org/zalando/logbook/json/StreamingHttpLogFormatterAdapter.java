@@ -0,0 +1,35 @@
+package org.zalando.logbook.json;
+
+import lombok.AllArgsConstructor;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.StreamingHttpLogFormatter;
+
+import java.io.IOException;
+
+/**
+ * Exercises the streaming output of a {@link StreamingHttpLogFormatter} through the string-based API.
+ */
+@AllArgsConstructor
+final class StreamingHttpLogFormatterAdapter implements HttpLogFormatter {
+
+    private final StreamingHttpLogFormatter formatter;
+
+    @Override
+    public String format(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
+        final StringBuilder output = new StringBuilder();
+        formatter.format(precorrelation, request, output);
+        return output.toString();
+    }
+
+    @Override
+    public String format(final Correlation correlation, final HttpResponse response) throws IOException {
+        final StringBuilder output = new StringBuilder();
+        formatter.format(correlation, response, output);
+        return output.toString();
+    }
+
+}
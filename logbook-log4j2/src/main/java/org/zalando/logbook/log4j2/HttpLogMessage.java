@@ -0,0 +1,88 @@
+package org.zalando.logbook.log4j2;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.zalando.logbook.StreamingHttpLogWriter.Content;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * A message that is rendered once into a buffer of its own, which is reused across messages of the same thread. Log4j
+ * copies {@link ReusableMessage reusable messages} into its own buffers, e.g. when passing them to an asynchronous
+ * logger, or takes a {@link #memento() memento} otherwise.
+ */
+final class HttpLogMessage implements ReusableMessage {
+
+    private static final Object[] NO_PARAMETERS = {};
+
+    /**
+     * Buffers that grew beyond this size are not kept around for reuse.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private StringBuilder text = new StringBuilder(4096);
+    private boolean reserved;
+
+    boolean isReserved() {
+        return reserved;
+    }
+
+    void render(final Content content) throws IOException {
+        reserved = true;
+        content.writeTo(text);
+    }
+
+    void release() {
+        if (text.capacity() > MAX_RETAINED_CAPACITY) {
+            text = new StringBuilder(4096);
+        } else {
+            text.setLength(0);
+        }
+        reserved = false;
+    }
+
+    @Override
+    public void formatTo(final StringBuilder buffer) {
+        buffer.append(text);
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        return text.toString();
+    }
+
+    @Nullable
+    @Override
+    public String getFormat() {
+        return null;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return NO_PARAMETERS;
+    }
+
+    @Override
+    public Object[] swapParameters(final Object[] emptyReplacement) {
+        return emptyReplacement;
+    }
+
+    @Override
+    public short getParameterCount() {
+        return 0;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+        return null;
+    }
+
+    @Override
+    public Message memento() {
+        return new SimpleMessage(getFormattedMessage());
+    }
+
+}
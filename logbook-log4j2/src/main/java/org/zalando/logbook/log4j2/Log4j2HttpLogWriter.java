@@ -0,0 +1,78 @@
+package org.zalando.logbook.log4j2;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apiguardian.api.API;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.StreamingHttpLogWriter;
+
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Writes to Log4j 2 without allocating a {@link String} per message, if combined with a
+ * {@link org.zalando.logbook.StreamingHttpLogFormatter streaming formatter}, e.g. the {@code FastJsonHttpLogFormatter}.
+ * Messages are formatted into a buffer of the current thread, which is reused for subsequent messages, and passed to
+ * Log4j as a {@link org.apache.logging.log4j.message.ReusableMessage reusable message}. That's compatible with
+ * garbage-free logging as well as with asynchronous loggers, which copy the message before returning.
+ */
+@API(status = EXPERIMENTAL)
+public final class Log4j2HttpLogWriter implements StreamingHttpLogWriter {
+
+    private final ThreadLocal<HttpLogMessage> messages = ThreadLocal.withInitial(HttpLogMessage::new);
+
+    private final Logger log;
+
+    public Log4j2HttpLogWriter() {
+        this(LogManager.getLogger(Logbook.class));
+    }
+
+    /**
+     * @param log the logger to write to, at trace level
+     */
+    public Log4j2HttpLogWriter(final Logger log) {
+        this.log = log;
+    }
+
+    @Override
+    public boolean isActive() {
+        return log.isTraceEnabled();
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final String request) {
+        log.trace(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final String response) {
+        log.trace(response);
+    }
+
+    @Override
+    public void write(final Precorrelation precorrelation, final Content request) throws IOException {
+        write(request);
+    }
+
+    @Override
+    public void write(final Correlation correlation, final Content response) throws IOException {
+        write(response);
+    }
+
+    private void write(final Content content) throws IOException {
+        final HttpLogMessage cached = messages.get();
+        // the cached message is still in use, if logging it caused another message to be logged
+        final HttpLogMessage message = cached.isReserved() ? new HttpLogMessage() : cached;
+
+        try {
+            message.render(content);
+            log.trace(message);
+        } finally {
+            message.release();
+        }
+    }
+
+}
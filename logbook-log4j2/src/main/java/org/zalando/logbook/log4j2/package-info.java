@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package org.zalando.logbook.log4j2;
+
+import javax.annotation.ParametersAreNonnullByDefault;
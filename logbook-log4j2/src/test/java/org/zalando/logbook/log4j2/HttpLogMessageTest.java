@@ -0,0 +1,50 @@
+package org.zalando.logbook.log4j2;
+
+import org.apache.logging.log4j.message.Message;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+final class HttpLogMessageTest {
+
+    private final HttpLogMessage unit = new HttpLogMessage();
+
+    @Test
+    void shouldFormat() throws IOException {
+        unit.render(output -> output.append("Hello, world!"));
+
+        final StringBuilder buffer = new StringBuilder("> ");
+        unit.formatTo(buffer);
+
+        assertThat(buffer.toString(), is("> Hello, world!"));
+        assertThat(unit.getFormattedMessage(), is("Hello, world!"));
+    }
+
+    @Test
+    void shouldHaveNoFormatParametersOrThrowable() {
+        final Object[] replacement = {};
+
+        assertThat(unit.getFormat(), is(nullValue()));
+        assertThat(unit.getParameters(), is(emptyArray()));
+        assertThat(unit.getParameterCount(), is((short) 0));
+        assertThat(unit.swapParameters(replacement), is(sameInstance(replacement)));
+        assertThat(unit.getThrowable(), is(nullValue()));
+    }
+
+    @Test
+    void shouldCreateImmutableMemento() throws IOException {
+        unit.render(output -> output.append("request"));
+        final Message memento = unit.memento();
+        unit.release();
+        unit.render(output -> output.append("response"));
+
+        assertThat(memento.getFormattedMessage(), is("request"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.zalando.logbook.log4j2;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class Log4j2HttpLogWriterTest {
+
+    private final Logger logger = mock(Logger.class);
+    private final Log4j2HttpLogWriter unit = new Log4j2HttpLogWriter(logger);
+
+    private final Precorrelation precorrelation = mock(Precorrelation.class);
+    private final Correlation correlation = mock(Correlation.class);
+
+    // messages are only valid while being logged
+    private final List<Message> messages = new ArrayList<>();
+    private final List<String> formatted = new ArrayList<>();
+
+    Log4j2HttpLogWriterTest() {
+        doAnswer(invocation -> {
+            final Message message = invocation.getArgument(0);
+            final StringBuilder buffer = new StringBuilder();
+            ((HttpLogMessage) message).formatTo(buffer);
+            messages.add(message);
+            formatted.add(buffer.toString());
+            return null;
+        }).when(logger).trace(any(Message.class));
+    }
+
+    @Test
+    void shouldDelegateActivity() {
+        when(logger.isTraceEnabled()).thenReturn(true);
+        assertTrue(unit.isActive());
+
+        when(logger.isTraceEnabled()).thenReturn(false);
+        assertFalse(unit.isActive());
+    }
+
+    @Test
+    void shouldUseLogbookLoggerByDefault() {
+        assertFalse(new Log4j2HttpLogWriter().isActive());
+    }
+
+    @Test
+    void shouldLogStrings() {
+        unit.write(precorrelation, "request");
+        unit.write(correlation, "response");
+
+        verify(logger).trace("request");
+        verify(logger).trace("response");
+    }
+
+    @Test
+    void shouldFormatContentIntoReusedMessage() throws IOException {
+        unit.write(precorrelation, output -> output.append("request"));
+        unit.write(correlation, output -> output.append("response"));
+
+        assertThat(formatted, contains("request", "response"));
+        assertThat(messages.get(0), is(sameInstance(messages.get(1))));
+    }
+
+    @Test
+    void shouldUseFreshMessageWhileCachedOneIsInUse() throws IOException {
+        unit.write(correlation, output -> {
+            output.append("outer");
+            unit.write(precorrelation, inner -> inner.append("inner"));
+        });
+
+        assertThat(formatted, contains("inner", "outer"));
+        assertThat(messages.get(0), is(not(sameInstance(messages.get(1)))));
+    }
+
+    @Test
+    void shouldReleaseMessageIfFormattingFails() throws IOException {
+        assertThrows(IOException.class, () -> unit.write(precorrelation, output -> {
+            output.append("partial");
+            throw new IOException();
+        }));
+
+        verify(logger, never()).trace(any(Message.class));
+
+        unit.write(precorrelation, output -> output.append("request"));
+
+        assertThat(formatted, contains("request"));
+    }
+
+    @Test
+    void shouldNotRetainLargeBuffers() throws IOException {
+        final String large = new String(new char[2 * 1024 * 1024]).replace('\0', 'x');
+
+        unit.write(precorrelation, output -> output.append(large));
+        unit.write(correlation, output -> output.append("small"));
+
+        assertThat(formatted, contains(large, "small"));
+    }
+
+}
@@ -6,25 +6,39 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.zalando.logbook.Correlation;
+import org.zalando.logbook.FormattingSink;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Logbook;
 import org.zalando.logbook.Precorrelation;
-import org.zalando.logbook.Sink;
+import org.zalando.logbook.SnapshotHttpRequest;
+import org.zalando.logbook.SnapshotHttpResponse;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 
+/**
+ * Logs requests and responses as a structured {@code http} field of the log event. If used with a
+ * {@link FastJsonHttpLogFormatter}, fields are written straight into the encoder's own generator once the event is
+ * encoded, rather than being formatted, and possibly parsed again, up front.
+ */
 @AllArgsConstructor
 @API(status = EXPERIMENTAL)
-public final class LogstashLogbackSink implements Sink {
+public final class LogstashLogbackSink implements FormattingSink {
 
     private final static Logger log = LoggerFactory.getLogger(Logbook.class);
 
     private final HttpLogFormatter formatter;
 
+    @Override
+    public HttpLogFormatter getFormatter() {
+        return formatter;
+    }
+
     @Override
     public boolean isActive() {
         return log.isTraceEnabled();
@@ -32,23 +46,51 @@ public final class LogstashLogbackSink implements Sink {
 
     @Override
     public void write(final Precorrelation precorrelation, final HttpRequest request) throws IOException {
-        final Marker marker = new AutodetectPrettyPrintingMarker("http", formatter.format(precorrelation, request));
+        if (formatter instanceof FastJsonHttpLogFormatter) {
+            final HttpRequest snapshot = SnapshotHttpRequest.of(request);
+            final Marker marker = new StructuredMarker("http", (FastJsonHttpLogFormatter) formatter,
+                    precorrelation, snapshot);
+            log.trace(marker, "{}", lazily(() -> requestMessage(snapshot)));
+            return;
+        }
+
+        writeFormatted(precorrelation, request, formatter.format(precorrelation, request));
+    }
+
+    @Override
+    public void writeFormatted(final Precorrelation precorrelation, final HttpRequest request,
+            final String formatted) {
+        final Marker marker = new AutodetectPrettyPrintingMarker("http", formatted);
         log.trace(marker, requestMessage(request));
     }
 
-    private String requestMessage(final HttpRequest request) {
+    private static String requestMessage(final HttpRequest request) {
         return request.getMethod() + " " + request.getRequestUri();
     }
 
     @Override
     public void write(final Correlation correlation, final HttpRequest request,
             final HttpResponse response) throws IOException {
-        final Marker marker = new AutodetectPrettyPrintingMarker("http", formatter.format(correlation, response));
+        if (formatter instanceof FastJsonHttpLogFormatter) {
+            final HttpRequest requestSnapshot = SnapshotHttpRequest.of(request);
+            final HttpResponse responseSnapshot = SnapshotHttpResponse.of(response);
+            final Marker marker = new StructuredMarker("http", (FastJsonHttpLogFormatter) formatter,
+                    correlation, requestSnapshot, responseSnapshot);
+            log.trace(marker, "{}", lazily(() -> responseMessage(requestSnapshot, responseSnapshot)));
+            return;
+        }
+
+        writeFormatted(correlation, request, response, formatter.format(correlation, response));
+    }
 
+    @Override
+    public void writeFormatted(final Correlation correlation, final HttpRequest request,
+            final HttpResponse response, final String formatted) {
+        final Marker marker = new AutodetectPrettyPrintingMarker("http", formatted);
         log.trace(marker, responseMessage(request, response));
     }
 
-    private String responseMessage(final HttpRequest request, final HttpResponse response) {
+    private static String responseMessage(final HttpRequest request, final HttpResponse response) {
         final String requestUri = request.getRequestUri();
         final StringBuilder messageBuilder = new StringBuilder(64 + requestUri.length());
         messageBuilder.append(response.getStatus());
@@ -65,4 +107,16 @@ public final class LogstashLogbackSink implements Sink {
         return messageBuilder.toString();
     }
 
+    /**
+     * Defers building the message until the event is actually formatted, if at all.
+     */
+    private static Object lazily(final Supplier<String> message) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return message.get();
+            }
+        };
+    }
+
 }
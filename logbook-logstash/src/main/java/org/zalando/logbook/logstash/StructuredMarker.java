@@ -0,0 +1,80 @@
+package org.zalando.logbook.logstash;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.SneakyThrows;
+import net.logstash.logback.marker.SingleFieldAppendingMarker;
+import org.apiguardian.api.API;
+import org.slf4j.Marker;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+/**
+ * A {@link Marker marker} that writes a request or response straight into the encoder's own {@link JsonGenerator},
+ * i.e. every message is serialized exactly once, pretty-printed or not, and only if the event is actually encoded.
+ * Messages are expected to be immutable snapshots, since encoding may happen later on a different thread, e.g.
+ * behind an {@code AsyncAppender}.
+ */
+@API(status = INTERNAL)
+final class StructuredMarker extends SingleFieldAppendingMarker {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FastJsonHttpLogFormatter formatter;
+    private final transient Precorrelation precorrelation;
+    private final transient HttpRequest request;
+
+    @Nullable
+    private final transient HttpResponse response;
+
+    StructuredMarker(final String fieldName, final FastJsonHttpLogFormatter formatter,
+            final Precorrelation precorrelation, final HttpRequest request) {
+        this(fieldName, formatter, precorrelation, request, null);
+    }
+
+    StructuredMarker(final String fieldName, final FastJsonHttpLogFormatter formatter,
+            final Correlation correlation, final HttpRequest request, final HttpResponse response) {
+        this(fieldName, formatter, (Precorrelation) correlation, request, response);
+    }
+
+    private StructuredMarker(final String fieldName, final FastJsonHttpLogFormatter formatter,
+            final Precorrelation precorrelation, final HttpRequest request, @Nullable final HttpResponse response) {
+        super(MARKER_NAME_PREFIX + "APPEND_HTTP", fieldName);
+        this.formatter = formatter;
+        this.precorrelation = precorrelation;
+        this.request = request;
+        this.response = response;
+    }
+
+    @Override
+    protected void writeFieldValue(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+
+        if (response == null) {
+            formatter.prepare(precorrelation, request, generator);
+        } else {
+            formatter.prepare((Correlation) precorrelation, response, generator);
+        }
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * Only used to render the marker as text, e.g. by a pattern layout.
+     */
+    @Override
+    @SneakyThrows
+    public Object getFieldValue() {
+        return response == null ?
+                formatter.format(precorrelation, request) :
+                formatter.format((Correlation) precorrelation, response);
+    }
+
+}
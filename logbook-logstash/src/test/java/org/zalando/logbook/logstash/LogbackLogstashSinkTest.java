@@ -5,25 +5,39 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 import static org.zalando.logbook.Origin.REMOTE;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.stream.Stream;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.LoggerFactory;
 import org.zalando.logbook.Correlation;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
 import org.zalando.logbook.MockHeaders;
 import org.zalando.logbook.MockHttpRequest;
 import org.zalando.logbook.MockHttpResponse;
 import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
 import org.zalando.logbook.json.JsonHttpLogFormatter;
 
 /**
@@ -44,7 +58,19 @@ class LogbackLogstashSinkTest {
     }
 
     @Test
-    void shouldLogRequestAndResponse() throws IOException {
+    void shouldExposeFormatter() {
+        final HttpLogFormatter formatter = new JsonHttpLogFormatter();
+
+        assertThat(new LogstashLogbackSink(formatter).getFormatter(), is(sameInstance(formatter)));
+    }
+
+    static Stream<HttpLogFormatter> formatters() {
+        return Stream.of(new JsonHttpLogFormatter(), new FastJsonHttpLogFormatter());
+    }
+
+    @ParameterizedTest
+    @MethodSource("formatters")
+    void shouldLogRequestAndResponse(final HttpLogFormatter formatter) throws IOException {
         final String correlationId = "3ce91230-677b-11e5-87b7-10ddb1ee7671";
         final int duration = 125;
         
@@ -55,7 +81,6 @@ class LogbackLogstashSinkTest {
         when(correlation.getId()).thenReturn(correlationId);
         when(correlation.getDuration()).thenReturn(Duration.ofMillis(duration));
 
-        final HttpLogFormatter formatter = new JsonHttpLogFormatter();
         final LogstashLogbackSink sink = new LogstashLogbackSink(formatter);
 
         assertTrue(sink.isActive());
@@ -73,9 +98,9 @@ class LogbackLogstashSinkTest {
 
         sink.write(precorrelation, request);
 
-        // check that actually pretty-printed - 8x space as deepest level
+        // check that actually pretty-printed - 6x space for headers, JSON bodies may be kept as-is
         final String prettyPrintedRequestStatement = PrettyPrintingStaticAppender.getLastStatement();
-        assertThat(prettyPrintedRequestStatement, StringContains.containsString("\n        "));
+        assertThat(prettyPrintedRequestStatement, StringContains.containsString("\n      \""));
 
         for(final String last : new String[] {StaticAppender.getLastStatement(), prettyPrintedRequestStatement} ) {
             with(last)
@@ -103,9 +128,9 @@ class LogbackLogstashSinkTest {
 
         sink.write(correlation, request, response);
 
-        // check that actually pretty-printed - 8x space as deepest level
+        // check that actually pretty-printed - 6x space for headers, JSON bodies may be kept as-is
         final String prettyPrintedResponseStatement = PrettyPrintingStaticAppender.getLastStatement();
-        assertThat(prettyPrintedResponseStatement, StringContains.containsString("\n        "));
+        assertThat(prettyPrintedResponseStatement, StringContains.containsString("\n      \""));
 
         for(final String last : new String[] {StaticAppender.getLastStatement(), prettyPrintedResponseStatement} ) {
             with(last)
@@ -139,8 +164,9 @@ class LogbackLogstashSinkTest {
     }
 
 
-    @Test
-    void shouldLogCorrectJsonForEmptyBody() throws IOException {
+    @ParameterizedTest
+    @MethodSource("formatters")
+    void shouldLogCorrectJsonForEmptyBody(final HttpLogFormatter formatter) throws IOException {
         final String correlationId = "3ce91230-677b-11e5-87b7-10ddb1ee7671";
         final int duration = 125;
         
@@ -151,7 +177,6 @@ class LogbackLogstashSinkTest {
         when(correlation.getId()).thenReturn(correlationId);
         when(correlation.getDuration()).thenReturn(Duration.ofMillis(duration));
 
-        final HttpLogFormatter formatter = new JsonHttpLogFormatter();
         final LogstashLogbackSink sink = new LogstashLogbackSink(formatter);
 
         assertTrue(sink.isActive());
@@ -198,4 +223,53 @@ class LogbackLogstashSinkTest {
         }
         
     }
+
+    @Test
+    void shouldEncodeSnapshotsLater() throws IOException {
+        final Logger logger = (Logger) LoggerFactory.getLogger(Logbook.class);
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        try {
+            final Correlation correlation = mock(Correlation.class);
+            when(correlation.getId()).thenReturn("3ce91230-677b-11e5-87b7-10ddb1ee7671");
+            when(correlation.getDuration()).thenReturn(Duration.ofMillis(125));
+
+            final HttpRequest request = mock(HttpRequest.class);
+            when(request.getMethod()).thenReturn("GET");
+            when(request.getScheme()).thenReturn("http");
+            when(request.getHost()).thenReturn("localhost");
+            when(request.getPath()).thenReturn("/test");
+            when(request.getQuery()).thenReturn("");
+
+            final HttpResponse response = MockHttpResponse.create()
+                    .withHeaders(MockHeaders.of("Date", "Tue, 15 Nov 1994 08:12:31 GMT"))
+                    .withContentType("application/json")
+                    .withBodyAsString("{\"person\":{\"name\":\"Magnus\"}}");
+
+            new LogstashLogbackSink(new FastJsonHttpLogFormatter()).write(correlation, request, response);
+
+            // e.g. a recycled container request, or an async appender encoding on a different thread
+            reset(request);
+
+            final LogstashEncoder encoder = new LogstashEncoder();
+            encoder.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
+            encoder.start();
+
+            final ILoggingEvent event = appender.list.get(0);
+            final String json = new String(encoder.encode(event), UTF_8);
+
+            with(json)
+                .assertThat("$.message", is("200 OK GET http://localhost/test"))
+                .assertThat("$.http.type", is("response"))
+                .assertThat("$.http.status", is(200))
+                .assertThat("$.http.duration", is(125))
+                .assertThat("$.http.headers['Date']", is(singletonList("Tue, 15 Nov 1994 08:12:31 GMT")))
+                .assertThat("$.http.body.person.name", is("Magnus"));
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
 }
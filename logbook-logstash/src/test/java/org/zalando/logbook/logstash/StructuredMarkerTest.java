@@ -0,0 +1,73 @@
+package org.zalando.logbook.logstash;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.MockHttpRequest;
+import org.zalando.logbook.MockHttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.json.FastJsonHttpLogFormatter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.jayway.jsonassert.JsonAssert.with;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class StructuredMarkerTest {
+
+    private final FastJsonHttpLogFormatter formatter = new FastJsonHttpLogFormatter();
+
+    @Test
+    void shouldRenderRequestAsText() {
+        final Precorrelation precorrelation = mock(Precorrelation.class);
+        when(precorrelation.getId()).thenReturn("1");
+
+        final StructuredMarker unit = new StructuredMarker("http", formatter, precorrelation,
+                MockHttpRequest.create());
+
+        with(unit.getFieldValue().toString())
+                .assertThat("$.type", is("request"))
+                .assertThat("$.correlation", is("1"));
+    }
+
+    @Test
+    void shouldRenderResponseAsText() {
+        final Correlation correlation = mock(Correlation.class);
+        when(correlation.getId()).thenReturn("1");
+        when(correlation.getDuration()).thenReturn(Duration.ZERO);
+
+        final StructuredMarker unit = new StructuredMarker("http", formatter, correlation,
+                MockHttpRequest.create(), MockHttpResponse.create());
+
+        with(unit.getFieldValue().toString())
+                .assertThat("$.type", is("response"))
+                .assertThat("$.status", is(200));
+    }
+
+    @Test
+    void shouldPropagateFailuresWhileRenderingAsText() throws IOException {
+        final HttpRequest request = new ForwardingHttpRequest() {
+
+            @Override
+            public HttpRequest delegate() {
+                return MockHttpRequest.create();
+            }
+
+            @Override
+            public String getBodyAsString() throws IOException {
+                throw new IOException();
+            }
+
+        };
+
+        final StructuredMarker unit = new StructuredMarker("http", formatter, mock(Precorrelation.class), request);
+
+        assertThrows(IOException.class, unit::getFieldValue);
+    }
+
+}
@@ -1,8 +1,16 @@
 package org.zalando.logbook.okhttp;
 
+import okhttp3.MediaType;
 import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyCapture;
 
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -34,6 +42,50 @@ final class LocalRequestTest {
         assertThat(unit.getPort(), is(empty()));
     }
 
+    @Test
+    void shouldCaptureHeadAndTailOnlyButKeepFullBody() throws IOException {
+        final Request request = new Request.Builder()
+                .url("http://localhost/")
+                .post(RequestBody.create("Hello, dear world!", MediaType.get("text/plain")))
+                .build();
+
+        final LocalRequest unit = new LocalRequest(request, BodyCapture.headAndTail(5, 6));
+        unit.withBody();
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello ... [7 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+
+        final Buffer buffer = new Buffer();
+        requireNonNull(unit.toRequest().body()).writeTo(buffer);
+        assertThat(buffer.readUtf8(), is("Hello, dear world!"));
+    }
+
+    @Test
+    void shouldUseBufferedLengthBeyondCapturedBody() throws IOException {
+        final LocalRequest unit = new LocalRequest(post(), BodyCapture.headAndTail(5, 6));
+
+        assertThat(unit.getBodyLength(), is(-1L));
+        assertThat(unit.withBody().withoutBody().getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseDeclaredLengthWithoutBody() throws IOException {
+        assertThat(unit(post()).withoutBody().getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseEmptyLengthWithoutEntity() throws IOException {
+        assertThat(unit(get("http://localhost/")).withBody().getBodyLength(), is(0L));
+    }
+
+    private Request post() {
+        return new Request.Builder()
+                .url("http://localhost/")
+                .post(RequestBody.create("Hello, dear world!", MediaType.get("text/plain")))
+                .build();
+    }
+
     private Request get(final String uri) {
         return new Request.Builder()
                 .url(uri)
@@ -0,0 +1,72 @@
+package org.zalando.logbook.okhttp;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.common.BodyCapture;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+final class RemoteResponseTest {
+
+    @Test
+    void shouldCaptureHeadAndTailOnlyButKeepFullBody() throws IOException {
+        final Response response = new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create("Hello, dear world!", MediaType.get("text/plain")))
+                .build();
+
+        final RemoteResponse unit = new RemoteResponse(response, BodyCapture.headAndTail(5, 6));
+        unit.withBody();
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello ... [7 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+        assertThat(requireNonNull(unit.toResponse().body()).string(), is("Hello, dear world!"));
+    }
+
+    @Test
+    void shouldUseBufferedLengthBeyondCapturedBody() throws IOException {
+        final RemoteResponse unit = new RemoteResponse(response(ResponseBody.create("Hello, dear world!", MediaType.get("text/plain"))), BodyCapture.headAndTail(5, 6));
+
+        assertThat(unit.getBodyLength(), is(-1L));
+        assertThat(unit.withBody().withoutBody().getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseDeclaredLengthWithoutBody() throws IOException {
+        final RemoteResponse unit = new RemoteResponse(response(ResponseBody.create("Hello, dear world!", MediaType.get("text/plain"))), BodyCapture.full());
+
+        assertThat(unit.withoutBody().getBodyLength(), is(18L));
+    }
+
+    @Test
+    void shouldUseEmptyLengthWithoutEntity() throws IOException {
+        final RemoteResponse unit = new RemoteResponse(response(null), BodyCapture.full());
+
+        assertThat(unit.withoutBody().getBodyLength(), is(0L));
+    }
+
+    private static Response response(@Nullable final ResponseBody body) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(body)
+                .build();
+    }
+
+}
@@ -6,6 +6,7 @@ import com.squareup.okhttp.RequestBody;
 import okio.Buffer;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
@@ -20,11 +21,19 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 final class LocalRequest implements HttpRequest {
 
+    private final BodyCapture capture;
     private Request request;
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
 
     LocalRequest(final Request request) {
+        this(request, BodyCapture.fromProperties());
+    }
+
+    LocalRequest(final Request request, final BodyCapture capture) {
         this.request = request;
+        this.capture = capture;
     }
 
     @Override
@@ -103,10 +112,13 @@ final class LocalRequest implements HttpRequest {
             if (entity == null) {
                 return withoutBody();
             } else {
-                this.body = bytes(entity);
+                final byte[] buffered = bytes(entity);
+                this.body = capture.capture(buffered);
+                this.truncated = capture.truncates(buffered.length);
+                this.length = buffered.length;
 
                 this.request = request.newBuilder()
-                        .method(request.method(), create(entity.contentType(), body))
+                        .method(request.method(), create(entity.contentType(), buffered))
                         .build();
             }
         }
@@ -117,6 +129,7 @@ final class LocalRequest implements HttpRequest {
     @Override
     public HttpRequest withoutBody() {
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
@@ -135,4 +148,22 @@ final class LocalRequest implements HttpRequest {
         return body == null ? new byte[0] : body;
     }
 
+    /**
+     * Unless buffered, the request is logged before it's being sent, hence the length can't be counted. The declared
+     * content length is used instead.
+     */
+    @Override
+    public long getBodyLength() throws IOException {
+        if (length == -1 && body != null) {
+            @Nullable final RequestBody entity = request.body();
+            return entity == null ? 0 : entity.contentLength();
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
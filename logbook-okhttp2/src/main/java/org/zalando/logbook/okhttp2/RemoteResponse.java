@@ -5,7 +5,9 @@ import com.squareup.okhttp.Response;
 import com.squareup.okhttp.ResponseBody;
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.List;
@@ -19,11 +21,19 @@ import static java.util.Objects.requireNonNull;
 
 final class RemoteResponse implements HttpResponse {
 
+    private final BodyCapture capture;
     private Response response;
     private byte[] body;
+    private long length = -1;
+    private boolean truncated;
 
     RemoteResponse(final Response response) {
+        this(response, BodyCapture.fromProperties());
+    }
+
+    RemoteResponse(final Response response, final BodyCapture capture) {
         this.response = response;
+        this.capture = capture;
     }
 
     @Override
@@ -70,10 +80,13 @@ final class RemoteResponse implements HttpResponse {
             if (entity.contentLength() == 0L) {
                 return withoutBody();
             } else {
-                this.body = entity.bytes();
+                final byte[] buffered = entity.bytes();
+                this.body = capture.capture(buffered);
+                this.truncated = capture.truncates(buffered.length);
+                this.length = buffered.length;
 
                 this.response = response.newBuilder()
-                        .body(create(entity.contentType(), body))
+                        .body(create(entity.contentType(), buffered))
                         .build();
 
             }
@@ -85,6 +98,7 @@ final class RemoteResponse implements HttpResponse {
     @Override
     public RemoteResponse withoutBody() {
         this.body = new byte[0];
+        this.truncated = false;
         return this;
     }
 
@@ -97,4 +111,22 @@ final class RemoteResponse implements HttpResponse {
         return body == null ? new byte[0] : body;
     }
 
+    /**
+     * Unless buffered, the response is logged before the application consumes it, hence the length can't be
+     * counted. The declared content length is used instead.
+     */
+    @Override
+    public long getBodyLength() throws IOException {
+        if (length == -1 && body != null) {
+            @Nullable final ResponseBody entity = response.body();
+            return entity == null ? 0 : entity.contentLength();
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return truncated;
+    }
+
 }
@@ -0,0 +1,70 @@
+package org.zalando.logbook.servlet;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+
+final class CountingServletInputStream extends ServletInputStream {
+
+    private final ServletInputStream stream;
+    private long count;
+
+    CountingServletInputStream(final ServletInputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = stream.read();
+        if (b != -1) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int read = stream.read(b, off, len);
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long skipped = stream.skip(n);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return stream.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return stream.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+        return stream.isReady();
+    }
+
+    @Override
+    public void setReadListener(final ReadListener readListener) {
+        stream.setReadListener(readListener);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+}
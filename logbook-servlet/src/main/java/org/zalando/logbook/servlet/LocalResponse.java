@@ -1,19 +1,22 @@
 package org.zalando.logbook.servlet;
 
-import lombok.AllArgsConstructor;
+import org.zalando.logbook.BodyReplacer;
 import org.zalando.logbook.Headers;
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyBuffer;
+import org.zalando.logbook.common.BodyCapture;
 
+import javax.annotation.Nullable;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,14 +29,29 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 final class LocalResponse extends HttpServletResponseWrapper implements HttpResponse {
 
     private final String protocolVersion;
+    private final BodyCapture capture;
+    private final BodyReplacer<HttpResponse> replacer;
 
     private Tee body;
     private Tee buffer;
     private boolean used; // point of no return, once we exposed our stream, we need to buffer
+    private boolean countOnly;
 
     LocalResponse(final HttpServletResponse response, final String protocolVersion) {
+        this(response, protocolVersion, $ -> null);
+    }
+
+    LocalResponse(final HttpServletResponse response, final String protocolVersion,
+            final BodyReplacer<HttpResponse> replacer) {
+        this(response, protocolVersion, BodyCapture.fromProperties(), replacer);
+    }
+
+    LocalResponse(final HttpServletResponse response, final String protocolVersion, final BodyCapture capture,
+            final BodyReplacer<HttpResponse> replacer) {
         super(response);
         this.protocolVersion = protocolVersion;
+        this.capture = capture;
+        this.replacer = replacer;
     }
 
     @Override
@@ -62,6 +80,41 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
         return Optional.ofNullable(getCharacterEncoding()).map(Charset::forName).orElse(UTF_8);
     }
 
+    @Override
+    public void setContentType(final String type) {
+        super.setContentType(type);
+        discardIfReplaced();
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        super.setHeader(name, value);
+        discardIfReplaced(name);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        super.addHeader(name, value);
+        discardIfReplaced(name);
+    }
+
+    private void discardIfReplaced(final String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            discardIfReplaced();
+        }
+    }
+
+    /**
+     * The content type is usually not known before the response is being written, i.e. way after we decided to
+     * buffer it. Bodies that will be replaced anyway are no longer recorded as soon as their content type is known,
+     * be it before or after buffering started.
+     */
+    private void discardIfReplaced() {
+        if (buffer != null && replacer.replace(this) != null) {
+            buffer.discard();
+        }
+    }
+
     @Override
     public HttpResponse withBody() throws IOException {
         if (body == null) {
@@ -73,21 +126,34 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
 
     private void bufferIfNecessary() throws IOException {
         if (buffer == null) {
-            this.buffer = new Tee(super.getOutputStream());
+            this.buffer = new Tee(super.getOutputStream(), capture.newBuffer(), capture == BodyCapture.full());
+            discardIfReplaced();
         }
     }
 
+    /**
+     * Without a body, the response is still being teed once the stream is requested, but bytes are only counted
+     * rather than recorded.
+     */
     @Override
     public HttpResponse withoutBody() {
         this.body = null;
         if (!used) {
             this.buffer = null;
+            this.countOnly = true;
         }
         return this;
     }
 
+    private void countIfNecessary() throws IOException {
+        if (buffer == null && countOnly) {
+            this.buffer = new Tee(super.getOutputStream(), BodyCapture.none().newBuffer(), false);
+        }
+    }
+
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
+        countIfNecessary();
         if (buffer == null) {
             return super.getOutputStream();
         } else {
@@ -98,6 +164,7 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
 
     @Override
     public PrintWriter getWriter() throws IOException {
+        countIfNecessary();
         if (buffer == null) {
             return super.getWriter();
         } else {
@@ -106,22 +173,57 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
         }
     }
 
+    @Override
+    public void flushBuffer() throws IOException {
+        if (buffer != null) {
+            buffer.flush();
+        }
+        super.flushBuffer();
+    }
+
     @Override
     public byte[] getBody() {
-        return body == null ? new byte[0] : body.getBytes();
+        return body == null ? new byte[0] : body.getBytes(getCharset());
+    }
+
+    @Override
+    public long getBodyLength() {
+        if (buffer == null) {
+            return countOnly ? 0 : -1;
+        }
+        return buffer.getSize();
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return body == null ? "" : body.getString(getCharset());
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return body != null && body.isTruncated();
     }
 
     private static class Tee {
 
-        private final ByteArrayOutputStream branch;
+        private final ServletOutputStream original;
         private final TeeServletOutputStream output;
+        private final boolean recordChars;
+
+        @Nullable
+        private BodyBuffer branch;
+
+        @Nullable
+        private TeeWriter chars;
 
         private PrintWriter writer;
         private byte[] bytes;
 
-        private Tee(final ServletOutputStream original) {
-            this.branch = new ByteArrayOutputStream();
+        private Tee(final ServletOutputStream original, final BodyBuffer branch, final boolean recordChars) {
+            this.original = original;
+            this.branch = branch;
             this.output = new TeeServletOutputStream(original, branch);
+            this.recordChars = recordChars;
         }
 
         ServletOutputStream getOutputStream() {
@@ -130,35 +232,85 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
 
         PrintWriter getWriter(final Supplier<Charset> charset) {
             if (writer == null) {
-                writer = new PrintWriter(new OutputStreamWriter(output, charset.get()));
+                if (recordChars) {
+                    // characters are recorded as they are, rather than being decoded again from the encoded bytes,
+                    // which are only counted
+                    this.chars = new TeeWriter(new OutputStreamWriter(output, charset.get()));
+                    this.writer = new PrintWriter(chars);
+                    output.discard();
+                } else {
+                    this.writer = new PrintWriter(new OutputStreamWriter(output, charset.get()));
+                }
             }
             return writer;
         }
 
-        byte[] getBytes() {
+        void flush() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        long getSize() {
+            return output.getSize();
+        }
+
+        void discard() {
+            output.discard();
+            if (chars != null) {
+                chars.discard();
+            }
+            this.branch = null;
+            this.bytes = null;
+        }
+
+        byte[] getBytes(final Charset charset) {
             if (bytes == null) {
-                bytes = branch.toByteArray();
+                if (chars == null) {
+                    bytes = branch == null ? new byte[0] : branch.toByteArray();
+                } else {
+                    bytes = chars.toString().getBytes(charset);
+                }
             }
             return bytes;
         }
+
+        String getString(final Charset charset) {
+            return chars == null ? new String(getBytes(charset), charset) : chars.toString();
+        }
+
+        boolean isTruncated() {
+            return branch != null && branch.isTruncated();
+        }
     }
 
-    @AllArgsConstructor
     private static class TeeServletOutputStream extends ServletOutputStream {
 
         private final ServletOutputStream original;
-        private final OutputStream branch;
+        private OutputStream branch;
+        private long size;
+
+        private TeeServletOutputStream(final ServletOutputStream original, final OutputStream branch) {
+            this.original = original;
+            this.branch = branch;
+        }
 
         @Override
         public void write(final int b) throws IOException {
             original.write(b);
             branch.write(b);
+            size++;
         }
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
             original.write(b, off, len);
             branch.write(b, off, len);
+            size += len;
+        }
+
+        long getSize() {
+            return size;
         }
 
         @Override
@@ -173,6 +325,10 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
             branch.close();
         }
 
+        void discard() {
+            this.branch = NullOutputStream.NULL;
+        }
+
         @Override
         public boolean isReady() {
             return original.isReady();
@@ -184,4 +340,61 @@ final class LocalResponse extends HttpServletResponseWrapper implements HttpResp
         }
 
     }
+
+    private static final class TeeWriter extends Writer {
+
+        private final Writer original;
+
+        @Nullable
+        private StringBuilder branch = new StringBuilder();
+
+        private TeeWriter(final Writer original) {
+            this.original = original;
+        }
+
+        @Override
+        public void write(final int c) throws IOException {
+            original.write(c);
+            if (branch != null) {
+                branch.append((char) c);
+            }
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            original.write(cbuf, off, len);
+            if (branch != null) {
+                branch.append(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException {
+            original.write(str, off, len);
+            if (branch != null) {
+                branch.append(str, off, off + len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            original.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            original.close();
+        }
+
+        void discard() {
+            this.branch = null;
+        }
+
+        @Override
+        public String toString() {
+            return branch == null ? "" : branch.toString();
+        }
+
+    }
+
 }
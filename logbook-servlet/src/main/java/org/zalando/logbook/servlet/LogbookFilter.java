@@ -1,7 +1,10 @@
 package org.zalando.logbook.servlet;
 
 import org.apiguardian.api.API;
+import org.zalando.logbook.BodyReplacer;
+import org.zalando.logbook.BodyReplacers;
 import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Logbook;
 import org.zalando.logbook.Logbook.RequestWritingStage;
 import org.zalando.logbook.Logbook.ResponseProcessingStage;
@@ -16,6 +19,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
 @API(status = STABLE)
@@ -25,9 +29,10 @@ public final class LogbookFilter implements HttpFilter {
 
     private final Logbook logbook;
     private final Strategy strategy;
+    private final BodyReplacer<HttpResponse> replacer;
 
     public LogbookFilter() {
-        this(Logbook.create());
+        this(Logbook.create(), null, BodyReplacers.defaultValue());
     }
 
     public LogbookFilter(final Logbook logbook) {
@@ -35,8 +40,21 @@ public final class LogbookFilter implements HttpFilter {
     }
 
     public LogbookFilter(final Logbook logbook, @Nullable final Strategy strategy) {
+        this(logbook, strategy, $ -> null);
+    }
+
+    /**
+     * @param logbook the logbook to use
+     * @param strategy an optional strategy
+     * @param replacer the response body replacer that is configured in the given logbook, if any. Responses with a
+     *                 replaced body will not be buffered, once their content type is known.
+     */
+    @API(status = EXPERIMENTAL)
+    public LogbookFilter(final Logbook logbook, @Nullable final Strategy strategy,
+            final BodyReplacer<HttpResponse> replacer) {
         this.logbook = logbook;
         this.strategy = strategy;
+        this.replacer = replacer;
     }
 
     @Override
@@ -44,7 +62,7 @@ public final class LogbookFilter implements HttpFilter {
             final FilterChain chain) throws ServletException, IOException {
 
         final RemoteRequest request = new RemoteRequest(httpRequest);
-        final LocalResponse response = new LocalResponse(httpResponse, request.getProtocolVersion());
+        final LocalResponse response = new LocalResponse(httpResponse, request.getProtocolVersion(), replacer);
 
         final ResponseWritingStage stage = logRequest(request, request).process(response);
 
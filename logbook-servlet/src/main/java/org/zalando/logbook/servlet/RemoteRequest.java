@@ -4,8 +4,10 @@ import lombok.SneakyThrows;
 import org.zalando.logbook.Headers;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.Origin;
+import org.zalando.logbook.common.BodyCapture;
 
 import javax.activation.MimeType;
+import javax.annotation.Nullable;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
@@ -28,12 +30,22 @@ import static java.util.stream.Collectors.joining;
 final class RemoteRequest extends HttpServletRequestWrapper implements HttpRequest {
 
     private final FormRequestMode formRequestMode = FormRequestMode.fromProperties();
+    private final BodyCapture capture;
 
+    private boolean withBody;
     private byte[] body;
     private byte[] buffered;
 
+    @Nullable
+    private CountingServletInputStream counting;
+
     RemoteRequest(final HttpServletRequest request) {
+        this(request, BodyCapture.fromProperties());
+    }
+
+    RemoteRequest(final HttpServletRequest request, final BodyCapture capture) {
         super(request);
+        this.capture = capture;
     }
 
     @Override
@@ -91,19 +103,22 @@ final class RemoteRequest extends HttpServletRequestWrapper implements HttpReque
         return Optional.ofNullable(getCharacterEncoding()).map(Charset::forName).orElse(UTF_8);
     }
 
+    /**
+     * Buffering is deferred until either the body or the input stream is requested. Request filters, e.g.
+     * {@link org.zalando.logbook.RequestFilters#replaceBody(org.zalando.logbook.BodyReplacer) body replacement},
+     * will call {@link #withoutBody()} before that happens, in which case the body is never read into memory.
+     */
     @Override
-    public HttpRequest withBody() throws IOException {
-        if (body == null) {
-            bufferIfNecessary();
-            this.body = buffered;
-        }
-
+    public HttpRequest withBody() {
+        this.withBody = true;
         return this;
     }
 
     private void bufferIfNecessary() throws IOException {
         if (buffered == null) {
-            if (isFormRequest()) {
+            final boolean form = isFormRequest();
+
+            if (form) {
                 switch (formRequestMode) {
                     case PARAMETER:
                         this.buffered = reconstructBodyFromParameters();
@@ -116,12 +131,16 @@ final class RemoteRequest extends HttpServletRequestWrapper implements HttpReque
                 }
             }
 
-            this.buffered = ByteStreams.toByteArray(super.getInputStream());
+            final byte[] bytes = ByteStreams.toByteArray(super.getInputStream());
+
+            // the container drains the stream of form requests as soon as the application asks for a parameter
+            this.buffered = form && bytes.length == 0 ? reconstructBodyFromParameters() : bytes;
         }
     }
 
     @Override
     public HttpRequest withoutBody() {
+        this.withBody = false;
         this.body = null;
         return this;
     }
@@ -157,9 +176,18 @@ final class RemoteRequest extends HttpServletRequestWrapper implements HttpReque
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return buffered == null ?
-                super.getInputStream() :
-                new ServletInputStreamAdapter(new ByteArrayInputStream(buffered));
+        if (withBody) {
+            bufferIfNecessary();
+        }
+
+        if (buffered == null) {
+            if (counting == null) {
+                this.counting = new CountingServletInputStream(super.getInputStream());
+            }
+            return counting;
+        }
+
+        return new ServletInputStreamAdapter(new ByteArrayInputStream(buffered));
     }
 
     @Override
@@ -168,7 +196,37 @@ final class RemoteRequest extends HttpServletRequestWrapper implements HttpReque
     }
 
     @Override
-    public byte[] getBody() {
-        return body == null ? new byte[0] : body;
+    public byte[] getBody() throws IOException {
+        if (!withBody) {
+            return new byte[0];
+        }
+
+        if (body == null) {
+            bufferIfNecessary();
+            this.body = capture.capture(buffered);
+        }
+
+        return body;
     }
+
+    /**
+     * Unbuffered bodies are counted while being read by the application. If the application never touched the
+     * input stream, e.g. because the container parsed form parameters itself, the declared content length is used.
+     */
+    @Override
+    public long getBodyLength() {
+        if (buffered != null) {
+            return buffered.length;
+        } else if (counting != null) {
+            return counting.getCount();
+        } else {
+            return getContentLengthLong();
+        }
+    }
+
+    @Override
+    public boolean isBodyTruncated() {
+        return body != null && capture.truncates(buffered.length);
+    }
+
 }
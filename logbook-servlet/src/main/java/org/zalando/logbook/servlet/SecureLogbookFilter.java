@@ -1,6 +1,8 @@
 package org.zalando.logbook.servlet;
 
 import org.apiguardian.api.API;
+import org.zalando.logbook.BodyReplacer;
+import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Logbook;
 import org.zalando.logbook.SecurityStrategy;
 
@@ -10,6 +12,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
 @API(status = STABLE)
@@ -22,7 +25,17 @@ public final class SecureLogbookFilter implements HttpFilter {
     }
 
     public SecureLogbookFilter(final Logbook logbook) {
-        this.filter = new LogbookFilter(logbook, new SecurityStrategy());
+        this(logbook, $ -> null);
+    }
+
+    /**
+     * @param logbook the logbook to use
+     * @param replacer the response body replacer that is configured in the given logbook, if any
+     * @see LogbookFilter#LogbookFilter(Logbook, org.zalando.logbook.Strategy, BodyReplacer)
+     */
+    @API(status = EXPERIMENTAL)
+    public SecureLogbookFilter(final Logbook logbook, final BodyReplacer<HttpResponse> replacer) {
+        this.filter = new LogbookFilter(logbook, new SecurityStrategy(), replacer);
     }
 
     @Override
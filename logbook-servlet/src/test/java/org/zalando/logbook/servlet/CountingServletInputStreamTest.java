@@ -0,0 +1,53 @@
+package org.zalando.logbook.servlet;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CountingServletInputStreamTest {
+
+    private final ServletInputStream original = mock(ServletInputStream.class);
+
+    private final CountingServletInputStream unit = new CountingServletInputStream(
+            new ServletInputStreamAdapter(new ByteArrayInputStream("Hello, world".getBytes(UTF_8))));
+
+    @Test
+    void shouldCountReadAndSkippedBytes() throws IOException {
+        assertThat(unit.read(), is((int) 'H'));
+        assertThat(unit.skip(4), is(4L));
+        assertThat(unit.read(new byte[16]), is(7));
+        assertThat(unit.read(), is(-1));
+        assertThat(unit.read(new byte[16], 0, 16), is(-1));
+
+        assertThat(unit.getCount(), is(12L));
+        assertTrue(unit.isFinished());
+    }
+
+    @Test
+    void shouldDelegate() throws IOException {
+        final CountingServletInputStream unit = new CountingServletInputStream(original);
+        final ReadListener listener = mock(ReadListener.class);
+        when(original.isReady()).thenReturn(true);
+        when(original.available()).thenReturn(7);
+
+        assertTrue(unit.isReady());
+        assertThat(unit.available(), is(7));
+        unit.setReadListener(listener);
+        unit.close();
+
+        verify(original).setReadListener(listener);
+        verify(original).close();
+    }
+
+}
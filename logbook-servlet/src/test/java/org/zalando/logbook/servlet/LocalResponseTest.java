@@ -2,13 +2,19 @@ package org.zalando.logbook.servlet;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.BodyReplacers;
+import org.zalando.logbook.common.BodyCapture;
+import org.zalando.logbook.common.BodyFingerprint;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
@@ -16,7 +22,6 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -70,6 +75,177 @@ class LocalResponseTest {
         assertNotSame(body1, body2);
     }
 
+    @Test
+    void shouldCaptureHeadAndTailOnly() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.headAndTail(5, 6), $ -> null);
+        unit.withBody();
+        unit.getOutputStream().write("Hello, dear ".getBytes(UTF_8));
+        unit.getOutputStream().write("world!".getBytes(UTF_8));
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello ... [7 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+    }
+
+    @Test
+    void shouldCaptureFingerprintOnly() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1",
+                BodyCapture.fingerprint(BodyFingerprint.XXH64), $ -> null);
+        unit.withBody();
+        unit.getOutputStream().write("ab".getBytes(UTF_8));
+        unit.getOutputStream().write('c');
+
+        assertThat(unit.getBodyAsString(), is("{\"length\":3,\"xxh64\":\"44bc2cf5ad770999\"}"));
+        assertThat(unit.getBodyLength(), is(3L));
+    }
+
+    @Test
+    void shouldDiscardBodyOnceContentTypeIsReplaced() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+        unit.withBody();
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello"));
+
+        when(mock.getContentType()).thenReturn("image/png");
+        unit.setContentType("image/png");
+        unit.getOutputStream().write("World".getBytes(UTF_8));
+
+        assertThat(unit.getBody().length, is(0));
+        assertThat(unit.isBodyTruncated(), is(false));
+        verify(mock).setContentType("image/png");
+    }
+
+    @Test
+    void shouldDiscardBodyOnceContentTypeHeaderIsReplaced() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+        unit.withBody();
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+
+        unit.setHeader("X-Content-Type", "image/png");
+        unit.addHeader("X-Content-Type", "image/png");
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello"));
+
+        when(mock.getContentType()).thenReturn("image/png");
+        unit.setHeader("Content-Type", "image/png");
+
+        assertThat(unit.getBody().length, is(0));
+    }
+
+    @Test
+    void shouldDiscardBodyOnceAddedContentTypeHeaderIsReplaced() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+        unit.withBody();
+        unit.getWriter().write("Hello");
+
+        when(mock.getContentType()).thenReturn("image/png");
+        unit.addHeader("content-type", "image/png");
+        unit.getWriter().write("World");
+        unit.getWriter().print('!');
+        unit.getWriter().write(new char[]{'!'});
+        unit.getWriter().flush();
+
+        assertThat(unit.getBody().length, is(0));
+        assertThat(unit.getBodyAsString(), is(""));
+    }
+
+    @Test
+    void shouldDiscardBodyIfContentTypeWasReplacedBeforeBuffering() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+
+        when(mock.getContentType()).thenReturn("image/png");
+        unit.setContentType("image/png");
+        unit.withBody();
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+
+        assertThat(unit.getBody().length, is(0));
+        assertThat(unit.getBodyLength(), is(5L));
+    }
+
+    @Test
+    void shouldKeepBodyIfContentTypeIsNotReplaced() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+        unit.withBody();
+
+        when(mock.getContentType()).thenReturn("text/plain");
+        unit.setContentType("text/plain");
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello"));
+        assertThat(unit.isBodyTruncated(), is(false));
+    }
+
+    @Test
+    void shouldIgnoreReplacedContentTypeWithoutBody() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyReplacers.binary());
+
+        when(mock.getContentType()).thenReturn("image/png");
+        unit.setContentType("image/png");
+
+        assertThat(unit.getBody().length, is(0));
+    }
+
+    @Test
+    void shouldRecordWriterOutputAsCharacters() throws IOException {
+        final ByteArrayOutputStream client = new ByteArrayOutputStream();
+        when(mock.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener listener) {
+                // nothing to do here
+            }
+
+            @Override
+            public void write(final int b) {
+                client.write(b);
+            }
+        });
+
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.full(), $ -> null);
+        unit.withBody();
+
+        final PrintWriter writer = unit.getWriter();
+        writer.print("Hällo");
+        writer.print(',');
+        writer.write(" Wörld!".toCharArray());
+
+        assertThat(unit.getBodyAsString(), is("Hällo, Wörld!"));
+        assertThat(new String(unit.getBody(), UTF_8), is("Hällo, Wörld!"));
+
+        writer.close();
+        assertThat(new String(client.toByteArray(), UTF_8), is("Hällo, Wörld!"));
+    }
+
+    @Test
+    void shouldEncodeRecordedCharactersUsingResponseCharset() throws IOException {
+        when(mock.getCharacterEncoding()).thenReturn("ISO-8859-1");
+
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.full(), $ -> null);
+        unit.withBody();
+        unit.getWriter().print("Hällo");
+
+        assertThat(unit.getBody(), is("Hällo".getBytes(ISO_8859_1)));
+        assertThat(unit.getBodyAsString(), is("Hällo"));
+    }
+
+    @Test
+    void shouldRecordWriterOutputAsBytesIfBodyIsLimited() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.headAndTail(3, 0), $ -> null);
+        unit.withBody();
+        unit.getWriter().print("Hello");
+        unit.getWriter().flush();
+
+        assertThat(unit.getBodyAsString(), is("Hel ... [2 bytes omitted] ... "));
+    }
+
+    @Test
+    void shouldReturnEmptyBodyAsStringWithoutBody() {
+        assertThat(unit.getBodyAsString(), is(""));
+    }
+
     @Test
     void shouldTeeGetOutputStream() throws IOException {
         unit.withBody();
@@ -84,13 +260,15 @@ class LocalResponseTest {
     }
 
     @Test
-    void shouldDelegateGetOutputStream() throws IOException {
+    void shouldCountGetOutputStream() throws IOException {
         unit.withoutBody();
 
-        unit.getOutputStream();
-        unit.getOutputStream();
+        final ServletOutputStream os1 = unit.getOutputStream();
+        final ServletOutputStream os2 = unit.getOutputStream();
+
+        assertSame(os1, os2);
 
-        verify(mock, times(2)).getOutputStream();
+        verify(mock).getOutputStream();
         verifyNoMoreInteractions(mock);
     }
 
@@ -109,16 +287,90 @@ class LocalResponseTest {
     }
 
     @Test
-    void shouldDelegateGetWriter() throws IOException {
+    void shouldCountGetWriter() throws IOException {
         unit.withoutBody();
 
-        unit.getWriter();
+        final PrintWriter writer1 = unit.getWriter();
+        final PrintWriter writer2 = unit.getWriter();
+
+        assertSame(writer1, writer2);
+
+        verify(mock).getOutputStream();
+        verify(mock).getCharacterEncoding();
+        verifyNoMoreInteractions(mock);
+    }
+
+    @Test
+    void shouldCountBytesWithoutBody() throws IOException {
+        unit.withoutBody();
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+        unit.getOutputStream().write('!');
+
+        assertThat(unit.getBodyLength(), is(6L));
+        assertThat(unit.getBody().length, is(0));
+    }
+
+    @Test
+    void shouldCountEncodedCharactersWithoutBody() throws IOException {
+        unit.withoutBody();
+        unit.getWriter().print("Hällo");
+        unit.flushBuffer();
+
+        assertThat(unit.getBodyLength(), is(6L));
+        assertThat(unit.getBodyAsString(), is(""));
+        verify(mock).flushBuffer();
+    }
+
+    @Test
+    void shouldCountEncodedCharactersWithBody() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.full(), $ -> null);
+        unit.withBody();
+        unit.getWriter().print("Hällo");
+        unit.flushBuffer();
+
+        assertThat(unit.getBodyLength(), is(6L));
+        assertThat(unit.getBodyAsString(), is("Hällo"));
+    }
+
+    @Test
+    void shouldCountBytesBeyondCapturedBody() throws IOException {
+        final LocalResponse unit = new LocalResponse(mock, "1", BodyCapture.headAndTail(1, 1), $ -> null);
+        unit.withBody();
+        unit.getOutputStream().write("Hello, world!".getBytes(UTF_8));
+
+        assertThat(unit.getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldReportEmptyBodyLengthIfStreamWasNeverUsed() throws IOException {
+        unit.withoutBody();
+        unit.flushBuffer();
+
+        assertThat(unit.getBodyLength(), is(0L));
+    }
+
+    @Test
+    void shouldDelegateGetWriterIfNotTeed() throws IOException {
         unit.getWriter();
 
-        verify(mock, times(2)).getWriter();
+        verify(mock).getWriter();
         verifyNoMoreInteractions(mock);
     }
 
+    @Test
+    void shouldKeepBodyByDefaultIfContentTypeChanges() throws IOException {
+        unit.withBody();
+        unit.setContentType("image/png");
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello"));
+    }
+
+    @Test
+    void shouldReportUnknownBodyLengthIfNotTeed() {
+        assertThat(unit.getBodyLength(), is(-1L));
+    }
+
     @Test
     void shouldAllowWithBodyAfterWithoutBody() throws IOException {
         unit.withoutBody();
@@ -132,6 +384,16 @@ class LocalResponseTest {
         assertThat(unit.getContentType(), is(nullValue()));
     }
 
+    @Test
+    void shouldFlushAndCloseTeedOutputStream() throws IOException {
+        unit.withBody();
+        unit.getOutputStream().write("Hello".getBytes(UTF_8));
+        unit.getOutputStream().flush();
+        unit.getOutputStream().close();
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello"));
+    }
+
     @Test
     void shouldBeReady() throws IOException {
         unit.withBody();
@@ -1,6 +1,8 @@
 package org.zalando.logbook.servlet;
 
 import org.junit.jupiter.api.Test;
+import org.zalando.logbook.BodyReplacers;
+import org.zalando.logbook.Logbook;
 
 import javax.servlet.FilterConfig;
 
@@ -18,6 +20,11 @@ final class LogbookFilterTest {
         new SecureLogbookFilter();
     }
 
+    @Test
+    void shouldCreateSecureLogbookFilterWithResponseBodyReplacer() {
+        new SecureLogbookFilter(Logbook.create(), BodyReplacers.defaultValue());
+    }
+
     @Test
     void shouldCallInit() {
         new LogbookFilter().init(mock(FilterConfig.class));
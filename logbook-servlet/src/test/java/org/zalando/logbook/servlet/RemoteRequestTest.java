@@ -1,9 +1,16 @@
 package org.zalando.logbook.servlet;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.zalando.logbook.common.BodyCapture;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class RemoteRequestTest {
@@ -13,4 +20,84 @@ class RemoteRequestTest {
         assertThrows(UnsupportedEncodingException.class, () -> RemoteRequest.encode("", "FOO"));
     }
 
+    @Test
+    void shouldNotBufferBodyIfItIsNotNeeded() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("Hello, world!".getBytes(UTF_8));
+
+        final RemoteRequest unit = new RemoteRequest(request);
+        unit.withBody().withoutBody();
+
+        assertThat(unit.getBody().length, is(0));
+        assertThat(new String(ByteStreams.toByteArray(unit.getInputStream()), UTF_8), is("Hello, world!"));
+        assertThat(unit.getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldReuseCountingStream() throws IOException {
+        final RemoteRequest unit = new RemoteRequest(new MockHttpServletRequest());
+        unit.withoutBody();
+
+        assertThat(unit.getInputStream(), is(sameInstance(unit.getInputStream())));
+        assertThat(unit.getBodyLength(), is(0L));
+    }
+
+    @Test
+    void shouldFallBackToContentLengthIfBodyWasNotRead() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("Hello, world!".getBytes(UTF_8));
+
+        final RemoteRequest unit = new RemoteRequest(request);
+        unit.withoutBody();
+
+        assertThat(unit.getBodyLength(), is(13L));
+    }
+
+    @Test
+    void shouldBufferBodyWhenReadByApplication() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("Hello, world!".getBytes(UTF_8));
+
+        final RemoteRequest unit = new RemoteRequest(request);
+        unit.withBody();
+
+        assertThat(new String(ByteStreams.toByteArray(unit.getInputStream()), UTF_8), is("Hello, world!"));
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello, world!"));
+        assertThat(unit.isBodyTruncated(), is(false));
+    }
+
+    @Test
+    void shouldReconstructFormBodyIfParametersWereReadFirst() throws IOException {
+        System.setProperty("logbook.servlet.form-request", "body");
+
+        try {
+            final MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setContentType("application/x-www-form-urlencoded");
+            request.addParameter("hello", "Johnson & Johnson");
+
+            final RemoteRequest unit = new RemoteRequest(request);
+            unit.withBody();
+
+            assertThat(unit.getParameter("hello"), is("Johnson & Johnson"));
+            assertThat(new String(unit.getBody(), UTF_8), is("hello=Johnson+%26+Johnson"));
+        } finally {
+            System.clearProperty("logbook.servlet.form-request");
+        }
+    }
+
+    @Test
+    void shouldCaptureHeadAndTailOnlyButReplayFullBody() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("Hello, dear world!".getBytes(UTF_8));
+
+        final RemoteRequest unit = new RemoteRequest(request, BodyCapture.headAndTail(5, 6));
+        unit.withBody();
+
+        assertThat(new String(unit.getBody(), UTF_8), is("Hello ... [7 bytes omitted] ... world!"));
+        assertThat(unit.isBodyTruncated(), is(true));
+        assertThat(unit.getBodyLength(), is(18L));
+        assertThat(new String(ByteStreams.toByteArray(unit.getInputStream()), UTF_8), is("Hello, dear world!"));
+        assertThat(unit.withoutBody().isBodyTruncated(), is(false));
+    }
+
 }
@@ -3,6 +3,7 @@ package org.zalando.logbook.autoconfigure;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.client.HttpClient;
 import org.apiguardian.api.API;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -11,16 +12,20 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
 import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.Ordered;
 import org.springframework.security.web.SecurityFilterChain;
 import org.zalando.logbook.BodyFilter;
 import org.zalando.logbook.BodyOnlyIfStatusAtLeastStrategy;
+import org.zalando.logbook.BodyReplacer;
+import org.zalando.logbook.BodyReplacers;
 import org.zalando.logbook.ChunkingSink;
 import org.zalando.logbook.Conditions;
 import org.zalando.logbook.CurlHttpLogFormatter;
@@ -28,18 +33,24 @@ import org.zalando.logbook.DefaultHttpLogFormatter;
 import org.zalando.logbook.DefaultHttpLogWriter;
 import org.zalando.logbook.DefaultSink;
 import org.zalando.logbook.DefaultStrategy;
+import org.zalando.logbook.ExchangeSink;
+import org.zalando.logbook.FileHttpLogWriter;
 import org.zalando.logbook.HeaderFilter;
 import org.zalando.logbook.HeaderFilters;
 import org.zalando.logbook.HttpLogFormatter;
 import org.zalando.logbook.HttpLogWriter;
 import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Logbook;
+import org.zalando.logbook.LogfmtHttpLogFormatter;
 import org.zalando.logbook.PathFilter;
 import org.zalando.logbook.PathFilters;
 import org.zalando.logbook.QueryFilter;
 import org.zalando.logbook.QueryFilters;
 import org.zalando.logbook.RequestFilter;
 import org.zalando.logbook.ResponseFilter;
+import org.zalando.logbook.ResponseFilters;
+import org.zalando.logbook.RoutingSink;
 import org.zalando.logbook.Sink;
 import org.zalando.logbook.SplunkHttpLogFormatter;
 import org.zalando.logbook.StatusAtLeastStrategy;
@@ -52,9 +63,12 @@ import org.zalando.logbook.servlet.LogbookFilter;
 import org.zalando.logbook.servlet.SecureLogbookFilter;
 
 import javax.servlet.Filter;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.function.Predicate;
 
+import static java.util.stream.Collectors.toList;
 import static javax.servlet.DispatcherType.ASYNC;
 import static javax.servlet.DispatcherType.REQUEST;
 import static org.apiguardian.api.API.Status.INTERNAL;
@@ -91,6 +105,7 @@ public class LogbookAutoConfiguration {
             final List<BodyFilter> bodyFilters,
             final List<RequestFilter> requestFilters,
             final List<ResponseFilter> responseFilters,
+            final BodyReplacer<HttpResponse> responseBodyReplacer,
             final Strategy strategy,
             final Sink sink) {
 
@@ -101,6 +116,7 @@ public class LogbookAutoConfiguration {
                 .pathFilters(pathFilters)
                 .bodyFilters(bodyFilters)
                 .requestFilters(requestFilters)
+                .responseFilter(ResponseFilters.replaceBody(responseBodyReplacer))
                 .responseFilters(responseFilters)
                 .strategy(strategy)
                 .sink(sink)
@@ -196,6 +212,13 @@ public class LogbookAutoConfiguration {
         return ResponseFilter.none();
     }
 
+    @API(status = INTERNAL)
+    @Bean
+    @ConditionalOnMissingBean(BodyReplacer.class)
+    public BodyReplacer<HttpResponse> responseBodyReplacer() {
+        return BodyReplacers.defaultValue();
+    }
+
     @API(status = INTERNAL)
     @Bean
     @ConditionalOnMissingBean(Strategy.class)
@@ -234,7 +257,9 @@ public class LogbookAutoConfiguration {
     public Sink sink(
             @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection") final HttpLogFormatter formatter,
             final HttpLogWriter writer) {
-        return new DefaultSink(formatter, writer);
+        return properties.getWrite().isExchange() ?
+                new ExchangeSink(formatter, writer) :
+                new DefaultSink(formatter, writer);
     }
 
     @API(status = INTERNAL)
@@ -242,10 +267,50 @@ public class LogbookAutoConfiguration {
     @Primary
     @ConditionalOnBean(Sink.class)
     @ConditionalOnProperty("logbook.write.chunk-size")
+    @Conditional(WithoutRoutes.class)
     public Sink chunkingSink(final Sink sink) {
         return new ChunkingSink(sink, properties.getWrite().getChunkSize());
     }
 
+    /**
+     * Routes take precedence over chunking, which then applies to the sinks that routes refer to instead.
+     */
+    static final class WithoutRoutes extends NoneNestedConditions {
+
+        WithoutRoutes() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty("logbook.routes[0].sinks[0]")
+        interface Routes {
+        }
+
+    }
+
+    @API(status = INTERNAL)
+    @Bean
+    @Primary
+    @ConditionalOnProperty("logbook.routes[0].sinks[0]")
+    public Sink routingSink(final BeanFactory beanFactory) {
+        final int chunkSize = properties.getWrite().getChunkSize();
+
+        return new RoutingSink(properties.getRoutes().stream()
+                .map(route -> RoutingSink.Route.all()
+                        .withMinStatus(route.getMinStatus())
+                        .withMaxStatus(route.getMaxStatus())
+                        .withMethods(route.getMethods())
+                        .withPath(route.getPath())
+                        .withMinDuration(route.getMinDuration())
+                        .withOrigin(route.getOrigin())
+                        .withHeaders(route.getHeaders())
+                        .withSample(route.getSample())
+                        .withSinks(route.getSinks().stream()
+                                .map(name -> beanFactory.getBean(name, Sink.class))
+                                .map(sink -> chunkSize > 0 ? new ChunkingSink(sink, chunkSize) : sink)
+                                .collect(toList())))
+                .collect(toList()));
+    }
+
     @API(status = INTERNAL)
     @Bean
     @ConditionalOnMissingBean(HttpLogFormatter.class)
@@ -270,6 +335,14 @@ public class LogbookAutoConfiguration {
         return new SplunkHttpLogFormatter();
     }
 
+    @API(status = INTERNAL)
+    @Bean
+    @ConditionalOnMissingBean(HttpLogFormatter.class)
+    @ConditionalOnProperty(name = "logbook.format.style", havingValue = "logfmt")
+    public HttpLogFormatter logfmtHttpLogFormatter() {
+        return new LogfmtHttpLogFormatter();
+    }
+
     @API(status = INTERNAL)
     @Bean
     @ConditionalOnBean(ObjectMapper.class)
@@ -279,6 +352,16 @@ public class LogbookAutoConfiguration {
         return new JsonHttpLogFormatter(mapper);
     }
 
+    @API(status = INTERNAL)
+    @Bean
+    @ConditionalOnMissingBean(HttpLogWriter.class)
+    @ConditionalOnProperty("logbook.write.file.path")
+    public HttpLogWriter fileWriter() throws IOException {
+        final LogbookProperties.File file = properties.getWrite().getFile();
+        return new FileHttpLogWriter(Paths.get(file.getPath()), file.getMaxSize(), file.getRollInterval(),
+                file.isCompress());
+    }
+
     @API(status = INTERNAL)
     @Bean
     @ConditionalOnMissingBean(HttpLogWriter.class)
@@ -318,8 +401,10 @@ public class LogbookAutoConfiguration {
         @Bean
         @ConditionalOnProperty(name = "logbook.filter.enabled", havingValue = "true", matchIfMissing = true)
         @ConditionalOnMissingBean(name = FILTER_NAME)
-        public FilterRegistrationBean logbookFilter(final Logbook logbook) {
-            return newFilter(new LogbookFilter(logbook), FILTER_NAME, Ordered.LOWEST_PRECEDENCE);
+        public FilterRegistrationBean logbookFilter(final Logbook logbook,
+                final BodyReplacer<HttpResponse> responseBodyReplacer) {
+            final Filter filter = new LogbookFilter(logbook, null, responseBodyReplacer);
+            return newFilter(filter, FILTER_NAME, Ordered.LOWEST_PRECEDENCE);
         }
 
     }
@@ -338,8 +423,10 @@ public class LogbookAutoConfiguration {
         @Bean
         @ConditionalOnProperty(name = "logbook.secure-filter.enabled", havingValue = "true", matchIfMissing = true)
         @ConditionalOnMissingBean(name = FILTER_NAME)
-        public FilterRegistrationBean secureLogbookFilter(final Logbook logbook) {
-            return newFilter(new SecureLogbookFilter(logbook), FILTER_NAME, Ordered.HIGHEST_PRECEDENCE + 1);
+        public FilterRegistrationBean secureLogbookFilter(final Logbook logbook,
+                final BodyReplacer<HttpResponse> responseBodyReplacer) {
+            final Filter filter = new SecureLogbookFilter(logbook, responseBodyReplacer);
+            return newFilter(filter, FILTER_NAME, Ordered.HIGHEST_PRECEDENCE + 1);
         }
 
     }
@@ -4,9 +4,14 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apiguardian.api.API;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.zalando.logbook.Origin;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
@@ -19,6 +24,7 @@ public final class LogbookProperties {
     private final List<String> exclude = new ArrayList<>();
     private final Obfuscate obfuscate = new Obfuscate();
     private final Write write = new Write();
+    private final List<Route> routes = new ArrayList<>();
 
     @Getter
     public static class Obfuscate {
@@ -32,6 +38,36 @@ public final class LogbookProperties {
     public static class Write {
         private int chunkSize;
         private int maxBodySize = -1;
+        private boolean exchange;
+        private final File file = new File();
+    }
+
+    @Getter
+    @Setter
+    public static class File {
+        @Nullable
+        private String path;
+        private long maxSize = -1;
+        @Nullable
+        private Duration rollInterval;
+        private boolean compress;
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private int minStatus;
+        private int maxStatus = Integer.MAX_VALUE;
+        private final List<String> methods = new ArrayList<>();
+        @Nullable
+        private String path;
+        @Nullable
+        private Duration minDuration;
+        @Nullable
+        private Origin origin;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private double sample = 1;
+        private final List<String> sinks = new ArrayList<>();
     }
 
 }
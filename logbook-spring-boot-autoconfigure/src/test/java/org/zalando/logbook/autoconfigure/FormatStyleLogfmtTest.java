@@ -0,0 +1,46 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.MockHttpRequest;
+import org.zalando.logbook.Precorrelation;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.stringContainsInOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.hamcrest.MockitoHamcrest.argThat;
+
+@LogbookTest(properties = "logbook.format.style = logfmt")
+class FormatStyleLogfmtTest {
+
+    @Autowired
+    private Logbook logbook;
+
+    @MockBean
+    private HttpLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(true).when(writer).isActive();
+    }
+
+    @Test
+    void shouldUseLogfmtFormatter() throws IOException {
+        logbook.process(MockHttpRequest.create().withBodyAsString("Hello, world!")).write();
+
+        verify(writer).write(any(Precorrelation.class), argThat(stringContainsInOrder(
+                "protocol=HTTP/1.1",
+                "method=GET",
+                "uri=http://localhost/",
+                "body=\"Hello, world!\""
+        )));
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.logbook.BodyReplacer;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.HttpResponse;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@LogbookTest
+class ResponseBodyReplacerTest {
+
+    @Autowired
+    @Qualifier("logbookFilter")
+    private FilterRegistrationBean logbookFilter;
+
+    @Autowired
+    @Qualifier("secureLogbookFilter")
+    private FilterRegistrationBean secureLogbookFilter;
+
+    @MockBean
+    private HttpLogWriter writer;
+
+    @MockBean
+    private BodyReplacer<HttpResponse> replacer;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(true).when(writer).isActive();
+    }
+
+    @Test
+    void shouldPassResponseBodyReplacerToLogbookFilter() throws IOException, ServletException {
+        shouldConsultReplacerOnceContentTypeIsKnown(logbookFilter);
+    }
+
+    @Test
+    void shouldPassResponseBodyReplacerToSecureLogbookFilter() throws IOException, ServletException {
+        shouldConsultReplacerOnceContentTypeIsKnown(secureLogbookFilter);
+    }
+
+    private void shouldConsultReplacerOnceContentTypeIsKnown(final FilterRegistrationBean registration)
+            throws IOException, ServletException {
+
+        final Filter filter = registration.getFilter();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+            response.setContentType("image/png");
+            // still within the chain, i.e. before logbook itself replaced anything
+            verify(replacer, atLeastOnce()).replace(any());
+        });
+    }
+
+}
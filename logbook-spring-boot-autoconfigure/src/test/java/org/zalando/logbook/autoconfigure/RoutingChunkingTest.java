@@ -0,0 +1,76 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.MockHttpRequest;
+import org.zalando.logbook.MockHttpResponse;
+import org.zalando.logbook.RoutingSink;
+import org.zalando.logbook.Sink;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@LogbookTest(profiles = "routing", properties = "logbook.write.chunk-size = 5")
+class RoutingChunkingTest {
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public Sink errors() {
+            return sink();
+        }
+
+        @Bean
+        public Sink everything() {
+            return sink();
+        }
+
+        private static Sink sink() {
+            final Sink sink = mock(Sink.class);
+            when(sink.isActive()).thenReturn(true);
+            return sink;
+        }
+
+    }
+
+    @Autowired
+    private Sink sink;
+
+    @Autowired
+    @Qualifier("everything")
+    private Sink everything;
+
+    @Test
+    void shouldChunkMessagesOfRoutedSinks() throws IOException {
+        assertThat(sink, is(instanceOf(RoutingSink.class)));
+
+        final Correlation correlation = mock(Correlation.class);
+        when(correlation.getDuration()).thenReturn(Duration.ofMillis(125));
+
+        final HttpRequest request = MockHttpRequest.create().withBodyAsString("HelloWorld");
+        final HttpResponse response = MockHttpResponse.create().withBodyAsString("0123456789");
+
+        sink.write(correlation, request, response);
+
+        verify(everything, times(2)).write(eq(correlation), any(HttpRequest.class));
+        verify(everything, times(2)).write(eq(correlation), any(HttpRequest.class), any(HttpResponse.class));
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.MockHeaders;
+import org.zalando.logbook.MockHttpRequest;
+import org.zalando.logbook.MockHttpResponse;
+import org.zalando.logbook.RoutingSink;
+import org.zalando.logbook.Sink;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@LogbookTest(profiles = "routing", imports = RoutingTest.Config.class)
+class RoutingTest {
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public Sink errors() {
+            return sink();
+        }
+
+        @Bean
+        public Sink everything() {
+            return sink();
+        }
+
+        private static Sink sink() {
+            final Sink sink = mock(Sink.class);
+            when(sink.isActive()).thenReturn(true);
+            return sink;
+        }
+
+    }
+
+    @Autowired
+    private Sink sink;
+
+    @Autowired
+    @Qualifier("errors")
+    private Sink errors;
+
+    @Autowired
+    @Qualifier("everything")
+    private Sink everything;
+
+    @Test
+    void shouldRouteByProperties() throws IOException {
+        assertThat(sink, is(instanceOf(RoutingSink.class)));
+
+        final Correlation correlation = mock(Correlation.class);
+        when(correlation.getDuration()).thenReturn(Duration.ofMillis(125));
+
+        final HttpRequest request = MockHttpRequest.create()
+                .withPath("/orders/123")
+                .withHeaders(MockHeaders.of("Accept", "application/json"));
+        final HttpResponse response = MockHttpResponse.create().withStatus(503);
+
+        sink.write(correlation, request, response);
+
+        verify(errors).writeBoth(correlation, request, response);
+        verify(everything).writeBoth(correlation, request, response);
+    }
+
+}
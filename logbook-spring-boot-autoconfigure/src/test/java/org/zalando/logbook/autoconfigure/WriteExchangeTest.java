@@ -0,0 +1,23 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.zalando.logbook.ExchangeSink;
+import org.zalando.logbook.Sink;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@LogbookTest(properties = "logbook.write.exchange = true")
+class WriteExchangeTest {
+
+    @Autowired
+    private Sink sink;
+
+    @Test
+    void shouldUseExchangeSink() {
+        assertThat(sink, is(instanceOf(ExchangeSink.class)));
+    }
+
+}
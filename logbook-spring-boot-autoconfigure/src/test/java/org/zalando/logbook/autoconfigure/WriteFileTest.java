@@ -0,0 +1,28 @@
+package org.zalando.logbook.autoconfigure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.zalando.logbook.FileHttpLogWriter;
+import org.zalando.logbook.HttpLogWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@LogbookTest(properties = {
+        "logbook.write.file.path = target/logbook/http.log",
+        "logbook.write.file.max-size = 1048576",
+        "logbook.write.file.roll-interval = 1h",
+        "logbook.write.file.compress = true"
+})
+class WriteFileTest {
+
+    @Autowired
+    private HttpLogWriter writer;
+
+    @Test
+    void shouldUseFileWriter() {
+        assertThat(writer, is(instanceOf(FileHttpLogWriter.class)));
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.zalando.logbook;
+
+import org.apiguardian.api.API;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Restores bodies that were logged as {@code gzip+base64}, e.g. to inspect them while debugging.
+ */
+@API(status = EXPERIMENTAL)
+public final class CompressedBodies {
+
+    CompressedBodies() {
+        // package private so we can trick code coverage
+    }
+
+    public static byte[] decode(final String encoded) throws IOException {
+        final byte[] compressed = Base64.getMimeDecoder().decode(encoded);
+
+        try (final InputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+            final byte[] buffer = new byte[8192];
+
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+
+            return output.toByteArray();
+        }
+    }
+
+    public static String decode(final String encoded, final Charset charset) throws IOException {
+        return new String(decode(encoded), charset);
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.zalando.logbook;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class CompressedBodiesTest {
+
+    @Test
+    void shouldDecodeCompressedBody() throws IOException {
+        final String body = "{\"name\":\"Alice\"}";
+
+        assertThat(CompressedBodies.decode(encode(body), UTF_8), is(body));
+    }
+
+    @Test
+    void shouldIgnoreLineBreaks() throws IOException {
+        final String encoded = encode("Hello, world!");
+        final String wrapped = encoded.substring(0, 10) + "\n" + encoded.substring(10);
+
+        assertThat(CompressedBodies.decode(wrapped, UTF_8), is("Hello, world!"));
+    }
+
+    @Test
+    void shouldRejectUncompressedBody() {
+        final String encoded = Base64.getEncoder().encodeToString("Hello, world!".getBytes(UTF_8));
+
+        assertThrows(ZipException.class, () -> CompressedBodies.decode(encoded));
+    }
+
+    @Test
+    void satisfyCoverage() {
+        new CompressedBodies();
+    }
+
+    private static String encode(final String body) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (final GZIPOutputStream stream = new GZIPOutputStream(output)) {
+            stream.write(body.getBytes(UTF_8));
+        }
+
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+}